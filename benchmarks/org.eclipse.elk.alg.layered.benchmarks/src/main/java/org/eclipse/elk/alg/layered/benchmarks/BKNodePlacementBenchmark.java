@@ -0,0 +1,34 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Kiel University and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.elk.alg.layered.benchmarks;
+
+import org.eclipse.elk.alg.layered.graph.LGraph;
+import org.eclipse.elk.alg.layered.options.NodePlacementStrategy;
+import org.eclipse.elk.alg.layered.options.LayeredOptions;
+import org.eclipse.elk.alg.layered.p4nodes.bk.BKNodePlacer;
+import org.eclipse.elk.core.alg.ILayoutProcessor;
+import org.eclipse.elk.graph.ElkNode;
+
+/**
+ * Measures the Brandes and Koepf node placer.
+ */
+public class BKNodePlacementBenchmark extends LayeredPhaseBenchmark {
+
+    @Override
+    protected Class<? extends ILayoutProcessor<LGraph>> processor() {
+        return BKNodePlacer.class;
+    }
+
+    @Override
+    protected void configure(final ElkNode elkGraph) {
+        elkGraph.setProperty(LayeredOptions.NODE_PLACEMENT_STRATEGY, NodePlacementStrategy.BRANDES_KOEPF);
+    }
+
+}
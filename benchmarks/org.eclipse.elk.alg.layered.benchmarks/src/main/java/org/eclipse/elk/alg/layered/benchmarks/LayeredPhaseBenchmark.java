@@ -0,0 +1,149 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Kiel University and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.elk.alg.layered.benchmarks;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.elk.alg.layered.ElkLayered;
+import org.eclipse.elk.alg.layered.ElkLayered.TestExecutionState;
+import org.eclipse.elk.alg.layered.graph.LGraph;
+import org.eclipse.elk.alg.layered.graph.transform.ElkGraphTransformer;
+import org.eclipse.elk.alg.layered.options.LayeredMetaDataProvider;
+import org.eclipse.elk.alg.layered.options.LayeredOptions;
+import org.eclipse.elk.core.alg.ILayoutProcessor;
+import org.eclipse.elk.core.data.LayoutMetaDataService;
+import org.eclipse.elk.core.debug.grandom.generators.GeneratorOptions;
+import org.eclipse.elk.core.debug.grandom.generators.GeneratorOptions.EdgeDetermination;
+import org.eclipse.elk.core.debug.grandom.generators.GeneratorOptions.RandVal;
+import org.eclipse.elk.core.debug.grandom.generators.RandomGraphGenerator;
+import org.eclipse.elk.graph.ElkNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Base class of benchmarks that measure a single phase or processor of ELK Layered. Input graphs are produced by the
+ * {@link RandomGraphGenerator} with a fixed seed, so every run and every fork measures the same graphs. Before each
+ * invocation, a fresh copy of the graph is imported and the algorithm is run up to the measured processor, which is
+ * then the only thing executed during the invocation.
+ *
+ * <p>Subclasses only name the measured processor and may configure the graph such that the processor is part of the
+ * algorithm. The benchmarks are best run with JMH's GC profiler to also record allocation rates:</p>
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar -prof gc
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+// The network simplex implementations search the graph recursively and need a larger stack for large graphs
+@Fork(value = 1, jvmArgsAppend = "-Xss16m")
+public abstract class LayeredPhaseBenchmark {
+
+    /** the seed used to generate the input graphs. */
+    private static final long SEED = 0x5EED;
+
+    static {
+        // Register the layout options, whose defaults the algorithm relies on
+        LayoutMetaDataService.getInstance().registerLayoutMetaDataProviders(new LayeredMetaDataProvider());
+    }
+
+    /** the number of nodes of the input graph. */
+    @Param({ "100", "500", "1000" })
+    private int nodes;
+
+    /** the number of edges per node of the input graph. */
+    @Param({ "1.5", "3" })
+    private double edgesPerNode;
+
+    /** whether the nodes of the input graph have ports. */
+    @Param({ "false", "true" })
+    private boolean ports;
+
+    /** the generated input graph, which remains untouched by the benchmark. */
+    private ElkNode graph;
+    /** the layout algorithm. */
+    private final ElkLayered elkLayered = new ElkLayered();
+    /** the state of the layout run the measured processor is executed in. */
+    private TestExecutionState state;
+
+    /**
+     * Generates the input graph.
+     */
+    @Setup(Level.Trial)
+    public void generateGraph() {
+        GeneratorOptions options = new GeneratorOptions();
+        options.setProperty(GeneratorOptions.NUMBER_OF_NODES, RandVal.exact(nodes));
+        options.setProperty(GeneratorOptions.EDGE_DETERMINATION, EdgeDetermination.RELATIVE);
+        options.setProperty(GeneratorOptions.RELATIVE_EDGES, RandVal.exact(edgesPerNode));
+        options.setProperty(GeneratorOptions.ENABLE_PORTS, ports);
+        options.setProperty(GeneratorOptions.SET_NODE_SIZE, true);
+        options.setProperty(GeneratorOptions.NODE_WIDTH, RandVal.minMax(20, 60));
+        options.setProperty(GeneratorOptions.NODE_HEIGHT, RandVal.minMax(20, 40));
+
+        graph = new RandomGraphGenerator(new Random(SEED)).generate(options);
+
+        // Measure the phase on the graph as a whole instead of on many small components
+        graph.setProperty(LayeredOptions.SEPARATE_CONNECTED_COMPONENTS, false);
+        configure(graph);
+    }
+
+    /**
+     * Imports the input graph and runs the algorithm up to the measured processor.
+     */
+    @Setup(Level.Invocation)
+    public void prepareLayout() {
+        LGraph lgraph = new ElkGraphTransformer().importGraph(graph);
+        state = elkLayered.prepareLayoutTest(lgraph);
+        elkLayered.runLayoutTestUntil(processor(), false, state);
+    }
+
+    /**
+     * Executes the measured processor.
+     *
+     * @return the graphs laid out, to keep the JIT from eliminating the work
+     */
+    @Benchmark
+    public List<LGraph> runProcessor() {
+        elkLayered.runLayoutTestStep(state);
+        return state.getGraphs();
+    }
+
+    /**
+     * Returns the processor measured by this benchmark.
+     *
+     * @return the class of the measured phase or processor
+     */
+    protected abstract Class<? extends ILayoutProcessor<LGraph>> processor();
+
+    /**
+     * Configures the generated graph such that the algorithm includes the measured processor. The default
+     * configuration does nothing.
+     *
+     * @param elkGraph the generated graph
+     */
+    protected void configure(final ElkNode elkGraph) {
+    }
+
+}
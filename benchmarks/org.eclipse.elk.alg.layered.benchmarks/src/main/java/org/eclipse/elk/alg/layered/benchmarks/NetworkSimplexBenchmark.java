@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Kiel University and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.elk.alg.layered.benchmarks;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.elk.alg.common.networksimplex.NEdge;
+import org.eclipse.elk.alg.common.networksimplex.NGraph;
+import org.eclipse.elk.alg.common.networksimplex.NNode;
+import org.eclipse.elk.alg.common.networksimplex.NetworkSimplex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the {@link NetworkSimplex} on its own, independent of how ELK Layered builds its auxiliary graphs. The
+ * input graphs are random acyclic graphs with a fixed seed whose edges have random weights and minimum lengths, just
+ * like the graphs the layerer and the node placer produce. One instance is reused for all invocations, which is what
+ * the layerer does for the connected components of a graph.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NetworkSimplexBenchmark {
+
+    /** the seed used to generate the input graphs. */
+    private static final long SEED = 0x5EED;
+
+    /** the number of nodes of the input graph. */
+    @Param({ "1000", "5000", "20000" })
+    private int nodes;
+
+    /** the number of edges per node of the input graph. */
+    @Param({ "1.5", "3" })
+    private double edgesPerNode;
+
+    /** the graph the network simplex is executed on. */
+    private NGraph graph;
+    /** the network simplex instance, which is reused for all invocations. */
+    private NetworkSimplex networkSimplex;
+
+    /**
+     * Generates a fresh copy of the input graph, since the network simplex reorders the graph's nodes.
+     */
+    @Setup(Level.Invocation)
+    public void generateGraph() {
+        graph = createGraph(nodes, edgesPerNode);
+        networkSimplex = networkSimplex == null ? NetworkSimplex.forGraph(graph) : networkSimplex.reuseFor(graph);
+    }
+
+    /**
+     * Creates a random connected acyclic graph from a fixed seed, so that each call with the same arguments yields the
+     * same graph.
+     *
+     * @param nodeCount the number of nodes
+     * @param edgeFactor the number of edges per node, not counting the edges that make the graph connected
+     * @return the new graph
+     */
+    static NGraph createGraph(final int nodeCount, final double edgeFactor) {
+        Random random = new Random(SEED);
+        NGraph randomGraph = new NGraph();
+
+        for (int i = 0; i < nodeCount; i++) {
+            NNode.of().id(i).create(randomGraph);
+        }
+
+        // edges always point to nodes with higher ids, which keeps the graph acyclic
+        int edges = (int) (nodeCount * edgeFactor);
+        for (int i = 0; i < edges; i++) {
+            int source = random.nextInt(nodeCount - 1);
+            int target = source + 1 + random.nextInt(Math.min(nodeCount - source - 1, 50));
+            NEdge.of()
+                .delta(random.nextInt(3))
+                .weight(1 + random.nextInt(8))
+                .source(randomGraph.nodes.get(source))
+                .target(randomGraph.nodes.get(target))
+                .create();
+        }
+        randomGraph.makeConnected();
+        return randomGraph;
+    }
+
+    /**
+     * Executes the network simplex.
+     *
+     * @return the nodes with their computed layers, to keep the JIT from eliminating the work
+     */
+    @Benchmark
+    public List<NNode> runNetworkSimplex() {
+        networkSimplex.execute();
+        return graph.nodes;
+    }
+
+}
@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Kiel University and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.elk.alg.layered.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.elk.alg.common.networksimplex.NGraph;
+import org.eclipse.elk.alg.common.networksimplex.NNode;
+import org.eclipse.elk.alg.common.networksimplex.NetworkSimplex;
+import org.eclipse.elk.alg.common.networksimplex.PreviousNetworkSimplex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the {@link NetworkSimplex} to the {@link PreviousNetworkSimplex} it replaced on the input graphs of the
+ * {@link NetworkSimplexBenchmark}. The graphs are smaller than there, since the previous implementation takes minutes
+ * per invocation on a graph with 20000 nodes. Like the layerer, the current implementation reuses one instance for
+ * all invocations, while the previous implementation needs a new instance for each graph.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NetworkSimplexComparisonBenchmark {
+
+    /** The network simplex implementations to compare. */
+    public enum Implementation {
+        /** {@link PreviousNetworkSimplex}. */
+        PREVIOUS,
+        /** {@link NetworkSimplex}. */
+        INCREMENTAL;
+    }
+
+    /** the number of nodes of the input graph. */
+    @Param({ "1000", "5000" })
+    private int nodes;
+
+    /** the number of edges per node of the input graph. */
+    @Param({ "1.5", "3" })
+    private double edgesPerNode;
+
+    /** the measured implementation. */
+    @Param({ "PREVIOUS", "INCREMENTAL" })
+    private Implementation implementation;
+
+    /** the graph the network simplex is executed on. */
+    private NGraph graph;
+    /** the network simplex instance, which is reused for all invocations. */
+    private NetworkSimplex networkSimplex;
+    /** the instance of the previous implementation for the current graph. */
+    private PreviousNetworkSimplex previousNetworkSimplex;
+
+    /**
+     * Generates a fresh copy of the input graph, since the network simplex reorders the graph's nodes.
+     */
+    @Setup(Level.Invocation)
+    public void generateGraph() {
+        graph = NetworkSimplexBenchmark.createGraph(nodes, edgesPerNode);
+        if (implementation == Implementation.PREVIOUS) {
+            previousNetworkSimplex = PreviousNetworkSimplex.forGraph(graph);
+        } else {
+            networkSimplex = networkSimplex == null ? NetworkSimplex.forGraph(graph) : networkSimplex.reuseFor(graph);
+        }
+    }
+
+    /**
+     * Executes the network simplex of the measured implementation.
+     *
+     * @return the nodes with their computed layers, to keep the JIT from eliminating the work
+     */
+    @Benchmark
+    public List<NNode> runNetworkSimplex() {
+        if (implementation == Implementation.PREVIOUS) {
+            previousNetworkSimplex.execute();
+        } else {
+            networkSimplex.execute();
+        }
+        return graph.nodes;
+    }
+
+}
@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Kiel University and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.elk.alg.spore.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.elk.alg.spore.OverlapRemovalLayoutProvider;
+import org.eclipse.elk.alg.spore.options.SporeMetaDataProvider;
+import org.eclipse.elk.core.data.LayoutMetaDataService;
+import org.eclipse.elk.core.util.BasicProgressMonitor;
+import org.eclipse.elk.graph.ElkNode;
+import org.eclipse.elk.graph.util.ElkGraphUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a complete run of SPOrE overlap removal, which triangulates the nodes and grows a spanning tree of the
+ * triangulation until no overlaps remain. The input graphs consist of randomly sized nodes at random positions with a
+ * fixed seed, crammed into an area such that many of them overlap.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+// The spanning trees are traversed recursively and need a larger stack for large graphs
+@Fork(value = 1, jvmArgsAppend = "-Xss16m")
+public class OverlapRemovalBenchmark {
+
+    /** the seed used to generate the input graphs. */
+    private static final long SEED = 0x5EED;
+
+    static {
+        // Register the layout options, whose defaults the algorithm relies on
+        LayoutMetaDataService.getInstance().registerLayoutMetaDataProviders(new SporeMetaDataProvider());
+    }
+
+    /** the number of nodes of the input graph. */
+    @Param({ "1000", "10000" })
+    private int nodes;
+
+    /** the graph to remove overlaps from. */
+    private ElkNode graph;
+
+    /**
+     * Generates a fresh copy of the input graph, since overlap removal moves the nodes.
+     */
+    @Setup(Level.Invocation)
+    public void generateGraph() {
+        Random random = new Random(SEED);
+        double extent = Math.sqrt(nodes) * 30;
+
+        graph = ElkGraphUtil.createGraph();
+        for (int i = 0; i < nodes; i++) {
+            ElkNode node = ElkGraphUtil.createNode(graph);
+            node.setDimensions(20 + random.nextInt(30), 20 + random.nextInt(30));
+            node.setLocation(random.nextDouble() * extent, random.nextDouble() * extent);
+        }
+    }
+
+    /**
+     * Removes the overlaps.
+     *
+     * @return the graph, to keep the JIT from eliminating the work
+     */
+    @Benchmark
+    public ElkNode removeOverlaps() {
+        new OverlapRemovalLayoutProvider().layout(graph, new BasicProgressMonitor());
+        return graph;
+    }
+
+}
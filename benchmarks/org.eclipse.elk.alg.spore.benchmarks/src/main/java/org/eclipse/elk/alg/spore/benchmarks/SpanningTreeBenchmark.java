@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Kiel University and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.elk.alg.spore.benchmarks;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.elk.alg.common.DelaunayTriangulation;
+import org.eclipse.elk.alg.common.ICostFunction;
+import org.eclipse.elk.alg.common.NaiveMinST;
+import org.eclipse.elk.alg.common.PrimMinST;
+import org.eclipse.elk.alg.common.TEdge;
+import org.eclipse.elk.alg.common.Tree;
+import org.eclipse.elk.core.math.KVector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Compares the {@link NaiveMinST} to the {@link PrimMinST} on the input SPOrE builds its spanning trees from: the
+ * Delaunay triangulation of the nodes' centers, with the distance between two centers as the cost of an edge. The
+ * centers are random points with a fixed seed, spread over an area that leaves room for nodes of a typical size.
+ *
+ * <p>The naive implementation takes several seconds per invocation for these graph sizes. Passing
+ * {@code -p implementation=PRIM} only measures the heap-based implementation.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpanningTreeBenchmark {
+
+    /** The spanning tree implementations to compare. */
+    public enum Implementation {
+        /** {@link NaiveMinST}. */
+        NAIVE,
+        /** {@link PrimMinST}. */
+        PRIM;
+    }
+
+    /** the seed used to generate the input points. */
+    private static final long SEED = 0x5EED;
+    /** the cost function SPOrE uses by default. */
+    private static final ICostFunction CENTER_DISTANCE = e -> e.u.distance(e.v);
+
+    /** the number of points, which is the number of nodes of a SPOrE run. */
+    @Param({ "10000", "20000" })
+    private int nodes;
+
+    /** the measured implementation. */
+    @Param({ "NAIVE", "PRIM" })
+    private Implementation implementation;
+
+    /** the edges of the triangulation. */
+    private Set<TEdge> edges;
+    /** the root of the spanning tree. */
+    private KVector root;
+
+    /**
+     * Generates the points and triangulates them.
+     */
+    @Setup(Level.Trial)
+    public void generateGraph() {
+        Random random = new Random(SEED);
+        double extent = Math.sqrt(nodes) * 30;
+
+        List<KVector> points = Lists.newArrayListWithCapacity(nodes);
+        for (int i = 0; i < nodes; i++) {
+            points.add(new KVector(random.nextDouble() * extent, random.nextDouble() * extent));
+        }
+
+        edges = DelaunayTriangulation.triangulate(points);
+        root = points.get(0);
+    }
+
+    /**
+     * Creates the spanning tree.
+     *
+     * @return the spanning tree, to keep the JIT from eliminating the work
+     */
+    @Benchmark
+    public Tree<KVector> createSpanningTree() {
+        switch (implementation) {
+        case NAIVE:
+            return NaiveMinST.createSpanningTree(edges, root, CENTER_DISTANCE);
+        default:
+            return PrimMinST.createSpanningTree(edges, root, CENTER_DISTANCE);
+        }
+    }
+
+}
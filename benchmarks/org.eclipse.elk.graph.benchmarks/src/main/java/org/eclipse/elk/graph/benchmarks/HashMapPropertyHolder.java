@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Kiel University and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.elk.graph.benchmarks;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.elk.graph.properties.IProperty;
+import org.eclipse.elk.graph.properties.IPropertyHolder;
+import org.eclipse.elk.graph.properties.IPropertyValueProxy;
+import org.eclipse.elk.graph.properties.MapPropertyHolder;
+
+/**
+ * The implementation of {@link MapPropertyHolder} before its properties were stored in arrays indexed by ordinals.
+ * Each holder allocates a hash map on first use and every lookup hashes the property's identifier.
+ */
+public class HashMapPropertyHolder implements IPropertyHolder {
+
+    /** map of property identifiers to their values. */
+    private HashMap<IProperty<?>, Object> propertyMap;
+
+    @Override
+    public <T> HashMapPropertyHolder setProperty(final IProperty<? super T> property, final T value) {
+        if (value == null) {
+            getProperties().remove(property);
+        } else {
+            getProperties().put(property, value);
+        }
+
+        return this;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getProperty(final IProperty<T> property) {
+        Object value = getProperties().get(property);
+        if (value instanceof IPropertyValueProxy) {
+            value = ((IPropertyValueProxy) value).resolveValue(property);
+            if (value != null) {
+                getProperties().put(property, value);
+                return (T) value;
+            }
+        } else if (value != null) {
+            return (T) value;
+        }
+
+        T defaultValue = property.getDefault();
+        if (defaultValue instanceof Cloneable) {
+            setProperty(property, defaultValue);
+        }
+        return defaultValue;
+    }
+
+    @Override
+    public boolean hasProperty(final IProperty<?> property) {
+        return propertyMap != null && propertyMap.containsKey(property);
+    }
+
+    @Override
+    public HashMapPropertyHolder copyProperties(final IPropertyHolder other) {
+        if (other == null) {
+            return this;
+        }
+
+        final Map<IProperty<?>, Object> otherMap = other.getAllProperties();
+        if (!otherMap.isEmpty()) {
+            if (this.propertyMap == null) {
+                propertyMap = new HashMap<IProperty<?>, Object>(otherMap);
+            } else {
+                this.propertyMap.putAll(otherMap);
+            }
+        }
+
+        return this;
+    }
+
+    @Override
+    public Map<IProperty<?>, Object> getAllProperties() {
+        if (propertyMap == null) {
+            return Collections.emptyMap();
+        } else {
+            return propertyMap;
+        }
+    }
+
+    /**
+     * Returns the property map, creating a new map if there hasn't been one so far.
+     */
+    private Map<IProperty<?>, Object> getProperties() {
+        if (propertyMap == null) {
+            propertyMap = new HashMap<>();
+        }
+        return propertyMap;
+    }
+
+}
@@ -0,0 +1,205 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Kiel University and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.elk.graph.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.elk.graph.properties.IProperty;
+import org.eclipse.elk.graph.properties.IPropertyHolder;
+import org.eclipse.elk.graph.properties.MapPropertyHolder;
+import org.eclipse.elk.graph.properties.Property;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the {@link MapPropertyHolder} to the {@link HashMapPropertyHolder} it replaced. Layout algorithms mostly
+ * set a few properties per graph element, read them over and over, ask for properties that are not set, and copy
+ * properties from one element to another, so these operations are measured for different numbers of properties.
+ *
+ * <p>Properties are either {@link Property} instances, which cache their ordinal, or other {@link IProperty}
+ * implementations such as the layout option data of the meta data service, which look up their ordinal by
+ * identifier. Running with {@code -t 4} measures concurrent access from several threads.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropertyHolderBenchmark {
+
+    /** The property holder implementations to compare. */
+    public enum Implementation {
+        /** {@link HashMapPropertyHolder}. */
+        HASH_MAP,
+        /** {@link MapPropertyHolder}. */
+        ARRAYS;
+
+        /**
+         * Creates an empty holder of this implementation.
+         */
+        IPropertyHolder create() {
+            return this == HASH_MAP ? new HashMapPropertyHolder() : new MapPropertyHolder();
+        }
+    }
+
+    /** The kinds of property keys. */
+    public enum KeyType {
+        /** {@link Property} instances. */
+        PROPERTY,
+        /** other implementations of {@link IProperty}. */
+        OTHER;
+    }
+
+    /** the number of properties set on a holder. */
+    @Param({ "4", "16", "64" })
+    private int properties;
+
+    /** the measured implementation. */
+    @Param({ "HASH_MAP", "ARRAYS" })
+    private Implementation implementation;
+
+    /** the kind of property keys. */
+    @Param({ "PROPERTY", "OTHER" })
+    private KeyType keyType;
+
+    /** the properties that are set. */
+    private IProperty<Integer>[] setKeys;
+    /** properties that are not set and have no default value. */
+    private IProperty<Integer>[] unsetKeys;
+    /** a holder with all properties of {@link #setKeys} set. */
+    private IPropertyHolder filledHolder;
+
+    /**
+     * Creates the properties and the filled holder.
+     */
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void createProperties() {
+        setKeys = new IProperty[properties];
+        unsetKeys = new IProperty[properties];
+        for (int i = 0; i < properties; i++) {
+            setKeys[i] = createKey("org.eclipse.elk.benchmarks.set." + i);
+            unsetKeys[i] = createKey("org.eclipse.elk.benchmarks.unset." + i);
+        }
+
+        filledHolder = implementation.create();
+        for (int i = 0; i < properties; i++) {
+            filledHolder.setProperty(setKeys[i], i);
+        }
+    }
+
+    private IProperty<Integer> createKey(final String id) {
+        return keyType == KeyType.PROPERTY ? new Property<>(id) : new OtherProperty(id);
+    }
+
+    /**
+     * Sets all properties on a new holder.
+     *
+     * @return the holder, to keep the JIT from eliminating the work
+     */
+    @Benchmark
+    public IPropertyHolder setProperties() {
+        IPropertyHolder holder = implementation.create();
+        for (int i = 0; i < setKeys.length; i++) {
+            holder.setProperty(setKeys[i], i);
+        }
+        return holder;
+    }
+
+    /**
+     * Gets all properties that are set.
+     *
+     * @param blackhole consumes the values
+     */
+    @Benchmark
+    public void getProperties(final Blackhole blackhole) {
+        for (IProperty<Integer> key : setKeys) {
+            blackhole.consume(filledHolder.getProperty(key));
+        }
+    }
+
+    /**
+     * Gets properties that are not set, which returns their default value.
+     *
+     * @param blackhole consumes the values
+     */
+    @Benchmark
+    public void getUnsetProperties(final Blackhole blackhole) {
+        for (IProperty<Integer> key : unsetKeys) {
+            blackhole.consume(filledHolder.getProperty(key));
+        }
+    }
+
+    /**
+     * Copies all properties to a new holder.
+     *
+     * @return the holder, to keep the JIT from eliminating the work
+     */
+    @Benchmark
+    public IPropertyHolder copyProperties() {
+        return implementation.create().copyProperties(filledHolder);
+    }
+
+    /**
+     * A property that is not a {@link Property}, like the layout option data of the meta data service.
+     */
+    private static final class OtherProperty implements IProperty<Integer> {
+
+        /** the identifier. */
+        private final String id;
+
+        OtherProperty(final String id) {
+            this.id = id;
+        }
+
+        @Override
+        public Integer getDefault() {
+            return null;
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public Comparable<? super Integer> getLowerBound() {
+            return null;
+        }
+
+        @Override
+        public Comparable<? super Integer> getUpperBound() {
+            return null;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return obj instanceof IProperty<?> && id.equals(((IProperty<?>) obj).getId());
+        }
+
+        @Override
+        public int hashCode() {
+            return id.hashCode();
+        }
+    }
+
+}
@@ -0,0 +1,475 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Kiel University and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.elk.alg.common;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.elk.alg.common.spore.InternalProperties;
+import org.eclipse.elk.alg.common.utils.SVGImage;
+import org.eclipse.elk.core.math.KVector;
+
+import com.google.common.collect.Sets;
+import com.google.common.math.DoubleMath;
+
+/**
+ * Creates a Delaunay triangulation for the given points that is represented by a set of edges, just like
+ * {@link BowyerWatsonTriangulation}. The points are inserted one after another the same way, by removing all triangles
+ * whose circumcircles contain the new point and connecting the point to the boundary of the resulting cavity. However,
+ * instead of checking every triangle of the triangulation for each new point, this implementation
+ * <ul>
+ *   <li>locates the triangle that contains the new point by walking towards it through the triangulation, starting
+ *     at a triangle recently created close by, which it looks up in a grid laid over the points,</li>
+ *   <li>and finds the remaining triangles to be removed, as well as the boundary of the cavity, by searching the
+ *     neighborhood of that triangle.</li>
+ * </ul>
+ * To make this possible, triangles are stored in arrays of half-edges. Each half-edge knows its twin, the half-edge
+ * running in the opposite direction in the adjacent triangle. For points that are not pathologically distributed,
+ * this takes {@code O(n log n)} time instead of the quadratic time the straightforward implementation takes.
+ * <p> precondition: All vertices have to be distinct.</p>
+ * <p> postcondition: The returned edges form a connected graph that includes all input points without duplicate
+ * edges.</p>
+ */
+public final class DelaunayTriangulation {
+
+    /** Marks half-edges without a twin, which are those of the super triangle. */
+    private static final int NO_TWIN = -1;
+    /** Marks triangle slots that are not in use. */
+    private static final int UNUSED = -1;
+
+    /** The input points. */
+    private final List<KVector> vertices;
+    /** The number of input points. The three vertices of the super triangle come right after them. */
+    private final int vertexCount;
+    /** x coordinates of the input points followed by the vertices of the super triangle. */
+    private final double[] xs;
+    /** y coordinates of the input points followed by the vertices of the super triangle. */
+    private final double[] ys;
+
+    /** The origin vertex of each half-edge. Half-edges {@code 3t} to {@code 3t + 2} form triangle {@code t} in
+     *  counter-clockwise order, each one ending at the origin of the next. */
+    private int[] halfEdgeOrigin;
+    /** The twin of each half-edge, or {@link #NO_TWIN}. */
+    private int[] halfEdgeTwin;
+    /** x coordinate of each triangle's circumcenter. */
+    private double[] circumcenterX;
+    /** y coordinate of each triangle's circumcenter. */
+    private double[] circumcenterY;
+    /** radius of each triangle's circumcircle. */
+    private double[] circumradius;
+    /** The number of triangle slots in use or freed. */
+    private int triangleSlots = 0;
+    /** Slots of removed triangles to be reused. */
+    private int[] freeSlots = new int[16];
+    /** The number of free slots. */
+    private int freeSlotCount = 0;
+
+    /** A triangle recently created in each cell of the point location grid, or {@link #UNUSED}. */
+    private final int[] gridTriangle;
+    /** The number of cells of the point location grid in each direction. */
+    private final int gridSize;
+    /** The bounding box of the input points, which the point location grid covers. */
+    private final double minX, minY, cellWidth, cellHeight;
+    /** The triangle created last. */
+    private int lastTriangle;
+
+    /** Per triangle, the number of the point whose cavity it belongs to. */
+    private int[] cavityMark;
+    /** Per triangle, the number of the point whose circumcircle test it failed. */
+    private int[] validMark;
+    /** Triangles of the cavity that still have to be searched, and later all triangles of the cavity. */
+    private int[] cavity = new int[16];
+    /** The half-edges of the current cavity's boundary, seen from within the cavity. */
+    private int[] boundary = new int[16];
+    /** The new triangle whose boundary half-edge starts at a given vertex. */
+    private final int[] newTriangleByOrigin;
+
+    /**
+     * Sets up the super triangle and the point location grid.
+     */
+    private DelaunayTriangulation(final List<KVector> vertices, final KVector topleft, final KVector bottomright,
+            final KVector sa, final KVector sb, final KVector sc) {
+
+        this.vertices = vertices;
+        this.vertexCount = vertices.size();
+        xs = new double[vertexCount + 3];
+        ys = new double[vertexCount + 3];
+        for (int i = 0; i < vertexCount; i++) {
+            KVector v = vertices.get(i);
+            xs[i] = v.x;
+            ys[i] = v.y;
+        }
+
+        // a triangulation of n points inside the super triangle has 2n + 1 triangles
+        int capacity = 2 * vertexCount + 1;
+        halfEdgeOrigin = new int[3 * capacity];
+        halfEdgeTwin = new int[3 * capacity];
+        circumcenterX = new double[capacity];
+        circumcenterY = new double[capacity];
+        circumradius = new double[capacity];
+        cavityMark = new int[capacity];
+        validMark = new int[capacity];
+        newTriangleByOrigin = new int[vertexCount + 3];
+
+        // the super triangle
+        int a = vertexCount;
+        int b = vertexCount + 1;
+        int c = vertexCount + 2;
+        xs[a] = sa.x; ys[a] = sa.y;
+        xs[b] = sb.x; ys[b] = sb.y;
+        xs[c] = sc.x; ys[c] = sc.y;
+        lastTriangle = orientation(a, b, c) > 0
+                ? createTriangle(a, b, c, a, NO_TWIN)
+                : createTriangle(a, c, b, a, NO_TWIN);
+        for (int e = 0; e < 3; e++) {
+            halfEdgeTwin[e] = NO_TWIN;
+        }
+
+        // the point location grid has about as many cells as there are points
+        gridSize = Math.max(1, (int) Math.ceil(Math.sqrt(vertexCount)));
+        gridTriangle = new int[gridSize * gridSize];
+        Arrays.fill(gridTriangle, UNUSED);
+        minX = topleft.x;
+        minY = topleft.y;
+        cellWidth = (bottomright.x - topleft.x) / gridSize;
+        cellHeight = (bottomright.y - topleft.y) / gridSize;
+    }
+
+    /**
+     * Triangulates a list of points.
+     *
+     * @param vertices the input points
+     * @param debugOutputFile file name for debug SVG. Debug output will be deactivated if this is null.
+     * @return the edges of the triangulation
+     */
+    public static Set<TEdge> triangulate(final List<KVector> vertices, final String debugOutputFile) {
+        if (vertices.isEmpty()) {
+            return Sets.newHashSet();
+        }
+
+        // determine the bounding box of the given points
+        KVector topleft = new KVector(Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
+        KVector bottomright = new KVector(Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY);
+        for (KVector v : vertices) {
+            topleft.x = Math.min(topleft.x, v.x);
+            topleft.y = Math.min(topleft.y, v.y);
+            bottomright.x = Math.max(bottomright.x, v.x);
+            bottomright.y = Math.max(bottomright.y, v.y);
+        }
+        KVector size = new KVector(bottomright.x - topleft.x, bottomright.y - topleft.y);
+
+        // find a super-triangle spanning over all vertices, the same as the one used by BowyerWatsonTriangulation
+        // CHECKSTYLEOFF MagicNumber
+        final double wiggleroom = 50;
+        KVector sa = new KVector(topleft.x - wiggleroom, topleft.y - size.x - wiggleroom);
+        KVector sb = new KVector(topleft.x - wiggleroom, bottomright.y + size.x + wiggleroom);
+        KVector sc = new KVector(bottomright.x + size.y / 2 + wiggleroom, topleft.y + size.y / 2);
+        // CHECKSTYLEON MagicNumber
+
+        DelaunayTriangulation triangulation = new DelaunayTriangulation(vertices, topleft, bottomright, sa, sb, sc);
+        for (int i = 0; i < vertices.size(); i++) {
+            triangulation.insert(i);
+        }
+        Set<TEdge> tEdges = triangulation.collectEdges();
+
+        /*d*/SVGImage svg = new SVGImage(debugOutputFile);
+        /*d*/tEdges.forEach(tEdge ->
+                svg.addLine(tEdge.u.x, tEdge.u.y, tEdge.v.x, tEdge.v.y, "stroke=\"black\" stroke-width=\"4\""));
+        /*d*/svg.isave();
+
+        return tEdges;
+    }
+
+    /**
+     * Triangulates a list of points.
+     *
+     * @param vertices the input points
+     * @return the edges of the triangulation
+     */
+    public static Set<TEdge> triangulate(final List<KVector> vertices) {
+        return triangulate(vertices, null);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////
+    // Insertion
+
+    /**
+     * Inserts the given point into the triangulation.
+     */
+    private void insert(final int vertex) {
+        // the number used to mark triangles as part of this point's cavity
+        int mark = vertex + 1;
+
+        int seed = findInvalidTriangle(vertex, locate(vertex));
+        if (seed == UNUSED) {
+            // can only happen for degenerate inputs, in which case the vertex is left out just as it would be by
+            // BowyerWatsonTriangulation
+            return;
+        }
+
+        // search the cavity, which consists of all adjacent triangles whose circumcircles contain the point, and
+        // collect its boundary
+        int cavitySize = 0;
+        int searched = 0;
+        int boundarySize = 0;
+        cavity[cavitySize++] = seed;
+        cavityMark[seed] = mark;
+        while (searched < cavitySize) {
+            int triangle = cavity[searched++];
+            for (int e = 3 * triangle; e < 3 * triangle + 3; e++) {
+                int twin = halfEdgeTwin[e];
+                int neighbor = twin == NO_TWIN ? UNUSED : twin / 3;
+                if (neighbor != UNUSED && cavityMark[neighbor] != mark && validMark[neighbor] != mark) {
+                    if (inCircumcircle(neighbor, vertex)) {
+                        cavity = ensureCapacity(cavity, cavitySize + 1);
+                        cavity[cavitySize++] = neighbor;
+                        cavityMark[neighbor] = mark;
+                    } else {
+                        validMark[neighbor] = mark;
+                    }
+                }
+                if (neighbor == UNUSED || cavityMark[neighbor] != mark) {
+                    boundary = ensureCapacity(boundary, boundarySize + 1);
+                    boundary[boundarySize++] = e;
+                }
+            }
+        }
+
+        // connect the point to each boundary half-edge, reusing the slots of the cavity's triangles
+        int[] origins = new int[boundarySize];
+        int[] targets = new int[boundarySize];
+        int[] twins = new int[boundarySize];
+        for (int i = 0; i < boundarySize; i++) {
+            int e = boundary[i];
+            origins[i] = halfEdgeOrigin[e];
+            targets[i] = halfEdgeOrigin[next(e)];
+            twins[i] = halfEdgeTwin[e];
+        }
+        for (int i = 0; i < cavitySize; i++) {
+            freeTriangle(cavity[i]);
+        }
+        for (int i = 0; i < boundarySize; i++) {
+            int triangle = createTriangle(origins[i], targets[i], vertex, vertex, twins[i]);
+            newTriangleByOrigin[origins[i]] = triangle;
+            lastTriangle = triangle;
+        }
+
+        // link the new triangles to one another; the half-edge running from the end of one boundary half-edge to the
+        // point is the twin of the half-edge running from the point to the start of the next boundary half-edge
+        for (int i = 0; i < boundarySize; i++) {
+            int triangle = newTriangleByOrigin[origins[i]];
+            int other = newTriangleByOrigin[targets[i]];
+            halfEdgeTwin[3 * triangle + 1] = 3 * other + 2;
+            halfEdgeTwin[3 * other + 2] = 3 * triangle + 1;
+        }
+
+        gridTriangle[gridCell(xs[vertex], ys[vertex])] = lastTriangle;
+    }
+
+    /**
+     * Returns a triangle whose circumcircle contains the given point, starting the search at the given triangle. This
+     * usually is the triangle itself, and only in degenerate cases one of the others.
+     */
+    private int findInvalidTriangle(final int vertex, final int start) {
+        if (start != UNUSED) {
+            if (inCircumcircle(start, vertex)) {
+                return start;
+            }
+            for (int e = 3 * start; e < 3 * start + 3; e++) {
+                int twin = halfEdgeTwin[e];
+                if (twin != NO_TWIN && inCircumcircle(twin / 3, vertex)) {
+                    return twin / 3;
+                }
+            }
+        }
+
+        for (int triangle = 0; triangle < triangleSlots; triangle++) {
+            if (halfEdgeOrigin[3 * triangle] != UNUSED && inCircumcircle(triangle, vertex)) {
+                return triangle;
+            }
+        }
+        return UNUSED;
+    }
+
+    /**
+     * Returns the triangle that contains the given point by walking through the triangulation, always crossing an
+     * edge the point lies beyond. Returns {@link #UNUSED} if the walk gets lost, which can only happen if the
+     * triangulation is not quite Delaunay due to rounding errors.
+     */
+    private int locate(final int vertex) {
+        int triangle = gridTriangle[gridCell(xs[vertex], ys[vertex])];
+        if (triangle == UNUSED || halfEdgeOrigin[3 * triangle] == UNUSED) {
+            triangle = lastTriangle;
+        }
+
+        int maxSteps = triangleSlots;
+        walk:
+        for (int step = 0; step < maxSteps; step++) {
+            for (int e = 3 * triangle; e < 3 * triangle + 3; e++) {
+                int twin = halfEdgeTwin[e];
+                if (twin != NO_TWIN && orientation(halfEdgeOrigin[e], halfEdgeOrigin[next(e)], vertex) < 0) {
+                    triangle = twin / 3;
+                    continue walk;
+                }
+            }
+            return triangle;
+        }
+        return UNUSED;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////
+    // Triangles
+
+    /**
+     * Creates the triangle (a, b, c), whose first half-edge (a, b) has the given twin. The circumcenter is computed
+     * with {@code first} as the first vertex, just like {@link TTriangle} does, and the circumradius is the distance
+     * to that vertex.
+     *
+     * @return the new triangle's slot
+     */
+    private int createTriangle(final int a, final int b, final int c, final int first, final int twin) {
+        int triangle;
+        if (freeSlotCount > 0) {
+            triangle = freeSlots[--freeSlotCount];
+        } else {
+            triangle = triangleSlots++;
+            if (triangle >= circumradius.length) {
+                grow();
+            }
+        }
+
+        int e = 3 * triangle;
+        halfEdgeOrigin[e] = a;
+        halfEdgeOrigin[e + 1] = b;
+        halfEdgeOrigin[e + 2] = c;
+        halfEdgeTwin[e] = twin;
+        if (twin != NO_TWIN) {
+            halfEdgeTwin[twin] = e;
+        }
+
+        // the same computation as TTriangle's, with the first vertex being the inserted point
+        int p = first;
+        int q = first == c ? a : b;
+        int r = first == c ? b : c;
+        double abx = xs[q] - xs[p];
+        double aby = ys[q] - ys[p];
+        double acx = xs[r] - xs[p];
+        double acy = ys[r] - ys[p];
+        double bcx = xs[r] - xs[q];
+        double bcy = ys[r] - ys[q];
+        double ee = abx * (xs[p] + xs[q]) + aby * (ys[p] + ys[q]);
+        double f = acx * (xs[p] + xs[r]) + acy * (ys[p] + ys[r]);
+        double g = 2 * (abx * bcy - aby * bcx);
+        circumcenterX[triangle] = (acy * ee - aby * f) / g;
+        circumcenterY[triangle] = (abx * f - acx * ee) / g;
+        circumradius[triangle] = distance(circumcenterX[triangle], circumcenterY[triangle], xs[p], ys[p]);
+
+        cavityMark[triangle] = 0;
+        validMark[triangle] = 0;
+        return triangle;
+    }
+
+    /**
+     * Marks the given triangle's slot as free to be reused.
+     */
+    private void freeTriangle(final int triangle) {
+        halfEdgeOrigin[3 * triangle] = UNUSED;
+        freeSlots = ensureCapacity(freeSlots, freeSlotCount + 1);
+        freeSlots[freeSlotCount++] = triangle;
+    }
+
+    /**
+     * Doubles the number of triangles that fit into the arrays.
+     */
+    private void grow() {
+        int capacity = 2 * circumradius.length;
+        halfEdgeOrigin = Arrays.copyOf(halfEdgeOrigin, 3 * capacity);
+        halfEdgeTwin = Arrays.copyOf(halfEdgeTwin, 3 * capacity);
+        circumcenterX = Arrays.copyOf(circumcenterX, capacity);
+        circumcenterY = Arrays.copyOf(circumcenterY, capacity);
+        circumradius = Arrays.copyOf(circumradius, capacity);
+        cavityMark = Arrays.copyOf(cavityMark, capacity);
+        validMark = Arrays.copyOf(validMark, capacity);
+    }
+
+    /**
+     * Check if the given point is located inside the circumcircle of the given triangle. This uses the same fuzzy
+     * comparison as {@link TTriangle#inCircumcircle(KVector)}.
+     */
+    private boolean inCircumcircle(final int triangle, final int vertex) {
+        double distance = distance(circumcenterX[triangle], circumcenterY[triangle], xs[vertex], ys[vertex]);
+        return DoubleMath.fuzzyCompare(distance, circumradius[triangle], InternalProperties.FUZZINESS) < 0;
+    }
+
+    /**
+     * Collects the edges of all triangles that are not connected to the super triangle.
+     */
+    private Set<TEdge> collectEdges() {
+        Set<TEdge> tEdges = Sets.newHashSet();
+        for (int e = 0; e < 3 * triangleSlots; e++) {
+            int triangleStart = e - e % 3;
+            if (halfEdgeOrigin[triangleStart] == UNUSED) {
+                continue;
+            }
+
+            // each edge but those of the super triangle is represented by two half-edges; only take one of them
+            int u = halfEdgeOrigin[e];
+            int v = halfEdgeOrigin[next(e)];
+            if (u < vertexCount && v < vertexCount && (halfEdgeTwin[e] == NO_TWIN || e < halfEdgeTwin[e])) {
+                tEdges.add(new TEdge(vertices.get(u), vertices.get(v)));
+            }
+        }
+        return tEdges;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////
+    // Utilities
+
+    /**
+     * Returns the half-edge following the given one in its triangle.
+     */
+    private static int next(final int e) {
+        return e % 3 == 2 ? e - 2 : e + 1;
+    }
+
+    /**
+     * Returns a positive value if the given vertices are in counter-clockwise order, a negative value if they are in
+     * clockwise order, and zero if they are collinear.
+     */
+    private double orientation(final int a, final int b, final int c) {
+        return (xs[b] - xs[a]) * (ys[c] - ys[a]) - (ys[b] - ys[a]) * (xs[c] - xs[a]);
+    }
+
+    /**
+     * Returns the cell of the point location grid the given point lies in.
+     */
+    private int gridCell(final double x, final double y) {
+        int column = cellWidth > 0 ? (int) ((x - minX) / cellWidth) : 0;
+        int row = cellHeight > 0 ? (int) ((y - minY) / cellHeight) : 0;
+        column = Math.max(0, Math.min(gridSize - 1, column));
+        row = Math.max(0, Math.min(gridSize - 1, row));
+        return row * gridSize + column;
+    }
+
+    private static double distance(final double x1, final double y1, final double x2, final double y2) {
+        double dx = x1 - x2;
+        double dy = y1 - y2;
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    private static int[] ensureCapacity(final int[] array, final int size) {
+        return size <= array.length ? array : Arrays.copyOf(array, Math.max(size, 2 * array.length));
+    }
+
+}
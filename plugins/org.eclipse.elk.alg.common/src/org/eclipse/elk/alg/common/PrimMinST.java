@@ -0,0 +1,251 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Kiel University and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.elk.alg.common;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.elk.alg.common.utils.SVGImage;
+import org.eclipse.elk.core.math.KVector;
+
+import com.google.common.collect.Maps;
+
+/**
+ * Minimum spanning tree calculation using Prim's algorithm with a binary heap. This class expects the same input as
+ * {@link NaiveMinST} and returns the same tree, but instead of scanning all remaining edges for the cheapest one that
+ * connects a new vertex to the tree, it keeps the edges leaving the tree in a heap. This takes
+ * {@code O(|E| log |E|)} time instead of {@code O(|V| |E|)}.
+ * <p>
+ * Edges are ranked by their costs, ties being broken by the order in which the given set iterates over them. The heap
+ * holds the ranks of the edges as primitive integers. Always taking the edge of the lowest rank that leaves the tree
+ * is exactly what {@link NaiveMinST} does, which is why both add the same vertices in the same order.
+ * </p>
+ * <p>precondition: The edge list E represents a connected graph (V,E) where V={w|(u,w) \in E or (w,v) \in E}
+ * and root \in V.</p>
+ * <p>postcondition: The returned tree structure connects all vertices in V once.</p>
+ */
+public final class PrimMinST {
+
+    /** Hidden constructor. */
+    private PrimMinST() { };
+
+    /**
+     * Creates a minimum spanning tree for a graph using the given cost function.
+     * @param tEdges the edges of the graph
+     * @param root the root node to start the spanning tree
+     * @param costFunction a function returning a cost value for a {@link TEdge}
+     * @param debugOutputFile file name for debug SVG. Debug output will be deactivated if this is null.
+     * @return the spanning tree
+     */
+    public static Tree<KVector> createSpanningTree(final Set<TEdge> tEdges, final KVector root,
+            final ICostFunction costFunction, final String debugOutputFile) {
+
+        // determine edge weights and rank the edges by them; the sort is stable
+        TEdge[] unsortedEdges = tEdges.toArray(new TEdge[tEdges.size()]);
+        double[] unsortedWeights = new double[unsortedEdges.length];
+        Integer[] order = new Integer[unsortedEdges.length];
+        for (int i = 0; i < unsortedEdges.length; i++) {
+            unsortedWeights[i] = costFunction.cost(unsortedEdges[i]);
+            order[i] = i;
+        }
+        Arrays.sort(order, (i1, i2) -> Double.compare(unsortedWeights[i1], unsortedWeights[i2]));
+
+        // assign indices to the vertices and remember each edge's end points by rank
+        Map<KVector, Integer> vertexIndices = Maps.newHashMap();
+        TEdge[] edges = new TEdge[unsortedEdges.length];
+        double[] weights = new double[unsortedEdges.length];
+        int[] edgeU = new int[unsortedEdges.length];
+        int[] edgeV = new int[unsortedEdges.length];
+        int[] incidentCount = new int[2 * unsortedEdges.length + 1];
+        int vertexCount = 0;
+        for (int rank = 0; rank < edges.length; rank++) {
+            edges[rank] = unsortedEdges[order[rank]];
+            weights[rank] = unsortedWeights[order[rank]];
+            Integer u = vertexIndices.putIfAbsent(edges[rank].u, vertexCount);
+            if (u == null) {
+                u = vertexCount++;
+            }
+            Integer v = vertexIndices.putIfAbsent(edges[rank].v, vertexCount);
+            if (v == null) {
+                v = vertexCount++;
+            }
+            edgeU[rank] = u;
+            edgeV[rank] = v;
+
+            // NaiveMinST never picks edges whose weight isn't comparable to infinity, so we leave them out as well
+            if (weights[rank] <= Double.POSITIVE_INFINITY) {
+                incidentCount[edgeU[rank] + 1]++;
+                incidentCount[edgeV[rank] + 1]++;
+            }
+        }
+
+        // collect the edges incident to each vertex
+        int[] incidentStart = incidentCount;
+        for (int i = 0; i < vertexCount; i++) {
+            incidentStart[i + 1] += incidentStart[i];
+        }
+        int[] incidentEdges = new int[incidentStart[vertexCount]];
+        int[] nextIncident = Arrays.copyOf(incidentStart, vertexCount);
+        for (int rank = 0; rank < edges.length; rank++) {
+            if (weights[rank] <= Double.POSITIVE_INFINITY) {
+                incidentEdges[nextIncident[edgeU[rank]]++] = rank;
+                incidentEdges[nextIncident[edgeV[rank]]++] = rank;
+            }
+        }
+
+        Tree<KVector> minST = new Tree<KVector>(root);
+
+        // debug output ----------------------------------------------------------------------------------------------
+        SVGImage svg = new SVGImage(debugOutputFile);
+        // elkjs-exclude-start
+        if (svg.debug) {
+            svg.addGroups("e", "t");
+            for (int rank = 0; rank < edges.length; rank++) {
+                TEdge e = edges[rank];
+                svg.g("e").addLine(e.u.x, e.u.y, e.v.x, e.v.y, "stroke=\"black\" stroke-width=\"1\"");
+                svg.g("t").addElementStr("<text x=\"" + (e.u.x + e.v.x) / 2
+                    + "\" y=\"" + (e.u.y + e.v.y) / 2 + "\" fill=\"blue\""
+                    + " font-size=\"20px\">" + String.format("%.2f", weights[rank]) + "</text>");
+            }
+            svg.isave();
+        }
+        // elkjs-exclude-end
+        // -----------------------------------------------------------------------------------------------------------
+
+        Integer rootIndex = vertexIndices.get(root);
+        if (rootIndex == null) {
+            // the root isn't connected to anything
+            return minST;
+        }
+
+        // iteratively add the cheapest edge where one node is contained in the current tree and one is new
+        @SuppressWarnings("unchecked")
+        Tree<KVector>[] treeNodes = new Tree[vertexCount];
+        treeNodes[rootIndex] = minST;
+        RankHeap heap = new RankHeap(edges.length);
+        heap.addIncidentEdges(rootIndex, treeNodes, incidentEdges, incidentStart, edgeU, edgeV);
+
+        while (!heap.isEmpty()) {
+            int rank = heap.poll();
+            TEdge nextEdge = edges[rank];
+            int nextNode;
+            int nodeInTree;
+            KVector nextVertex;
+            if (treeNodes[edgeU[rank]] != null && treeNodes[edgeV[rank]] == null) {
+                nextNode = edgeV[rank];
+                nodeInTree = edgeU[rank];
+                nextVertex = nextEdge.v;
+            } else if (treeNodes[edgeV[rank]] != null && treeNodes[edgeU[rank]] == null) {
+                nextNode = edgeU[rank];
+                nodeInTree = edgeV[rank];
+                nextVertex = nextEdge.u;
+            } else {
+                // both end points have been added to the tree since the edge was added to the heap
+                continue;
+            }
+
+            // add the new node to the spanning tree
+            Tree<KVector> subTree = new Tree<KVector>(nextVertex);
+            treeNodes[nodeInTree].children.add(subTree);
+            treeNodes[nextNode] = subTree;
+            heap.addIncidentEdges(nextNode, treeNodes, incidentEdges, incidentStart, edgeU, edgeV);
+
+            // debug output -------------------------------------------------------------------------------------------
+            if (svg.debug) {
+                svg.g("e").addLine(nextEdge.u.x, nextEdge.u.y, nextEdge.v.x, nextEdge.v.y,
+                        "stroke=\"red\" stroke-width=\"3\"");
+                svg.isave();
+            }
+            // --------------------------------------------------------------------------------------------------------
+        }
+
+        return minST;
+    }
+
+    /**
+     * Creates a minimum spanning tree for a graph using the given cost function.
+     * @param tEdges the edges of the graph
+     * @param root the root node to start the spanning tree
+     * @param costFunction a function returning a cost value for a {@link TEdge}
+     * @return the spanning tree
+     */
+    public static Tree<KVector> createSpanningTree(final Set<TEdge> tEdges, final KVector root,
+            final ICostFunction costFunction) {
+        return createSpanningTree(tEdges, root, costFunction, null);
+    }
+
+    /**
+     * A binary min-heap of edge ranks. Each edge is added at most once, when the first of its end points is added to
+     * the tree.
+     */
+    private static final class RankHeap {
+        private final int[] ranks;
+        private int size = 0;
+
+        RankHeap(final int capacity) {
+            ranks = new int[capacity];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        /**
+         * Adds the edges of the given vertex that lead to vertices not yet contained in the tree.
+         */
+        void addIncidentEdges(final int vertex, final Tree<KVector>[] treeNodes, final int[] incidentEdges,
+                final int[] incidentStart, final int[] edgeU, final int[] edgeV) {
+
+            for (int i = incidentStart[vertex]; i < incidentStart[vertex + 1]; i++) {
+                int rank = incidentEdges[i];
+                int other = edgeU[rank] == vertex ? edgeV[rank] : edgeU[rank];
+                if (treeNodes[other] == null) {
+                    add(rank);
+                }
+            }
+        }
+
+        void add(final int rank) {
+            int index = size++;
+            while (index > 0) {
+                int parent = (index - 1) / 2;
+                if (ranks[parent] <= rank) {
+                    break;
+                }
+                ranks[index] = ranks[parent];
+                index = parent;
+            }
+            ranks[index] = rank;
+        }
+
+        int poll() {
+            int min = ranks[0];
+            int last = ranks[--size];
+            int index = 0;
+            while (true) {
+                int child = 2 * index + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && ranks[child + 1] < ranks[child]) {
+                    child++;
+                }
+                if (last <= ranks[child]) {
+                    break;
+                }
+                ranks[index] = ranks[child];
+                index = child;
+            }
+            ranks[index] = last;
+            return min;
+        }
+    }
+}
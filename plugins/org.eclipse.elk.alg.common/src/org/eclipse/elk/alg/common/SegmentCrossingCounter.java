@@ -0,0 +1,304 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Kiel University and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.elk.alg.common;
+
+import java.util.Arrays;
+
+/**
+ * Counts the pairs of line segments that intersect, for example to evaluate the number of edge crossings of a
+ * drawing. Segments are closed, so segments that touch or share an end point intersect as well.
+ *
+ * <p>
+ * Instead of testing all pairs of segments, the bounding box of all segments is divided into a uniform grid of about
+ * as many cells as there are segments. Each segment is assigned to the cells it actually crosses, which are no more
+ * than the grid has rows and columns, and only segments that share a cell are tested, each pair at most once. Unless
+ * most segments pass through the same few cells, this requires far fewer intersection tests than there are pairs of
+ * segments. If the cells would yield more candidate pairs than there are pairs of segments, all pairs are tested
+ * directly, so that the grid never makes counting slower than that apart from setting it up.
+ * </p>
+ *
+ * <p>
+ * A counter can be reused: {@link #reset()} discards all segments but keeps the allocated memory, such that counting
+ * the crossings of similar drawings over and over does not allocate new memory. Counters are not thread-safe.
+ * </p>
+ */
+public final class SegmentCrossingCounter {
+
+    /** Up to this number of segments, all pairs are tested without setting up a grid. */
+    private static final int MAX_SEGMENTS_WITHOUT_GRID = 32;
+    /** Initial number of segments the arrays are able to hold. */
+    private static final int INITIAL_CAPACITY = 16;
+    /** Margin in cell sizes by which the rows crossed by a segment are extended. */
+    private static final double CELL_MARGIN = 1e-9;
+
+    /** The coordinates of the segments, four per segment: x1, y1, x2, y2. */
+    private double[] coordinates;
+    /** The number of segments. */
+    private int segmentCount;
+
+    /** For each segment, the index of its first cell in {@link #segmentCells}, and the total number at the end. */
+    private int[] segmentStart = new int[0];
+    /** The cells crossed by each segment, one segment after another. */
+    private int[] segmentCells = new int[0];
+    /** For each cell, the index of its first segment in {@link #cellSegments}, and the total number at the end. */
+    private int[] cellStart = new int[0];
+    /** The segments of each cell, one cell after another. */
+    private int[] cellSegments = new int[0];
+    /** For each segment, the segment it was last tested against. */
+    private int[] testedWith = new int[0];
+
+    /**
+     * Creates a counter without any segments.
+     */
+    public SegmentCrossingCounter() {
+        coordinates = new double[4 * INITIAL_CAPACITY];
+    }
+
+    /**
+     * Discards all segments.
+     */
+    public void reset() {
+        segmentCount = 0;
+    }
+
+    /**
+     * Adds a segment.
+     *
+     * @param x1
+     *            x coordinate of the segment's first end point.
+     * @param y1
+     *            y coordinate of the segment's first end point.
+     * @param x2
+     *            x coordinate of the segment's second end point.
+     * @param y2
+     *            y coordinate of the segment's second end point.
+     */
+    public void addSegment(final double x1, final double y1, final double x2, final double y2) {
+        if (4 * segmentCount == coordinates.length) {
+            coordinates = Arrays.copyOf(coordinates, 2 * coordinates.length);
+        }
+        int offset = 4 * segmentCount++;
+        coordinates[offset] = x1;
+        coordinates[offset + 1] = y1;
+        coordinates[offset + 2] = x2;
+        coordinates[offset + 3] = y2;
+    }
+
+    /**
+     * Returns the number of segments added since the last {@link #reset()}.
+     */
+    public int getSegmentCount() {
+        return segmentCount;
+    }
+
+    /**
+     * Counts the pairs of added segments that intersect.
+     *
+     * @return the number of intersecting pairs.
+     */
+    public int countCrossings() {
+        if (segmentCount <= MAX_SEGMENTS_WITHOUT_GRID) {
+            return countAllPairs();
+        }
+        return countCrossingsInGrid();
+    }
+
+    private int countAllPairs() {
+        int crossings = 0;
+        for (int i = 0; i < segmentCount; i++) {
+            for (int j = i + 1; j < segmentCount; j++) {
+                if (intersect(i, j)) {
+                    crossings++;
+                }
+            }
+        }
+        return crossings;
+    }
+
+    private int countCrossingsInGrid() {
+        // the bounding box of all segments
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < 4 * segmentCount; i += 2) {
+            minX = Math.min(minX, coordinates[i]);
+            maxX = Math.max(maxX, coordinates[i]);
+            minY = Math.min(minY, coordinates[i + 1]);
+            maxY = Math.max(maxY, coordinates[i + 1]);
+        }
+
+        int gridSize = (int) Math.ceil(Math.sqrt(segmentCount));
+        double cellWidth = (maxX - minX) / gridSize;
+        double cellHeight = (maxY - minY) / gridSize;
+
+        // determine the cells crossed by each segment and count the segments of each cell
+        int cellCount = gridSize * gridSize;
+        if (cellStart.length < cellCount + 1) {
+            cellStart = new int[cellCount + 1];
+        }
+        Arrays.fill(cellStart, 0, cellCount + 1, 0);
+        if (segmentStart.length < segmentCount + 1) {
+            segmentStart = new int[segmentCount + 1];
+        }
+        int segmentCellCount = 0;
+        for (int i = 0; i < segmentCount; i++) {
+            segmentStart[i] = segmentCellCount;
+            segmentCellCount = addCrossedCells(i, minX, minY, cellWidth, cellHeight, gridSize, segmentCellCount);
+        }
+        segmentStart[segmentCount] = segmentCellCount;
+
+        // distribute the segments to the cells; the segments of each cell end up in ascending order
+        long candidates = 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            long cellSize = cellStart[cell + 1];
+            candidates += cellSize * (cellSize - 1) / 2;
+            cellStart[cell + 1] += cellStart[cell];
+        }
+        if (candidates >= (long) segmentCount * (segmentCount - 1) / 2) {
+            // the segments are concentrated in few cells, for example because they all end in the same spot
+            return countAllPairs();
+        }
+        if (cellSegments.length < segmentCellCount) {
+            cellSegments = new int[segmentCellCount];
+        }
+        for (int i = 0; i < segmentCount; i++) {
+            for (int k = segmentStart[i]; k < segmentStart[i + 1]; k++) {
+                // the start of each cell advances to the start of the next cell and is shifted back below
+                cellSegments[cellStart[segmentCells[k]]++] = i;
+            }
+        }
+        System.arraycopy(cellStart, 0, cellStart, 1, cellCount);
+        cellStart[0] = 0;
+
+        // test each segment against the segments with higher index that share a cell with it
+        if (testedWith.length < segmentCount) {
+            testedWith = new int[segmentCount];
+        }
+        Arrays.fill(testedWith, 0, segmentCount, -1);
+        int crossings = 0;
+        for (int i = 0; i < segmentCount; i++) {
+            for (int k = segmentStart[i]; k < segmentStart[i + 1]; k++) {
+                int cell = segmentCells[k];
+                for (int l = cellStart[cell + 1] - 1; l >= cellStart[cell]; l--) {
+                    int j = cellSegments[l];
+                    if (j <= i) {
+                        break;
+                    }
+                    // segments sharing several cells are only tested once
+                    if (testedWith[j] != i) {
+                        testedWith[j] = i;
+                        if (intersect(i, j)) {
+                            crossings++;
+                        }
+                    }
+                }
+            }
+        }
+        return crossings;
+    }
+
+    /**
+     * Appends the cells crossed by the given segment to {@link #segmentCells} and counts the segment in
+     * {@link #cellStart}. The segment is followed column by column, adding the rows it covers within each column. Rows
+     * are extended by a small margin, such that segments meeting close to a cell border share a cell despite rounding
+     * errors.
+     *
+     * @return the new number of entries of {@link #segmentCells}.
+     */
+    private int addCrossedCells(final int segment, final double minX, final double minY, final double cellWidth,
+            final double cellHeight, final int gridSize, final int segmentCellCount) {
+        int offset = 4 * segment;
+        boolean reversed = coordinates[offset] > coordinates[offset + 2];
+        double x1 = gridCoordinate(coordinates[reversed ? offset + 2 : offset], minX, cellWidth);
+        double y1 = gridCoordinate(coordinates[reversed ? offset + 3 : offset + 1], minY, cellHeight);
+        double x2 = gridCoordinate(coordinates[reversed ? offset : offset + 2], minX, cellWidth);
+        double y2 = gridCoordinate(coordinates[reversed ? offset + 1 : offset + 3], minY, cellHeight);
+        double slope = x2 > x1 ? (y2 - y1) / (x2 - x1) : 0;
+
+        int count = segmentCellCount;
+        int lastColumn = cell(x2, gridSize);
+        for (int column = cell(x1, gridSize); column <= lastColumn; column++) {
+            // the part of the segment within the column
+            double fromY = x2 > x1 ? y1 + (Math.max(x1, column) - x1) * slope : y1;
+            double toY = x2 > x1 ? y1 + (Math.min(x2, column + 1) - x1) * slope : y2;
+            int firstRow = cell(Math.min(fromY, toY) - CELL_MARGIN, gridSize);
+            int lastRow = cell(Math.max(fromY, toY) + CELL_MARGIN, gridSize);
+
+            if (segmentCells.length < count + lastRow - firstRow + 1) {
+                segmentCells = Arrays.copyOf(segmentCells, Math.max(2 * segmentCells.length, count + gridSize));
+            }
+            for (int row = firstRow; row <= lastRow; row++) {
+                cellStart[row * gridSize + column + 1]++;
+                segmentCells[count++] = row * gridSize + column;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Converts a coordinate into the grid's coordinate system, in which cells have unit size.
+     */
+    private static double gridCoordinate(final double coordinate, final double min, final double cellSize) {
+        if (cellSize <= 0) {
+            return 0;
+        }
+        return (coordinate - min) / cellSize;
+    }
+
+    /**
+     * Returns the index of the cell that contains the given grid coordinate.
+     */
+    private static int cell(final double gridCoordinate, final int gridSize) {
+        return Math.max(0, Math.min((int) gridCoordinate, gridSize - 1));
+    }
+
+    /**
+     * Whether the two segments with the given indices intersect.
+     */
+    private boolean intersect(final int i, final int j) {
+        int a = 4 * i;
+        int b = 4 * j;
+        double ax1 = coordinates[a];
+        double ay1 = coordinates[a + 1];
+        double ax2 = coordinates[a + 2];
+        double ay2 = coordinates[a + 3];
+        double bx1 = coordinates[b];
+        double by1 = coordinates[b + 1];
+        double bx2 = coordinates[b + 2];
+        double by2 = coordinates[b + 3];
+
+        // each segment must not have both end points strictly on the same side of the other segment
+        double o1 = Math.signum(orientation(ax1, ay1, ax2, ay2, bx1, by1));
+        double o2 = Math.signum(orientation(ax1, ay1, ax2, ay2, bx2, by2));
+        if (o1 * o2 > 0) {
+            return false;
+        }
+        double o3 = Math.signum(orientation(bx1, by1, bx2, by2, ax1, ay1));
+        double o4 = Math.signum(orientation(bx1, by1, bx2, by2, ax2, ay2));
+        if (o3 * o4 > 0) {
+            return false;
+        }
+
+        // if all end points are collinear, the segments intersect if their bounding boxes do
+        return o1 != 0 || o2 != 0 || o3 != 0 || o4 != 0
+                || Math.max(ax1, ax2) >= Math.min(bx1, bx2) && Math.max(bx1, bx2) >= Math.min(ax1, ax2)
+                && Math.max(ay1, ay2) >= Math.min(by1, by2) && Math.max(by1, by2) >= Math.min(ay1, ay2);
+    }
+
+    /**
+     * Twice the signed area of the triangle (p, q, r), which is positive if r lies left of the line from p to q.
+     */
+    private static double orientation(final double px, final double py, final double qx, final double qy,
+            final double rx, final double ry) {
+        return (qx - px) * (ry - py) - (qy - py) * (rx - px);
+    }
+
+}
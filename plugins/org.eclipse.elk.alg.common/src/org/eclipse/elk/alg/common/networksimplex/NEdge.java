@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016 Kiel University and others.
+ * Copyright (c) 2016, 2024 Kiel University and others.
  * 
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License 2.0 which is available at
@@ -31,14 +31,6 @@ public class NEdge {
     /** The minimum length of this edge. */
     public int delta = 1;
 
-    /**
-     * A flag indicating whether a specified edge is part of the spanning tree determined by
-     * {@code tightTree()}.
-     * 
-     * @see NetworkSimplex#tightTreeDFS(NNode)
-     */
-    protected boolean treeEdge = false;
-
     /**
      * @return an {@link NEdgeBuilder} to create a new edge.
      */
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016 Kiel University and others.
+ * Copyright (c) 2016, 2024 Kiel University and others.
  * 
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License 2.0 which is available at
@@ -10,7 +10,9 @@
 package org.eclipse.elk.alg.common.networksimplex;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.Arrays;
+import java.util.Deque;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
@@ -124,14 +126,23 @@ public class NGraph {
         return ccRep;
     }
     
-    private void dfs(final NNode node, final boolean[] mark) {
-        if (mark[node.internalId]) {
-            return;
-        }
-        mark[node.internalId] = true;
-        for (NEdge edge : node.getConnectedEdges()) {
-            NNode other = edge.getOther(node);
-            dfs(other, mark);
+    /**
+     * Marks all nodes reachable from the given node. Uses an explicit stack since the graphs can be large enough to
+     * overflow the call stack.
+     */
+    private void dfs(final NNode start, final boolean[] mark) {
+        Deque<NNode> stack = new ArrayDeque<>();
+        mark[start.internalId] = true;
+        stack.push(start);
+        while (!stack.isEmpty()) {
+            NNode node = stack.pop();
+            for (NEdge edge : node.getConnectedEdges()) {
+                NNode other = edge.getOther(node);
+                if (!mark[other.internalId]) {
+                    mark[other.internalId] = true;
+                    stack.push(other);
+                }
+            }
         }
     }
     
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2017 Kiel University and others.
+ * Copyright (c) 2016, 2024 Kiel University and others.
  * 
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License 2.0 which is available at
@@ -51,26 +51,6 @@ public final class NNode {
     /** Internally cached list of all edges. */
     private ArrayList<NEdge> allEdges = Lists.newArrayList();
     
-    
-    // SUPPRESS CHECKSTYLE NEXT 20 VisibilityModifier 
-    /**
-     * A flag indicating whether a specified node is part of the spanning tree determined by
-     * {@code tightTree()}.
-     * 
-     * @see NetworkSimplex#tightTreeDFS() 
-     */
-    protected boolean treeNode = false;
-
-    /**
-     * A collection of edges for which cutvalues are unknown. Cutvalues are updated during every
-     * iteration of the network simplex algorithm.
-     * 
-     * In principle, no order is required. Still, we use {@link ArrayList} because experiments
-     * showed, that an {@link ArrayList} performs faster here than a {@link java.util.HashSet
-     * HashSet}.
-     */
-    protected Collection<NEdge> unknownCutvalues = Lists.newArrayList();
-
     private NNode() { }
     
     /**
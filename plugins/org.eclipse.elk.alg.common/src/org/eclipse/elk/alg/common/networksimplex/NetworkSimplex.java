@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016 Kiel University and others.
+ * Copyright (c) 2016, 2024 Kiel University and others.
  * 
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License 2.0 which is available at
@@ -12,8 +12,6 @@ package org.eclipse.elk.alg.common.networksimplex;
 import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.Deque;
-import java.util.LinkedList;
-import java.util.List;
 import java.util.Queue;
 import java.util.Set;
 
@@ -21,7 +19,6 @@ import org.eclipse.elk.core.util.BasicProgressMonitor;
 import org.eclipse.elk.core.util.IElkProgressMonitor;
 import org.eclipse.elk.core.util.Pair;
 
-import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 
 /**
@@ -122,17 +119,42 @@ public final class NetworkSimplex  {
     /** The graph all methods in this class operate on. */
     private NGraph graph;
 
-    /** An {@code ArrayList} containing all edges in the graph. */
-    private List<NEdge> edges;
-    
-    /** A {@code HashSet} containing all edges that are part of the spanning tree. */
-    private Set<NEdge> treeEdges;
+    /*
+     * The graph is converted into the following array-based representation before the actual network simplex is
+     * executed. Nodes and edges are identified by their internal ids. The arrays are kept between executions and
+     * are only replaced if they are too small for the current graph, such that an instance that is reused for
+     * several graphs (see #reuseFor(NGraph)) does not allocate them over and over again.
+     */
+
+    /** The number of nodes in the graph. */
+    private int nodeCount;
+    /** The number of edges in the graph. */
+    private int edgeCount;
+
+    /** The layer of each node. */
+    private int[] layer;
+    /** The source node of each edge. */
+    private int[] edgeSource;
+    /** The target node of each edge. */
+    private int[] edgeTarget;
+    /** The minimum length of each edge. */
+    private int[] edgeDelta;
+    /** The weight of each edge. */
+    private double[] edgeWeight;
 
     /**
-     * A {@code LinkedList} containing all source nodes of the graph, i.e. all nodes that have no
-     * incident incoming edges.
+     * The edges incident to each node. The incident edges of node {@code n} are stored in
+     * {@code incidentEdges[incidentEdgesStart[n]]} up to (excluding) {@code incidentEdges[incidentEdgesStart[n + 1]]}
+     * in the order of {@link NNode#getConnectedEdges()}.
      */
-    private List<NNode> sources;
+    private int[] incidentEdges;
+    /** The index into {@link #incidentEdges} at which the incident edges of each node start. */
+    private int[] incidentEdgesStart;
+
+    /** A flag indicating whether a node is part of the spanning tree determined by {@link #tightTreeDFS(int)}. */
+    private boolean[] treeNode;
+    /** A flag indicating whether an edge is part of the spanning tree. */
+    private boolean[] treeEdge;
 
     /**
      * A flag indicating whether a specified edge has been visited during DFS-traversal. This array
@@ -140,29 +162,52 @@ public final class NetworkSimplex  {
      */
     private boolean[] edgeVisited;
 
+    /*
+     * The tree edges are kept in a doubly linked list that is ordered by the time the edges were added to the tree.
+     * The list determines the order in which leaveEdge() considers the tree edges.
+     */
+
+    /** The first tree edge or {@code -1} if there are no tree edges. */
+    private int firstTreeEdge;
+    /** The last tree edge or {@code -1} if there are no tree edges. */
+    private int lastTreeEdge;
+    /** The tree edge following each tree edge or {@code -1} for the last tree edge. */
+    private int[] nextTreeEdge;
+    /** The tree edge preceding each tree edge or {@code -1} for the first tree edge. */
+    private int[] previousTreeEdge;
+
     /**
      * The current postorder traversal number used by {@code postorderTraversal()} to assign an
      * unique traversal ID to each node.
-     * 
-     * @see #postorderTraversal(NNode)
+     *
+     * @see #postorderTraversal(int, int, int)
      */
     private int postOrder;
 
     /**
      * The postorder traversal ID of each node determined by {@code postorderTraversal()}.
-     * 
-     * @see #postorderTraversal(NNode)
+     *
+     * @see #postorderTraversal(int, int, int)
      */
     private int[] poID;
 
     /**
      * The lowest postorder traversal ID of each nodes reachable through a node lower in the
      * traversal tree determined by {@code postorderTraversal}.
-     * 
-     * @see #postorderTraversal(NNode)
+     *
+     * @see #postorderTraversal(int, int, int)
      */
     private int[] lowestPoID;
 
+    /**
+     * The node with each postorder traversal ID. Since the nodes of a subtree have consecutive IDs, this allows to
+     * iterate the nodes of a subtree without traversing it.
+     */
+    private int[] nodeByPoID;
+
+    /** The tree edge connecting each node to its parent in the traversal tree or {@code -1} for the root. */
+    private int[] parentEdge;
+
     /**
      * The cut value of every edge defined as follows: If the edge is deleted, the spanning tree
      * breaks into two connected components, the head component containing the target node of the
@@ -170,99 +215,133 @@ public final class NetworkSimplex  {
      * of the weight (here {@code 1}) of all edges going from the tail to the head component,
      * including the tree edge, minus the sum of the weights of all edges from the head to the tail
      * component.
-     * 
+     *
      * @see #cutvalues()
      */
     private double[] cutvalue;
-    
+
+    /** The nodes on the stack of a depth first search. Also used as queue for a topological numbering. */
+    private int[] nodeStack;
+    /** For each node on {@link #nodeStack}, the index of the next incident edge to be considered. */
+    private int[] incidentEdgeStack;
+
     /**
      * Nodes that are part of subtrees of the graph. They will be removed prior to the actual
      * execution of the network simplex since positioning them with minimal edge length is trivial.
-     * 
+     *
      * @see #removeSubtrees()
      * @see #reattachSubtrees()
      */
     private Deque<Pair<NNode, NEdge>> subtreeNodesStack;
 
+    /**
+     * Lets this instance operate on another graph. The configuration is retained, as are the arrays allocated by
+     * previous executions if they are large enough for the new graph. Reusing an instance thus saves allocations if
+     * many graphs are processed one after another.
+     *
+     * @param newGraph
+     *            the graph for which to execute the network simplex
+     * @return the {@link NetworkSimplex} instance for further configuration or execution.
+     */
+    public NetworkSimplex reuseFor(final NGraph newGraph) {
+        this.graph = newGraph;
+        return this;
+    }
+
     // =============================== Initialization Methods =====================================
 
     /**
-     * Helper method for the network simplex layerer. It instantiates all necessary attributes for
-     * the execution of the network simplex layerer and initializes them with their default values.
-     * All edges in the connected component given by the input argument will be determined, as well
-     * as the number of incoming and outgoing edges of each node ( {@code inDegree}, respectively
-     * {@code outDegree}). All sinks and source nodes in the connected component identified in this
-     * step will be added to {@code sinks}, respectively {@code sources}.
-     * 
+     * Helper method for the network simplex layerer. It converts the graph into the array-based
+     * representation all other methods work on and initializes all attributes with their default
+     * values. Nodes and edges are re-indexed along the way.
      */
     private void initialize() {
-        // initialize node attributes
-        int numNodes = graph.nodes.size();
-        for (NNode n : graph.nodes) {
-            n.treeNode = false;
-        }
-        poID = new int[numNodes];
-        lowestPoID = new int[numNodes];
-        sources = Lists.newArrayList();
-
-        // determine edges and re-index nodes
+        // re-index nodes and edges
+        nodeCount = graph.nodes.size();
+        edgeCount = 0;
+        int incidentCount = 0;
         int index = 0;
-        List<NEdge> theEdges = Lists.newArrayList();
         for (NNode node : graph.nodes) {
             node.internalId = index++;
-            // add node to sinks, resp. sources
-            if (node.getIncomingEdges().size() == 0) {
-                sources.add(node);
+            for (NEdge edge : node.getOutgoingEdges()) {
+                edge.internalId = edgeCount++;
+            }
+            incidentCount += node.getConnectedEdges().size();
+        }
+
+        // make sure the arrays are large enough
+        if (layer == null || layer.length < nodeCount) {
+            layer = new int[nodeCount];
+            incidentEdgesStart = new int[nodeCount + 1];
+            treeNode = new boolean[nodeCount];
+            poID = new int[nodeCount];
+            lowestPoID = new int[nodeCount];
+            // postorder IDs start at 1
+            nodeByPoID = new int[nodeCount + 1];
+            parentEdge = new int[nodeCount];
+            nodeStack = new int[nodeCount];
+            incidentEdgeStack = new int[nodeCount];
+        }
+        if (edgeSource == null || edgeSource.length < edgeCount) {
+            edgeSource = new int[edgeCount];
+            edgeTarget = new int[edgeCount];
+            edgeDelta = new int[edgeCount];
+            edgeWeight = new double[edgeCount];
+            treeEdge = new boolean[edgeCount];
+            edgeVisited = new boolean[edgeCount];
+            nextTreeEdge = new int[edgeCount];
+            previousTreeEdge = new int[edgeCount];
+            cutvalue = new double[edgeCount];
+        }
+        if (incidentEdges == null || incidentEdges.length < incidentCount) {
+            incidentEdges = new int[incidentCount];
+        }
+
+        // fill the arrays
+        int incidentIndex = 0;
+        for (NNode node : graph.nodes) {
+            int n = node.internalId;
+            layer[n] = node.layer;
+            treeNode[n] = false;
+            incidentEdgesStart[n] = incidentIndex;
+            for (NEdge edge : node.getConnectedEdges()) {
+                incidentEdges[incidentIndex++] = edge.internalId;
+            }
+            for (NEdge edge : node.getOutgoingEdges()) {
+                int e = edge.internalId;
+                edgeSource[e] = n;
+                edgeTarget[e] = edge.getTarget().internalId;
+                edgeDelta[e] = edge.delta;
+                edgeWeight[e] = edge.weight;
             }
-            theEdges.addAll(node.getOutgoingEdges());
-        }
-        // re-index edges
-        int counter = 0;
-        for (NEdge edge : theEdges) {
-            edge.internalId = counter++;
-            edge.treeEdge = false;
-        }
-        // initialize edge attributes
-        int numEdges = theEdges.size();
-        if (cutvalue == null || cutvalue.length < numEdges) {
-            cutvalue = new double[numEdges];
-            edgeVisited = new boolean[numEdges];
-        } else {
-            Arrays.fill(edgeVisited, false);
         }
-        edges = theEdges;
-        // we iterate over this set, thus we have to use a linked hash set 
-        // to get a deterministic iteration order
-        treeEdges = Sets.newLinkedHashSetWithExpectedSize(edges.size());
+        incidentEdgesStart[nodeCount] = incidentIndex;
+        Arrays.fill(treeEdge, 0, edgeCount, false);
+        Arrays.fill(edgeVisited, 0, edgeCount, false);
+        firstTreeEdge = -1;
+        lastTreeEdge = -1;
         postOrder = 1;
     }
 
     /**
-     * Release all created resources so the GC can reap them.
+     * Release all references to the graph so the GC can reap it. The arrays are kept for later executions.
      */
     private void dispose() {
-        this.cutvalue = null;
-        this.edges = null;
-        this.treeEdges = null;
-        this.edgeVisited = null;
-        this.lowestPoID = null;
-        this.poID = null;
-        this.sources = null;
         this.subtreeNodesStack = null;
     }
 
     // ============================== Network-Simplex Algorithm ===================================
 
     /**
-     * Determine the optimal layering. 
+     * Determine the optimal layering.
      */
     public void execute() {
         execute(new BasicProgressMonitor());
     }
-    
+
     /**
-     * Determine the optimal layering.  
-     * 
+     * Determine the optimal layering.
+     *
      * @param monitor
      *            a progress monitor
      */
@@ -273,12 +352,12 @@ public final class NetworkSimplex  {
             monitor.done();
             return;
         }
-        
+
         // reset any old layering
         for (NNode node : graph.nodes) {
             node.layer = 0;
         }
-        
+
         // remove leafs
         boolean removeSubtrees = graph.nodes.size() >= REMOVE_SUBTREES_THRESH;
         if (removeSubtrees) {
@@ -290,20 +369,25 @@ public final class NetworkSimplex  {
         // determine an initial feasible layering
         feasibleTree();
         // improve the initial layering until it is optimal
-        NEdge e = leaveEdge();
+        int e = leaveEdge();
         int iter = 0;
-        while (e != null && iter < iterationLimit) {
+        while (e != -1 && iter < iterationLimit) {
             // current layering is not optimal
             exchange(e, enterEdge(e));
             e = leaveEdge();
             iter++;
         }
 
+        // transfer the layering back to the graph
+        for (NNode node : graph.nodes) {
+            node.layer = layer[node.internalId];
+        }
+
         // re-attach leafs
         if (removeSubtrees) {
             reattachSubtrees();
         }
-        
+
         // normalize and, if desired, balance
         //   both methods must work on the NNode#layer field
         if (balance) {
@@ -311,30 +395,31 @@ public final class NetworkSimplex  {
         } else {
             normalize();
         }
-        
+
         // release the created resources
         dispose();
         monitor.done();
     }
-    
-    
+
+
     /**
      * Recursively removes subtrees. In other words, removes leafs from the graph until no more
      * leafs are present.
      */
     private void removeSubtrees() {
-        
+
         subtreeNodesStack = new ArrayDeque<>();
-        
+
         // find initial leafs
-        Queue<NNode> leafs = Lists.newLinkedList();
+        Queue<NNode> leafs = new ArrayDeque<>();
         for (NNode node : graph.nodes) {
             if (node.getConnectedEdges().size() == 1) {
                 leafs.add(node);
             }
         }
-        
+
         // remove them from the graph like there's no tomorrow
+        Set<NNode> removed = Sets.newHashSet();
         while (!leafs.isEmpty()) {
             NNode node = leafs.poll();
             // was the edge already removed?
@@ -343,40 +428,43 @@ public final class NetworkSimplex  {
             }
             NEdge edge = node.getConnectedEdges().get(0);
             boolean isOutEdge = node.getOutgoingEdges().size() > 0;
-            
+
             NNode other = edge.getOther(node);
             if (isOutEdge) {
                 other.getIncomingEdges().remove(edge);
             } else {
                 other.getOutgoingEdges().remove(edge);
             }
-            
+
             if (other.getConnectedEdges().size() == 1) {
                 leafs.add(other);
             }
-            
+
             Pair<NNode, NEdge> leafy = Pair.of(node, edge);
             subtreeNodesStack.push(leafy);
-            // remove the node from the graph's nodes
-            graph.nodes.remove(node);
+            removed.add(node);
+        }
+
+        // remove the nodes from the graph's nodes at once, which retains the order of the remaining nodes
+        if (!removed.isEmpty()) {
+            graph.nodes.removeIf(removed::contains);
         }
-        
     }
-    
+
     /**
-     * Re-attaches the previously removed tree nodes. It is important that 
-     * the nodes are re-attached in the opposite order than they were removed.  
+     * Re-attaches the previously removed tree nodes. It is important that
+     * the nodes are re-attached in the opposite order than they were removed.
      */
     private void reattachSubtrees() {
-        
+
         while (!subtreeNodesStack.isEmpty()) {
-            
+
             Pair<NNode, NEdge> leafy = subtreeNodesStack.pop();
             NNode node = leafy.getFirst();
             NEdge edge = leafy.getSecond();
-            
+
             NNode placed = edge.getOther(node);
-            
+
             if (edge.target == node) {
                 placed.getOutgoingEdges().add(edge);
                 node.layer = placed.layer + edge.delta;
@@ -384,10 +472,10 @@ public final class NetworkSimplex  {
                 placed.getIncomingEdges().add(edge);
                 node.layer = placed.layer - edge.delta;
             }
-            
+
             graph.nodes.add(node);
         }
-        
+
     }
 
     /**
@@ -401,68 +489,76 @@ public final class NetworkSimplex  {
      * become tight and will be added to the spanning tree together with all tight edges leading to
      * non-tree nodes as well. If all nodes of the graph are contained in the spanning tree, a tight
      * tree has been found. A concluding computation of each edge's initial cut value takes place.
-     * 
-     * @see NetworkSimplex#tightTreeDFS(NNode) tightTreeDFS()
+     *
+     * @see NetworkSimplex#tightTreeDFS(int) tightTreeDFS()
      */
     private void feasibleTree() {
-        
+
         // determine initial layering
-        layeringTopologicalNumbering(sources);
-        
-        if (edges.size() > 0) {
-            Arrays.fill(edgeVisited, false);
-            while (tightTreeDFS(graph.nodes.iterator().next()) < graph.nodes.size()) {
+        layeringTopologicalNumbering();
+
+        if (edgeCount > 0) {
+            Arrays.fill(edgeVisited, 0, edgeCount, false);
+            while (tightTreeDFS(0) < nodeCount) {
                 // some nodes are still not part of the tree
-                NEdge e = minimalSlack();
-                int slack = e.getTarget().layer - e.getSource().layer - e.delta;
-                if (e.getTarget().treeNode) {
+                int e = minimalSlack();
+                int slack = layer[edgeTarget[e]] - layer[edgeSource[e]] - edgeDelta[e];
+                if (treeNode[edgeTarget[e]]) {
                     slack = -slack;
                 }
 
                 // update tree
-                for (NNode node : graph.nodes) {
-                    if (node.treeNode) {
-                        node.layer += slack;
+                for (int n = 0; n < nodeCount; n++) {
+                    if (treeNode[n]) {
+                        layer[n] += slack;
                     }
                 }
-                Arrays.fill(edgeVisited, false);
+                Arrays.fill(edgeVisited, 0, edgeCount, false);
             }
             // update tree-related attributes
-            Arrays.fill(edgeVisited, false);
-            postorderTraversal(graph.nodes.iterator().next());
+            postorderTraversal(0, -1, 1);
             cutvalues();
         }
     }
 
     /**
      * Helper method for the network simplex layerer. It determines an (initial) feasible layering
-     * for the graph by traversing it by a minimal topological numbering. Dependently of
-     * the chosen mode indicated by {@code reverse}, this method traverses incoming edges (if
-     * {@code reverse = true}), or outgoing edges, if {@code reverse = false}, only. Therefore, this
-     * method should only be called with source nodes as argument in the first-mentioned case and
-     * only with sink nodes in the latter case.
-     * 
-     * @param initialRootNodes
-     *            the roots of the topological numbering (sources or sinks, depending on the direction)
+     * for the graph by traversing it by a minimal topological numbering, starting at all sources
+     * of the graph and following outgoing edges only.
      */
-    private void layeringTopologicalNumbering(final List<NNode> initialRootNodes) {
-        
-        // initialize the number of incident edges for each node
-        int[] incident = new int[graph.nodes.size()];
-        for (NNode node : graph.nodes) {
-            incident[node.internalId] += node.getIncomingEdges().size();
+    private void layeringTopologicalNumbering() {
+
+        // initialize the number of incident edges for each node, and start at the sources;
+        //  nodeStack serves as queue here since every node is added exactly once
+        int[] incident = incidentEdgeStack;
+        int[] queue = nodeStack;
+        int head = 0;
+        int tail = 0;
+        for (int n = 0; n < nodeCount; n++) {
+            incident[n] = 0;
+        }
+        for (int e = 0; e < edgeCount; e++) {
+            incident[edgeTarget[e]]++;
+        }
+        for (int n = 0; n < nodeCount; n++) {
+            if (incident[n] == 0) {
+                queue[tail++] = n;
+            }
         }
 
-        LinkedList<NNode> roots = Lists.newLinkedList(initialRootNodes);
-        while (!roots.isEmpty()) {
-            NNode node = roots.poll();
-            
-            for (NEdge edge : node.getOutgoingEdges()) {
-                NNode target = edge.getTarget();
-                target.layer = Math.max(target.layer, node.layer + edge.delta);
-                incident[target.internalId]--;
-                if (incident[target.internalId] == 0) {
-                    roots.add(target);
+        while (head < tail) {
+            int node = queue[head++];
+
+            for (int i = incidentEdgesStart[node]; i < incidentEdgesStart[node + 1]; i++) {
+                int edge = incidentEdges[i];
+                if (edgeSource[edge] != node) {
+                    continue;
+                }
+                int target = edgeTarget[edge];
+                layer[target] = Math.max(layer[target], layer[node] + edgeDelta[edge]);
+                incident[target]--;
+                if (incident[target] == 0) {
+                    queue[tail++] = target;
                 }
             }
         }
@@ -471,7 +567,7 @@ public final class NetworkSimplex  {
     /**
      * Helper method for the network simplex layerer. It determines the length of the currently
      * shortest incoming or outgoing edge of the input node.
-     * 
+     *
      * @param node
      *            the node to determine the length of its shortest incoming or outgoing edge
      * @return a pair containing the length of the shortest incoming (first element) and outgoing
@@ -491,7 +587,7 @@ public final class NetworkSimplex  {
                 minSpanOut = currentSpan;
             }
         }
-        
+
         if (minSpanIn == Integer.MAX_VALUE) {
             minSpanIn = -1;
         }
@@ -506,57 +602,72 @@ public final class NetworkSimplex  {
      * Helper method for the network simplex layerer. It determines a DFS-subtree of the graph by
      * traversing tight edges only (i.e. edges whose current length matches their minimal length in
      * the layering) and returns the number of nodes in this. If this number is equal to the total
-     * number of nodes in the graph, a tight spanning tree has been determined.
-     * 
-     * @param node
+     * number of nodes in the graph, a tight spanning tree has been determined. The traversal uses
+     * an explicit stack to not overflow the call stack on large graphs.
+     *
+     * @param root
      *            the root of the DFS-subtree
      * @return the number of nodes in the determined tight DFS-tree
      */
-    private int tightTreeDFS(final NNode node) {
-        int nodeCount = 1;
-        node.treeNode = true;
-        NNode opposite = null;
-        for (NEdge edge : node.getConnectedEdges()) {
-            if (!edgeVisited[edge.internalId]) {
-                edgeVisited[edge.internalId] = true;
-                opposite = edge.getOther(node);
-                if (edge.treeEdge) {
-                    // edge is a tree edge already: follow this path
-                    nodeCount += tightTreeDFS(opposite);
-                } else if (!opposite.treeNode
-                        && edge.delta == edge.getTarget().layer
-                                - edge.getSource().layer) {
-                    // edge is a tight non-tree edge
-                    edge.treeEdge = true;
-                    treeEdges.add(edge);
-                    nodeCount += tightTreeDFS(opposite);
+    private int tightTreeDFS(final int root) {
+        int treeSize = 1;
+        treeNode[root] = true;
+        nodeStack[0] = root;
+        incidentEdgeStack[0] = incidentEdgesStart[root];
+        int stackSize = 1;
+
+        while (stackSize > 0) {
+            int node = nodeStack[stackSize - 1];
+            int i = incidentEdgeStack[stackSize - 1];
+            if (i == incidentEdgesStart[node + 1]) {
+                stackSize--;
+                continue;
+            }
+            incidentEdgeStack[stackSize - 1]++;
+
+            int edge = incidentEdges[i];
+            if (!edgeVisited[edge]) {
+                edgeVisited[edge] = true;
+                int opposite = other(edge, node);
+                if (treeEdge[edge]
+                        || !treeNode[opposite]
+                                && edgeDelta[edge] == layer[edgeTarget[edge]] - layer[edgeSource[edge]]) {
+                    // edge is a tree edge already or a tight non-tree edge: follow this path
+                    if (!treeEdge[edge]) {
+                        addTreeEdge(edge);
+                    }
+                    treeNode[opposite] = true;
+                    treeSize++;
+                    nodeStack[stackSize] = opposite;
+                    incidentEdgeStack[stackSize] = incidentEdgesStart[opposite];
+                    stackSize++;
                 }
             }
         }
-        return nodeCount;
+        return treeSize;
     }
 
     /**
      * Helper method for the network simplex layerer. It returns the non-tree edge incident on the
      * tree and incident to a non-tree node with a minimal amount of slack (i.e. an edge with the
-     * lowest difference between its current and minimal length) or {@code null}, if no such edge
+     * lowest difference between its current and minimal length) or {@code -1}, if no such edge
      * exists. Note, that the returned edge's slack is never {@code 0}, since otherwise, the edge
      * would be a tree-edge.
-     * 
-     * @return a non-tree edge incident on the tree with a minimal amount of slack or {@code null},
+     *
+     * @return a non-tree edge incident on the tree with a minimal amount of slack or {@code -1},
      *         if no such edge exists
      */
-    private NEdge minimalSlack() {
+    private int minimalSlack() {
         int minSlack = Integer.MAX_VALUE;
-        NEdge minSlackEdge = null;
+        int minSlackEdge = -1;
         int curSlack;
-        for (NEdge edge : edges) {
-            if (edge.getSource().treeNode ^ edge.getTarget().treeNode) {
+        for (int e = 0; e < edgeCount; e++) {
+            if (treeNode[edgeSource[e]] ^ treeNode[edgeTarget[e]]) {
                 // edge is non-tree edge and incident on the tree
-                curSlack = edge.getTarget().layer - edge.getSource().layer - edge.delta;
+                curSlack = layer[edgeTarget[e]] - layer[edgeSource[e]] - edgeDelta[e];
                 if (curSlack < minSlack) {
                     minSlack = curSlack;
-                    minSlackEdge = edge;
+                    minSlackEdge = e;
                 }
             }
         }
@@ -565,30 +676,75 @@ public final class NetworkSimplex  {
 
     /**
      * Helper method for the network simplex layerer. It performs a postorder DFS-traversal of the
-     * graph beginning with the input node. Each node will be assigned a unique traversal ID, which
-     * will be stored in {@code poID}. Furthermore, the lowest postorder traversal ID of any node in
-     * a descending path relative to the input node will be computed and stored in
-     * {@code lowestPoID}, which is also the return value of this method.
-     * 
-     * @param node
+     * spanning tree beginning with the input node. Each node will be assigned a unique traversal ID,
+     * which will be stored in {@code poID}. Furthermore, the lowest postorder traversal ID of any
+     * node in a descending path relative to a node will be computed and stored in
+     * {@code lowestPoID}, and the tree edge leading to a node's parent in {@code parentEdge}.
+     *
+     * <p>The traversal can be restricted to the subtree of the input node. The IDs of a subtree's
+     * nodes form a consecutive range that does not change as long as the subtree contains the same
+     * nodes, which allows to only traverse the part of the tree that changed in
+     * {@link #exchange(int, int)}.</p>
+     *
+     * @param root
      *            the root of the DFS-subtree
-     * @return the lowest post-order ID of any descending edge in the depth-first-search
-     * 
+     * @param rootParentEdge
+     *            the tree edge leading to the parent of the root, which is not traversed, or
+     *            {@code -1} if the whole tree is to be traversed
+     * @param firstPoID
+     *            the lowest ID to be assigned
+     *
      * @see NetworkSimplex#poID poID
      * @see NetworkSimplex#lowestPoID lowestPoID
      * @see NetworkSimplex#postOrder postOrder
      */
-    private int postorderTraversal(final NNode node) {
-        int lowest = Integer.MAX_VALUE;
-        for (NEdge edge : node.getConnectedEdges()) {
-            if (edge.treeEdge && !edgeVisited[edge.internalId]) {
-                edgeVisited[edge.internalId] = true;
-                lowest = Math.min(lowest, postorderTraversal(edge.getOther(node)));
+    private void postorderTraversal(final int root, final int rootParentEdge, final int firstPoID) {
+        postOrder = firstPoID;
+        parentEdge[root] = rootParentEdge;
+        lowestPoID[root] = Integer.MAX_VALUE;
+        nodeStack[0] = root;
+        incidentEdgeStack[0] = incidentEdgesStart[root];
+        int stackSize = 1;
+
+        while (stackSize > 0) {
+            int node = nodeStack[stackSize - 1];
+            int i = incidentEdgeStack[stackSize - 1];
+            if (i < incidentEdgesStart[node + 1]) {
+                incidentEdgeStack[stackSize - 1]++;
+                int edge = incidentEdges[i];
+                if (treeEdge[edge] && edge != parentEdge[node]) {
+                    int child = other(edge, node);
+                    parentEdge[child] = edge;
+                    lowestPoID[child] = Integer.MAX_VALUE;
+                    nodeStack[stackSize] = child;
+                    incidentEdgeStack[stackSize] = incidentEdgesStart[child];
+                    stackSize++;
+                }
+            } else {
+                // all children are done
+                stackSize--;
+                poID[node] = postOrder;
+                nodeByPoID[postOrder] = node;
+                lowestPoID[node] = Math.min(lowestPoID[node], postOrder++);
+                if (stackSize > 0) {
+                    int parent = nodeStack[stackSize - 1];
+                    lowestPoID[parent] = Math.min(lowestPoID[parent], lowestPoID[node]);
+                }
             }
         }
-        poID[node.internalId] = postOrder;
-        lowestPoID[node.internalId] = Math.min(lowest, postOrder++);
-        return lowestPoID[node.internalId];
+    }
+
+    /**
+     * Determines whether a node is part of the subtree rooted at another node.
+     *
+     * @param node
+     *            the node to check
+     * @param subtreeRoot
+     *            the root of the subtree
+     * @return {@code true}, if {@code node} is a descendant of {@code subtreeRoot} or the root itself
+     */
+    private boolean isInSubtree(final int node, final int subtreeRoot) {
+        return lowestPoID[subtreeRoot] <= poID[node] && poID[node] <= poID[subtreeRoot];
     }
 
     /**
@@ -599,34 +755,23 @@ public final class NetworkSimplex  {
      * contains the edge's source node. Note that a node either belongs to the head or tail
      * component. Therefore, if the node is not part of the head component, it must be part of the
      * tail component and vice versa.
-     * 
+     *
      * @param node
      *            the node to determine, whether it belongs to the edges head (or tail) component
      * @param edge
-     *            the edge to determine, whether the node is in the head (or tail) component
+     *            the tree edge to determine, whether the node is in the head (or tail) component
      * @return {@code true}, if node is in the head component or {@code false}, if the node is in
      *         the tail component of the edge
      */
-    private boolean isInHead(final NNode node, final NEdge edge) {
-        NNode source = edge.getSource();
-        NNode target = edge.getTarget();
-
-        if (lowestPoID[source.internalId] <= poID[node.internalId] 
-                && poID[node.internalId] <= poID[source.internalId]
-                && lowestPoID[target.internalId] <= poID[node.internalId] 
-                && poID[node.internalId] <= poID[target.internalId]) {
-            // node is in a descending path in the DFS-Tree
-            if (poID[source.internalId] < poID[target.internalId]) {
-                // root is in the head component
-                return false;
-            }
-            return true;
-        }
-        if (poID[source.internalId] < poID[target.internalId]) {
-            // root is in the head component
-            return true;
+    private boolean isInHead(final int node, final int edge) {
+        int source = edgeSource[edge];
+        int target = edgeTarget[edge];
+
+        // the component that does not contain the root is the subtree below the edge
+        if (poID[source] < poID[target]) {
+            return !isInSubtree(node, source);
         }
-        return false;
+        return isInSubtree(node, target);
     }
 
     /**
@@ -636,128 +781,120 @@ public final class NetworkSimplex  {
      * component containing the source node of the edge. The cut value is the sum of the weights of
      * all edges going from the tail to the head component, including the tree edge itself, minus
      * the sum of the weights of all edges from the head to the tail component.
-     * 
+     *
+     * <p>The nodes are visited in postorder such that the cut value of a tree edge can be computed
+     * from the cut values of the tree edges further down the tree.</p>
+     *
      * @see NetworkSimplex#cutvalue cutvalue
      */
     private void cutvalues() {
-        // determine incident tree edges for each node
-        List<NNode> leafs = Lists.newArrayList();
-        int treeEdgeCount;
-        for (NNode node : graph.nodes) {
-            treeEdgeCount = 0;
-            node.unknownCutvalues.clear();
-            for (NEdge edge : node.getConnectedEdges()) {
-                if (edge.treeEdge) {
-                    node.unknownCutvalues.add(edge);
-                    treeEdgeCount++;
-                }
-            }
-            if (treeEdgeCount == 1) {
-                leafs.add(node);
-            }
-        }
-        
-        // determine cut values
-        NEdge toDetermine;
-        NNode source, target;
-        for (NNode node : leafs) {
-            while (node.unknownCutvalues.size() == 1) {
-                // one tree edge with undetermined cut value is incident
-                toDetermine = node.unknownCutvalues.iterator().next();
-                cutvalue[toDetermine.internalId] = toDetermine.weight;
-                source = toDetermine.getSource();
-                target = toDetermine.getTarget();
-                for (NEdge edge : node.getConnectedEdges()) {
-                    if (!edge.equals(toDetermine)) {
-                        if (edge.treeEdge) {
-                            // edge is tree edge
-                            if (source.equals(edge.getSource())
-                                    || target.equals(edge.getTarget())) {
-                                // edge has not the same direction as toDetermine
-                                cutvalue[toDetermine.internalId] -= cutvalue[edge.internalId] - edge.weight;
-                            } else {
-                                cutvalue[toDetermine.internalId] += cutvalue[edge.internalId] - edge.weight;
-                            }
+        // the root (the last node in postorder) has no parent edge
+        for (int id = 1; id < nodeCount; id++) {
+            int node = nodeByPoID[id];
+            int toDetermine = parentEdge[node];
+            int source = edgeSource[toDetermine];
+            int target = edgeTarget[toDetermine];
+            double value = edgeWeight[toDetermine];
+
+            for (int i = incidentEdgesStart[node]; i < incidentEdgesStart[node + 1]; i++) {
+                int edge = incidentEdges[i];
+                if (edge != toDetermine) {
+                    if (treeEdge[edge]) {
+                        // edge is tree edge
+                        if (source == edgeSource[edge] || target == edgeTarget[edge]) {
+                            // edge has not the same direction as toDetermine
+                            value -= cutvalue[edge] - edgeWeight[edge];
                         } else {
-                            // edge is non-tree edge
-                            if (node.equals(source)) {
-                                if (edge.getSource().equals(node)) {
-                                    cutvalue[toDetermine.internalId] += edge.weight;
-                                } else {
-                                    cutvalue[toDetermine.internalId] -= edge.weight;
-                                }
-                            } else {
-                                if (edge.getSource().equals(node)) {
-                                    cutvalue[toDetermine.internalId] -= edge.weight;
-                                } else {
-                                    cutvalue[toDetermine.internalId] += edge.weight;
-                                }
-                            }
+                            value += cutvalue[edge] - edgeWeight[edge];
+                        }
+                    } else {
+                        // edge is non-tree edge
+                        if ((node == source) == (edgeSource[edge] == node)) {
+                            value += edgeWeight[edge];
+                        } else {
+                            value -= edgeWeight[edge];
                         }
                     }
                 }
-                
-                // remove edge from 'unknownCutvalues'
-                source.unknownCutvalues.remove(toDetermine);
-                target.unknownCutvalues.remove(toDetermine);
-                
-                // proceed with next node
-                if (source.equals(node)) {
-                    node = toDetermine.getTarget();
-                } else {
-                    node = toDetermine.getSource();
-                }
             }
+            cutvalue[toDetermine] = value;
         }
     }
 
     /**
      * Helper method for the network simplex layerer. It returns a tree edge with a negative cut
-     * value or {@code null}, if no such edge exists, meaning that the current layer assignment of
+     * value or {@code -1}, if no such edge exists, meaning that the current layer assignment of
      * all nodes is optimal. Note, that this method returns any edge with a negative cut value. A
      * special preference to an edge with lowest value will not be given.
-     * 
-     * @return a tree edge with negative cut value or {@code null}, if no such edge exists
+     *
+     * @return a tree edge with negative cut value or {@code -1}, if no such edge exists
      */
-    private NEdge leaveEdge() {
-        for (NEdge edge : treeEdges) {
-            if (edge.treeEdge && cutvalue[edge.internalId] < FUZZY_ST_ZERO) {
+    private int leaveEdge() {
+        for (int edge = firstTreeEdge; edge != -1; edge = nextTreeEdge[edge]) {
+            if (cutvalue[edge] < FUZZY_ST_ZERO) {
                 return edge;
             }
         }
-        return null;
+        return -1;
     }
 
     /**
      * Helper method for the network simplex layerer. It determines an non-tree edge to replace the
      * given tree edge in the spanning tree. All edges going from the head component to the tail
      * component of the edge will be considered. The edge with a minimal amount of slack (i.e. the
-     * lowest difference between its current to its minimal length) will be returned.
-     * 
+     * lowest difference between its current to its minimal length) will be returned. Of several
+     * such edges, the one with the lowest index is returned.
+     *
+     * <p>If the subtree below the given edge is small, only the edges incident to its nodes are
+     * considered since every candidate has exactly one end in the subtree.</p>
+     *
      * @param leave
      *            the tree edge to determine a non-tree edge to be replaced with
      * @return a non-tree edge with a minimal amount of slack to replace the given edge
      * @throws IllegalArgumentException
      *             if the input edge is not a tree edge
      */
-    private NEdge enterEdge(final NEdge leave) {
-        if (!leave.treeEdge) {    
+    private int enterEdge(final int leave) {
+        if (!treeEdge[leave]) {
             throw new IllegalArgumentException("The input edge is not a tree edge.");
         }
 
-        NEdge replace = null;
+        int replace = -1;
         int repSlack = Integer.MAX_VALUE;
         int slack;
-        NNode source, target;
-        for (NEdge edge : edges) {
-            source = edge.getSource();
-            target = edge.getTarget();
-            if (isInHead(source, leave) && !isInHead(target, leave)) {
-                // edge is to consider
-                slack = target.layer - source.layer - edge.delta;
-                if (slack < repSlack) {
-                    repSlack = slack;
-                    replace = edge;
+
+        int subtreeRoot = poID[edgeSource[leave]] < poID[edgeTarget[leave]]
+                ? edgeSource[leave] : edgeTarget[leave];
+        int subtreeSize = poID[subtreeRoot] - lowestPoID[subtreeRoot] + 1;
+
+        if (2 * subtreeSize <= nodeCount) {
+            // if the subtree is the head component, candidates leave it, otherwise they enter it
+            boolean subtreeIsHead = subtreeRoot == edgeTarget[leave];
+            for (int id = lowestPoID[subtreeRoot]; id <= poID[subtreeRoot]; id++) {
+                int node = nodeByPoID[id];
+                for (int i = incidentEdgesStart[node]; i < incidentEdgesStart[node + 1]; i++) {
+                    int edge = incidentEdges[i];
+                    if ((edgeSource[edge] == node) == subtreeIsHead
+                            && !isInSubtree(other(edge, node), subtreeRoot)) {
+                        // edge is to consider
+                        slack = layer[edgeTarget[edge]] - layer[edgeSource[edge]] - edgeDelta[edge];
+                        if (slack < repSlack || slack == repSlack && edge < replace) {
+                            repSlack = slack;
+                            replace = edge;
+                        }
+                    }
+                }
+            }
+
+        } else {
+            for (int edge = 0; edge < edgeCount; edge++) {
+                if (isInHead(edgeSource[edge], leave) && !isInHead(edgeTarget[edge], leave)) {
+                    // edge is to consider
+                    slack = layer[edgeTarget[edge]] - layer[edgeSource[edge]] - edgeDelta[edge];
+                    if (slack < repSlack) {
+                        repSlack = slack;
+                        replace = edge;
+                    }
                 }
             }
         }
@@ -766,48 +903,134 @@ public final class NetworkSimplex  {
 
     /**
      * Helper method for the network simplex layerer. It exchanges the tree-edge {@code leave} by
-     * the non-tree edge {@code enter} and updates all values based on the tree (i.e. performs a new
-     * postorder DFS-traversal and updates the cut values).
-     * 
+     * the non-tree edge {@code enter} and updates all values based on the tree. Following Gansner
+     * et al., this is done incrementally: only the nodes of the subtree below {@code leave} change
+     * their layer, only the cut values of the tree edges on the path between the end points of
+     * {@code enter} change, and only the subtree rooted at the end points' lowest common ancestor
+     * is traversed again to update the postorder IDs.
+     *
      * @param leave
      *            the tree-edge to be replaced
      * @param enter
      *            the non-tree edge to replace the tree edge
      * @throws IllegalArgumentException
      *             if either {@code leave} is no tree edge or {@code enter} is a tree edge already
-     * 
-     * @see NetworkSimplex#enterEdge(NEdge) enterEdge()
+     *
+     * @see NetworkSimplex#enterEdge(int) enterEdge()
      * @see NetworkSimplex#leaveEdge() leaveEdge()
      */
-    private void exchange(final NEdge leave, final NEdge enter) {
-        if (!leave.treeEdge) {
+    private void exchange(final int leave, final int enter) {
+        if (!treeEdge[leave]) {
             throw new IllegalArgumentException("Given leave edge is no tree edge.");
         }
-        if (enter.treeEdge) {
+        if (treeEdge[enter]) {
             throw new IllegalArgumentException("Given enter edge is a tree edge already.");
         }
 
-        // update tree
-        leave.treeEdge = false;
-        treeEdges.remove(leave);
-        enter.treeEdge = true;
-        treeEdges.add(enter);
-        int delta = enter.getTarget().layer - enter.getSource().layer - enter.delta;
-        if (!isInHead(enter.getTarget(), leave)) {
-            delta = -delta;
+        // make the entering edge tight by moving the subtree below the leaving edge, which is
+        //  equivalent to moving the other component in the opposite direction
+        int slack = layer[edgeTarget[enter]] - layer[edgeSource[enter]] - edgeDelta[enter];
+        int subtreeRoot;
+        if (poID[edgeSource[leave]] < poID[edgeTarget[leave]]) {
+            // the subtree is the tail component, which contains the entering edge's target
+            subtreeRoot = edgeSource[leave];
+            slack = -slack;
+        } else {
+            subtreeRoot = edgeTarget[leave];
         }
-        for (NNode node : graph.nodes) {
-            if (!isInHead(node, leave)) {
-                node.layer += delta;
-            }
+        for (int id = lowestPoID[subtreeRoot]; id <= poID[subtreeRoot]; id++) {
+            layer[nodeByPoID[id]] += slack;
         }
-        
-        // TODO it should be possible to do this incrementally right?
+
+        // update the cut values along the cycle the entering edge closes
+        double leaveCutvalue = cutvalue[leave];
+        int lca = updateCutvalues(edgeSource[enter], edgeTarget[enter], leaveCutvalue, true);
+        updateCutvalues(edgeTarget[enter], edgeSource[enter], leaveCutvalue, false);
+        cutvalue[enter] = -leaveCutvalue;
+
+        // update tree
+        removeTreeEdge(leave);
+        addTreeEdge(enter);
+
         // update tree-based values
-        postOrder = 1;
-        Arrays.fill(edgeVisited, false);
-        postorderTraversal(graph.nodes.iterator().next());
-        cutvalues();
+        postorderTraversal(lca, parentEdge[lca], lowestPoID[lca]);
+    }
+
+    /**
+     * Helper method for {@link #exchange(int, int)}. Walks up the tree from {@code node} until
+     * reaching an ancestor of {@code other} and updates the cut values of all tree edges on the
+     * way by the cut value of the leaving edge.
+     *
+     * @param node
+     *            the end point of the entering edge to start at
+     * @param other
+     *            the other end point of the entering edge
+     * @param leaveCutvalue
+     *            the cut value of the leaving edge
+     * @param sourceSide
+     *            whether {@code node} is the source of the entering edge
+     * @return the lowest common ancestor of {@code node} and {@code other}
+     */
+    private int updateCutvalues(final int node, final int other, final double leaveCutvalue,
+            final boolean sourceSide) {
+
+        int current = node;
+        while (!isInSubtree(other, current)) {
+            int edge = parentEdge[current];
+            if ((current == edgeSource[edge]) == sourceSide) {
+                cutvalue[edge] += leaveCutvalue;
+            } else {
+                cutvalue[edge] -= leaveCutvalue;
+            }
+            current = parent(edge);
+        }
+        return current;
+    }
+
+    /**
+     * Appends an edge to the list of tree edges.
+     */
+    private void addTreeEdge(final int edge) {
+        treeEdge[edge] = true;
+        previousTreeEdge[edge] = lastTreeEdge;
+        nextTreeEdge[edge] = -1;
+        if (lastTreeEdge == -1) {
+            firstTreeEdge = edge;
+        } else {
+            nextTreeEdge[lastTreeEdge] = edge;
+        }
+        lastTreeEdge = edge;
+    }
+
+    /**
+     * Removes an edge from the list of tree edges.
+     */
+    private void removeTreeEdge(final int edge) {
+        treeEdge[edge] = false;
+        if (previousTreeEdge[edge] == -1) {
+            firstTreeEdge = nextTreeEdge[edge];
+        } else {
+            nextTreeEdge[previousTreeEdge[edge]] = nextTreeEdge[edge];
+        }
+        if (nextTreeEdge[edge] == -1) {
+            lastTreeEdge = previousTreeEdge[edge];
+        } else {
+            previousTreeEdge[nextTreeEdge[edge]] = previousTreeEdge[edge];
+        }
+    }
+
+    /**
+     * Returns the end point of an edge that is not the given node.
+     */
+    private int other(final int edge, final int node) {
+        return edgeSource[edge] == node ? edgeTarget[edge] : edgeSource[edge];
+    }
+
+    /**
+     * Returns the end point of a tree edge that is closer to the root of the tree.
+     */
+    private int parent(final int edge) {
+        return poID[edgeSource[edge]] > poID[edgeTarget[edge]] ? edgeSource[edge] : edgeTarget[edge];
     }
 
     /**
@@ -9,8 +9,11 @@
  *******************************************************************************/
 package org.eclipse.elk.alg.force;
 
+import java.util.ArrayDeque;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -63,7 +66,7 @@ public final class ComponentsProcessor {
             // perform DFS starting on each node, collecting connected components
             List<FGraph> components = new LinkedList<FGraph>();
             for (FNode node : graph.getNodes()) {
-                FGraph comp = dfs(node, null, null, visited, incidence);
+                FGraph comp = dfs(node, visited, incidence);
                 if (comp != null) {
                     comp.copyProperties(graph);
                     components.add(comp);
@@ -111,44 +114,81 @@ public final class ComponentsProcessor {
     
     /**
      * Perform a DFS starting on the given node and collect all nodes that are found in the
-     * corresponding connected component.
+     * corresponding connected component. The DFS keeps an explicit stack of the nodes it is
+     * currently visiting instead of recursing, which would overflow the call stack for large graphs.
      * 
-     * @param node a node.
-     * @param last the last node, i.e. the node from which the dfs arrived at {@value node}, or {@code null}
-     *             if the dfs just started.
-     * @param graph a graph representing a connected component, or {@code null}.
+     * @param start a node.
      * @param visited boolean indicating for each node whether it was already visited ({@code true})
      *                or not.
      * @param incidence list of incident edges for each node.
      * @return the connected component, or {@code null} if the node was already visited.
      */
-    private FGraph dfs(final FNode node, final FNode last, final FGraph graph, final boolean[] visited,
-            final List<FEdge>[] incidence) {
+    private FGraph dfs(final FNode start, final boolean[] visited, final List<FEdge>[] incidence) {
+        if (visited[start.id]) {
+            return null;
+        }
         
-        if (!visited[node.id]) {
-            visited[node.id] = true;
-            FGraph component = graph;
-            if (component == null) {
-                component = new FGraph();
+        FGraph component = new FGraph();
+        Deque<DfsVisit> stack = new ArrayDeque<>();
+        stack.push(visit(start, null, component, visited, incidence));
+        while (!stack.isEmpty()) {
+            DfsVisit current = stack.peek();
+            if (current.edge != null) {
+                // The DFS has returned from the edge's other end
+                component.getEdges().add(current.edge);
+                component.getLabels().addAll(current.edge.getLabels());
+                current.edge = null;
             }
-            component.getNodes().add(node);
-            for (FEdge edge : incidence[node.id]) {
-                if (edge.getTarget() == last || edge.getSource() == last) {
-                    // Do not handle again the edge we just arrived from
-                    continue;
-                }
-                if (edge.getSource() != node) {
-                    dfs(edge.getSource(), node, component, visited, incidence);
-                }
-                if (edge.getTarget() != node) {
-                    dfs(edge.getTarget(), node, component, visited, incidence);
-                }
-                component.getEdges().add(edge);
-                component.getLabels().addAll(edge.getLabels());
+            if (!current.edges.hasNext()) {
+                stack.pop();
+                continue;
             }
-            return component;
+            
+            FEdge edge = current.edges.next();
+            if (edge.getTarget() == current.last || edge.getSource() == current.last) {
+                // Do not handle again the edge we just arrived from
+                continue;
+            }
+            current.edge = edge;
+            FNode other = edge.getSource() != current.node ? edge.getSource() : edge.getTarget();
+            if (!visited[other.id]) {
+                stack.push(visit(other, current.node, component, visited, incidence));
+            }
+        }
+        return component;
+    }
+    
+    /**
+     * Marks the given node as visited and adds it to the component.
+     * 
+     * @return the visit to be put onto the DFS stack.
+     */
+    private DfsVisit visit(final FNode node, final FNode last, final FGraph component, final boolean[] visited,
+            final List<FEdge>[] incidence) {
+        
+        visited[node.id] = true;
+        component.getNodes().add(node);
+        return new DfsVisit(node, last, incidence[node.id].iterator());
+    }
+    
+    /**
+     * A node on the DFS stack.
+     */
+    private static final class DfsVisit {
+        /** the visited node. */
+        private final FNode node;
+        /** the node from which the DFS arrived at {@link #node}, or {@code null} if the DFS started there. */
+        private final FNode last;
+        /** the incident edges of {@link #node} still to be handled. */
+        private final Iterator<FEdge> edges;
+        /** the edge currently being handled, which is added to the component once the DFS returns. */
+        private FEdge edge;
+        
+        DfsVisit(final FNode node, final FNode last, final Iterator<FEdge> edges) {
+            this.node = node;
+            this.last = last;
+            this.edges = edges;
         }
-        return null;
     }
     
     
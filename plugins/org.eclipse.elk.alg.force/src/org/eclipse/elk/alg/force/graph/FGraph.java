@@ -10,7 +10,9 @@
 package org.eclipse.elk.alg.force.graph;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.eclipse.elk.alg.force.options.ForceOptions;
 import org.eclipse.elk.graph.properties.MapPropertyHolder;
@@ -38,6 +40,9 @@ public final class FGraph extends MapPropertyHolder {
     private List<FBendpoint> bendPoints = new ArrayList<>();
     /** adjacency matrix of the graph. */
     private int[][] adjacency;
+    /** summed connection of each pair of connected nodes, keyed by {@link #nodePairKey(FNode, FNode)}; used in
+     *  place of the {@link #adjacency} matrix for large graphs. */
+    private Map<Long, Integer> sparseAdjacency;
 
     /**
      * Returns the list of edges for this graph.
@@ -95,6 +100,9 @@ public final class FGraph extends MapPropertyHolder {
     public int getConnection(final FParticle particle1, final FParticle particle2) {
         if (particle1 instanceof FNode && particle2 instanceof FNode) {
             FNode node1 = (FNode) particle1, node2 = (FNode) particle2;
+            if (sparseAdjacency != null) {
+                return sparseAdjacency.getOrDefault(nodePairKey(node1, node2), 0);
+            }
             return adjacency[node1.id][node2.id] + adjacency[node2.id][node1.id];
         } else if (particle1 instanceof FBendpoint && particle2 instanceof FBendpoint) {
             FBendpoint bpoint1 = (FBendpoint) particle1, bpoint2 = (FBendpoint) particle2;
@@ -111,9 +119,39 @@ public final class FGraph extends MapPropertyHolder {
     public void calcAdjacency() {
         int n = nodes.size();
         adjacency = new int[n][n];
+        sparseAdjacency = null;
         for (FEdge edge : edges) {
             adjacency[edge.getSource().id][edge.getTarget().id] += edge.getProperty(ForceOptions.PRIORITY);
         }
     }
+    
+    /**
+     * Calculate the connections between nodes without the adjacency matrix, which takes quadratic time and
+     * memory in the number of nodes. Only the pairs of nodes connected by an edge are stored.
+     */
+    public void calcSparseAdjacency() {
+        adjacency = null;
+        sparseAdjacency = new HashMap<>();
+        for (FEdge edge : edges) {
+            int priority = edge.getProperty(ForceOptions.PRIORITY);
+            if (edge.getSource() == edge.getTarget()) {
+                // the matrix counts a self loop in both directions
+                priority *= 2;
+            }
+            sparseAdjacency.merge(nodePairKey(edge.getSource(), edge.getTarget()), priority, Integer::sum);
+        }
+    }
+    
+    /**
+     * Returns a key that identifies the unordered pair of the given nodes.
+     * 
+     * @param node1 first node
+     * @param node2 second node
+     * @return the key of the pair of nodes
+     */
+    public long nodePairKey(final FNode node1, final FNode node2) {
+        long n = nodes.size();
+        return Math.min(node1.id, node2.id) * n + Math.max(node1.id, node2.id);
+    }
 
 }
@@ -9,8 +9,11 @@
  *******************************************************************************/
 package org.eclipse.elk.alg.force.model;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Random;
+import java.util.Set;
 
 import org.eclipse.elk.alg.force.graph.FBendpoint;
 import org.eclipse.elk.alg.force.graph.FEdge;
@@ -20,6 +23,7 @@ import org.eclipse.elk.alg.force.graph.FNode;
 import org.eclipse.elk.alg.force.graph.FParticle;
 import org.eclipse.elk.alg.force.options.ForceOptions;
 import org.eclipse.elk.alg.force.options.InternalProperties;
+import org.eclipse.elk.alg.force.options.RepulsionApproximation;
 import org.eclipse.elk.core.math.KVector;
 import org.eclipse.elk.core.util.IElkProgressMonitor;
 
@@ -36,6 +40,10 @@ public abstract class AbstractForceModel {
     private FGraph graph;
     /** upper bound for particle coordinates. */
     private double dispBound;
+    /** the quadtree used to approximate repulsive forces, or {@code null} if they are computed exactly. */
+    private BarnesHutTree barnesHutTree;
+    /** pairs of particles that may attract each other; only used along with {@link #barnesHutTree}. */
+    private List<FParticle[]> connectedPairs;
     
     /** factor by which nodes influence the displacement bound. */
     private static final double DISP_BOUND_FACTOR = 16;
@@ -50,8 +58,15 @@ public abstract class AbstractForceModel {
         this.graph = fgraph;
         this.random = fgraph.getProperty(InternalProperties.RANDOM);
         
-        // calculate the adjacency matrix for the graph
-        fgraph.calcAdjacency();
+        // calculate the adjacency matrix for the graph; its quadratic size would defeat approximating repulsive
+        // forces, so only connected nodes are stored in that case
+        boolean approximate =
+                fgraph.getProperty(ForceOptions.REPULSION_APPROXIMATION) == RepulsionApproximation.BARNES_HUT;
+        if (approximate) {
+            fgraph.calcSparseAdjacency();
+        } else {
+            fgraph.calcAdjacency();
+        }
         
         // calculate an upper bound for particle displacement
         dispBound = Math.max(fgraph.getNodes().size() * DISP_BOUND_FACTOR + fgraph.getEdges().size(),
@@ -78,6 +93,42 @@ public abstract class AbstractForceModel {
                 edge.distributeBendpoints();
             }
         }
+        
+        // prepare the approximation of repulsive forces, if requested
+        if (approximate) {
+            barnesHutTree = new BarnesHutTree(fgraph.getProperty(ForceOptions.BARNES_HUT_THETA), random);
+            connectedPairs = collectConnectedPairs(fgraph);
+        } else {
+            barnesHutTree = null;
+            connectedPairs = null;
+        }
+    }
+    
+    /**
+     * Collect all pairs of distinct particles for which {@link FGraph#getConnection(FParticle, FParticle)} may be
+     * positive: nodes connected by an edge and bend points of the same edge.
+     * 
+     * @param fgraph a force graph
+     * @return the pairs of possibly connected particles, each pair listed once
+     */
+    private static List<FParticle[]> collectConnectedPairs(final FGraph fgraph) {
+        List<FParticle[]> pairs = new ArrayList<>();
+        Set<Long> nodePairs = new HashSet<>();
+        for (FEdge edge : fgraph.getEdges()) {
+            FNode source = edge.getSource();
+            FNode target = edge.getTarget();
+            if (source != target && nodePairs.add(fgraph.nodePairKey(source, target))) {
+                pairs.add(new FParticle[] { source, target });
+            }
+            
+            List<FBendpoint> bendpoints = edge.getBendpoints();
+            for (int i = 0; i < bendpoints.size(); i++) {
+                for (int j = i + 1; j < bendpoints.size(); j++) {
+                    pairs.add(new FParticle[] { bendpoints.get(i), bendpoints.get(j) });
+                }
+            }
+        }
+        return pairs;
     }
     
     /**
@@ -113,12 +164,16 @@ public abstract class AbstractForceModel {
 
             iterationDone();
             // calculate attractive and repulsive forces
-            for (FParticle v : fgraph.getParticles()) {
-                for (FParticle u : fgraph.getParticles()) {
-                    if (u != v) {
-                        KVector displacement = calcDisplacement(u, v);
-                        if (displacement != null) {
-                            v.getDisplacement().add(displacement);
+            if (barnesHutTree != null) {
+                calcApproximateDisplacements(fgraph);
+            } else {
+                for (FParticle v : fgraph.getParticles()) {
+                    for (FParticle u : fgraph.getParticles()) {
+                        if (u != v) {
+                            KVector displacement = calcDisplacement(u, v);
+                            if (displacement != null) {
+                                v.getDisplacement().add(displacement);
+                            }
                         }
                     }
                 }
@@ -136,6 +191,40 @@ public abstract class AbstractForceModel {
         monitor.done();
     }
     
+    /**
+     * Calculate the displacements of all particles with repulsive forces approximated through the Barnes-Hut tree.
+     * Only connected particles attract each other, so the exact displacement is computed for them in place of the
+     * repulsion between them.
+     * 
+     * @param fgraph a force graph
+     */
+    private void calcApproximateDisplacements(final FGraph fgraph) {
+        barnesHutTree.build(fgraph.getParticles());
+        for (FParticle v : fgraph.getParticles()) {
+            barnesHutTree.applyRepulsion(v, this::calcRepulsion);
+        }
+        
+        for (FParticle[] pair : connectedPairs) {
+            replaceRepulsion(pair[0], pair[1]);
+            replaceRepulsion(pair[1], pair[0]);
+        }
+    }
+    
+    /**
+     * Replace the repulsive displacement of the forcee caused by the forcer with their full displacement.
+     * 
+     * @param forcer the particle that is causing the force
+     * @param forcee the particle that is affected by the force
+     */
+    private void replaceRepulsion(final FParticle forcer, final FParticle forcee) {
+        KVector displacement = calcDisplacement(forcer, forcee);
+        if (displacement != null) {
+            forcee.getDisplacement().add(displacement);
+        }
+        forcee.getDisplacement().sub(calcRepulsion(forcer.getPosition(), forcer.getRadius(),
+                forcer.getProperty(ForceOptions.PRIORITY), forcee));
+    }
+    
     /**
      * Perform all necessary calculations after a full iteration. Subclasses must call
      * the superclass method first.
@@ -169,6 +258,19 @@ public abstract class AbstractForceModel {
      */
     protected abstract KVector calcDisplacement(FParticle forcer, FParticle forcee);
     
+    /**
+     * Calculate the repulsive part of the displacement caused by a particle, which is computed regardless of any
+     * connection between the particles. Used when repulsive forces are approximated, in which case the forcer may
+     * stand for a whole group of particles.
+     * 
+     * @param position position of the particle that is causing the force, or centroid of the group of particles
+     * @param radius radius of the particle that is causing the force, or average radius of the group of particles
+     * @param priority priority of the particle that is causing the force, or sum of the priorities of the group
+     * @param forcee the particle that is affected by the force
+     * @return a displacement vector for the forcee
+     */
+    protected abstract KVector calcRepulsion(KVector position, double radius, double priority, FParticle forcee);
+    
     /**
      * Avoid having nodes on the same position by moving them a little.
      * 
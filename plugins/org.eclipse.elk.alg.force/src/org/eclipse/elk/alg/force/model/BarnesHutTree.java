@@ -0,0 +1,221 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Kiel University and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.elk.alg.force.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.elk.alg.force.graph.FParticle;
+import org.eclipse.elk.alg.force.options.ForceOptions;
+import org.eclipse.elk.core.math.KVector;
+
+/**
+ * A quadtree over the particles of a force graph that approximates the repulsive forces of distant groups of
+ * particles, after Barnes and Hut. A group of particles is replaced by a single pseudo particle at its centroid if
+ * the ratio of the group's extent to its distance from the affected particle is below a threshold {@code theta}. This
+ * brings the computation of all repulsive forces down to {@code O(n log n)} for reasonably distributed particles.
+ *
+ * <p>The tree has to be rebuilt whenever particles have moved, that is, once per iteration of a force model.</p>
+ */
+final class BarnesHutTree {
+
+    /**
+     * Computes the repulsive displacement that a particle or a group of particles exerts on another particle.
+     */
+    @FunctionalInterface
+    interface Repulsion {
+
+        /**
+         * Calculate the repulsive displacement of the given forcee.
+         *
+         * @param position the position of the particle or the centroid of the group of particles
+         * @param radius the radius of the particle or the average radius of the group of particles
+         * @param priority the priority of the particle or the sum of the priorities of the group of particles
+         * @param forcee the particle that is affected by the force
+         * @return a displacement vector for the forcee
+         */
+        KVector calcRepulsion(KVector position, double radius, double priority, FParticle forcee);
+    }
+
+    /** maximal depth of cells; particles at the same position end up together in a cell of this depth. */
+    private static final int MAX_DEPTH = 32;
+
+    /** groups of particles whose extent relative to their distance is below this value are approximated. */
+    private final double theta;
+    /** the random number generator used to move particles at the same position apart. */
+    private final Random random;
+    /** the root cell, which contains all particles. */
+    private Cell root;
+
+    /**
+     * Creates a new tree.
+     *
+     * @param theta the accuracy threshold; {@code 0} turns off approximation
+     * @param random the random number generator used to move particles at the same position apart
+     */
+    BarnesHutTree(final double theta, final Random random) {
+        this.theta = theta;
+        this.random = random;
+    }
+
+    /**
+     * Builds the tree for the current positions of the given particles.
+     *
+     * @param particles the particles
+     */
+    void build(final Iterable<FParticle> particles) {
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (FParticle particle : particles) {
+            KVector pos = particle.getPosition();
+            minX = Math.min(minX, pos.x);
+            minY = Math.min(minY, pos.y);
+            maxX = Math.max(maxX, pos.x);
+            maxY = Math.max(maxY, pos.y);
+        }
+
+        root = new Cell(minX, minY, Math.max(Math.max(maxX - minX, maxY - minY), 1), 0);
+        for (FParticle particle : particles) {
+            root.insert(particle);
+        }
+        root.summarize();
+    }
+
+    /**
+     * Adds the repulsive displacement that all other particles exert on the given particle to its displacement.
+     *
+     * @param forcee the particle that is affected by the forces
+     * @param repulsion the repulsive force of the force model
+     */
+    void applyRepulsion(final FParticle forcee, final Repulsion repulsion) {
+        applyRepulsion(root, forcee, repulsion);
+    }
+
+    private void applyRepulsion(final Cell cell, final FParticle forcee, final Repulsion repulsion) {
+        if (cell.children == null) {
+            for (FParticle forcer : cell.particles) {
+                if (forcer != forcee) {
+                    AbstractForceModel.avoidSamePosition(random, forcer, forcee);
+                    forcee.getDisplacement().add(repulsion.calcRepulsion(forcer.getPosition(), forcer.getRadius(),
+                            forcer.getProperty(ForceOptions.PRIORITY), forcee));
+                }
+            }
+        } else if (!cell.contains(forcee.getPosition())
+                && cell.size < theta * cell.centroid.distance(forcee.getPosition())) {
+            forcee.getDisplacement().add(repulsion.calcRepulsion(cell.centroid, cell.radius, cell.priority, forcee));
+        } else {
+            for (Cell child : cell.children) {
+                if (child != null) {
+                    applyRepulsion(child, forcee, repulsion);
+                }
+            }
+        }
+    }
+
+    /**
+     * A square region of the plane, either split into four quadrants or holding the particles in it. Only cells of
+     * maximal depth hold more than one particle.
+     */
+    private static final class Cell {
+
+        /** the left border. */
+        private final double x;
+        /** the top border. */
+        private final double y;
+        /** the width and height. */
+        private final double size;
+        /** the depth in the tree. */
+        private final int depth;
+        /** the quadrants, some of which may be {@code null}, or {@code null} for leaves. */
+        private Cell[] children;
+        /** the particles contained in a leaf. */
+        private List<FParticle> particles;
+
+        /** the number of particles contained in this cell. */
+        private int count;
+        /** the centroid of the contained particles. */
+        private final KVector centroid = new KVector();
+        /** the average radius of the contained particles. */
+        private double radius;
+        /** the sum of the priorities of the contained particles. */
+        private double priority;
+
+        Cell(final double x, final double y, final double size, final int depth) {
+            this.x = x;
+            this.y = y;
+            this.size = size;
+            this.depth = depth;
+        }
+
+        void insert(final FParticle particle) {
+            if (children != null) {
+                childFor(particle).insert(particle);
+            } else if (particles == null) {
+                particles = new ArrayList<>(1);
+                particles.add(particle);
+            } else if (particles.isEmpty() || depth == MAX_DEPTH) {
+                particles.add(particle);
+            } else {
+                // Split the cell and push its particles down into the quadrants
+                children = new Cell[4];
+                for (FParticle p : particles) {
+                    childFor(p).insert(p);
+                }
+                particles = null;
+                childFor(particle).insert(particle);
+            }
+        }
+
+        private Cell childFor(final FParticle particle) {
+            double half = size / 2;
+            boolean right = particle.getPosition().x >= x + half;
+            boolean bottom = particle.getPosition().y >= y + half;
+            int quadrant = (right ? 1 : 0) + (bottom ? 2 : 0);
+            if (children[quadrant] == null) {
+                children[quadrant] = new Cell(right ? x + half : x, bottom ? y + half : y, half, depth + 1);
+            }
+            return children[quadrant];
+        }
+
+        boolean contains(final KVector pos) {
+            return pos.x >= x && pos.x <= x + size && pos.y >= y && pos.y <= y + size;
+        }
+
+        /**
+         * Computes the number, centroid, average radius, and priority sum of the particles in this cell and its
+         * descendants.
+         */
+        void summarize() {
+            double radiusSum = 0;
+            if (children == null) {
+                for (FParticle particle : particles) {
+                    centroid.add(particle.getPosition());
+                    radiusSum += particle.getRadius();
+                    priority += particle.getProperty(ForceOptions.PRIORITY);
+                }
+                count = particles.size();
+            } else {
+                for (Cell child : children) {
+                    if (child != null) {
+                        child.summarize();
+                        centroid.add(child.centroid.x * child.count, child.centroid.y * child.count);
+                        radiusSum += child.radius * child.count;
+                        priority += child.priority;
+                        count += child.count;
+                    }
+                }
+            }
+            centroid.scale(1.0 / count);
+            radius = radiusSum / count;
+        }
+    }
+
+}
@@ -84,6 +84,16 @@ public final class FruchtermanReingoldModel extends AbstractForceModel {
         return displacement;
     }
     
+    @Override
+    protected KVector calcRepulsion(final KVector position, final double radius, final double priority,
+            final FParticle forcee) {
+        
+        KVector displacement = forcee.getPosition().clone().sub(position);
+        double length = displacement.length();
+        double d = Math.max(0, length - radius - forcee.getRadius());
+        return displacement.scale(repulsive(d, k) * priority * temperature / length);
+    }
+    
     @Override
     protected void iterationDone() {
         super.iterationDone();
@@ -0,0 +1,22 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Kiel University and others.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.elk.alg.force.options;
+
+/**
+ * Enumeration of the ways in which force models may compute repulsive forces.
+ */
+public enum RepulsionApproximation {
+    
+    /** repulsive forces are computed exactly between all pairs of particles, which is quadratic per iteration. */
+    NONE,
+    /** repulsive forces of distant groups of particles are approximated through a quadtree. */
+    BARNES_HUT;
+
+}
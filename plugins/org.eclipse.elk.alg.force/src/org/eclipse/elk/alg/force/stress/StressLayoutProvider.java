@@ -37,12 +37,13 @@ public class StressLayoutProvider extends AbstractLayoutProvider {
         progressMonitor.begin("ELK Stress", 1);
 
 
-        // calculate initial coordinates
-        if (!layoutGraph.getProperty(StressOptions.INTERACTIVE)) {
+        // calculate initial coordinates; the sparse model computes them itself since force layout is too expensive
+        if (!layoutGraph.getProperty(StressOptions.INTERACTIVE)
+                && layoutGraph.getProperty(StressOptions.STRESS_MODEL) == StressModel.FULL) {
             new ForceLayoutProvider().layout(layoutGraph, progressMonitor.subTask(1));
         } else {
             // If requested, compute nodes's dimensions, place node labels, ports, port labels, etc.
-            // Note that for the non-interactive case (above) this will be taken care of by the force layout provider
+            // Note that for the force layout case (above) this will be taken care of by the force layout provider
             if (!layoutGraph.getProperty(StressOptions.OMIT_NODE_MICRO_LAYOUT)) {
                 NodeMicroLayout.forGraph(layoutGraph)
                                .execute();
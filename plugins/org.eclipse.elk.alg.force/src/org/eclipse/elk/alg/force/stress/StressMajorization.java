@@ -1,6 +1,6 @@
 /*******************************************************************************
- * Copyright (c) 2016 Kiel University and others.
- * 
+ * Copyright (c) 2016, 2024 Kiel University and others.
+ *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License 2.0 which is available at
  * http://www.eclipse.org/legal/epl-2.0.
@@ -11,8 +11,11 @@ package org.eclipse.elk.alg.force.stress;
 
 import java.util.Arrays;
 import java.util.List;
-import java.util.PriorityQueue;
-import java.util.Queue;
+// elkjs-exclude-start
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+// elkjs-exclude-end
 
 import org.eclipse.elk.alg.force.graph.FEdge;
 import org.eclipse.elk.alg.force.graph.FGraph;
@@ -20,29 +23,62 @@ import org.eclipse.elk.alg.force.graph.FNode;
 import org.eclipse.elk.alg.force.options.StressOptions;
 import org.eclipse.elk.core.math.KVector;
 
-import com.google.common.collect.LinkedListMultimap;
-import com.google.common.collect.Multimap;
-
 /**
  * Implementation of stress minimizing layout as described by Gansner, Koren, and North.
  * <ul><li>
  * Emden Gansner, Yehuda Koren, and Stephen North. Graph drawing by stress majorization. <em>Graph Drawing</em>, 2005.
  * </li></ul>
- * 
+ *
  * The implementation supports performing a layout in one dimension only, preserving the coordinates of the other
  * dimension. For this, set {@link StressOptions#DIMENSION} to either {@link Dimension#X} or {@link Dimension#Y}.
  * Furthermore, nodes can be fixed using the {@link StressOptions#FIXED} option.
+ *
+ * <p>
+ * For large graphs, the {@link StressModel#SPARSE sparse stress model} can be selected through
+ * {@link StressOptions#STRESS_MODEL}. Instead of the shortest paths between all pairs of nodes it only considers edges and the
+ * shortest paths to a number of pivot nodes, which brings time and memory down to {@code O(n k)} for {@code k} pivots.
+ * Unless the layout is interactive, the nodes are initially placed by pivot MDS.
+ * <ul><li>
+ * Mark Ortmann, Mirza Klimenta, and Ulrik Brandes. A sparse stress model. <em>Graph Drawing</em>, 2016.
+ * </li><li>
+ * Ulrik Brandes and Christian Pich. Eigensolver methods for progressive multidimensional scaling of large data.
+ * <em>Graph Drawing</em>, 2006.
+ * </li></ul>
+ * </p>
  */
 public class StressMajorization {
 
+    /** Maximum number of power iterations performed to find an eigenvector for pivot MDS. */
+    private static final int POWER_ITERATIONS = 100;
+    /** Power iteration stops once an eigenvector changes less than this. */
+    private static final double POWER_ITERATION_EPSILON = 1e-10;
+
     /** The graph do be laid out, should be connected. */
     private FGraph graph;
+    /** The graph's nodes, indexed by their ids. */
+    private FNode[] nodes;
 
-    /** All pairs shortest path matrix. */
+    /** All pairs shortest path matrix; full model only. */
     private double[][] apsp;
-    /** Weights for each pair of nodes. */
+    /** Weights for each pair of nodes; full model only. */
     private double[][] w;
 
+    /** Ids of the pivot nodes; sparse model only. */
+    private int[] pivots;
+    /** Shortest path distances from each pivot to all nodes; sparse model only. */
+    private double[][] pivotDistances;
+    /** Weights of the stress between each pivot and all nodes; sparse model only. */
+    private double[][] pivotWeights;
+
+    /** Index of each node's first incident edge in {@link #neighbors}; the last entry is the number of edges. */
+    private int[] firstNeighbor;
+    /** Ids of the nodes at the other end of each node's incident edges. */
+    private int[] neighbors;
+    /** Desired lengths of each node's incident edges. */
+    private double[] neighborDistances;
+
+    /** The stress model to be used. */
+    private StressModel model;
     /** Common desired edge length, can be overridden by individual edges. */
     private double desiredEdgeLength;
     /** Dimensions to consider during layout. */
@@ -52,13 +88,11 @@ public class StressMajorization {
     /** Maximum number of iterations (overrides the {@link #epsilon}). */
     private int iterationLimit;
 
-    private Multimap<FNode, FEdge> connectedEdges = LinkedListMultimap.create();
-
 
     /**
-     * Initialize all internal structures that are required for the subsequent iterative procedure.. 
-     * 
-     * @param fgraph the graph to be laid out. 
+     * Initialize all internal structures that are required for the subsequent iterative procedure..
+     *
+     * @param fgraph the graph to be laid out.
      */
     public void initialize(final FGraph fgraph) {
         if (fgraph.getNodes().size() <= 1) {
@@ -67,43 +101,56 @@ public class StressMajorization {
 
         this.graph = fgraph;
 
+        this.model = graph.getProperty(StressOptions.STRESS_MODEL);
         this.dim = graph.getProperty(StressOptions.DIMENSION);
         this.iterationLimit = graph.getProperty(StressOptions.ITERATION_LIMIT);
         this.epsilon = graph.getProperty(StressOptions.EPSILON);
         this.desiredEdgeLength = graph.getProperty(StressOptions.DESIRED_EDGE_LENGTH);
-        
-        connectedEdges.clear();
-        for (FEdge edge : graph.getEdges()) {
-            connectedEdges.put(edge.getSource(), edge);
-            connectedEdges.put(edge.getTarget(), edge);
-        }
 
-        // all pairs shortest path
         int n = graph.getNodes().size();
-        apsp = new double[n][n];
-        for (FNode source : graph.getNodes()) {
-            dijkstra(source, apsp[source.id]);
+        nodes = new FNode[n];
+        for (FNode node : graph.getNodes()) {
+            nodes[node.id] = node;
         }
+        initializeNeighbors();
+
+        if (model == StressModel.SPARSE) {
+            apsp = null;
+            w = null;
+            initializePivots();
+            if (!graph.getProperty(StressOptions.INTERACTIVE)) {
+                placeByPivotMds();
+            }
 
-        // init weight matrix
-        w = new double[n][n];
-        for (int i = 0; i < n; ++i) {
-            for (int j = 0; j < n; ++j) {
-                double dij = apsp[i][j];
-                double wij = 1.0 / (dij * dij);
-                w[i][j] = wij;
+        } else {
+            pivots = null;
+            pivotDistances = null;
+            pivotWeights = null;
+
+            // all pairs shortest path
+            apsp = new double[n][n];
+            computeAllPairsShortestPaths(graph.getProperty(StressOptions.PARALLELISM));
+
+            // init weight matrix
+            w = new double[n][n];
+            for (int i = 0; i < n; ++i) {
+                for (int j = 0; j < n; ++j) {
+                    double dij = apsp[i][j];
+                    double wij = 1.0 / (dij * dij);
+                    w[i][j] = wij;
+                }
             }
         }
     }
 
     /**
-     * Execute the stress-minimizing iteration until a termination criterion is reached. 
+     * Execute the stress-minimizing iteration until a termination criterion is reached.
      */
     public void execute() {
         if (graph.getNodes().size() <= 1) {
             return;
         }
-        
+
         int count = 0;
         double prevStress = computeStress();
         double curStress = Double.POSITIVE_INFINITY;
@@ -127,49 +174,101 @@ public class StressMajorization {
             }
 
             curStress = computeStress();
-            
+
         } while (!done(count++, prevStress, curStress));
     }
 
     /**
-     * Performs Dijkstra's all pairs shortest path algorithm.
+     * Collects the incident edges of all nodes along with their desired lengths.
+     */
+    private void initializeNeighbors() {
+        int n = nodes.length;
+        firstNeighbor = new int[n + 1];
+        for (FEdge e : graph.getEdges()) {
+            firstNeighbor[e.getSource().id + 1]++;
+            firstNeighbor[e.getTarget().id + 1]++;
+        }
+        for (int i = 0; i < n; i++) {
+            firstNeighbor[i + 1] += firstNeighbor[i];
+        }
+
+        neighbors = new int[firstNeighbor[n]];
+        neighborDistances = new double[firstNeighbor[n]];
+        int[] next = Arrays.copyOf(firstNeighbor, n);
+        for (FEdge e : graph.getEdges()) {
+            // get e's desired length
+            double el;
+            if (e.hasProperty(StressOptions.DESIRED_EDGE_LENGTH)) {
+                el = e.getProperty(StressOptions.DESIRED_EDGE_LENGTH);
+            } else {
+                el = desiredEdgeLength;
+            }
+            int source = e.getSource().id;
+            int target = e.getTarget().id;
+            neighbors[next[source]] = target;
+            neighborDistances[next[source]++] = el;
+            neighbors[next[target]] = source;
+            neighborDistances[next[target]++] = el;
+        }
+    }
+
+    /**
+     * Computes the shortest paths between all pairs of nodes for the full stress model. The shortest paths of
+     * different sources are independent and can thus be computed concurrently. If called from a thread of a
+     * {@link java.util.concurrent.ForkJoinPool}, the work is done in that pool, otherwise in the common pool.
+     *
+     * @param threads the maximum number of threads to use.
      */
-    private void dijkstra(final FNode source, final double[] dist) {
-        Queue<FNode> nodes = new PriorityQueue<FNode>((n1, n2) -> Double.compare(dist[n1.id], dist[n2.id]));
-        boolean[] mark = new boolean[graph.getNodes().size()];
-        
-        // init
-        Arrays.fill(mark, false);
-        dist[source.id] = 0;
-        for (FNode n : graph.getNodes()) {
-            if (n.id != source.id) {
-                dist[n.id] = Integer.MAX_VALUE;
+    private void computeAllPairsShortestPaths(final int threads) {
+        // elkjs-exclude-start
+        if (threads > 1) {
+            AtomicInteger nextSource = new AtomicInteger();
+            List<ForkJoinTask<?>> tasks = new ArrayList<>(threads);
+            for (int i = 0; i < threads; i++) {
+                tasks.add(ForkJoinTask.adapt(() -> {
+                    int source = nextSource.getAndIncrement();
+                    while (source < nodes.length) {
+                        dijkstra(source, apsp[source]);
+                        source = nextSource.getAndIncrement();
+                    }
+                }));
             }
-            nodes.add(n);
+            ForkJoinTask.invokeAll(tasks);
+            return;
+        }
+        // elkjs-exclude-end
+
+        for (int source = 0; source < nodes.length; source++) {
+            dijkstra(source, apsp[source]);
         }
+    }
+
+    /**
+     * Performs Dijkstra's single source shortest path algorithm. Only reads shared state and may thus be called
+     * concurrently for different sources.
+     */
+    private void dijkstra(final int source, final double[] dist) {
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        dist[source] = 0;
+
+        boolean[] mark = new boolean[nodes.length];
+        NodeHeap queue = new NodeHeap(dist);
+        queue.update(source);
 
         // find shortest paths
-        while (!nodes.isEmpty()) {
-            FNode u = nodes.poll();
-            mark[u.id] = true;
+        while (!queue.isEmpty()) {
+            int u = queue.poll();
+            mark[u] = true;
 
-            for (FEdge e : connectedEdges.get(u)) {
-                FNode v = getOther(e, u);
-                if (mark[v.id]) {
+            for (int e = firstNeighbor[u]; e < firstNeighbor[u + 1]; e++) {
+                int v = neighbors[e];
+                if (mark[v]) {
                     continue;
                 }
-                // get e's desired length
-                double el;
-                if (e.hasProperty(StressOptions.DESIRED_EDGE_LENGTH)) {
-                    el = e.getProperty(StressOptions.DESIRED_EDGE_LENGTH);
-                } else { 
-                    el = desiredEdgeLength;
-                }
-                double d = dist[u.id] + el;
-                if (d < dist[v.id]) {
-                    dist[v.id] = d;
-                    nodes.remove(v);
-                    nodes.add(v);
+                double d = dist[u] + neighborDistances[e];
+                if (d < dist[v]) {
+                    dist[v] = d;
+                    queue.update(v);
                 }
             }
         }
@@ -180,8 +279,8 @@ public class StressMajorization {
      * {@link StressOptions#ITERATION_LIMIT} is reached.
      */
     private boolean done(final int count, final double prevStress, final double curStress) {
-        return prevStress == 0 
-            || (((prevStress - curStress) / prevStress) < epsilon) 
+        return prevStress == 0
+            || (((prevStress - curStress) / prevStress) < epsilon)
             || (count >= iterationLimit);
     }
 
@@ -190,81 +289,416 @@ public class StressMajorization {
      */
     private double computeStress() {
         double stress = 0;
-        List<FNode> nodes = graph.getNodes();
-        // we know 'nodes' is an arraylist
-        for (int i = 0; i < nodes.size(); ++i) {
-            FNode u = nodes.get(i);
-            for (int j = i + 1; j < nodes.size(); ++j) {
-                FNode v = nodes.get(j);
-                double eucDist = u.getPosition().distance(v.getPosition());
-                double eucDisplacement = eucDist - apsp[u.id][v.id];
-                stress += w[u.id][v.id] * eucDisplacement * eucDisplacement;
+        if (model == StressModel.SPARSE) {
+            for (FNode u : nodes) {
+                for (int e = firstNeighbor[u.id]; e < firstNeighbor[u.id + 1]; e++) {
+                    if (u.id < neighbors[e]) {
+                        double dij = neighborDistances[e];
+                        stress += stress(u, nodes[neighbors[e]], dij, 1.0 / (dij * dij));
+                    }
+                }
+                for (int p = 0; p < pivots.length; p++) {
+                    if (pivots[p] != u.id) {
+                        stress += stress(u, nodes[pivots[p]], pivotDistances[p][u.id], pivotWeights[p][u.id]);
+                    }
+                }
+            }
+
+        } else {
+            List<FNode> nodeList = graph.getNodes();
+            // we know 'nodes' is an arraylist
+            for (int i = 0; i < nodeList.size(); ++i) {
+                FNode u = nodeList.get(i);
+                for (int j = i + 1; j < nodeList.size(); ++j) {
+                    FNode v = nodeList.get(j);
+                    stress += stress(u, v, apsp[u.id][v.id], w[u.id][v.id]);
+                }
             }
         }
         return stress;
     }
 
+    private double stress(final FNode u, final FNode v, final double dij, final double wij) {
+        double eucDist = u.getPosition().distance(v.getPosition());
+        double eucDisplacement = eucDist - dij;
+        return wij * eucDisplacement * eucDisplacement;
+    }
+
     /**
      * Computes a new position for the passed node. The procedure is described in
      * <em>Section 2.3 Localized optimization</em> of the paper.
      */
     private KVector computeNewPosition(final FNode u) {
-        double weightSum = 0;
-        double xDisp = 0;
-        double yDisp = 0;
-        
-        // we need at least two nodes here, otherwise we would divide by zero below 
+        // weight sum and weighted sums of the desired x and y coordinates
+        double[] sums = new double[3];
+
+        // we need at least two nodes here, otherwise we would divide by zero below
         assert graph.getNodes().size() > 1;
 
-        for (FNode v : graph.getNodes()) {
-            if (u == v) {
-                continue;
+        if (model == StressModel.SPARSE) {
+            for (int e = firstNeighbor[u.id]; e < firstNeighbor[u.id + 1]; e++) {
+                double dij = neighborDistances[e];
+                addTerm(u, nodes[neighbors[e]], dij, 1.0 / (dij * dij), sums);
             }
-
-            double wij = w[u.id][v.id];
-            weightSum += wij;
-
-            double eucDist = u.getPosition().distance(v.getPosition());
-
-            if (eucDist > 0 && dim != Dimension.Y) {
-                xDisp += wij
-                        * (v.getPosition().x + apsp[u.id][v.id] * (u.getPosition().x - v.getPosition().x) / eucDist);
+            for (int p = 0; p < pivots.length; p++) {
+                if (pivots[p] != u.id) {
+                    addTerm(u, nodes[pivots[p]], pivotDistances[p][u.id], pivotWeights[p][u.id], sums);
+                }
             }
 
-            if (eucDist > 0 && dim != Dimension.X) {
-                yDisp += wij
-                        * (v.getPosition().y + apsp[u.id][v.id] * (u.getPosition().y - v.getPosition().y) / eucDist);
+        } else {
+            for (FNode v : graph.getNodes()) {
+                if (u != v) {
+                    addTerm(u, v, apsp[u.id][v.id], w[u.id][v.id], sums);
+                }
             }
         }
 
+        double weightSum = sums[0];
         switch (dim) {
             case X:
-                return new KVector(xDisp / weightSum, u.getPosition().y);
+                return new KVector(sums[1] / weightSum, u.getPosition().y);
             case Y:
-                return new KVector(u.getPosition().x, yDisp / weightSum);
+                return new KVector(u.getPosition().x, sums[2] / weightSum);
             default:
-                return new KVector(xDisp / weightSum, yDisp / weightSum);
+                return new KVector(sums[1] / weightSum, sums[2] / weightSum);
         }
     }
 
-    private FNode getOther(final FEdge edge, final FNode one) {
-        if (edge.getSource() == one) {
-            return edge.getTarget();
-        } else if (edge.getTarget() == one) {
-            return edge.getSource();
-        } else {
-            throw new IllegalArgumentException("Node 'one' must be either source or target of edge 'edge'.");
+    /**
+     * Adds the stress term between the two nodes to the sums used to compute a new position for {@code u}.
+     */
+    private void addTerm(final FNode u, final FNode v, final double dij, final double wij, final double[] sums) {
+        sums[0] += wij;
+
+        double eucDist = u.getPosition().distance(v.getPosition());
+
+        if (eucDist > 0 && dim != Dimension.Y) {
+            sums[1] += wij * (v.getPosition().x + dij * (u.getPosition().x - v.getPosition().x) / eucDist);
+        }
+
+        if (eucDist > 0 && dim != Dimension.X) {
+            sums[2] += wij * (v.getPosition().y + dij * (u.getPosition().y - v.getPosition().y) / eucDist);
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////
+    // Sparse Stress Model
+
+    /**
+     * Selects the pivots of the sparse stress model and computes the weights of the stress between each node and
+     * each pivot. The first pivot is the first node, and each further pivot is the node farthest away from all
+     * previous pivots. Each node is assigned to the region of its closest pivot. The stress between a node and a
+     * pivot stands in for the stress between the node and the pivot's region members that are closer to the pivot
+     * than to the node, so it is weighted by their number.
+     */
+    private void initializePivots() {
+        int n = nodes.length;
+        int k = Math.min(graph.getProperty(StressOptions.PIVOTS), n);
+
+        // max/min pivot selection
+        pivots = new int[k];
+        pivotDistances = new double[k][n];
+        double[] minDistances = new double[n];
+        Arrays.fill(minDistances, Double.POSITIVE_INFINITY);
+        int nextPivot = graph.getNodes().get(0).id;
+        for (int p = 0; p < k; p++) {
+            pivots[p] = nextPivot;
+            dijkstra(nextPivot, pivotDistances[p]);
+
+            double maxMinDistance = -1;
+            for (int i = 0; i < n; i++) {
+                minDistances[i] = Math.min(minDistances[i], pivotDistances[p][i]);
+                if (minDistances[i] > maxMinDistance) {
+                    maxMinDistance = minDistances[i];
+                    nextPivot = i;
+                }
+            }
+        }
+
+        // assign each node to the region of its closest pivot
+        int[] regions = new int[n];
+        int[] regionSizes = new int[k];
+        for (int i = 0; i < n; i++) {
+            for (int p = 1; p < k; p++) {
+                if (pivotDistances[p][i] < pivotDistances[regions[i]][i]) {
+                    regions[i] = p;
+                }
+            }
+            regionSizes[regions[i]]++;
+        }
+        double[][] regionDistances = new double[k][];
+        for (int p = 0; p < k; p++) {
+            regionDistances[p] = new double[regionSizes[p]];
+            regionSizes[p] = 0;
+        }
+        for (int i = 0; i < n; i++) {
+            int p = regions[i];
+            regionDistances[p][regionSizes[p]++] = pivotDistances[p][i];
+        }
+
+        // weigh the stress towards each pivot by the number of region members it represents
+        pivotWeights = new double[k][n];
+        for (int p = 0; p < k; p++) {
+            Arrays.sort(regionDistances[p]);
+            for (int i = 0; i < n; i++) {
+                double dip = pivotDistances[p][i];
+                if (i != pivots[p]) {
+                    int represented = countAtMost(regionDistances[p], dip / 2);
+                    pivotWeights[p][i] = represented / (dip * dip);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of values in the given sorted array that are at most the given bound.
+     */
+    private static int countAtMost(final double[] sorted, final double bound) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] <= bound) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Places the nodes by pivot MDS: the double-centered squared distances to the pivots are projected onto the two
+     * principal axes, which are found by power iteration on a {@code k x k} matrix. The result is then scaled such
+     * that edges are as close to their desired lengths as possible.
+     */
+    private void placeByPivotMds() {
+        int n = nodes.length;
+        int k = pivots.length;
+
+        // double centering of the squared distances
+        double[][] c = new double[k][n];
+        double[] nodeMeans = new double[n];
+        double[] pivotMeans = new double[k];
+        double mean = 0;
+        for (int p = 0; p < k; p++) {
+            for (int i = 0; i < n; i++) {
+                double squared = pivotDistances[p][i] * pivotDistances[p][i];
+                c[p][i] = squared;
+                nodeMeans[i] += squared / k;
+                pivotMeans[p] += squared / n;
+            }
+            mean += pivotMeans[p] / k;
+        }
+        for (int p = 0; p < k; p++) {
+            for (int i = 0; i < n; i++) {
+                c[p][i] = -(c[p][i] - nodeMeans[i] - pivotMeans[p] + mean) / 2;
+            }
+        }
+
+        // the principal axes are the dominant eigenvectors of C^T C
+        double[][] ctc = new double[k][k];
+        for (int p = 0; p < k; p++) {
+            for (int q = p; q < k; q++) {
+                double sum = 0;
+                for (int i = 0; i < n; i++) {
+                    sum += c[p][i] * c[q][i];
+                }
+                ctc[p][q] = sum;
+                ctc[q][p] = sum;
+            }
+        }
+        double[] xAxis = dominantEigenvector(ctc, null);
+        double[] yAxis = dominantEigenvector(ctc, xAxis);
+
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for (int p = 0; p < k; p++) {
+            for (int i = 0; i < n; i++) {
+                xs[i] += c[p][i] * xAxis[p];
+                ys[i] += c[p][i] * yAxis[p];
+            }
+        }
+
+        // choose the scale that minimizes the stress along the edges
+        double numerator = 0;
+        double denominator = 0;
+        for (int i = 0; i < n; i++) {
+            for (int e = firstNeighbor[i]; e < firstNeighbor[i + 1]; e++) {
+                int j = neighbors[e];
+                double length = Math.hypot(xs[i] - xs[j], ys[i] - ys[j]);
+                numerator += length / neighborDistances[e];
+                denominator += length * length / (neighborDistances[e] * neighborDistances[e]);
+            }
+        }
+        double scale = denominator > 0 ? numerator / denominator : 1;
+
+        for (int i = 0; i < n; i++) {
+            KVector pos = nodes[i].getPosition();
+            if (dim != Dimension.Y) {
+                pos.x = xs[i] * scale;
+            }
+            if (dim != Dimension.X) {
+                pos.y = ys[i] * scale;
+            }
+        }
+    }
+
+    /**
+     * Finds the dominant eigenvector of the given symmetric matrix by power iteration.
+     *
+     * @param matrix a symmetric matrix.
+     * @param orthogonalTo a unit vector the result has to be orthogonal to, or {@code null}.
+     * @return a unit eigenvector, or the zero vector if there is none.
+     */
+    private static double[] dominantEigenvector(final double[][] matrix, final double[] orthogonalTo) {
+        int k = matrix.length;
+        double[] vector = new double[k];
+        for (int p = 0; p < k; p++) {
+            // anything that is unlikely to be orthogonal to the eigenvector we are looking for
+            vector[p] = 1 + p % 3;
+        }
+        orthonormalize(vector, orthogonalTo);
+
+        double[] next = new double[k];
+        for (int iteration = 0; iteration < POWER_ITERATIONS; iteration++) {
+            for (int p = 0; p < k; p++) {
+                double sum = 0;
+                for (int q = 0; q < k; q++) {
+                    sum += matrix[p][q] * vector[q];
+                }
+                next[p] = sum;
+            }
+            orthonormalize(next, orthogonalTo);
+
+            double change = 0;
+            for (int p = 0; p < k; p++) {
+                change += Math.abs(next[p] - vector[p]);
+            }
+            double[] swap = vector;
+            vector = next;
+            next = swap;
+            if (change < POWER_ITERATION_EPSILON) {
+                break;
+            }
+        }
+        return vector;
+    }
+
+    /**
+     * Removes the component along the given unit vector, if any, and normalizes the result. Vectors of length zero
+     * are left as they are.
+     */
+    private static void orthonormalize(final double[] vector, final double[] orthogonalTo) {
+        if (orthogonalTo != null) {
+            double dot = 0;
+            for (int p = 0; p < vector.length; p++) {
+                dot += vector[p] * orthogonalTo[p];
+            }
+            for (int p = 0; p < vector.length; p++) {
+                vector[p] -= dot * orthogonalTo[p];
+            }
+        }
+
+        double length = 0;
+        for (double v : vector) {
+            length += v * v;
+        }
+        length = Math.sqrt(length);
+        if (length > 0) {
+            for (int p = 0; p < vector.length; p++) {
+                vector[p] /= length;
+            }
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////
+    // Utilities
+
+    /**
+     * A binary min-heap of node ids ordered by their tentative distances that supports decreasing the distance of
+     * nodes already in the heap.
+     */
+    private static final class NodeHeap {
+
+        /** The tentative distances of all nodes. */
+        private final double[] dist;
+        /** The heap of node ids. */
+        private final int[] heap;
+        /** The index of each node in {@link #heap}, or -1 if it is not in the heap. */
+        private final int[] indices;
+        /** The number of nodes in the heap. */
+        private int size;
+
+        NodeHeap(final double[] dist) {
+            this.dist = dist;
+            this.heap = new int[dist.length];
+            this.indices = new int[dist.length];
+            Arrays.fill(indices, -1);
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        /**
+         * Inserts the node or moves it up after its distance has decreased.
+         */
+        void update(final int node) {
+            int index = indices[node];
+            if (index < 0) {
+                index = size++;
+            }
+            while (index > 0 && dist[heap[(index - 1) / 2]] > dist[node]) {
+                move(heap[(index - 1) / 2], index);
+                index = (index - 1) / 2;
+            }
+            move(node, index);
+        }
+
+        /**
+         * Removes and returns the node with the smallest distance.
+         */
+        int poll() {
+            int result = heap[0];
+            indices[result] = -1;
+            int last = heap[--size];
+
+            int index = 0;
+            while (2 * index + 1 < size) {
+                int child = 2 * index + 1;
+                if (child + 1 < size && dist[heap[child + 1]] < dist[heap[child]]) {
+                    child++;
+                }
+                if (dist[heap[child]] >= dist[last]) {
+                    break;
+                }
+                move(heap[child], index);
+                index = child;
+            }
+            if (size > 0) {
+                move(last, index);
+            }
+            return result;
+        }
+
+        private void move(final int node, final int index) {
+            heap[index] = node;
+            indices[node] = index;
         }
     }
-    
+
     /**
      * Dimensions in which nodes may be moved.
      */
     public enum Dimension {
         /** Both x and y allowed. */
-        XY, 
+        XY,
         /** Nodes may only move in x. */
-        X, 
+        X,
         /** Nodes may only move in y. */
         Y
     }
@@ -0,0 +1,22 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Kiel University and others.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.elk.alg.force.stress;
+
+/**
+ * The stress models supported by {@link StressMajorization}.
+ */
+public enum StressModel {
+    
+    /** stress between all pairs of nodes, requiring quadratic time and memory. */
+    FULL,
+    /** stress along edges and towards pivot nodes only, after Ortmann, Klimenta, and Brandes. */
+    SPARSE;
+
+}
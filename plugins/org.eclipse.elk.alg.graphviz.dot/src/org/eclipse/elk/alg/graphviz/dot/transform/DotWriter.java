@@ -0,0 +1,208 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Kiel University and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.elk.alg.graphviz.dot.transform;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.eclipse.elk.alg.graphviz.dot.dot.Attribute;
+import org.eclipse.elk.alg.graphviz.dot.dot.AttributeStatement;
+import org.eclipse.elk.alg.graphviz.dot.dot.EdgeStatement;
+import org.eclipse.elk.alg.graphviz.dot.dot.EdgeTarget;
+import org.eclipse.elk.alg.graphviz.dot.dot.Graph;
+import org.eclipse.elk.alg.graphviz.dot.dot.GraphvizModel;
+import org.eclipse.elk.alg.graphviz.dot.dot.Node;
+import org.eclipse.elk.alg.graphviz.dot.dot.NodeStatement;
+import org.eclipse.elk.alg.graphviz.dot.dot.Port;
+import org.eclipse.elk.alg.graphviz.dot.dot.Statement;
+import org.eclipse.elk.alg.graphviz.dot.dot.Subgraph;
+
+/**
+ * Writes Graphviz models in the Dot language directly to an {@link Appendable}, such as the writer of a
+ * Graphviz process. Unlike saving the model through an Xtext resource, this neither builds a node model
+ * nor the whole text in memory. Identifiers and attribute values are written as they are stored in the
+ * model, which already contains the quotes required by the Dot language.
+ *
+ * <p>The output is formatted like the output of the Xtext serializer: one statement per line, and lines
+ * are wrapped between tokens once they exceed {@value #MAX_LINE_LENGTH} characters.</p>
+ */
+public final class DotWriter {
+
+    /** the number of characters after which lines are wrapped. */
+    public static final int MAX_LINE_LENGTH = 255;
+    /** the indentation for each nesting level. */
+    private static final String INDENT = "    ";
+
+    /** the output to write to. */
+    private final Appendable out;
+    /** the number of characters written to the current line. */
+    private int column;
+    /** the current nesting depth. */
+    private int depth;
+
+    /**
+     * Creates a writer for the given output.
+     *
+     * @param out the output to write to
+     */
+    public DotWriter(final Appendable out) {
+        this.out = out;
+    }
+
+    /**
+     * Writes all graphs of the given model.
+     *
+     * @param model a Graphviz model
+     * @throws IOException if writing to the output fails
+     */
+    public void write(final GraphvizModel model) throws IOException {
+        for (Graph graph : model.getGraphs()) {
+            write(graph);
+        }
+    }
+
+    /**
+     * Writes the given graph, followed by a line break.
+     *
+     * @param graph a Graphviz graph
+     * @throws IOException if writing to the output fails
+     */
+    public void write(final Graph graph) throws IOException {
+        if (graph.isStrict()) {
+            token("strict");
+        }
+        token(graph.getType().getLiteral());
+        if (graph.getName() != null) {
+            token(graph.getName());
+        }
+        token("{");
+        writeBlock(graph.getStatements());
+        token("}");
+        newLine();
+    }
+
+    /**
+     * Writes the statements of a graph or subgraph, each on its own line and indented by one level.
+     */
+    private void writeBlock(final List<Statement> statements) throws IOException {
+        depth++;
+        for (Statement statement : statements) {
+            newLine();
+            writeStatement(statement);
+        }
+        depth--;
+        newLine();
+    }
+
+    private void writeStatement(final Statement statement) throws IOException {
+        if (statement instanceof NodeStatement) {
+            NodeStatement nodeStatement = (NodeStatement) statement;
+            writeNode(nodeStatement.getNode());
+            writeAttributes(nodeStatement.getAttributes());
+
+        } else if (statement instanceof EdgeStatement) {
+            EdgeStatement edgeStatement = (EdgeStatement) statement;
+            writeNode(edgeStatement.getSourceNode());
+            for (EdgeTarget target : edgeStatement.getEdgeTargets()) {
+                token(target.getOperator().getLiteral());
+                if (target.getTargetSubgraph() != null) {
+                    writeSubgraph(target.getTargetSubgraph());
+                } else {
+                    writeNode(target.getTargetnode());
+                }
+            }
+            writeAttributes(edgeStatement.getAttributes());
+
+        } else if (statement instanceof AttributeStatement) {
+            AttributeStatement attributeStatement = (AttributeStatement) statement;
+            token(attributeStatement.getType().getLiteral());
+            writeAttributes(attributeStatement.getAttributes());
+
+        } else if (statement instanceof Attribute) {
+            writeAttribute((Attribute) statement);
+
+        } else if (statement instanceof Subgraph) {
+            writeSubgraph((Subgraph) statement);
+        }
+    }
+
+    private void writeSubgraph(final Subgraph subgraph) throws IOException {
+        if (subgraph.getName() != null) {
+            token("subgraph");
+            token(subgraph.getName());
+        }
+        token("{");
+        writeBlock(subgraph.getStatements());
+        token("}");
+    }
+
+    private void writeNode(final Node node) throws IOException {
+        Port port = node.getPort();
+        if (port == null) {
+            token(node.getName());
+        } else if (port.getCompass_pt() == null) {
+            token(node.getName() + ":" + port.getName());
+        } else {
+            token(node.getName() + ":" + port.getName() + ":" + port.getCompass_pt());
+        }
+    }
+
+    private void writeAttributes(final List<Attribute> attributes) throws IOException {
+        if (attributes.isEmpty()) {
+            return;
+        }
+        token("[");
+        for (int i = 0; i < attributes.size(); i++) {
+            writeAttribute(attributes.get(i));
+            if (i < attributes.size() - 1) {
+                out.append(',');
+                column++;
+            }
+        }
+        token("]");
+    }
+
+    private void writeAttribute(final Attribute attribute) throws IOException {
+        if (attribute.getValue() == null) {
+            token(attribute.getName());
+        } else {
+            token(attribute.getName() + "=" + attribute.getValue());
+        }
+    }
+
+    /**
+     * Writes a token, separated from the previous one by a space or, if the line would get too long, by
+     * a line break.
+     */
+    private void token(final String token) throws IOException {
+        if (column > depth * INDENT.length()) {
+            if (column + 1 + token.length() > MAX_LINE_LENGTH) {
+                newLine();
+            } else {
+                out.append(' ');
+                column++;
+            }
+        }
+        out.append(token);
+        column += token.length();
+    }
+
+    /**
+     * Starts a new line at the current indentation.
+     */
+    private void newLine() throws IOException {
+        out.append('\n');
+        for (int i = 0; i < depth; i++) {
+            out.append(INDENT);
+        }
+        column = depth * INDENT.length();
+    }
+
+}
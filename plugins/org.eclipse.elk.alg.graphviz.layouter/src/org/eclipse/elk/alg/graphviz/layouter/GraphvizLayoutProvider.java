@@ -14,7 +14,9 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.util.Map;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.elk.alg.graphviz.dot.GraphvizDotStandaloneSetup;
@@ -23,6 +25,7 @@ import org.eclipse.elk.alg.graphviz.dot.transform.Command;
 import org.eclipse.elk.alg.graphviz.dot.transform.DotExporter;
 import org.eclipse.elk.alg.graphviz.dot.transform.DotResourceSetProvider;
 import org.eclipse.elk.alg.graphviz.dot.transform.DotTransformationData;
+import org.eclipse.elk.alg.graphviz.dot.transform.DotWriter;
 import org.eclipse.elk.alg.graphviz.dot.transform.IDotTransformationData;
 import org.eclipse.elk.alg.graphviz.layouter.GraphvizTool.Cleanup;
 import org.eclipse.elk.alg.graphviz.layouter.preferences.GraphvizLayouterPreferenceStoreAccess;
@@ -35,7 +38,6 @@ import org.eclipse.elk.core.util.WrappedException;
 import org.eclipse.elk.graph.ElkNode;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.resource.Resource.Diagnostic;
-import org.eclipse.xtext.resource.SaveOptions;
 import org.eclipse.xtext.resource.XtextResource;
 import org.eclipse.xtext.resource.XtextResourceSet;
 
@@ -60,7 +62,7 @@ public class GraphvizLayoutProvider extends AbstractLayoutProvider {
     
     /** command passed to the layouter. */
     private Command command = Command.INVALID;
-    /** the Graphviz process pool. */
+    /** the Graphviz tool used if processes are not reused, created lazily. */
     private GraphvizTool graphvizTool;
     /** the Graphviz Dot format handler. */
     private DotResourceSetProvider dotResourceSetProvider;
@@ -72,7 +74,6 @@ public class GraphvizLayoutProvider extends AbstractLayoutProvider {
     @Override
     public void initialize(final String parameter) {
         command = Command.valueOf(parameter);
-        graphvizTool = new GraphvizTool(command);
         
         // the dot format handler is indirectly fetched in order to ensure proper injection (if we're
         // inside Eclipse, use the GraphFormatsService to retrieve the handler; otherwise, use an
@@ -82,7 +83,9 @@ public class GraphvizLayoutProvider extends AbstractLayoutProvider {
 
     @Override
     public void dispose() {
-        graphvizTool.cleanup(Cleanup.STOP);
+        if (graphvizTool != null) {
+            graphvizTool.cleanup(Cleanup.STOP);
+        }
     }
     
     /**
@@ -112,58 +115,77 @@ public class GraphvizLayoutProvider extends AbstractLayoutProvider {
         boolean debugMode = parentNode.getProperty(CoreOptions.DEBUG_MODE);
         myCallNo = ++serialCallNo;
 
-        // start the graphviz process, or retrieve the previously used process
-        graphvizTool.initialize();
+        int timeout = parentNode.getProperty(GraphvizMetaDataProvider.PROCESS_TIMEOUT);
+        if (timeout <= 0) {
+            timeout = GraphvizTool.defaultTimeout();
+        }
 
-        // create an Xtext resource set for parsing and serialization
-        XtextResourceSet resourceSet = (XtextResourceSet) dotResourceSetProvider.createResourceSet();
-        
-        // create the dot exporter we'll be using
+        // translate the KGraph to Graphviz
         DotExporter dotExporter = new LayoutDotExporter();
-
-        // translate the KGraph to Graphviz and write to the process
         IDotTransformationData<ElkNode, GraphvizModel> transData = new DotTransformationData<ElkNode, GraphvizModel>();
         transData.setSourceGraph(parentNode);
         transData.setProperty(DotExporter.COMMAND, command);
-        
         dotExporter.transform(transData);
         GraphvizModel graphvizInput = transData.getTargetGraphs().get(0);
-        writeDotGraph(graphvizInput, progressMonitor.subTask(1), debugMode, resourceSet);
+
+        // take a long-lived process from the pool if processes are reused
+        boolean reuseProcess;
+        if (parentNode.hasProperty(GraphvizMetaDataProvider.REUSE_PROCESS) || !Platform.isRunning()) {
+            reuseProcess = parentNode.getProperty(GraphvizMetaDataProvider.REUSE_PROCESS);
+        } else {
+            reuseProcess = GraphvizLayouterPreferenceStoreAccess.getUISaveBoolean(
+                    PREF_GRAPHVIZ_REUSE_PROCESS, REUSE_PROCESS_DEFAULT);
+        }
+        GraphvizTool tool;
+        if (reuseProcess) {
+            tool = GraphvizToolPool.INSTANCE.fetch(command);
+        } else {
+            if (graphvizTool == null) {
+                graphvizTool = new GraphvizTool(command);
+            }
+            tool = graphvizTool;
+        }
 
         try {
-            // read Graphviz output and apply layout information to the KGraph
-            GraphvizModel graphvizOutput = readDotGraph(progressMonitor.subTask(1),
-                    debugMode, resourceSet);
+            // start the graphviz process, or retrieve the previously used process
+            tool.initialize();
+
+            // write the graph to the process and read the result
+            writeDotGraph(tool, graphvizInput, progressMonitor.subTask(1), debugMode);
+            GraphvizModel graphvizOutput = readDotGraph(tool, timeout, progressMonitor.subTask(1), debugMode);
+
+            // apply layout information to the KGraph
             transData.getTargetGraphs().set(0, graphvizOutput);
             dotExporter.transferLayout(transData);
         } finally {
-            boolean reuseProcess = false;
-            if (Platform.isRunning()) {
-                reuseProcess = GraphvizLayouterPreferenceStoreAccess.getUISaveBoolean(
-                        PREF_GRAPHVIZ_REUSE_PROCESS, REUSE_PROCESS_DEFAULT);
+            try {
+                tool.cleanup(reuseProcess ? Cleanup.NORMAL : Cleanup.STOP);
+            } finally {
+                if (reuseProcess) {
+                    GraphvizToolPool.INSTANCE.release(tool);
+                }
+                progressMonitor.done();
             }
-            graphvizTool.cleanup(reuseProcess ? Cleanup.NORMAL : Cleanup.STOP);
-            progressMonitor.done();
         }
     }
 
     /**
-     * Writes a serialized version of the Graphviz model to the given output stream.
+     * Writes a serialized version of the Graphviz model to the input of the Graphviz process. The model
+     * is streamed to the process without serializing it to a string first.
      * 
+     * @param tool
+     *            the Graphviz tool to write to
      * @param graphvizModel
      *            Graphviz model to serialize
      * @param monitor
      *            a monitor to which progress is reported
      * @param debugMode
      *            whether debug mode is active
-     * @param resourceSet
-     *            the resource set for serialization
      */
-    private void writeDotGraph(final GraphvizModel graphvizModel,
-            final IElkProgressMonitor monitor, final boolean debugMode,
-            final XtextResourceSet resourceSet) {
+    private void writeDotGraph(final GraphvizTool tool, final GraphvizModel graphvizModel,
+            final IElkProgressMonitor monitor, final boolean debugMode) {
         monitor.begin("Serialize model", 1);
-        OutputStream outputStream = graphvizTool.input();
+        OutputStream outputStream = tool.input();
         // enable debug output if needed
         FileOutputStream debugStream = null;
         if (debugMode) {
@@ -185,22 +207,11 @@ public class GraphvizLayoutProvider extends AbstractLayoutProvider {
         }
 
         try {
-            XtextResource resource = (XtextResource) resourceSet.createResource(
-                    URI.createURI("output.graphviz_dot"));
-            resource.getContents().add(graphvizModel);
-            
-            /* KIPRA-1498
-             * We disable formatting and validation when saving the resource. Enabling it lead to
-             * possible ConcurrentModificationExceptions in Xtext.
-             */
-            Map<Object, Object> saveOptions =
-                    SaveOptions.newBuilder().noValidation().getOptions().toOptionsMap();
-            resource.save(outputStream, saveOptions);
-            
-            outputStream.write('\n');
-            outputStream.flush();
+            Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+            new DotWriter(writer).write(graphvizModel);
+            writer.flush();
         } catch (IOException exception) {
-            graphvizTool.cleanup(Cleanup.ERROR);
+            tool.cleanup(Cleanup.ERROR);
             throw new WrappedException("Failed to send the graph to Graphviz.", exception);
         } finally {
             if (debugStream != null) {
@@ -217,18 +228,20 @@ public class GraphvizLayoutProvider extends AbstractLayoutProvider {
     /**
      * Reads and parses a serialized Graphviz model.
      * 
+     * @param tool
+     *            the Graphviz tool to read from
+     * @param timeout
+     *            the timeout in milliseconds for the Graphviz process to give its output
      * @param monitor
      *            a monitor to which progress is reported
      * @param debugMode
      *            whether debug mode is active
-     * @param resourceSet
-     *            the resoure set for parsing
      * @return an instance of the parsed graphviz model
      */
-    private GraphvizModel readDotGraph(final IElkProgressMonitor monitor,
-            final boolean debugMode, final XtextResourceSet resourceSet) {
+    private GraphvizModel readDotGraph(final GraphvizTool tool, final int timeout,
+            final IElkProgressMonitor monitor, final boolean debugMode) {
         monitor.begin("Parse output", 1);
-        InputStream inputStream = graphvizTool.output();
+        InputStream inputStream = tool.output(timeout);
         // enable debug output if needed
         FileOutputStream debugStream = null;
         if (debugMode) {
@@ -250,12 +263,13 @@ public class GraphvizLayoutProvider extends AbstractLayoutProvider {
         }
 
         // parse the output stream of the dot process
+        XtextResourceSet resourceSet = (XtextResourceSet) dotResourceSetProvider.createResourceSet();
         XtextResource resource = (XtextResource) resourceSet.createResource(
                 URI.createURI("input.graphviz_dot"));
         try {
             resource.load(inputStream, null);
         } catch (IOException exception) {
-            graphvizTool.cleanup(Cleanup.ERROR);
+            tool.cleanup(Cleanup.ERROR);
             throw new WrappedException("Failed to read Graphviz output.", exception);
         } finally {
             if (debugStream != null) {
@@ -273,12 +287,12 @@ public class GraphvizLayoutProvider extends AbstractLayoutProvider {
             for (Diagnostic diagnostic : resource.getErrors()) {
                 errorString.append("\n" + diagnostic.getLine() + ": " + diagnostic.getMessage());
             }
-            graphvizTool.cleanup(Cleanup.ERROR);
+            tool.cleanup(Cleanup.ERROR);
             throw new GraphvizException(errorString.toString());
         }
         GraphvizModel graphvizModel = (GraphvizModel) resource.getParseResult().getRootASTElement();
         if (graphvizModel == null || graphvizModel.getGraphs().isEmpty()) {
-            graphvizTool.cleanup(Cleanup.ERROR);
+            tool.cleanup(Cleanup.ERROR);
             throw new GraphvizException("No output from the Graphviz process."
                     + " Try increasing the timeout value in the Eclipse Diagram Layout preferences.");
         }
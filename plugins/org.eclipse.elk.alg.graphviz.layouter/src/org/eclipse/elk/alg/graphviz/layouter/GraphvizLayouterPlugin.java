@@ -40,6 +40,7 @@ public class GraphvizLayouterPlugin extends Plugin {
     @Override
     public void stop(final BundleContext context) throws Exception {
         plugin = null;
+        GraphvizToolPool.INSTANCE.dispose();
         super.stop(context);
     }
 
@@ -84,6 +84,8 @@ public class GraphvizTool {
     private Watchdog watchdog;
     /** the input stream given by the Graphviz process. */
     private InputStream graphvizStream;
+    /** the timeout in milliseconds for the current job. */
+    private int jobTimeout;
     
     
     static {
@@ -158,6 +160,15 @@ public class GraphvizTool {
         this.command = thecommand;
     }
 
+    /**
+     * Return the Graphviz command executed by this tool.
+     * 
+     * @return the Graphviz command
+     */
+    public Command getCommand() {
+        return command;
+    }
+
     /**
      * Initialize the Graphviz tool instance by starting the dot process and the
      * watcher thread as necessary.
@@ -320,14 +331,30 @@ public class GraphvizTool {
     }
     
     /**
-     * Return the stream for reading the output of the Graphviz process.
+     * Return the stream for reading the output of the Graphviz process. The default timeout applies,
+     * which is taken from the preferences if Eclipse is running and from {@link #PROCESS_DEF_TIMEOUT}
+     * otherwise.
      * 
      * @return an input stream for reading from the tool
      */
     public InputStream output() {
+        return output(defaultTimeout());
+    }
+
+    /**
+     * Return the stream for reading the output of the Graphviz process. If the process does not finish
+     * writing its output within the given time, it is killed so that reading the stream stops blocking.
+     * Only the process working on this request is affected, and only if the request is still running
+     * when the timeout occurs.
+     * 
+     * @param timeout the timeout in milliseconds for this request
+     * @return an input stream for reading from the tool
+     */
+    public InputStream output(final int timeout) {
         if (process != null) {
             synchronized (nextJob) {
                 // create an input stream and make it visible to the watcher thread
+                jobTimeout = Math.max(timeout, PROCESS_MIN_TIMEOUT);
                 graphvizStream = new GraphvizStream(process.getInputStream());
                 // wake the watcher, which will then sleep until a timeout occurs
                 nextJob.notify();
@@ -337,6 +364,22 @@ public class GraphvizTool {
         throw new IllegalStateException("Graphviz tool has not been initialized.");
     }
     
+    /**
+     * Return the default timeout for waiting for Graphviz to give some output.
+     * 
+     * @return the default timeout in milliseconds
+     */
+    public static int defaultTimeout() {
+        int timeout = PROCESS_DEF_TIMEOUT.get();
+        if (EclipseRuntimeDetector.isEclipseRunning()) {
+            int timeoutPreference = GraphvizLayouterPreferenceStoreAccess.getUISaveInt(PREF_TIMEOUT);
+            if (timeoutPreference >= PROCESS_MIN_TIMEOUT) {
+                timeout = timeoutPreference;
+            }
+        }
+        return timeout;
+    }
+    
     /** maximal number of characters to read from error stream. */
     private static final int MAX_ERROR_OUTPUT = 512;
     /** time to wait before checking process errors. */
@@ -531,6 +574,8 @@ public class GraphvizTool {
         @Override
         public void run() {
             do {
+                InputStream watchedStream;
+                int timeout;
                 synchronized (nextJob) {
                     // the watcher starts working as soon as a stream is made visible
                     while (graphvizStream == null) {
@@ -544,16 +589,10 @@ public class GraphvizTool {
                             }
                         }
                     }
-                }
-                
-                // retrieve the current timeout value
-                int timeout = PROCESS_DEF_TIMEOUT.get();
-                if (EclipseRuntimeDetector.isEclipseRunning()) {
-                    int timeoutPreference =
-                            GraphvizLayouterPreferenceStoreAccess.getUISaveInt(PREF_TIMEOUT);
-                    if (timeoutPreference >= PROCESS_MIN_TIMEOUT) {
-                        timeout = timeoutPreference;
-                    }
+                    // remember which job is watched, and forget interrupts meant for earlier jobs
+                    watchedStream = graphvizStream;
+                    timeout = jobTimeout;
+                    Thread.interrupted();
                 }
 
                 boolean interrupted = false;
@@ -566,9 +605,10 @@ public class GraphvizTool {
                 
                 if (!interrupted) {
                     synchronized (nextJob) {
-                        // timeout has occurred! kill the process so the main thread will wake
+                        // timeout has occurred! kill the process so the main thread will wake, unless
+                        // the job has finished in the meantime and the process may be working on another
                         Process myProcess = process;
-                        if (myProcess != null) {
+                        if (myProcess != null && graphvizStream == watchedStream) {
                             graphvizStream = null;
                             myProcess.destroy();
                         }
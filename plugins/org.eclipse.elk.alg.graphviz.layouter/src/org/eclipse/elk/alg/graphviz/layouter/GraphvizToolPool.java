@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Kiel University and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.elk.alg.graphviz.layouter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.elk.alg.graphviz.dot.transform.Command;
+import org.eclipse.elk.alg.graphviz.layouter.GraphvizTool.Cleanup;
+
+/**
+ * A pool of Graphviz tools whose processes are kept alive between layout runs, so that graphs are sent
+ * through long-lived processes instead of starting a new process for each graph. Tools are pooled
+ * separately for each Graphviz command. If all tools of a command are in use and the pool has reached
+ * its {@link #setMaxSize(int) maximal size}, further requests wait for a tool to be released.
+ */
+public final class GraphvizToolPool {
+
+    /** the singleton instance of the tool pool. */
+    public static final GraphvizToolPool INSTANCE = new GraphvizToolPool();
+
+    /**
+     * Hide constructor to avoid instantiation from outside.
+     */
+    private GraphvizToolPool() {
+    }
+
+    /** the tools that are currently not in use, most recently released first. */
+    private final Map<Command, Deque<GraphvizTool>> idleTools = new EnumMap<>(Command.class);
+    /** the tools that have been fetched and not yet released. */
+    private final Set<GraphvizTool> usedTools = Collections.newSetFromMap(new IdentityHashMap<>());
+    /** the number of tools created for each command, whether they are in use or not. */
+    private final Map<Command, Integer> toolCounts = new EnumMap<>(Command.class);
+    /** the maximal number of tools for each command. */
+    private int maxSize = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Set the maximal number of tools, and thus processes, for each Graphviz command. Tools that already
+     * exist are not disposed.
+     *
+     * @param size the maximal number of tools per command
+     */
+    public void setMaxSize(final int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("The maximal pool size must be positive.");
+        }
+        synchronized (idleTools) {
+            maxSize = size;
+            idleTools.notifyAll();
+        }
+    }
+
+    /**
+     * Fetch a tool for the given command from the pool, creating one if necessary. The tool still has to
+     * be initialized, which starts its process unless it is still running from an earlier layout run.
+     *
+     * @param command a Graphviz command
+     * @return a Graphviz tool
+     */
+    public GraphvizTool fetch(final Command command) {
+        synchronized (idleTools) {
+            while (true) {
+                Deque<GraphvizTool> idle = idleTools.get(command);
+                if (idle != null && !idle.isEmpty()) {
+                    GraphvizTool tool = idle.removeFirst();
+                    usedTools.add(tool);
+                    return tool;
+                }
+                int count = toolCounts.getOrDefault(command, 0);
+                if (count < maxSize) {
+                    toolCounts.put(command, count + 1);
+                    GraphvizTool tool = new GraphvizTool(command);
+                    usedTools.add(tool);
+                    return tool;
+                }
+                try {
+                    idleTools.wait();
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                    throw new GraphvizException("Interrupted while waiting for a Graphviz process.", exception);
+                }
+            }
+        }
+    }
+
+    /**
+     * Release a previously fetched tool into the pool. The tool must have been cleaned up after its last
+     * layout run; if that stopped its process, a new one is started the next time the tool is used. Tools
+     * that have been disposed while they were in use are not taken back.
+     *
+     * @param tool a Graphviz tool
+     */
+    public void release(final GraphvizTool tool) {
+        synchronized (idleTools) {
+            if (usedTools.remove(tool)) {
+                idleTools.computeIfAbsent(tool.getCommand(), c -> new ArrayDeque<>()).addFirst(tool);
+                idleTools.notifyAll();
+                return;
+            }
+        }
+        tool.cleanup(Cleanup.STOP);
+    }
+
+    /**
+     * Stop the processes of all tools and remove them from the pool. This includes the tools that are
+     * currently in use, so layout runs that are still working with them fail.
+     */
+    public void dispose() {
+        List<GraphvizTool> disposed = new ArrayList<>();
+        synchronized (idleTools) {
+            for (Deque<GraphvizTool> idle : idleTools.values()) {
+                disposed.addAll(idle);
+                idle.clear();
+            }
+            disposed.addAll(usedTools);
+            usedTools.clear();
+            toolCounts.clear();
+            idleTools.notifyAll();
+        }
+        for (GraphvizTool tool : disposed) {
+            tool.cleanup(Cleanup.STOP);
+        }
+    }
+
+}
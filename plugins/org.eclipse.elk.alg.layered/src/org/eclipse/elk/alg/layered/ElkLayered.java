@@ -17,6 +17,13 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Set;
+// elkjs-exclude-start
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Random;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+// elkjs-exclude-end
 
 import org.eclipse.elk.alg.layered.components.ComponentsProcessor;
 import org.eclipse.elk.alg.layered.compound.CompoundGraphPostprocessor;
@@ -114,6 +121,10 @@ public final class ElkLayered {
     private final CompoundGraphPostprocessor compoundGraphPostprocessor = new CompoundGraphPostprocessor();
     /** Test controller for a white box test. */
     private TestController testController = null;
+    // elkjs-exclude-start
+    /** configurations for the additional threads used to lay out connected components concurrently. */
+    private final List<GraphConfigurator> concurrentGraphConfigurators = new ArrayList<>();
+    // elkjs-exclude-end
 
 
     ////////////////////////////////////////////////////////////////////////////////
@@ -136,12 +147,22 @@ public final class ElkLayered {
 
         // Update the modules depending on user options
         graphConfigurator.prepareGraphForLayout(lgraph);
+        
+        // elkjs-exclude-start
+        // Phases may inspect the whole graph when assembling their processors, so this has to happen before splitting
+        List<List<ILayoutProcessor<LGraph>>> concurrentAlgorithms = assembleConcurrentAlgorithms(lgraph);
+        // elkjs-exclude-end
 
         // Split the input graph into components and perform layout on them
         List<LGraph> components = componentsProcessor.split(lgraph);
         if (components.size() == 1) {
             // Execute layout on the sole component using the top-level progress monitor
             layout(components.get(0), theMonitor);
+        // elkjs-exclude-start
+        } else if (!concurrentAlgorithms.isEmpty()) {
+            // Distribute the components among several threads, each running its own instance of the algorithm
+            layoutConcurrently(components, concurrentAlgorithms, theMonitor);
+        // elkjs-exclude-end
         } else {
             // Execute layout on each component using a progress monitor subtask
             float compWork = 1.0f / components.size();
@@ -159,6 +180,82 @@ public final class ElkLayered {
 
         theMonitor.done();
     }
+    
+    // elkjs-exclude-start
+    
+    /**
+     * Assembles one algorithm instance per thread that is to be used for concurrent component layout, as configured
+     * by {@link LayeredOptions#PARALLELISM}. The first instance is the one already attached to the graph by the
+     * graph configurator, the others come from configurators of their own and thus share no processors with it.
+     * 
+     * @param lgraph the graph to be laid out, already prepared by the graph configurator.
+     * @return a list of algorithm instances, or an empty list if the components are to be laid out sequentially.
+     */
+    private List<List<ILayoutProcessor<LGraph>>> assembleConcurrentAlgorithms(final LGraph lgraph) {
+        // There is no point in more threads than nodes, and white box tests expect everything to happen in order
+        int threads = Math.min(lgraph.getProperty(LayeredOptions.PARALLELISM), lgraph.getLayerlessNodes().size());
+        if (threads <= 1 || testController != null) {
+            return Collections.emptyList();
+        }
+        
+        while (concurrentGraphConfigurators.size() < threads - 1) {
+            concurrentGraphConfigurators.add(new GraphConfigurator());
+        }
+        
+        List<List<ILayoutProcessor<LGraph>>> algorithms = new ArrayList<>(threads);
+        algorithms.add(lgraph.getProperty(InternalProperties.PROCESSORS));
+        for (int i = 0; i < threads - 1; i++) {
+            algorithms.add(concurrentGraphConfigurators.get(i).assembleProcessors(lgraph));
+        }
+        return algorithms;
+    }
+    
+    /**
+     * Lays out the given components concurrently. Each of the given algorithm instances is executed by a thread of
+     * its own which repeatedly picks the next component that has not been laid out yet. If called from a thread of a
+     * {@link java.util.concurrent.ForkJoinPool}, the work is done in that pool, otherwise in the common pool.
+     * 
+     * <p>All components initially share the random number generator of the original graph. Since the order in which
+     * threads consume random numbers is not deterministic, each component gets a generator of its own, seeded in
+     * component order. The same is done for the graph properties, and for the progress monitors, which are not
+     * thread-safe.</p>
+     * 
+     * @param components the components to be laid out.
+     * @param algorithms the algorithm instances, one per thread.
+     * @param monitor the progress monitor to create a sub task for each component in.
+     */
+    private void layoutConcurrently(final List<LGraph> components,
+            final List<List<ILayoutProcessor<LGraph>>> algorithms, final IElkProgressMonitor monitor) {
+        
+        Random random = components.get(0).getProperty(InternalProperties.RANDOM);
+        List<IElkProgressMonitor> componentMonitors = new ArrayList<>(components.size());
+        for (LGraph comp : components) {
+            comp.setProperty(InternalProperties.RANDOM, new Random(random.nextLong()));
+            comp.setProperty(InternalProperties.GRAPH_PROPERTIES,
+                    EnumSet.copyOf(comp.getProperty(InternalProperties.GRAPH_PROPERTIES)));
+            componentMonitors.add(monitor.subTask(0));
+        }
+        
+        AtomicInteger nextComponent = new AtomicInteger();
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(algorithms.size());
+        for (List<ILayoutProcessor<LGraph>> algorithm : algorithms) {
+            tasks.add(ForkJoinTask.adapt(() -> {
+                int index = nextComponent.getAndIncrement();
+                while (index < components.size() && !monitor.isCanceled()) {
+                    LGraph comp = components.get(index);
+                    comp.setProperty(InternalProperties.PROCESSORS, algorithm);
+                    layout(comp, componentMonitors.get(index));
+                    index = nextComponent.getAndIncrement();
+                }
+            }));
+        }
+        ForkJoinTask.invokeAll(tasks);
+        
+        // The component monitors don't report their progress to avoid concurrent updates, so do that now
+        monitor.worked(1);
+    }
+    
+    // elkjs-exclude-end
 
 
     ////////////////////////////////////////////////////////////////////////////////
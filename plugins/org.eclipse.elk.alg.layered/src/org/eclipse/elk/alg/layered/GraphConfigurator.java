@@ -9,6 +9,7 @@
  *******************************************************************************/
 package org.eclipse.elk.alg.layered;
 
+import java.util.List;
 import java.util.Random;
 import java.util.Set;
 
@@ -27,6 +28,7 @@ import org.eclipse.elk.alg.layered.options.OrderingStrategy;
 import org.eclipse.elk.alg.layered.options.Spacings;
 import org.eclipse.elk.alg.layered.p5edges.EdgeRouterFactory;
 import org.eclipse.elk.core.alg.AlgorithmAssembler;
+import org.eclipse.elk.core.alg.ILayoutProcessor;
 import org.eclipse.elk.core.alg.LayoutProcessorConfiguration;
 import org.eclipse.elk.core.labels.LabelManagementOptions;
 import org.eclipse.elk.core.options.Direction;
@@ -160,6 +162,19 @@ final class GraphConfigurator {
         // Make sure the graph properties are sensible
         configureGraphProperties(lgraph);
         
+        lgraph.setProperty(InternalProperties.PROCESSORS, assembleProcessors(lgraph));
+    }
+    
+    /**
+     * Assembles the list of processors required to layout the given graph without touching the graph's properties.
+     * The graph is expected to have been prepared by {@link #prepareGraphForLayout(LGraph)}, possibly of a different
+     * configurator. Since each configurator caches its own phase and processor instances, this can be used to obtain
+     * an independent copy of an algorithm configuration that can run concurrently to the original one.
+     * 
+     * @param lgraph the graph to layout.
+     * @return the list of processors to execute.
+     */
+    public List<ILayoutProcessor<LGraph>> assembleProcessors(final LGraph lgraph) {
         // Setup the algorithm assembler
         algorithmAssembler.reset();
         
@@ -176,7 +191,7 @@ final class GraphConfigurator {
         
         algorithmAssembler.addProcessorConfiguration(getPhaseIndependentLayoutProcessorConfiguration(lgraph));
         
-        lgraph.setProperty(InternalProperties.PROCESSORS, algorithmAssembler.build(lgraph));
+        return algorithmAssembler.build(lgraph);
     }
     
     /**
@@ -1,6 +1,6 @@
 /*******************************************************************************
- * Copyright (c) 2015 Kiel University and others.
- * 
+ * Copyright (c) 2015, 2024 Kiel University and others.
+ *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License 2.0 which is available at
  * http://www.eclipse.org/legal/epl-2.0.
@@ -9,6 +9,8 @@
  *******************************************************************************/
 package org.eclipse.elk.alg.layered.intermediate.greedyswitch;
 
+import java.util.Arrays;
+
 import org.eclipse.elk.alg.layered.graph.LNode;
 import org.eclipse.elk.alg.layered.intermediate.greedyswitch.SwitchDecider.CrossingCountSide;
 import org.eclipse.elk.alg.layered.p3order.LayerSweepCrossingMinimizer.CrossMinType;
@@ -16,13 +18,35 @@ import org.eclipse.elk.alg.layered.p3order.LayerSweepCrossingMinimizer.CrossMinT
 /**
  * This class manages the crossing matrix and fills it on demand. It needs to be reinitialized for
  * each free layer. For each layer the node.id fields MUST be set from 0 to layer.getSize() - 1!
+ *
+ * <p>
+ * The greedy switch heuristic only asks for entries of nodes that are neighbors at the time, so only a small
+ * fraction of the matrix is ever filled. Hence, the matrix is stored sparsely: the filled entries of a pair of nodes
+ * are kept in a list attached to the node with the smaller id. The arrays backing these lists grow with the number of
+ * filled pairs and are reused when the filler is {@link #init(LNode[][], int, CrossingCountSide) initialized} for the
+ * next free layer.
+ * </p>
  */
 public final class CrossingMatrixFiller {
-    private final boolean[][] isCrossingMatrixFilled;
-    private final int[][] crossingMatrix;
-    private final BetweenLayerEdgeTwoNodeCrossingsCounter inBetweenLayerCrossingCounter;
-    private final CrossingCountSide direction;
+    /** Initial number of pairs per node of the free layer the pair arrays are able to hold. */
+    private static final int PAIRS_PER_NODE = 2;
+
     private final boolean oneSided;
+    private BetweenLayerEdgeTwoNodeCrossingsCounter inBetweenLayerCrossingCounter;
+    private CrossingCountSide direction;
+
+    /** For each node id, the index of the first filled pair the node is the smaller one of, or -1. */
+    private int[] firstPair = new int[0];
+    /** For each filled pair, the index of the next pair of the same smaller node, or -1. */
+    private int[] nextPair = new int[0];
+    /** For each filled pair, the id of its larger node. */
+    private int[] largerNode = new int[0];
+    /** For each filled pair, the crossings if the smaller node is the upper one. */
+    private int[] smallerUpperCrossings = new int[0];
+    /** For each filled pair, the crossings if the larger node is the upper one. */
+    private int[] largerUpperCrossings = new int[0];
+    /** The number of filled pairs. */
+    private int pairCount;
 
     // SUPPRESS CHECKSTYLE NEXT 30 Javadoc
     /**
@@ -30,13 +54,41 @@ public final class CrossingMatrixFiller {
      */
     public CrossingMatrixFiller(final CrossMinType greedySwitchType, final LNode[][] graph,
             final int freeLayerIndex, final CrossingCountSide direction) {
-        
-        this.direction = direction;
+
+        this(greedySwitchType);
+        init(graph, freeLayerIndex, direction);
+    }
+
+    /**
+     * Constructs class which manages the crossing matrix. It has to be {@link #init(LNode[][], int, CrossingCountSide)
+     * initialized} before entries can be requested.
+     */
+    public CrossingMatrixFiller(final CrossMinType greedySwitchType) {
         oneSided = greedySwitchType == CrossMinType.ONE_SIDED_GREEDY_SWITCH;
+    }
 
-        LNode[] freeLayer = graph[freeLayerIndex];
-        isCrossingMatrixFilled = new boolean[freeLayer.length][freeLayer.length];
-        crossingMatrix = new int[freeLayer.length][freeLayer.length];
+    /**
+     * Discards all entries and prepares the matrix for the given free layer.
+     *
+     * @param graph
+     *            the current node order.
+     * @param freeLayerIndex
+     *            the index of the free layer whose nodes entries will be requested for.
+     * @param countSide
+     *            the side on which to count crossings if only one side is considered.
+     */
+    public void init(final LNode[][] graph, final int freeLayerIndex, final CrossingCountSide countSide) {
+        this.direction = countSide;
+
+        int layerSize = graph[freeLayerIndex].length;
+        if (firstPair.length < layerSize) {
+            firstPair = new int[layerSize];
+        }
+        Arrays.fill(firstPair, 0, layerSize, -1);
+        if (nextPair.length < PAIRS_PER_NODE * layerSize) {
+            resizePairs(PAIRS_PER_NODE * layerSize);
+        }
+        pairCount = 0;
 
         inBetweenLayerCrossingCounter = new BetweenLayerEdgeTwoNodeCrossingsCounter(graph, freeLayerIndex);
     }
@@ -46,15 +98,24 @@ public final class CrossingMatrixFiller {
      * lowerNode in the layer.
      */
     public int getCrossingMatrixEntry(final LNode upperNode, final LNode lowerNode) {
-        if (!isCrossingMatrixFilled[upperNode.id][lowerNode.id]) {
-            fillCrossingMatrix(upperNode, lowerNode);
-            isCrossingMatrixFilled[upperNode.id][lowerNode.id] = true;
-            isCrossingMatrixFilled[lowerNode.id][upperNode.id] = true;
+        boolean upperIsSmaller = upperNode.id < lowerNode.id;
+        int smaller = upperIsSmaller ? upperNode.id : lowerNode.id;
+        int larger = upperIsSmaller ? lowerNode.id : upperNode.id;
+
+        int pair = firstPair[smaller];
+        while (pair >= 0 && largerNode[pair] != larger) {
+            pair = nextPair[pair];
+        }
+        if (pair < 0) {
+            pair = fillCrossingMatrix(upperNode, lowerNode, smaller, larger);
         }
-        return crossingMatrix[upperNode.id][lowerNode.id];
+
+        return upperIsSmaller ? smallerUpperCrossings[pair] : largerUpperCrossings[pair];
     }
 
-    private void fillCrossingMatrix(final LNode upperNode, final LNode lowerNode) {
+    private int fillCrossingMatrix(final LNode upperNode, final LNode lowerNode, final int smaller,
+            final int larger) {
+
         if (oneSided) {
             switch (direction) {
             case EAST:
@@ -66,9 +127,29 @@ public final class CrossingMatrixFiller {
         } else {
             inBetweenLayerCrossingCounter.countBothSideCrossings(upperNode, lowerNode);
         }
-        crossingMatrix[upperNode.id][lowerNode.id] =
-                inBetweenLayerCrossingCounter.getUpperLowerCrossings();
-        crossingMatrix[lowerNode.id][upperNode.id] =
-                inBetweenLayerCrossingCounter.getLowerUpperCrossings();
+
+        if (pairCount == nextPair.length) {
+            resizePairs(Math.max(2 * pairCount, PAIRS_PER_NODE));
+        }
+        int pair = pairCount++;
+        largerNode[pair] = larger;
+        nextPair[pair] = firstPair[smaller];
+        firstPair[smaller] = pair;
+
+        boolean upperIsSmaller = upperNode.id == smaller;
+        smallerUpperCrossings[pair] = upperIsSmaller
+                ? inBetweenLayerCrossingCounter.getUpperLowerCrossings()
+                : inBetweenLayerCrossingCounter.getLowerUpperCrossings();
+        largerUpperCrossings[pair] = upperIsSmaller
+                ? inBetweenLayerCrossingCounter.getLowerUpperCrossings()
+                : inBetweenLayerCrossingCounter.getUpperLowerCrossings();
+        return pair;
+    }
+
+    private void resizePairs(final int capacity) {
+        nextPair = Arrays.copyOf(nextPair, capacity);
+        largerNode = Arrays.copyOf(largerNode, capacity);
+        smallerUpperCrossings = Arrays.copyOf(smallerUpperCrossings, capacity);
+        largerUpperCrossings = Arrays.copyOf(largerUpperCrossings, capacity);
     }
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015 Kiel University and others.
+ * Copyright (c) 2015, 2024 Kiel University and others.
  * 
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License 2.0 which is available at
@@ -37,6 +37,8 @@ public class GreedySwitchHeuristic implements ICrossingMinimizationHeuristic {
     private final CrossMinType greedySwitchType;
     private LNode[][] currentNodeOrder;
     private SwitchDecider switchDecider;
+    /** The crossing matrix is reused for all free layers of the graph to keep its arrays. */
+    private final CrossingMatrixFiller crossingMatrixFiller;
     private int[] portPositions;
     private GraphInfoHolder graphData;
     private int nPorts;
@@ -52,6 +54,7 @@ public class GreedySwitchHeuristic implements ICrossingMinimizationHeuristic {
     public GreedySwitchHeuristic(final CrossMinType greedyType, final GraphInfoHolder graphData) {
         this.graphData = graphData;
         greedySwitchType = greedyType;
+        crossingMatrixFiller = new CrossingMatrixFiller(greedyType);
     }
 
     @Override
@@ -76,8 +79,7 @@ public class GreedySwitchHeuristic implements ICrossingMinimizationHeuristic {
     }
 
     private SwitchDecider getNewSwitchDecider(final int freeLayerIndex, final CrossingCountSide side) {
-        CrossingMatrixFiller crossingMatrixFiller =
-                new CrossingMatrixFiller(greedySwitchType, currentNodeOrder, freeLayerIndex, side);
+        crossingMatrixFiller.init(currentNodeOrder, freeLayerIndex, side);
         return new SwitchDecider(freeLayerIndex, currentNodeOrder, crossingMatrixFiller, portPositions,
                 graphData, greedySwitchType == CrossMinType.ONE_SIDED_GREEDY_SWITCH);
     }
@@ -17,6 +17,7 @@ import org.eclipse.elk.alg.layered.options.InternalProperties;
 import org.eclipse.elk.alg.layered.graph.LPort;
 import org.eclipse.elk.alg.layered.p3order.GraphInfoHolder;
 import org.eclipse.elk.alg.layered.p3order.counting.CrossingsCounter;
+import org.eclipse.elk.alg.layered.p3order.counting.PortAdjacencies;
 import org.eclipse.elk.core.options.PortSide;
 import org.eclipse.elk.core.util.Pair;
 
@@ -65,9 +66,10 @@ public final class SwitchDecider {
         }
         freeLayer = graph[freeLayerIndex];
 
-        leftInLayerCounter = new CrossingsCounter(portPositions);
+        PortAdjacencies portAdjacencies = graphData.crossCounter().portAdjacencies();
+        leftInLayerCounter = new CrossingsCounter(portPositions, portAdjacencies);
         leftInLayerCounter.initPortPositionsForInLayerCrossings(freeLayer, PortSide.WEST);
-        rightInLayerCounter = new CrossingsCounter(portPositions);
+        rightInLayerCounter = new CrossingsCounter(portPositions, portAdjacencies);
         rightInLayerCounter.initPortPositionsForInLayerCrossings(freeLayer, PortSide.EAST);
         northSouthCounter = new NorthSouthEdgeNeighbouringNodeCrossingsCounter(freeLayer);
         countCrossingsCausedByPortSwitch = !oneSided && graphData.hasParent() && !graphData.dontSweepInto()
@@ -81,7 +83,7 @@ public final class SwitchDecider {
         GraphInfoHolder parentGraphData = graphData.parentGraphData();
         LNode[][] parentNodeOrder = parentGraphData.currentNodeOrder();
         int[] portPos = parentGraphData.portPositions();
-        parentCrossCounter = new CrossingsCounter(portPos);
+        parentCrossCounter = new CrossingsCounter(portPos, parentGraphData.crossCounter().portAdjacencies());
         int parentNodeLayerPos = graphData.parent().getLayer().id;
         LNode[] leftLayer = parentNodeLayerPos > 0 ? parentNodeOrder[parentNodeLayerPos - 1] : new LNode[0];
         LNode[] middleLayer = parentNodeOrder[parentNodeLayerPos];
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2020 Kiel University and others.
+ * Copyright (c) 2016, 2024 Kiel University and others.
  * 
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License 2.0 which is available at
@@ -9,11 +9,15 @@
  *******************************************************************************/
 package org.eclipse.elk.alg.layered.p2layers;
 
-import java.util.Collection;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Set;
+// elkjs-exclude-start
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+// elkjs-exclude-end
 
 import org.eclipse.elk.alg.layered.LayeredPhases;
 import org.eclipse.elk.alg.layered.graph.LEdge;
@@ -185,24 +189,14 @@ public final class MinWidthLayerer implements ILayoutPhase<LayeredPhases, LGraph
         // Divide sum of normalized node sizes by the number of nodes to get an actual mean.
         avgSize /= numOfNodes;
 
-        // Precalculate the successors of all nodes (as a Set) and put them in a list.
-        List<Set<LNode>> nodeSuccessors = precalcSuccessors(notInserted);
+        // Precalculate the successors of all nodes as sets of node ids.
+        BitSet[] nodeSuccessors = precalcSuccessors(notInserted);
 
         // Guarantee ConditionSelect from the paper, which states that nodes with maximum out-degree
         // should be preferred during layer placement, by ordering the nodes by descending maximum
         // out-degree in advance.
         notInserted.sort(Collections.reverseOrder(new MinOutgoingEdgesComparator()));
 
-        // minimum width of a layer of maximum size in a computed layering (primary criterion used
-        // for comparison, if more than one layering is computed). It's a double as it takes in
-        // account the actual width based on the normalized size of the nodes.
-        double minWidth = Double.POSITIVE_INFINITY;
-        // minimum number of layers in a computed layering {@code minWidth} (secondary
-        // criterion used for comparison, if more than one layering is computed).
-        int minNumOfLayers = Integer.MAX_VALUE;
-        // holding the currently chosen candidate for the final layering as a List
-        List<List<LNode>> candidateLayering = null;
-
         // At first blindly set the parameters for the loose upper bound and the compensator to the
         // exact values, which have been configured via their respective properties, so that only
         // one layering will be computed …
@@ -222,25 +216,49 @@ public final class MinWidthLayerer implements ILayoutPhase<LayeredPhases, LGraph
             cEnd = COMPENSATOR_RANGE.upperEndpoint();
         }
 
-        // … Depending on the start- and end-values, this nested for-loop will last for up to 8
-        // iterations resulting in one, two, four or eight different layerings.
+        // … Depending on the start- and end-values, this results in one, two, four or eight
+        // different layerings. Their parameters are listed in the order the layerings are compared in.
+        List<int[]> parameters = Lists.newArrayList();
         for (int ubw = ubwStart; ubw <= ubwEnd; ubw++) {
             for (int c = cStart; c <= cEnd; c++) {
-                Pair<Double, List<List<LNode>>> result =
-                        computeMinWidthLayering(ubw, c, notInserted, nodeSuccessors);
-                double newWidth = result.getFirst();
-                List<List<LNode>> layering = result.getSecond();
-
-                // Important if more than one layering is computed: replace the current candidate
-                // layering with a newly computed one, if it is narrower or has the same maximum
-                // width but less layers.
-                int newNumOfLayers = layering.size();
-                if (newWidth < minWidth
-                        || (newWidth == minWidth && newNumOfLayers < minNumOfLayers)) {
-                    minWidth = newWidth;
-                    minNumOfLayers = newNumOfLayers;
-                    candidateLayering = layering;
-                }
+                parameters.add(new int[] { ubw, c });
+            }
+        }
+        
+        List<Pair<Double, List<List<LNode>>>> results = null;
+        // elkjs-exclude-start
+        results = computeMinWidthLayeringsConcurrently(layeredGraph, parameters, notInserted, nodeSuccessors);
+        // elkjs-exclude-end
+        if (results == null) {
+            results = Lists.newArrayListWithCapacity(parameters.size());
+            for (int[] parameter : parameters) {
+                results.add(computeMinWidthLayering(parameter[0], parameter[1], notInserted, nodeSuccessors));
+            }
+        }
+
+        // minimum width of a layer of maximum size in a computed layering (primary criterion used
+        // for comparison, if more than one layering is computed). It's a double as it takes in
+        // account the actual width based on the normalized size of the nodes.
+        double minWidth = Double.POSITIVE_INFINITY;
+        // minimum number of layers in a computed layering {@code minWidth} (secondary
+        // criterion used for comparison, if more than one layering is computed).
+        int minNumOfLayers = Integer.MAX_VALUE;
+        // holding the currently chosen candidate for the final layering as a List
+        List<List<LNode>> candidateLayering = null;
+        
+        for (Pair<Double, List<List<LNode>>> result : results) {
+            double newWidth = result.getFirst();
+            List<List<LNode>> layering = result.getSecond();
+
+            // Important if more than one layering is computed: replace the current candidate
+            // layering with a newly computed one, if it is narrower or has the same maximum
+            // width but less layers. On a tie, the layering computed first thus wins.
+            int newNumOfLayers = layering.size();
+            if (newWidth < minWidth
+                    || (newWidth == minWidth && newNumOfLayers < minNumOfLayers)) {
+                minWidth = newWidth;
+                minNumOfLayers = newNumOfLayers;
+                candidateLayering = layering;
             }
         }
 
@@ -263,29 +281,69 @@ public final class MinWidthLayerer implements ILayoutPhase<LayeredPhases, LGraph
         progressMonitor.done();
     }
 
+    // elkjs-exclude-start
+    
+    /**
+     * Computes the layerings for the given parameters concurrently if {@link LayeredOptions#PARALLELISM}
+     * allows for it. The layerings only read the precomputed node information, so they don't interfere
+     * with each other.
+     * 
+     * @return the layerings in the order of the given parameters, or {@code null} if they still need to
+     *         be computed.
+     */
+    private List<Pair<Double, List<List<LNode>>>> computeMinWidthLayeringsConcurrently(
+            final LGraph layeredGraph, final List<int[]> parameters, final List<LNode> nodes,
+            final BitSet[] nodeSuccessors) {
+        
+        int threads = Math.min(layeredGraph.getProperty(LayeredOptions.PARALLELISM), parameters.size());
+        if (threads <= 1) {
+            return null;
+        }
+        
+        @SuppressWarnings("unchecked")
+        Pair<Double, List<List<LNode>>>[] results = new Pair[parameters.size()];
+        AtomicInteger nextLayering = new AtomicInteger();
+        List<ForkJoinTask<?>> tasks = Lists.newArrayListWithCapacity(threads);
+        for (int thread = 0; thread < threads; thread++) {
+            tasks.add(ForkJoinTask.adapt(() -> {
+                int index = nextLayering.getAndIncrement();
+                while (index < results.length) {
+                    int[] parameter = parameters.get(index);
+                    results[index] = computeMinWidthLayering(parameter[0], parameter[1], nodes, nodeSuccessors);
+                    index = nextLayering.getAndIncrement();
+                }
+            }));
+        }
+        ForkJoinTask.invokeAll(tasks);
+        
+        return Lists.newArrayList(results);
+    }
+    
+    // elkjs-exclude-end
+
     /**
-     * Calculates for a given Collection of {@link LNode} all its successors (i.e. a Set of
-     * {@link LNode}s) without self-loops.
+     * Calculates for a given List of {@link LNode} all its successors without self-loops. The
+     * {@code id} of the nodes has to be set to their index in the list.
      * 
      * @param nodes
-     *            a Collection of {@link LNode}
-     * @return List of Set of successor {@link LNode}s in order of the given nodes
+     *            a List of {@link LNode}
+     * @return the ids of the successors of each node, indexed by node id
      */
-    private List<Set<LNode>> precalcSuccessors(final Collection<LNode> nodes) {
-        List<Set<LNode>> successors = Lists.newArrayListWithCapacity(nodes.size());
+    private BitSet[] precalcSuccessors(final List<LNode> nodes) {
+        BitSet[] successors = new BitSet[nodes.size()];
 
         for (LNode node : nodes) {
 
-            Set<LNode> outNodes = Sets.newHashSet();
+            BitSet outNodes = new BitSet();
             Iterable<LEdge> outEdges = node.getOutgoingEdges();
 
             for (LEdge edge : outEdges) {
                 if (!isSelfLoopTest.apply(edge)) {
-                    outNodes.add(edge.getTarget().getNode());
+                    outNodes.set(edge.getTarget().getNode().id);
                 }
             }
 
-            successors.add(outNodes);
+            successors[node.id] = outNodes;
         }
 
         return successors;
@@ -308,18 +366,18 @@ public final class MinWidthLayerer implements ILayoutPhase<LayeredPhases, LGraph
      *            estimations.
      * @param nodes
      *            Iterable of all nodes of the Graph. The {@code id} of the nodes have to be set to
-     *            the index where the respective Set of successor-nodes are stored in the List
+     *            the index where the respective set of successor-nodes is stored in the array
      *            {@code nodeSuccessors}.
      * @param nodeSuccessors
-     *            precomputed List of Set of successor-nodes of the elements in the Iterable
-     *            {@code nodes}.
+     *            precomputed sets of the ids of the successor-nodes of the elements in the
+     *            Iterable {@code nodes}, indexed by node id.
      * @return a pair of a double representing the maximum width of the resulting layering
      *         (normalized by the smallest real node) and the layering itself as a list of list of
      *         nodes
      */
     private Pair<Double, List<List<LNode>>> computeMinWidthLayering(final int upperBoundOnWidth,
             final int compensator, final Iterable<LNode> nodes,
-            final List<Set<LNode>> nodeSuccessors) {
+            final BitSet[] nodeSuccessors) {
 
         List<List<LNode>> layers = Lists.newArrayList();
         Set<LNode> unplacedNodes = Sets.newLinkedHashSet(nodes);
@@ -336,9 +394,9 @@ public final class MinWidthLayerer implements ILayoutPhase<LayeredPhases, LGraph
         // In the Paper the first Set contains all nodes, which have already been placed (in this
         // version we consider only the nodes already placed in the current layer), and the
         // second contains all nodes already placed in layers which have been determined before the
-        // currentLayer.
-        Set<LNode> alreadyPlacedInCurrentLayer = Sets.newHashSet();
-        Set<LNode> alreadyPlacedInOtherLayers = Sets.newHashSet();
+        // currentLayer. Both contain node ids.
+        BitSet alreadyPlacedInCurrentLayer = new BitSet();
+        BitSet alreadyPlacedInOtherLayers = new BitSet();
 
         // Set up the first layer (algorithm is bottom up, so the List layer is going to be reversed
         // at the end.
@@ -368,7 +426,7 @@ public final class MinWidthLayerer implements ILayoutPhase<LayeredPhases, LGraph
             if (currentNode != null) {
                 unplacedNodes.remove(currentNode);
                 currentLayer.add(currentNode);
-                alreadyPlacedInCurrentLayer.add(currentNode);
+                alreadyPlacedInCurrentLayer.set(currentNode.id);
 
                 outDeg = this.outDegree[currentNode.id];
                 // Take node sizes in account: use the normalized size of current node and the
@@ -401,7 +459,7 @@ public final class MinWidthLayerer implements ILayoutPhase<LayeredPhases, LGraph
                     || widthUp >= compensator * ubwConsiderSize) {
                 layers.add(currentLayer);
                 currentLayer = Lists.newArrayList();
-                alreadyPlacedInOtherLayers.addAll(alreadyPlacedInCurrentLayer);
+                alreadyPlacedInOtherLayers.or(alreadyPlacedInCurrentLayer);
                 alreadyPlacedInCurrentLayer.clear();
 
                 // Remove all edges from the dummy node count, which are starting at a node placed
@@ -432,22 +490,36 @@ public final class MinWidthLayerer implements ILayoutPhase<LayeredPhases, LGraph
      * 
      * @param nodes
      *            Set to choose {@link LNode} from
+     * @param successors
+     *            the ids of the successors of each node, indexed by node id
      * @param targets
-     *            Set of {@link LNode}
+     *            Set of {@link LNode} ids
      * @return chosen {@link LNode} from {@code nodes}, whose outgoing edges all end in a node
      *         contained in {@code targets}. Returns {@code null}, if such a node doesn't exist.
      */
-    private LNode selectNode(final Set<LNode> nodes, final List<Set<LNode>> successors,
-            final Set<LNode> targets) {
+    private LNode selectNode(final Set<LNode> nodes, final BitSet[] successors,
+            final BitSet targets) {
 
         for (LNode node : nodes) {
-            if (targets.containsAll(successors.get(node.id))) {
+            if (containsAll(targets, successors[node.id])) {
                 return node;
             }
         }
         return null;
     }
 
+    /**
+     * Checks whether all bits set in {@code subset} are also set in {@code set}.
+     */
+    private static boolean containsAll(final BitSet set, final BitSet subset) {
+        for (int i = subset.nextSetBit(0); i >= 0; i = subset.nextSetBit(i + 1)) {
+            if (!set.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Returns the number of {@link LEdge} edges in the given Iterable, but ignores self-loops.
      * 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2020 Kiel University and others.
+ * Copyright (c) 2010, 2024 Kiel University and others.
  * 
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License 2.0 which is available at
@@ -251,6 +251,7 @@ public final class NetworkSimplexLayerer implements ILayoutPhase<LayeredPhases,
         // layer graph, each connected component separately
         List<List<LNode>> connectedComponents = connectedComponents(theNodes);
         int[] previousLayeringNodeCounts = null;
+        NetworkSimplex networkSimplex = null;
         for (List<LNode> connComp : connectedComponents) {
             
             // determine a limit on the number of iterations
@@ -258,8 +259,9 @@ public final class NetworkSimplexLayerer implements ILayoutPhase<LayeredPhases,
 
             NGraph graph = initialize(connComp);
 
-            // execute the network simplex algorithm on the (sub-)graph
-            NetworkSimplex.forGraph(graph).withIterationLimit(iterLimit)
+            // execute the network simplex algorithm on the (sub-)graph, reusing its internal arrays
+            networkSimplex = networkSimplex == null ? NetworkSimplex.forGraph(graph) : networkSimplex.reuseFor(graph);
+            networkSimplex.withIterationLimit(iterLimit)
                     .withPreviousLayering(previousLayeringNodeCounts)
                     .withBalancing(true)
                     .execute(monitor.subTask(1));
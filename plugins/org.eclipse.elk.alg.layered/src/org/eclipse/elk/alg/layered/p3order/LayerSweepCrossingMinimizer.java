@@ -15,6 +15,10 @@ import java.util.Deque;
 import java.util.List;
 import java.util.Random;
 import java.util.Set;
+// elkjs-exclude-start
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+// elkjs-exclude-end
 import java.util.function.Consumer;
 
 import org.eclipse.elk.alg.layered.IHierarchyAwareLayoutProcessor;
@@ -183,9 +187,18 @@ public class LayerSweepCrossingMinimizer
 
         // In order to only copy graphs whose node order has changed, save them in a set.
         graphsWhoseNodeOrderChanged.clear();
+        
+        boolean considerModelOrderInfluence =
+                gData.lGraph().getProperty(LayeredOptions.CONSIDER_MODEL_ORDER_CROSSING_COUNTER_NODE_INFLUENCE) != 0
+                || gData.lGraph().getProperty(LayeredOptions.CONSIDER_MODEL_ORDER_CROSSING_COUNTER_NODE_INFLUENCE) != 0;
+        
+        // elkjs-exclude-start
+        if (compareDifferentRandomizedLayoutsConcurrently(gData, considerModelOrderInfluence)) {
+            return;
+        }
+        // elkjs-exclude-end
 
-        if (gData.lGraph().getProperty(LayeredOptions.CONSIDER_MODEL_ORDER_CROSSING_COUNTER_NODE_INFLUENCE) != 0
-            || gData.lGraph().getProperty(LayeredOptions.CONSIDER_MODEL_ORDER_CROSSING_COUNTER_NODE_INFLUENCE) != 0) {
+        if (considerModelOrderInfluence) {
             double bestCrossings = Double.MAX_VALUE;
             if (gData.lGraph().getProperty(LayeredOptions.CONSIDER_MODEL_ORDER_STRATEGY) != OrderingStrategy.NONE) {
                 // The first run should begin with a forward sweep.
@@ -224,6 +237,95 @@ public class LayerSweepCrossingMinimizer
         }
     }
 
+    // elkjs-exclude-start
+    
+    /**
+     * Runs the randomized restarts of {@link #compareDifferentRandomizedLayouts(GraphInfoHolder)} concurrently if
+     * {@link LayeredOptions#PARALLELISM} allows for it. Since sweeps reorder the ports of the nodes they process, each
+     * thread works on a {@link RestartGraphCopy} of its own, which limits this to graphs without nested graphs to sweep
+     * into. Each restart starts from the initial node and port order and uses a random seed of its own, drawn up front,
+     * so which thread executes a restart does not influence its result. As in the sequential case, the first restart
+     * with the fewest crossings wins. Once a restart without crossings was found, no restarts after it are started.
+     * 
+     * @return {@code true} if the restarts were run concurrently, {@code false} if they still need to be run.
+     */
+    private boolean compareDifferentRandomizedLayoutsConcurrently(final GraphInfoHolder gData,
+            final boolean considerModelOrderInfluence) {
+        
+        LGraph lGraph = gData.lGraph();
+        int restarts = lGraph.getProperty(LayeredOptions.THOROUGHNESS);
+        int threads = Math.min(lGraph.getProperty(LayeredOptions.PARALLELISM), restarts);
+        if (threads <= 1 || graphInfoHolders.size() > 1 || gData.hasParent()) {
+            return false;
+        }
+        
+        // The first two runs try to preserve the initial order if the model order is to be considered
+        boolean tryInitialOrder = lGraph.getProperty(LayeredOptions.CONSIDER_MODEL_ORDER_STRATEGY)
+                != OrderingStrategy.NONE;
+        
+        long[] seeds = new long[restarts];
+        for (int i = 0; i < restarts; i++) {
+            seeds[i] = random.nextLong();
+        }
+        
+        double[] crossings = new double[restarts];
+        SweepCopy[] results = new SweepCopy[restarts];
+        AtomicInteger nextRestart = new AtomicInteger();
+        AtomicInteger firstRestartWithoutCrossings = new AtomicInteger(restarts);
+        
+        List<ForkJoinTask<?>> tasks = Lists.newArrayListWithCapacity(threads);
+        for (int thread = 0; thread < threads; thread++) {
+            tasks.add(ForkJoinTask.adapt(() -> {
+                RestartGraphCopy copy = new RestartGraphCopy(lGraph);
+                SweepCopy initialOrder = new SweepCopy(copy.graph().toNodeArray());
+                
+                int restart = nextRestart.getAndIncrement();
+                while (restart < restarts && restart < firstRestartWithoutCrossings.get()) {
+                    // Sweeps only change the port orders of the copy, not its layers. Since the heuristics keep state
+                    // between sweeps, each restart is run by a fresh minimizer. Its initialization already consumes
+                    // random numbers, so the seed has to be set beforehand
+                    initialOrder.restorePortOrders();
+                    copy.graph().getProperty(InternalProperties.RANDOM).setSeed(seeds[restart]);
+                    LayerSweepCrossingMinimizer minimizer = new LayerSweepCrossingMinimizer(crossMinType);
+                    minimizer.initialize(copy.graph());
+                    GraphInfoHolder copyData = minimizer.graphInfoHolders.get(0);
+                    
+                    copy.graph().setProperty(InternalProperties.FIRST_TRY_WITH_INITIAL_ORDER,
+                            tryInitialOrder && restart == 0);
+                    copy.graph().setProperty(InternalProperties.SECOND_TRY_WITH_INITIAL_ORDER,
+                            tryInitialOrder && restart == 1);
+                    
+                    crossings[restart] = considerModelOrderInfluence
+                            ? minimizer.minimizeCrossingsNodePortOrderWithCounter(copyData)
+                            : minimizer.minimizeCrossingsWithCounter(copyData);
+                    
+                    // Without a result, the restart kept the initial order
+                    SweepCopy result = copyData.currentlyBestNodeAndPortOrder();
+                    results[restart] = result == null ? null : copy.toOriginal(result);
+                    
+                    if (crossings[restart] == 0) {
+                        firstRestartWithoutCrossings.accumulateAndGet(restart, Math::min);
+                    }
+                    restart = nextRestart.getAndIncrement();
+                }
+            }));
+        }
+        ForkJoinTask.invokeAll(tasks);
+        
+        int lastRestart = Math.min(restarts - 1, firstRestartWithoutCrossings.get());
+        int bestRestart = 0;
+        for (int i = 1; i <= lastRestart; i++) {
+            if (crossings[i] < crossings[bestRestart]) {
+                bestRestart = i;
+            }
+        }
+        gData.setBestNodeNPortOrder(results[bestRestart]);
+        
+        return true;
+    }
+    
+    // elkjs-exclude-end
+
     private int minimizeCrossingsWithCounter(final GraphInfoHolder gData) {
         boolean isForwardSweep = random.nextBoolean();
 
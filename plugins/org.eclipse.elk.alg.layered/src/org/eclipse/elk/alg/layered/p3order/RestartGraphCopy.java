@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Kiel University and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.elk.alg.layered.p3order;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.eclipse.elk.alg.layered.graph.LEdge;
+import org.eclipse.elk.alg.layered.graph.LGraph;
+import org.eclipse.elk.alg.layered.graph.LNode;
+import org.eclipse.elk.alg.layered.graph.LPort;
+import org.eclipse.elk.alg.layered.graph.Layer;
+import org.eclipse.elk.alg.layered.options.InternalProperties;
+import org.eclipse.elk.graph.properties.IProperty;
+import org.eclipse.elk.graph.properties.MapPropertyHolder;
+
+/**
+ * A structural copy of a layered graph without nested graphs, which allows randomized restarts of the layer sweep to
+ * run concurrently: sweeps reorder the port lists of the nodes they process, so restarts cannot share nodes. The copy
+ * contains layers, nodes, ports, and edges in the same order as the original graph. Properties are copied as well,
+ * with references to nodes, ports, and edges of the original graph replaced by references to their copies. Labels
+ * are not copied since crossing minimization does not look at them.
+ *
+ * <p>Node and port orders computed on the copy can be translated back to the original graph through
+ * {@link #toOriginal(SweepCopy)}.</p>
+ */
+final class RestartGraphCopy {
+
+    /** The copied graph. */
+    private final LGraph graph;
+    /** Maps original nodes, ports, and edges to their copies. */
+    private final Map<Object, Object> copies = new IdentityHashMap<>();
+    /** Maps copied nodes to the original ones. */
+    private final Map<LNode, LNode> originalNodes = new IdentityHashMap<>();
+    /** Maps copied ports to the original ones. */
+    private final Map<LPort, LPort> originalPorts = new IdentityHashMap<>();
+
+    /**
+     * Copies the given graph. The copy gets a random number generator of its own, and the original graph is not
+     * modified in the process.
+     *
+     * @param original
+     *            the graph to copy. Must not contain nodes with nested graphs.
+     */
+    RestartGraphCopy(final LGraph original) {
+        graph = new LGraph();
+        graph.id = original.id;
+
+        // Layers, nodes, and ports
+        for (Layer originalLayer : original) {
+            Layer layer = new Layer(graph);
+            graph.getLayers().add(layer);
+
+            for (LNode originalNode : originalLayer) {
+                LNode node = new LNode(graph);
+                node.setType(originalNode.getType());
+                node.getPosition().set(originalNode.getPosition());
+                node.getSize().set(originalNode.getSize());
+                node.setLayer(layer);
+                copies.put(originalNode, node);
+                originalNodes.put(node, originalNode);
+
+                for (LPort originalPort : originalNode.getPorts()) {
+                    LPort port = new LPort();
+                    port.setSide(originalPort.getSide());
+                    port.getPosition().set(originalPort.getPosition());
+                    port.getSize().set(originalPort.getSize());
+                    port.getAnchor().set(originalPort.getAnchor());
+                    port.setExplicitlySuppliedPortAnchor(originalPort.isExplicitlySuppliedPortAnchor());
+                    port.setConnectedToExternalNodes(originalPort.isConnectedToExternalNodes());
+                    port.setNode(node);
+                    copies.put(originalPort, port);
+                    originalPorts.put(port, originalPort);
+                }
+                node.cachePortSides();
+            }
+        }
+
+        // Edges, created in the order of the source ports' outgoing edges
+        for (Layer originalLayer : original) {
+            for (LNode originalNode : originalLayer) {
+                for (LPort originalPort : originalNode.getPorts()) {
+                    for (LEdge originalEdge : originalPort.getOutgoingEdges()) {
+                        LEdge edge = new LEdge();
+                        edge.setSource(copyOf(originalPort));
+                        edge.setTarget(copyOf(originalEdge.getTarget()));
+                        copies.put(originalEdge, edge);
+                    }
+                }
+            }
+        }
+
+        // The edges were added to their target ports in arbitrary order, so establish the original order
+        for (Map.Entry<LPort, LPort> ports : originalPorts.entrySet()) {
+            List<LEdge> incomingEdges = ports.getKey().getIncomingEdges();
+            incomingEdges.clear();
+            for (LEdge originalEdge : ports.getValue().getIncomingEdges()) {
+                incomingEdges.add(copyOf(originalEdge));
+            }
+        }
+
+        // Properties may reference other elements and are thus copied once all elements exist
+        copyProperties(original, graph);
+        graph.setProperty(InternalProperties.RANDOM, new Random());
+        for (Map.Entry<Object, Object> copy : copies.entrySet()) {
+            copyProperties((MapPropertyHolder) copy.getKey(), (MapPropertyHolder) copy.getValue());
+        }
+    }
+
+    /**
+     * Returns the copied graph.
+     *
+     * @return the copied graph.
+     */
+    LGraph graph() {
+        return graph;
+    }
+
+    /**
+     * Translates node and port orders computed on the copied graph to the original graph.
+     *
+     * @param sweepCopy
+     *            node and port orders of the copied graph.
+     * @return the same node and port orders in terms of the original graph.
+     */
+    SweepCopy toOriginal(final SweepCopy sweepCopy) {
+        return new SweepCopy(sweepCopy, originalNodes, originalPorts);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T copyOf(final T element) {
+        return (T) copies.get(element);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void copyProperties(final MapPropertyHolder source, final MapPropertyHolder target) {
+        for (Map.Entry<IProperty<?>, Object> property : source.getAllProperties().entrySet()) {
+            target.setProperty((IProperty<Object>) property.getKey(), copyOfValue(property.getValue()));
+        }
+    }
+
+    private Object copyOfValue(final Object value) {
+        if (copies.containsKey(value)) {
+            return copies.get(value);
+        } else if (value instanceof List<?> && ((List<?>) value).stream().anyMatch(copies::containsKey)) {
+            List<Object> list = new ArrayList<>();
+            for (Object element : (List<?>) value) {
+                list.add(copies.getOrDefault(element, element));
+            }
+            return list;
+        }
+        return value;
+    }
+
+}
@@ -13,6 +13,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.elk.alg.layered.graph.LGraph;
@@ -62,6 +63,38 @@ class SweepCopy {
         portOrders = new ArrayList<>(sc.portOrders);
     }
 
+    /**
+     * Copies the given node and port orders, replacing each node and port by the one it is mapped to.
+     * 
+     * @param sc
+     *            the orders to copy.
+     * @param nodeMapping
+     *            maps each node of the given orders to the node to replace it by.
+     * @param portMapping
+     *            maps each port of the given orders to the port to replace it by.
+     */
+    SweepCopy(final SweepCopy sc, final Map<LNode, LNode> nodeMapping, final Map<LPort, LPort> portMapping) {
+        nodeOrder = new LNode[sc.nodeOrder.length][];
+        for (int i = 0; i < nodeOrder.length; i++) {
+            nodeOrder[i] = new LNode[sc.nodeOrder[i].length];
+            for (int j = 0; j < nodeOrder[i].length; j++) {
+                nodeOrder[i][j] = nodeMapping.get(sc.nodeOrder[i][j]);
+            }
+        }
+        portOrders = new ArrayList<>(sc.portOrders.size());
+        for (List<List<LPort>> layer : sc.portOrders) {
+            List<List<LPort>> mappedLayer = new ArrayList<>(layer.size());
+            portOrders.add(mappedLayer);
+            for (List<LPort> ports : layer) {
+                List<LPort> mappedPorts = new ArrayList<>(ports.size());
+                mappedLayer.add(mappedPorts);
+                for (LPort port : ports) {
+                    mappedPorts.add(portMapping.get(port));
+                }
+            }
+        }
+    }
+
     private LNode[][] deepCopy(final LNode[][] currentlyBestNodeOrder) {
         if (currentlyBestNodeOrder == null) {
             return null;
@@ -82,6 +115,21 @@ class SweepCopy {
         return nodeOrder;
     }
 
+    /**
+     * Restores the saved port orders in the nodes. Other than
+     * {@link #transferNodeAndPortOrdersToGraph(LGraph, boolean)}, this neither touches the graph's layers nor any
+     * properties, which allows to return to an earlier state of a sweep.
+     */
+    public void restorePortOrders() {
+        for (int i = 0; i < nodeOrder.length; i++) {
+            for (int j = 0; j < nodeOrder[i].length; j++) {
+                List<LPort> ports = nodeOrder[i][j].getPorts();
+                ports.clear();
+                ports.addAll(portOrders.get(i).get(j));
+            }
+        }
+    }
+
     /**
      * @param lGraph
      */
@@ -25,6 +25,7 @@ import org.eclipse.elk.core.options.PortSide;
 public final class AllCrossingsCounter implements IInitializable {
 
     private CrossingsCounter crossingCounter;
+    private PortAdjacencies portAdjacencies;
     private boolean[] hasHyperEdgesEastOfIndex;
     private HyperedgeCrossingsCounter hyperedgeCrossingsCounter;
 
@@ -118,7 +119,17 @@ public final class AllCrossingsCounter implements IInitializable {
     @Override
     public void initAfterTraversal() {
         int[] portPos = new int[nPorts];
+        portAdjacencies = new PortAdjacencies(nPorts);
         hyperedgeCrossingsCounter = new HyperedgeCrossingsCounter(inLayerEdgeCounts, hasNorthSouthPorts, portPos);
-        crossingCounter = new CrossingsCounter(portPos);
+        crossingCounter = new CrossingsCounter(portPos, portAdjacencies);
+    }
+
+    /**
+     * Returns the edges of the graph's ports, which other crossings counters for the same graph can share.
+     * 
+     * @return the port adjacencies.
+     */
+    public PortAdjacencies portAdjacencies() {
+        return portAdjacencies;
     }
 }
@@ -9,12 +9,17 @@
  *******************************************************************************/
 package org.eclipse.elk.alg.layered.p3order.counting;
 
+import java.util.Arrays;
+
 /**
  * Sorted list of integers storing values from 0 up to the maxNumber passed on creation. Adding, removing and indexOf
  * (and addAndIndexOf) is in O(log maxNumber).
  * <p/>
  * Implemented as a binary tree where each leaf stores the number of integers at the leaf index and each node stores the
  * number of values in the left branch of the node.
+ * <p/>
+ * The underlying arrays can be reused for other maximum numbers through {@link #reset(int)}, which only allocates new
+ * arrays if the current ones are too small.
  *
  * @author alan
  */
@@ -47,7 +52,7 @@ public class BinaryIndexedTree {
         size++;
         numsPerIndex[index]++;
         int i = index + 1;
-        while (i < binarySums.length) {
+        while (i <= maxNum) {
             binarySums[i]++;
             i += i & -i;
         }
@@ -91,7 +96,7 @@ public class BinaryIndexedTree {
         numsPerIndex[index] = 0;
         size -= numEntries;
         int i = index + 1;
-        while (i < binarySums.length) {
+        while (i <= maxNum) {
             binarySums[i] -= numEntries;
             i += i & -i;
         }
@@ -101,11 +106,30 @@ public class BinaryIndexedTree {
      * Clears contents of tree.
      */
     public void clear() {
-        binarySums = new int[maxNum + 1];
-        numsPerIndex = new int[maxNum];
+        Arrays.fill(binarySums, 0, maxNum + 1, 0);
+        Arrays.fill(numsPerIndex, 0, maxNum, 0);
         size = 0;
     }
 
+    /**
+     * Clears contents of tree and changes the maximum number of elements. The arrays of the tree are only reallocated
+     * if they are too small for the new maximum number.
+     *
+     * @param newMaxNum
+     *            new maximum number elements.
+     */
+    public void reset(final int newMaxNum) {
+        if (newMaxNum > numsPerIndex.length) {
+            maxNum = newMaxNum;
+            binarySums = new int[maxNum + 1];
+            numsPerIndex = new int[maxNum];
+            size = 0;
+        } else {
+            clear();
+            maxNum = newMaxNum;
+        }
+    }
+
     /**
      * @return true if this tree is empty
      */
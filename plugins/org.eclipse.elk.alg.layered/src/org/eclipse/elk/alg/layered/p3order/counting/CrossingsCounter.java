@@ -11,16 +11,13 @@ package org.eclipse.elk.alg.layered.p3order.counting;
 
 import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Deque;
 import java.util.List;
-import java.util.Set;
-import java.util.TreeSet;
 
-import org.eclipse.elk.alg.layered.graph.LEdge;
 import org.eclipse.elk.alg.layered.graph.LNode;
 import org.eclipse.elk.alg.layered.graph.LPort;
-import org.eclipse.elk.alg.layered.graph.Layer;
 import org.eclipse.elk.alg.layered.graph.LNode.NodeType;
 import org.eclipse.elk.alg.layered.options.InternalProperties;
 import org.eclipse.elk.core.options.PortSide;
@@ -128,12 +125,23 @@ import com.google.common.collect.Lists;
  * <li>southern nsl dummies with western edges north-to-south
  * <li>southern nsl dummies with eastern edges south-to-north
  * 
+ * <h3>Memory</h3>
+ * Counting crossings happens very often during crossing minimization, so the counter tries not to allocate anything
+ * once it is warmed up: the edges of the ports are read from {@link PortAdjacencies}, and the list of ports to count
+ * on as well as the {@link BinaryIndexedTree} are reused from call to call.
  */
 public final class CrossingsCounter {
     private final int[] portPositions;
+    private final PortAdjacencies adjacencies;
 
     private BinaryIndexedTree indexTree;
-    private final Deque<Integer> ends;
+    /** The ports to count crossings on, reused by each call. */
+    private final List<LPort> ports = new ArrayList<>();
+    private final Comparator<LPort> byPosition = (a, b) -> Integer.compare(positionOf(a), positionOf(b));
+
+    /** End positions and degrees of the implicit edges of a port while counting north/south crossings. */
+    private int[] northSouthEndPositions = new int[2];
+    private int[] northSouthDegrees = new int[2];
 
     private int[] nodeCardinalities;
 
@@ -144,8 +152,20 @@ public final class CrossingsCounter {
      *            port position array passed to prevent frequent large array construction.
      */
     public CrossingsCounter(final int[] portPositions) {
+        this(portPositions, new PortAdjacencies(portPositions.length));
+    }
+
+    /**
+     * Create crossings counter that shares the edges collected for each port with other counters.
+     * 
+     * @param portPositions
+     *            port position array passed to prevent frequent large array construction.
+     * @param adjacencies
+     *            the edges of the graph's ports.
+     */
+    public CrossingsCounter(final int[] portPositions, final PortAdjacencies adjacencies) {
         this.portPositions = portPositions;
-        ends = new ArrayDeque<>();
+        this.adjacencies = adjacencies;
     }
     
     // - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - -
@@ -163,8 +183,8 @@ public final class CrossingsCounter {
      */
     public int countCrossingsBetweenLayers(final LNode[] leftLayerNodes,
             final LNode[] rightLayerNodes) {
-        List<LPort> ports = initPortPositionsCounterClockwise(leftLayerNodes, rightLayerNodes);
-        indexTree = new BinaryIndexedTree(ports.size());
+        initPortPositionsCounterClockwise(leftLayerNodes, rightLayerNodes);
+        resetIndexTree(ports.size());
         return countCrossingsOnPorts(ports);
     }
 
@@ -178,7 +198,7 @@ public final class CrossingsCounter {
      * @return number of crossings.
      */
     public int countInLayerCrossingsOnSide(final LNode[] nodes, final PortSide side) {
-        List<LPort> ports = initPortPositionsForInLayerCrossings(nodes, side);
+        initPortPositionsForInLayerCrossings(nodes, side);
         return countInLayerCrossingsOnPorts(ports);
     }
     
@@ -191,8 +211,8 @@ public final class CrossingsCounter {
      * @return number of crossings.
      */
     public int countNorthSouthPortCrossingsInLayer(final LNode[] layer) {
-        List<LPort> ports = initPositionsForNorthSouthCounting(layer);
-        indexTree = new BinaryIndexedTree(ports.size());
+        initPositionsForNorthSouthCounting(layer);
+        resetIndexTree(ports.size());
         return countNorthSouthCrossingsOnPorts(ports);
     }
 
@@ -211,13 +231,13 @@ public final class CrossingsCounter {
      */
     public Pair<Integer, Integer> countCrossingsBetweenPortsInBothOrders(final LPort upperPort,
             final LPort lowerPort) {
-        List<LPort> ports = connectedPortsSortedByPosition(upperPort, lowerPort);
+        connectedPortsSortedByPosition(upperPort, lowerPort);
         int upperLowerCrossings = countCrossingsOnPorts(ports);
         // Since we might add endpositions of ports which are not in the ports list, we need to explicitly clear
         // the index tree.
         indexTree.clear();
         switchPorts(upperPort, lowerPort);
-        Collections.sort(ports, (a, b) -> Integer.compare(positionOf(a), positionOf(b)));
+        ports.sort(byPosition);
         int lowerUpperCrossings = countCrossingsOnPorts(ports);
         indexTree.clear();
         switchPorts(lowerPort, upperPort);
@@ -239,13 +259,13 @@ public final class CrossingsCounter {
      */
     public Pair<Integer, Integer> countInLayerCrossingsBetweenNodesInBothOrders(final LNode upperNode,
             final LNode lowerNode, final PortSide side) {
-        List<LPort> ports = connectedInLayerPortsSortedByPosition(upperNode, lowerNode, side);
+        connectedInLayerPortsSortedByPosition(upperNode, lowerNode, side);
         int upperLowerCrossings = countInLayerCrossingsOnPorts(ports);
         switchNodes(upperNode, lowerNode, side);
         // Since we might add endpositions of ports which are not in the ports list, we need to explicitly clear
         // the index tree.
         indexTree.clear();
-        Collections.sort(ports, (a, b) -> Integer.compare(positionOf(a), positionOf(b)));
+        ports.sort(byPosition);
         int lowerUpperCrossings = countInLayerCrossingsOnPorts(ports);
         switchNodes(lowerNode, upperNode, side);
         indexTree.clear();
@@ -262,8 +282,8 @@ public final class CrossingsCounter {
      *            Nodes in eastern layer.
      */
     public void initForCountingBetween(final LNode[] leftLayerNodes, final LNode[] rightLayerNodes) {
-        List<LPort> ports = initPortPositionsCounterClockwise(leftLayerNodes, rightLayerNodes);
-        indexTree = new BinaryIndexedTree(ports.size());
+        initPortPositionsCounterClockwise(leftLayerNodes, rightLayerNodes);
+        resetIndexTree(ports.size());
     }
 
     /**
@@ -276,12 +296,12 @@ public final class CrossingsCounter {
      *            The order of the nodes in the layer
      * @param side
      *            The side to initialize
-     * @return the ports on which to count crossings on
+     * @return the ports on which to count crossings on. The list is reused by the next call to this counter.
      */
     public List<LPort> initPortPositionsForInLayerCrossings(final LNode[] nodes, final PortSide side) {
-        List<LPort> ports = new ArrayList<>();
+        ports.clear();
         initPositions(nodes, ports, side, true, true);
-        indexTree = new BinaryIndexedTree(ports.size());
+        resetIndexTree(ports.size());
         return ports;
     }
 
@@ -327,70 +347,100 @@ public final class CrossingsCounter {
     //                                  PRIVATE API
     // - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - 
     
-    private List<LPort> connectedInLayerPortsSortedByPosition(final LNode upperNode, final LNode lowerNode,
+    private void connectedInLayerPortsSortedByPosition(final LNode upperNode, final LNode lowerNode,
             final PortSide side) {
-        Set<LPort> ports = new TreeSet<>((a, b) -> Integer.compare(positionOf(a), positionOf(b)));
-        for (LNode node : new LNode[] { upperNode, lowerNode }) {
-            for (LPort port : CrossMinUtil.inNorthSouthEastWestOrder(node, side)) {
-                for (LEdge edge : port.getConnectedEdges()) {
-                    if (!edge.isSelfLoop()) {
-                        ports.add(port);
-                        if (isInLayer(edge)) {
-                            ports.add(otherEndOf(edge, port));
-                        }
+        ports.clear();
+        addConnectedInLayerPorts(upperNode, side);
+        addConnectedInLayerPorts(lowerNode, side);
+        sortByPositionWithoutDuplicates();
+    }
+
+    private void addConnectedInLayerPorts(final LNode node, final PortSide side) {
+        for (LPort port : CrossMinUtil.inNorthSouthEastWestOrder(node, side)) {
+            for (int edge = adjacencies.firstEdge(port), end = adjacencies.endEdge(port); edge < end; edge++) {
+                if (!adjacencies.isSelfLoop(edge)) {
+                    ports.add(port);
+                    if (adjacencies.isInLayer(edge)) {
+                        ports.add(adjacencies.otherEnd(edge));
                     }
                 }
             }
         }
-        return Lists.newArrayList(ports);
     }
 
-    private List<LPort> connectedPortsSortedByPosition(final LPort upperPort, final LPort lowerPort) {
-        Set<LPort> ports = new TreeSet<>((a, b) -> Integer.compare(positionOf(a), positionOf(b)));
-        for (LPort port : new LPort[] { upperPort, lowerPort }) {
-            ports.add(port);
-            for (LEdge edge : port.getConnectedEdges()) {
-                if (!isPortSelfLoop(edge)) {
-                    ports.add(otherEndOf(edge, port));
-                }
+    private void connectedPortsSortedByPosition(final LPort upperPort, final LPort lowerPort) {
+        ports.clear();
+        addConnectedPorts(upperPort);
+        addConnectedPorts(lowerPort);
+        sortByPositionWithoutDuplicates();
+    }
+
+    private void addConnectedPorts(final LPort port) {
+        ports.add(port);
+        for (int edge = adjacencies.firstEdge(port), end = adjacencies.endEdge(port); edge < end; edge++) {
+            if (adjacencies.otherEndId(edge) != port.id) {
+                ports.add(adjacencies.otherEnd(edge));
             }
         }
-        return Lists.newArrayList(ports);
     }
 
-    private int countCrossingsOnPorts(final Iterable<LPort> ports) {
+    /**
+     * Sorts the collected ports by their positions and only keeps the first port collected for each position.
+     */
+    private void sortByPositionWithoutDuplicates() {
+        // The sort is stable, so the first port collected for a position comes first
+        ports.sort(byPosition);
+        int size = 0;
+        for (int i = 0; i < ports.size(); i++) {
+            if (size == 0 || positionOf(ports.get(i)) != positionOf(ports.get(size - 1))) {
+                ports.set(size++, ports.get(i));
+            }
+        }
+        ports.subList(size, ports.size()).clear();
+    }
+
+    private int countCrossingsOnPorts(final List<LPort> portsToCount) {
         int crossings = 0;
-        for (LPort port : ports) {
-            indexTree.removeAll(positionOf(port));
+        for (int i = 0; i < portsToCount.size(); i++) {
+            LPort port = portsToCount.get(i);
+            int position = positionOf(port);
+            int firstEdge = adjacencies.firstEdge(port);
+            int endEdge = adjacencies.endEdge(port);
+            indexTree.removeAll(position);
             // First get crossings for all edges.
-            for (LEdge edge : port.getConnectedEdges()) {
-                int endPosition = positionOf(otherEndOf(edge, port));
-                if (endPosition > positionOf(port)) {
+            for (int edge = firstEdge; edge < endEdge; edge++) {
+                int endPosition = portPositions[adjacencies.otherEndId(edge)];
+                if (endPosition > position) {
                     crossings += indexTree.rank(endPosition);
-                    ends.push(endPosition);
                 }
             }
             // Then add end points.
-            while (!ends.isEmpty()) {
-                indexTree.add(ends.pop());
+            for (int edge = firstEdge; edge < endEdge; edge++) {
+                int endPosition = portPositions[adjacencies.otherEndId(edge)];
+                if (endPosition > position) {
+                    indexTree.add(endPosition);
+                }
             }
         }
 
         return crossings;
     }
 
-    private int countInLayerCrossingsOnPorts(final Iterable<LPort> ports) {
+    private int countInLayerCrossingsOnPorts(final List<LPort> portsToCount) {
         int crossings = 0;
-        for (LPort port : ports) {
-            indexTree.removeAll(positionOf(port));
+        for (int i = 0; i < portsToCount.size(); i++) {
+            LPort port = portsToCount.get(i);
+            int position = positionOf(port);
+            int firstEdge = adjacencies.firstEdge(port);
+            int endEdge = adjacencies.endEdge(port);
+            indexTree.removeAll(position);
             int numBetweenLayerEdges = 0;
             // First get crossings for all edges.
-            for (LEdge edge : port.getConnectedEdges()) {
-                if (isInLayer(edge)) {
-                    int endPosition = positionOf(otherEndOf(edge, port));
-                    if (endPosition > positionOf(port)) {
+            for (int edge = firstEdge; edge < endEdge; edge++) {
+                if (adjacencies.isInLayer(edge)) {
+                    int endPosition = portPositions[adjacencies.otherEndId(edge)];
+                    if (endPosition > position) {
                         crossings += indexTree.rank(endPosition);
-                        ends.push(endPosition);
                     }
                 } else {
                     numBetweenLayerEdges++;
@@ -398,20 +448,25 @@ public final class CrossingsCounter {
             }
             crossings += indexTree.size() * numBetweenLayerEdges;
             // Then add end points.
-            while (!ends.isEmpty()) {
-                indexTree.add(ends.pop());
+            for (int edge = firstEdge; edge < endEdge; edge++) {
+                if (adjacencies.isInLayer(edge)) {
+                    int endPosition = portPositions[adjacencies.otherEndId(edge)];
+                    if (endPosition > position) {
+                        indexTree.add(endPosition);
+                    }
+                }
             }
         }
         return crossings;
     }
    
-    private int countNorthSouthCrossingsOnPorts(final Iterable<LPort> ports) {
+    private int countNorthSouthCrossingsOnPorts(final List<LPort> portsToCount) {
         int crossings = 0;
-        final List<Pair<LPort, Integer>> targetsAndDegrees = Lists.newArrayList();
         
-        for (LPort port : ports) {
+        for (int i = 0; i < portsToCount.size(); i++) {
+            LPort port = portsToCount.get(i);
             indexTree.removeAll(positionOf(port));
-            targetsAndDegrees.clear();
+            int numEdges = 0;
 
             // collect the edges that are incident to the port,
             //  which is a bit tedious since north/south ports have no physical edge within the graph at this point
@@ -419,43 +474,61 @@ public final class CrossingsCounter {
             case NORMAL:
                 LNode dummy = (LNode) port.getProperty(InternalProperties.PORT_DUMMY);
                 assert dummy != null; // guarded in #initPositionsForNorthSouthCounting(...)
-                dummy.getPorts().forEach(p -> targetsAndDegrees.add(Pair.of(p, p.getDegree()))); // western and eastern
+                for (LPort p : dummy.getPorts()) { // western and eastern
+                    numEdges = addNorthSouthEdge(numEdges, p, p.getDegree());
+                }
                 break;
 
             case LONG_EDGE:
-                port.getNode().getPorts().stream()
-                    .filter(p -> p != port).findFirst() // add an edge to the dummy's other port
-                    .ifPresent(p -> targetsAndDegrees.add(Pair.of(p, p.getDegree())));
+                for (LPort p : port.getNode().getPorts()) {
+                    if (p != port) {
+                        // add an edge to the dummy's other port
+                        numEdges = addNorthSouthEdge(numEdges, p, p.getDegree());
+                        break;
+                    }
+                }
                 break;
             
             case NORTH_SOUTH_PORT:
                 LPort dummyPort = (LPort) port.getProperty(InternalProperties.ORIGIN);
-                targetsAndDegrees.add(Pair.of(dummyPort, port.getDegree()));
+                numEdges = addNorthSouthEdge(numEdges, dummyPort, port.getDegree());
                 break;
             }
 
             // First get crossings for all edges.
-            for (Pair<LPort, Integer> targetAndDegree : targetsAndDegrees) {
-                int endPosition = positionOf(targetAndDegree.getFirst());
+            for (int edge = 0; edge < numEdges; edge++) {
+                int endPosition = northSouthEndPositions[edge];
                 if (endPosition > positionOf(port)) {
-                    crossings += indexTree.rank(endPosition) * targetAndDegree.getSecond();
-                    ends.push(endPosition);
+                    crossings += indexTree.rank(endPosition) * northSouthDegrees[edge];
                 }
             }
 
             // Then add end points.
-            while (!ends.isEmpty()) {
-                indexTree.add(ends.pop());
+            for (int edge = 0; edge < numEdges; edge++) {
+                int endPosition = northSouthEndPositions[edge];
+                if (endPosition > positionOf(port)) {
+                    indexTree.add(endPosition);
+                }
             }
         }
 
         return crossings;
     }
 
+    private int addNorthSouthEdge(final int numEdges, final LPort target, final int degree) {
+        if (numEdges == northSouthEndPositions.length) {
+            northSouthEndPositions = Arrays.copyOf(northSouthEndPositions, numEdges * 2);
+            northSouthDegrees = Arrays.copyOf(northSouthDegrees, numEdges * 2);
+        }
+        northSouthEndPositions[numEdges] = positionOf(target);
+        northSouthDegrees[numEdges] = degree;
+        return numEdges + 1;
+    }
+
     private void initPositions(final LNode[] nodes, final List<LPort> ports,
             final PortSide side, final boolean topDown, final boolean getCardinalities) {
         int numPorts = ports.size();
-        if (getCardinalities) {
+        if (getCardinalities && (nodeCardinalities == null || nodeCardinalities.length < nodes.length)) {
             nodeCardinalities = new int[nodes.length];
         }
         for (int i = start(nodes, topDown); end(i, topDown, nodes); i += step(topDown)) {
@@ -471,19 +544,25 @@ public final class CrossingsCounter {
         }
     }
 
-    private List<LPort> initPortPositionsCounterClockwise(final LNode[] leftLayerNodes,
-            final LNode[] rightLayerNodes) {
-        List<LPort> ports = new ArrayList<>();
+    private void initPortPositionsCounterClockwise(final LNode[] leftLayerNodes, final LNode[] rightLayerNodes) {
+        ports.clear();
         initPositions(leftLayerNodes, ports, PortSide.EAST, true, false);
         initPositions(rightLayerNodes, ports, PortSide.WEST, false, false);
-        return ports;
+    }
+
+    private void resetIndexTree(final int maxNum) {
+        if (indexTree == null) {
+            indexTree = new BinaryIndexedTree(maxNum);
+        } else {
+            indexTree.reset(maxNum);
+        }
     }
     
     private static final PortSide INDEXING_SIDE = PortSide.WEST;
     private static final PortSide STACK_SIDE = PortSide.EAST;
     
-    private List<LPort> initPositionsForNorthSouthCounting(final LNode[] nodes) {
-        final List<LPort> ports = Lists.newArrayList();
+    private void initPositionsForNorthSouthCounting(final LNode[] nodes) {
+        ports.clear();
         final Deque<LNode> stack = new ArrayDeque<>();
         
         LNode lastLayoutUnit = null;
@@ -545,8 +624,6 @@ public final class CrossingsCounter {
         
         // are there any southern dummy nodes left on the stack?
         emptyStack(stack, ports, STACK_SIDE, index);
-        
-        return ports;
     }
 
     private int emptyStack(final Deque<LNode> stack, final List<LPort> ports, 
@@ -599,23 +676,9 @@ public final class CrossingsCounter {
         return topDown ? 1 : -1;
     }
     
-    private boolean isInLayer(final LEdge edge) {
-        Layer sourceLayer = edge.getSource().getNode().getLayer();
-        Layer targetLayer = edge.getTarget().getNode().getLayer();
-        return sourceLayer == targetLayer;
-    }
-
     private int positionOf(final LPort port) {
         return portPositions[port.id];
     }
-
-    private LPort otherEndOf(final LEdge edge, final LPort fromPort) {
-        return fromPort == edge.getSource() ? edge.getTarget() : edge.getSource();
-    }
-    
-    private boolean isPortSelfLoop(final LEdge edge) {
-        return edge.getSource() == edge.getTarget();
-    }
     
     private boolean isLayoutUnitChanged(final LNode lastUnit, final LNode node) {
         if (lastUnit == null || lastUnit == node || !node.hasProperty(InternalProperties.IN_LAYER_LAYOUT_UNIT)) {
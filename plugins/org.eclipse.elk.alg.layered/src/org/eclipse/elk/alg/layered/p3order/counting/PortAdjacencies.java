@@ -0,0 +1,153 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Kiel University and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.elk.alg.layered.p3order.counting;
+
+import java.util.Arrays;
+
+import org.eclipse.elk.alg.layered.graph.LEdge;
+import org.eclipse.elk.alg.layered.graph.LPort;
+
+/**
+ * The edges incident to each port of a graph, stored in compressed sparse row format for counting crossings without
+ * walking the edge lists of the ports over and over again. The edges of a port occupy a contiguous range of edge
+ * indices, and for each edge index we store the id of the port at the other end of the edge as well as whether the
+ * edge is an in-layer edge or a self-loop.
+ *
+ * <p>
+ * Crossing minimization reorders nodes and ports, but neither changes the edges nor the layers of the graph. Thus, the
+ * edges of a port are collected lazily the first time the port is asked for and then stay valid. Ports are identified
+ * by their {@link LPort#id}, which must be unique among the ports of the graph and smaller than the number of ports
+ * passed on creation.
+ * </p>
+ */
+public final class PortAdjacencies {
+
+    private static final byte IN_LAYER = 1;
+    private static final byte SELF_LOOP = 2;
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** The ports by their ids. Ports are registered once they were seen as a port or as the other end of an edge. */
+    private final LPort[] ports;
+    /** Index of the first edge of each port, or -1 if the port's edges were not collected yet. */
+    private final int[] firstEdges;
+    /** Number of edges of each port. */
+    private final int[] degrees;
+
+    /** Id of the port at the other end of each edge. */
+    private int[] otherEnds = new int[INITIAL_CAPACITY];
+    /** Whether each edge is an in-layer edge and whether it is a self-loop. */
+    private byte[] flags = new byte[INITIAL_CAPACITY];
+    private int edgeCount;
+
+    /**
+     * Creates an empty adjacency structure.
+     *
+     * @param numberOfPorts
+     *            the number of ports in the graph. Port ids must be smaller than this.
+     */
+    public PortAdjacencies(final int numberOfPorts) {
+        ports = new LPort[numberOfPorts];
+        firstEdges = new int[numberOfPorts];
+        degrees = new int[numberOfPorts];
+        Arrays.fill(firstEdges, -1);
+    }
+
+    /**
+     * Returns the index of the first edge of the given port.
+     *
+     * @param port
+     *            the port
+     * @return index of the port's first edge.
+     */
+    public int firstEdge(final LPort port) {
+        collectEdgesOf(port);
+        return firstEdges[port.id];
+    }
+
+    /**
+     * Returns the index after the last edge of the given port.
+     *
+     * @param port
+     *            the port
+     * @return index after the port's last edge.
+     */
+    public int endEdge(final LPort port) {
+        collectEdgesOf(port);
+        return firstEdges[port.id] + degrees[port.id];
+    }
+
+    /**
+     * Returns the port at the other end of the given edge.
+     *
+     * @param edge
+     *            index of the edge
+     * @return the port at the other end.
+     */
+    public LPort otherEnd(final int edge) {
+        return ports[otherEnds[edge]];
+    }
+
+    /**
+     * Returns the id of the port at the other end of the given edge.
+     *
+     * @param edge
+     *            index of the edge
+     * @return id of the port at the other end.
+     */
+    public int otherEndId(final int edge) {
+        return otherEnds[edge];
+    }
+
+    /**
+     * Returns whether the given edge connects two nodes of the same layer.
+     *
+     * @param edge
+     *            index of the edge
+     * @return {@code true} for in-layer edges.
+     */
+    public boolean isInLayer(final int edge) {
+        return (flags[edge] & IN_LAYER) != 0;
+    }
+
+    /**
+     * Returns whether the given edge connects a node to itself.
+     *
+     * @param edge
+     *            index of the edge
+     * @return {@code true} for self-loops.
+     */
+    public boolean isSelfLoop(final int edge) {
+        return (flags[edge] & SELF_LOOP) != 0;
+    }
+
+    private void collectEdgesOf(final LPort port) {
+        if (firstEdges[port.id] >= 0) {
+            return;
+        }
+
+        ports[port.id] = port;
+        firstEdges[port.id] = edgeCount;
+        for (LEdge edge : port.getConnectedEdges()) {
+            LPort otherEnd = port == edge.getSource() ? edge.getTarget() : edge.getSource();
+            ports[otherEnd.id] = otherEnd;
+
+            if (edgeCount == otherEnds.length) {
+                otherEnds = Arrays.copyOf(otherEnds, edgeCount * 2);
+                flags = Arrays.copyOf(flags, edgeCount * 2);
+            }
+            otherEnds[edgeCount] = otherEnd.id;
+            flags[edgeCount] = (byte) ((port.getNode().getLayer() == otherEnd.getNode().getLayer() ? IN_LAYER : 0)
+                    | (edge.isSelfLoop() ? SELF_LOOP : 0));
+            edgeCount++;
+        }
+        degrees[port.id] = edgeCount - firstEdges[port.id];
+    }
+
+}
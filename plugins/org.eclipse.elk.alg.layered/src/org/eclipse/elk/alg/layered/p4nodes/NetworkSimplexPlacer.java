@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2017 Kiel University and others.
+ * Copyright (c) 2016, 2024 Kiel University and others.
  * 
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License 2.0 which is available at
@@ -249,10 +249,10 @@ public class NetworkSimplexPlacer implements ILayoutPhase<LayeredPhases, LGraph>
         // larger node and edge count
         int iterLimit = layeredGraph.getProperty(LayeredOptions.THOROUGHNESS) * nGraph.nodes.size();
         
-        NetworkSimplex.forGraph(nGraph)
+        NetworkSimplex networkSimplex = NetworkSimplex.forGraph(nGraph)
             .withIterationLimit(iterLimit)
-            .withBalancing(false)
-            .execute(progressMonitor.subTask(1));
+            .withBalancing(false);
+        networkSimplex.execute(progressMonitor.subTask(1));
         
         // every individual node can be 'flexible where space permits'.
         // thus we cannot check for the property here but must rely on the fact that the 
@@ -269,11 +269,8 @@ public class NetworkSimplexPlacer implements ILayoutPhase<LayeredPhases, LGraph>
                 edge.weight = NODE_SIZE_WEIGHT_FLEXIBLE;
             }
 
-            // run network simplex a second time
-            NetworkSimplex.forGraph(nGraph)
-                .withIterationLimit(iterLimit)
-                .withBalancing(false)
-                .execute(pm.subTask(1));
+            // run network simplex a second time, reusing the arrays of the first run
+            networkSimplex.execute(pm.subTask(1));
             
             pm.done();
         }
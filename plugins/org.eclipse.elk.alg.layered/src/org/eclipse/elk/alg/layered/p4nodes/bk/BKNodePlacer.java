@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012, 2015 Kiel University and others.
+ * Copyright (c) 2012, 2024 Kiel University and others.
  * 
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License 2.0 which is available at
@@ -14,6 +14,10 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+// elkjs-exclude-start
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+// elkjs-exclude-end
 
 import org.eclipse.elk.alg.layered.LayeredPhases;
 import org.eclipse.elk.alg.layered.graph.LEdge;
@@ -202,23 +206,19 @@ public final class BKNodePlacer implements ILayoutPhase<LayeredPhases, LGraph> {
                 layouts.add(leftup); 
         }
         
-        BKAligner aligner = new BKAligner(layeredGraph, ni);
-        for (BKAlignedLayout bal : layouts) {
-            // Phase which determines the nodes' memberships in blocks. This happens in four different
-            // ways, either from processing the nodes from the first layer to the last or vice versa.
-            aligner.verticalAlignment(bal, markedEdges);
-            
-            // Additional phase which is not included in the original Brandes-Koepf Algorithm.
-            // It makes sure that the connected ports within a block are aligned to avoid unnecessary
-            // bend points. Also, the required size of each block is determined.
-            aligner.insideBlockShift(bal);
-        }
-
-        ICompactor compacter = new BKCompactor(layeredGraph, ni);
-        for (BKAlignedLayout bal : layouts) {
-            // This phase determines the y coordinates of the blocks and thus the vertical coordinates
-            // of all nodes.
-            compacter.horizontalCompaction(bal);
+        // The layouts only read the graph and the neighborhood information, so they can be computed
+        // concurrently for large graphs
+        boolean computed = false;
+        // elkjs-exclude-start
+        computed = computeLayoutsConcurrently(layeredGraph, layouts);
+        // elkjs-exclude-end
+        
+        if (!computed) {
+            BKAligner aligner = new BKAligner(layeredGraph, ni);
+            ICompactor compacter = new BKCompactor(layeredGraph, ni);
+            for (BKAlignedLayout bal : layouts) {
+                computeLayout(bal, aligner, compacter);
+            }
         }
 
         // Debug output
@@ -287,6 +287,70 @@ public final class BKNodePlacer implements ILayoutPhase<LayeredPhases, LGraph> {
     }
     
 
+    /////////////////////////////////////////////////////////////////////////////////////////////////////
+    // Layout Computation
+    
+    /**
+     * Runs the middle three steps of the algorithm for one of the four layouts.
+     * 
+     * @param bal the layout to compute
+     * @param aligner the aligner to use, which must not be used by another thread at the same time
+     * @param compacter the compactor to use, which must not be used by another thread at the same time
+     */
+    private void computeLayout(final BKAlignedLayout bal, final BKAligner aligner, final ICompactor compacter) {
+        // Phase which determines the nodes' memberships in blocks. This happens in four different
+        // ways, either from processing the nodes from the first layer to the last or vice versa.
+        aligner.verticalAlignment(bal, markedEdges);
+        
+        // Additional phase which is not included in the original Brandes-Koepf Algorithm.
+        // It makes sure that the connected ports within a block are aligned to avoid unnecessary
+        // bend points. Also, the required size of each block is determined.
+        aligner.insideBlockShift(bal);
+        
+        // This phase determines the y coordinates of the blocks and thus the vertical coordinates
+        // of all nodes.
+        compacter.horizontalCompaction(bal);
+    }
+    
+    // elkjs-exclude-start
+    
+    /**
+     * Computes the given layouts concurrently if {@link LayeredOptions#PARALLELISM} allows for it and the graph has at
+     * least as many nodes as configured by {@link LayeredOptions#NODE_PLACEMENT_BK_PARALLEL_THRESHOLD}. Each thread
+     * uses an aligner and a compactor of its own, since the compactor keeps state while compacting a layout. Each
+     * layout is computed exactly as it would be sequentially, so the chosen layout does not change.
+     * 
+     * @return {@code true} if the layouts were computed, {@code false} if they still need to be computed.
+     */
+    private boolean computeLayoutsConcurrently(final LGraph layeredGraph, final List<BKAlignedLayout> layouts) {
+        int threads = Math.min(layeredGraph.getProperty(LayeredOptions.PARALLELISM), layouts.size());
+        if (threads <= 1
+                || ni.nodeCount < layeredGraph.getProperty(LayeredOptions.NODE_PLACEMENT_BK_PARALLEL_THRESHOLD)) {
+            return false;
+        }
+        
+        AtomicInteger nextLayout = new AtomicInteger();
+        List<ForkJoinTask<?>> tasks = Lists.newArrayListWithCapacity(threads);
+        for (int thread = 0; thread < threads; thread++) {
+            tasks.add(ForkJoinTask.adapt(() -> {
+                BKAligner aligner = new BKAligner(layeredGraph, ni);
+                ICompactor compacter = new BKCompactor(layeredGraph, ni);
+                
+                int index = nextLayout.getAndIncrement();
+                while (index < layouts.size()) {
+                    computeLayout(layouts.get(index), aligner, compacter);
+                    index = nextLayout.getAndIncrement();
+                }
+            }));
+        }
+        ForkJoinTask.invokeAll(tasks);
+        
+        return true;
+    }
+    
+    // elkjs-exclude-end
+    
+
     /////////////////////////////////////////////////////////////////////////////////////////////////////
     // Conflict Detection
     
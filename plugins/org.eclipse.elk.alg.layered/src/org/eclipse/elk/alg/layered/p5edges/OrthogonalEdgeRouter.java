@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2020 Kiel University and others.
+ * Copyright (c) 2010, 2024 Kiel University and others.
  * 
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License 2.0 which is available at
@@ -12,6 +12,10 @@ package org.eclipse.elk.alg.layered.p5edges;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Set;
+// elkjs-exclude-start
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+// elkjs-exclude-end
 
 import org.eclipse.elk.alg.layered.LayeredPhases;
 import org.eclipse.elk.alg.layered.graph.LGraph;
@@ -22,6 +26,7 @@ import org.eclipse.elk.alg.layered.intermediate.IntermediateProcessorStrategy;
 import org.eclipse.elk.alg.layered.options.GraphProperties;
 import org.eclipse.elk.alg.layered.options.InternalProperties;
 import org.eclipse.elk.alg.layered.options.LayeredOptions;
+import org.eclipse.elk.alg.layered.p5edges.orthogonal.HyperEdgeSegment;
 import org.eclipse.elk.alg.layered.p5edges.orthogonal.OrthogonalRoutingGenerator;
 import org.eclipse.elk.alg.layered.p5edges.orthogonal.direction.RoutingDirection;
 import org.eclipse.elk.core.alg.ILayoutPhase;
@@ -29,6 +34,7 @@ import org.eclipse.elk.core.alg.LayoutProcessorConfiguration;
 import org.eclipse.elk.core.util.IElkProgressMonitor;
 
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 
 /**
  * Edge routing implementation that creates orthogonal bend points. Inspired by
@@ -223,6 +229,14 @@ public final class OrthogonalEdgeRouter implements ILayoutPhase<LayeredPhases, L
         // Prepare for iteration!
         OrthogonalRoutingGenerator routingGenerator = new OrthogonalRoutingGenerator(
                 RoutingDirection.WEST_TO_EAST, edgeEdgeSpacing, "phase5");
+        
+        // The hyperedge segments of large graphs may be created concurrently since they do not depend on where the
+        // layers end up; everything else is done one gap after another since it does (and consumes random numbers)
+        PreparedGap[] preparedGaps = null;
+        // elkjs-exclude-start
+        preparedGaps = prepareGapsConcurrently(layeredGraph, edgeEdgeSpacing);
+        // elkjs-exclude-end
+        
         float xpos = 0.0f;
         ListIterator<Layer> layerIter = layeredGraph.getLayers().listIterator();
         Layer leftLayer = null;
@@ -249,8 +263,14 @@ public final class OrthogonalEdgeRouter implements ILayoutPhase<LayeredPhases, L
             
             // Route edges between the two layers
             double startPos = leftLayer == null ? xpos : xpos + edgeNodeSpacing;
-            slotsCount = routingGenerator.routeEdges(monitor, layeredGraph, leftLayerNodes, leftLayerIndex,
-                    rightLayerNodes, startPos);
+            if (preparedGaps == null) {
+                slotsCount = routingGenerator.routeEdges(monitor, layeredGraph, leftLayerNodes, leftLayerIndex,
+                        rightLayerNodes, startPos);
+            } else {
+                PreparedGap gap = preparedGaps[leftLayerIndex + 1];
+                slotsCount = gap.routingGenerator.routeEdges(monitor, layeredGraph, gap.edgeSegments,
+                        leftLayerNodes, leftLayerIndex, startPos);
+            }
             
             boolean isLeftLayerExternal = leftLayer == null || Iterables.all(leftLayerNodes,
                     PolylineEdgeRouter.PRED_EXTERNAL_WEST_OR_EAST_PORT);
@@ -289,4 +309,63 @@ public final class OrthogonalEdgeRouter implements ILayoutPhase<LayeredPhases, L
         monitor.done();
     }
     
+    // elkjs-exclude-start
+    
+    /**
+     * Creates the hyperedge segments and their dependencies for all gaps between layers concurrently if
+     * {@link LayeredOptions#PARALLELISM} allows for it and the graph has at least as many layers as configured by
+     * {@link LayeredOptions#EDGE_ROUTING_ORTHOGONAL_PARALLEL_THRESHOLD}. Each gap gets a routing generator of its own
+     * since the generator remembers the critical conflict threshold of the gap it created the segments for.
+     * 
+     * @return the prepared gaps, indexed by the index of the layer to their right, or {@code null} if the graph is
+     *         to be routed one gap after another.
+     */
+    private PreparedGap[] prepareGapsConcurrently(final LGraph layeredGraph, final double edgeEdgeSpacing) {
+        List<Layer> layers = layeredGraph.getLayers();
+        int gapCount = layers.size() + 1;
+        int threads = Math.min(layeredGraph.getProperty(LayeredOptions.PARALLELISM), gapCount);
+        int threshold = layeredGraph.getProperty(LayeredOptions.EDGE_ROUTING_ORTHOGONAL_PARALLEL_THRESHOLD);
+        if (threads <= 1 || layers.size() < threshold) {
+            return null;
+        }
+        
+        PreparedGap[] preparedGaps = new PreparedGap[gapCount];
+        AtomicInteger nextGap = new AtomicInteger();
+        List<ForkJoinTask<?>> tasks = Lists.newArrayListWithCapacity(threads);
+        for (int thread = 0; thread < threads; thread++) {
+            tasks.add(ForkJoinTask.adapt(() -> {
+                int gap = nextGap.getAndIncrement();
+                while (gap < gapCount) {
+                    List<LNode> leftLayerNodes = gap == 0 ? null : layers.get(gap - 1).getNodes();
+                    List<LNode> rightLayerNodes = gap == layers.size() ? null : layers.get(gap).getNodes();
+                    
+                    OrthogonalRoutingGenerator routingGenerator = new OrthogonalRoutingGenerator(
+                            RoutingDirection.WEST_TO_EAST, edgeEdgeSpacing, "phase5");
+                    preparedGaps[gap] = new PreparedGap(routingGenerator,
+                            routingGenerator.createHyperEdgeSegmentGraph(leftLayerNodes, rightLayerNodes));
+                    
+                    gap = nextGap.getAndIncrement();
+                }
+            }));
+        }
+        ForkJoinTask.invokeAll(tasks);
+        
+        return preparedGaps;
+    }
+    
+    // elkjs-exclude-end
+    
+    /**
+     * The hyperedge segments created for a gap between two layers, along with the generator that created them.
+     */
+    private static final class PreparedGap {
+        private final OrthogonalRoutingGenerator routingGenerator;
+        private final List<HyperEdgeSegment> edgeSegments;
+        
+        PreparedGap(final OrthogonalRoutingGenerator routingGenerator, final List<HyperEdgeSegment> edgeSegments) {
+            this.routingGenerator = routingGenerator;
+            this.edgeSegments = edgeSegments;
+        }
+    }
+    
 }
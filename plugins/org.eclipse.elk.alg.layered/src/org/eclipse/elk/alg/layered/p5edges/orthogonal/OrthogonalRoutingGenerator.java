@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2020 Kiel University and others.
+ * Copyright (c) 2010, 2024 Kiel University and others.
  * 
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License 2.0 which is available at
@@ -9,12 +9,10 @@
  *******************************************************************************/
 package org.eclipse.elk.alg.layered.p5edges.orthogonal;
 
-import java.util.Iterator;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import org.eclipse.elk.alg.layered.DebugUtil;
 import org.eclipse.elk.alg.layered.graph.LGraph;
@@ -104,6 +102,9 @@ public final class OrthogonalRoutingGenerator {
      */
     private double criticalConflictThreshold;
     
+    /** number of critical dependencies among the hyperedge segments this generator created last. */
+    private int criticalDependencyCount;
+    
     /** prefix of debug output files. */
     private final String debugPrefix;
 
@@ -155,6 +156,26 @@ public final class OrthogonalRoutingGenerator {
             final Iterable<LNode> sourceLayerNodes, final int sourceLayerIndex, final Iterable<LNode> targetLayerNodes,
             final double startPos) {
 
+        List<HyperEdgeSegment> edgeSegments = createHyperEdgeSegmentGraph(sourceLayerNodes, targetLayerNodes);
+        return routeEdges(monitor, layeredGraph, edgeSegments, sourceLayerNodes, sourceLayerIndex, startPos);
+    }
+
+    /**
+     * Creates the hyperedge segments for the edges between the given layers as well as the dependencies between them.
+     * This only depends on the port positions along the layers, not on the positions of the layers themselves, and
+     * does not consume random numbers. It may thus be done for several pairs of layers concurrently, as long as each
+     * pair uses a generator of its own. The segments must then be passed to
+     * {@link #routeEdges(IElkProgressMonitor, LGraph, List, Iterable, int, double)} of the same generator.
+     *
+     * @param sourceLayerNodes
+     *            the left layer. May be {@code null}.
+     * @param targetLayerNodes
+     *            the right layer. May be {@code null}.
+     * @return the hyperedge segments, connected by their dependencies.
+     */
+    public List<HyperEdgeSegment> createHyperEdgeSegmentGraph(final Iterable<LNode> sourceLayerNodes,
+            final Iterable<LNode> targetLayerNodes) {
+
         // Keep track of our hyperedge segements, and which ports they were created for
         Map<LPort, HyperEdgeSegment> portToEdgeSegmentMap = Maps.newHashMap();
         List<HyperEdgeSegment> edgeSegments = Lists.newArrayList();
@@ -166,19 +187,33 @@ public final class OrthogonalRoutingGenerator {
         createHyperEdgeSegments(
                 targetLayerNodes, routingStrategy.getTargetPortSide(), edgeSegments, portToEdgeSegmentMap);
 
-        // Our critical conflict threshold is a fraction of the minimum distance between two horizontal hyperedge
-        // segments
-        criticalConflictThreshold = CRITICAL_CONFLICT_THRESHOLD_FACTOR * minimumHorizontalSegmentDistance(edgeSegments);
-        
         // create dependencies for the hyperedge segment ordering graph and note how many critical dependencies have
         // been created
-        int criticalDependencyCount = 0;
-        for (int firstIdx = 0; firstIdx < edgeSegments.size() - 1; firstIdx++) {
-            HyperEdgeSegment firstSegment = edgeSegments.get(firstIdx);
-            for (int secondIdx = firstIdx + 1; secondIdx < edgeSegments.size(); secondIdx++) {
-                criticalDependencyCount += createDependencyIfNecessary(firstSegment, edgeSegments.get(secondIdx));
-            }
-        }
+        criticalDependencyCount = createDependencies(edgeSegments);
+        return edgeSegments;
+    }
+
+    /**
+     * Route edges between the given layers, based on hyperedge segments previously created by
+     * {@link #createHyperEdgeSegmentGraph(Iterable, Iterable)} of this generator.
+     *
+     * @param monitor
+     *            the progress monitor we're using.
+     * @param layeredGraph
+     *            the layered graph.
+     * @param edgeSegments
+     *            the hyperedge segments between the two layers.
+     * @param sourceLayerNodes
+     *            the left layer. May be {@code null}.
+     * @param sourceLayerIndex
+     *            the source layer's index. Ignored if there is no source layer.
+     * @param startPos
+     *            horizontal position of the first routing slot
+     * @return the number of routing slots for this layer
+     */
+    public int routeEdges(final IElkProgressMonitor monitor, final LGraph layeredGraph,
+            final List<HyperEdgeSegment> edgeSegments, final Iterable<LNode> sourceLayerNodes,
+            final int sourceLayerIndex, final double startPos) {
 
         // write the full dependency graph to an output file
         // elkjs-exclude-start
@@ -240,34 +275,35 @@ public final class OrthogonalRoutingGenerator {
      * Computes and returns the minimum distance between any two adjacent source connections and any two adjacent target
      * connections.
      */
-    private double minimumHorizontalSegmentDistance(final List<HyperEdgeSegment> edgeSegments) {
-        double minIncomingDistance = minimumDifference(
-                edgeSegments.stream().flatMap(segment -> segment.getIncomingConnectionCoordinates().stream()));
-        double minOutgoingDistance = minimumDifference(
-                edgeSegments.stream().flatMap(segment -> segment.getOutgoingConnectionCoordinates().stream()));
-        
-        return Math.min(minIncomingDistance, minOutgoingDistance);
+    private double minimumHorizontalSegmentDistance(final double[][] incomingCoordinates,
+            final double[][] outgoingCoordinates) {
+
+        return Math.min(minimumDifference(incomingCoordinates), minimumDifference(outgoingCoordinates));
     }
     
     /**
-     * Returns the smallest difference between any two numbers in the given stream of numbers. If there are less than
-     * two numbers, we return {@link Double#MAX_VALUE}.
+     * Returns the smallest difference between any two distinct numbers in the given arrays of numbers. If there are less
+     * than two distinct numbers, we return {@link Double#MAX_VALUE}.
      */
-    private double minimumDifference(final Stream<Double> numberStream) {
-        List<Double> numbers = numberStream.sorted().distinct().collect(Collectors.toList());
+    private double minimumDifference(final double[][] numberArrays) {
+        int count = 0;
+        for (double[] numberArray : numberArrays) {
+            count += numberArray.length;
+        }
         
-        double minDifference = Double.MAX_VALUE;
+        double[] numbers = new double[count];
+        int index = 0;
+        for (double[] numberArray : numberArrays) {
+            System.arraycopy(numberArray, 0, numbers, index, numberArray.length);
+            index += numberArray.length;
+        }
+        Arrays.sort(numbers);
         
-        if (numbers.size() >= 2) {
-            Iterator<Double> iter = numbers.iterator();
-            Double currentNumber = iter.next();
-            
-            while (iter.hasNext()) {
-                Double previousNumber = currentNumber;
-                currentNumber = iter.next();
-                
-                // This relies on the fact that the numbers are distinct and sorted ascendingly
-                minDifference = Math.min(minDifference, currentNumber.doubleValue() - previousNumber.doubleValue());
+        double minDifference = Double.MAX_VALUE;
+        for (int i = 1; i < numbers.length; i++) {
+            // Equal numbers don't count, which relies on the numbers being sorted ascendingly
+            if (Double.compare(numbers[i], numbers[i - 1]) != 0) {
+                minDifference = Math.min(minDifference, numbers[i] - numbers[i - 1]);
             }
         }
         
@@ -307,6 +343,87 @@ public final class OrthogonalRoutingGenerator {
         }
     }
 
+    /**
+     * Computes the critical conflict threshold for the given hyperedge segments and creates the dependencies between
+     * them. This yields the same dependencies in the same order as calling
+     * {@link #createDependencyIfNecessary(HyperEdgeSegment, HyperEdgeSegment)} for each pair of segments in list
+     * order, but only pairs of segments that come close enough to one another to cause conflicts or crossings are
+     * actually compared. These are found by sweeping over the segments sorted by their start coordinates.
+     *
+     * @param edgeSegments
+     *            the hyperedge segments.
+     * @return the number of critical dependencies that were added
+     */
+    int createDependencies(final List<HyperEdgeSegment> edgeSegments) {
+        int segmentCount = edgeSegments.size();
+        double[][] incomingCoordinates = new double[segmentCount][];
+        double[][] outgoingCoordinates = new double[segmentCount][];
+        for (int i = 0; i < segmentCount; i++) {
+            incomingCoordinates[i] = toArray(edgeSegments.get(i).getIncomingConnectionCoordinates());
+            outgoingCoordinates[i] = toArray(edgeSegments.get(i).getOutgoingConnectionCoordinates());
+        }
+        
+        // Our critical conflict threshold is a fraction of the minimum distance between two horizontal hyperedge
+        // segments
+        criticalConflictThreshold = CRITICAL_CONFLICT_THRESHOLD_FACTOR
+                * minimumHorizontalSegmentDistance(incomingCoordinates, outgoingCoordinates);
+        
+        // Two segments can only cause conflicts or crossings if they are not further apart than this. The tolerance
+        // guards against rounding errors
+        double maxDistance = Math.max(conflictThreshold, criticalConflictThreshold) + TOLERANCE;
+        
+        // Straight lines don't create dependencies, and neither do segments without connections
+        double[] lowestCoordinate = new double[segmentCount];
+        double[] highestCoordinate = new double[segmentCount];
+        List<Integer> sweepOrder = Lists.newArrayListWithCapacity(segmentCount);
+        for (int i = 0; i < segmentCount; i++) {
+            HyperEdgeSegment segment = edgeSegments.get(i);
+            if (Math.abs(segment.getStartCoordinate() - segment.getEndCoordinate()) >= TOLERANCE
+                    && incomingCoordinates[i].length + outgoingCoordinates[i].length > 0) {
+                
+                lowestCoordinate[i] = Math.min(min(incomingCoordinates[i]), min(outgoingCoordinates[i]));
+                highestCoordinate[i] = Math.max(max(incomingCoordinates[i]), max(outgoingCoordinates[i]));
+                sweepOrder.add(i);
+            }
+        }
+        sweepOrder.sort((i1, i2) -> Double.compare(lowestCoordinate[i1], lowestCoordinate[i2]));
+        
+        // Collect each pair of segments that come close, encoded as the lower index in the upper 32 bits and the higher
+        // index in the lower 32 bits such that sorting the pairs yields the order of the pair-wise comparison
+        long[] pairs = new long[segmentCount];
+        int pairCount = 0;
+        int[] active = new int[segmentCount];
+        int activeCount = 0;
+        for (int current : sweepOrder) {
+            int stillActive = 0;
+            for (int i = 0; i < activeCount; i++) {
+                int other = active[i];
+                if (highestCoordinate[other] + maxDistance >= lowestCoordinate[current]) {
+                    active[stillActive++] = other;
+                    
+                    if (pairCount == pairs.length) {
+                        pairs = Arrays.copyOf(pairs, 2 * pairs.length);
+                    }
+                    pairs[pairCount++] = ((long) Math.min(current, other) << Integer.SIZE) | Math.max(current, other);
+                }
+            }
+            activeCount = stillActive;
+            active[activeCount++] = current;
+        }
+        Arrays.sort(pairs, 0, pairCount);
+        
+        int criticalDependencyCount = 0;
+        for (int i = 0; i < pairCount; i++) {
+            int firstIdx = (int) (pairs[i] >>> Integer.SIZE);
+            int secondIdx = (int) pairs[i];
+            criticalDependencyCount += createDependencyIfNecessary(
+                    edgeSegments.get(firstIdx), incomingCoordinates[firstIdx], outgoingCoordinates[firstIdx],
+                    edgeSegments.get(secondIdx), incomingCoordinates[secondIdx], outgoingCoordinates[secondIdx]);
+        }
+        
+        return criticalDependencyCount;
+    }
+
     /**
      * Create dependencies between the two given hyperedge segments, if one is needed. This method is used not just
      * here, but also by {@link HyperEdgeSegmentSplitter}.
@@ -318,6 +435,18 @@ public final class OrthogonalRoutingGenerator {
      * @return the number of critical dependencies that were added
      */
     int createDependencyIfNecessary(final HyperEdgeSegment he1, final HyperEdgeSegment he2) {
+        return createDependencyIfNecessary(
+                he1, toArray(he1.getIncomingConnectionCoordinates()), toArray(he1.getOutgoingConnectionCoordinates()),
+                he2, toArray(he2.getIncomingConnectionCoordinates()), toArray(he2.getOutgoingConnectionCoordinates()));
+    }
+
+    /**
+     * Create dependencies between the two given hyperedge segments, if one is needed, given their connection
+     * coordinates.
+     */
+    private int createDependencyIfNecessary(final HyperEdgeSegment he1, final double[] incoming1,
+            final double[] outgoing1, final HyperEdgeSegment he2, final double[] incoming2, final double[] outgoing2) {
+
         // check if at least one of the two nodes is just a straight line; those don't
         // create dependencies since they don't take up a slot
         if (Math.abs(he1.getStartCoordinate() - he1.getEndCoordinate()) < TOLERANCE
@@ -327,8 +456,8 @@ public final class OrthogonalRoutingGenerator {
         }
 
         // compare number of conflicts for both variants
-        int conflicts1 = countConflicts(he1.getOutgoingConnectionCoordinates(), he2.getIncomingConnectionCoordinates());
-        int conflicts2 = countConflicts(he2.getOutgoingConnectionCoordinates(), he1.getIncomingConnectionCoordinates());
+        int conflicts1 = countConflicts(outgoing1, incoming2);
+        int conflicts2 = countConflicts(outgoing2, incoming1);
         
         boolean criticalConflictsDetected =
                 conflicts1 == CRITICAL_CONFLICTS_DETECTED || conflicts2 == CRITICAL_CONFLICTS_DETECTED;
@@ -350,14 +479,10 @@ public final class OrthogonalRoutingGenerator {
             
         } else {
             // we did not detect critical conflicts, so count the number of crossings for both variants
-            int crossings1 = countCrossings(
-                    he1.getOutgoingConnectionCoordinates(), he2.getStartCoordinate(), he2.getEndCoordinate());
-            crossings1 += countCrossings(
-                    he2.getIncomingConnectionCoordinates(), he1.getStartCoordinate(), he1.getEndCoordinate());
-            int crossings2 = countCrossings(
-                    he2.getOutgoingConnectionCoordinates(), he1.getStartCoordinate(), he1.getEndCoordinate());
-            crossings2 += countCrossings(
-                    he1.getIncomingConnectionCoordinates(), he2.getStartCoordinate(), he2.getEndCoordinate());
+            int crossings1 = countCrossings(outgoing1, he2.getStartCoordinate(), he2.getEndCoordinate());
+            crossings1 += countCrossings(incoming2, he1.getStartCoordinate(), he1.getEndCoordinate());
+            int crossings2 = countCrossings(outgoing2, he1.getStartCoordinate(), he1.getEndCoordinate());
+            crossings2 += countCrossings(incoming1, he2.getStartCoordinate(), he2.getEndCoordinate());
             
             // compute the penalty; crossings are deemed worse than (non-critical) conflicts
             int depValue1 = CONFLICT_PENALTY * conflicts1 + CROSSING_PENALTY * crossings1;
@@ -380,23 +505,23 @@ public final class OrthogonalRoutingGenerator {
     }
 
     /**
-     * Counts the number of conflicts for the given lists of positions.
+     * Counts the number of conflicts for the given arrays of positions.
      *
      * @param posis1
-     *            sorted list of positions
+     *            sorted array of positions
      * @param posis2
-     *            sorted list of positions
+     *            sorted array of positions
      * @return number of positions that overlap, or {@link #CRITICAL_CONFLICTS_DETECTED} if a critical conflict was
      *         detected.
      */
-    private int countConflicts(final List<Double> posis1, final List<Double> posis2) {
+    private int countConflicts(final double[] posis1, final double[] posis2) {
         int conflicts = 0;
 
-        if (!posis1.isEmpty() && !posis2.isEmpty()) {
-            Iterator<Double> iter1 = posis1.iterator();
-            Iterator<Double> iter2 = posis2.iterator();
-            double pos1 = iter1.next();
-            double pos2 = iter2.next();
+        if (posis1.length > 0 && posis2.length > 0) {
+            int index1 = 0;
+            int index2 = 0;
+            double pos1 = posis1[index1];
+            double pos2 = posis2[index2];
             boolean hasMore = true;
 
             do {
@@ -407,10 +532,10 @@ public final class OrthogonalRoutingGenerator {
                     conflicts++;
                 }
 
-                if (pos1 <= pos2 && iter1.hasNext()) {
-                    pos1 = iter1.next();
-                } else if (pos2 <= pos1 && iter2.hasNext()) {
-                    pos2 = iter2.next();
+                if (pos1 <= pos2 && index1 < posis1.length - 1) {
+                    pos1 = posis1[++index1];
+                } else if (pos2 <= pos1 && index2 < posis2.length - 1) {
+                    pos2 = posis2[++index2];
                 } else {
                     hasMore = false;
                 }
@@ -440,6 +565,60 @@ public final class OrthogonalRoutingGenerator {
         return crossings;
     }
 
+    /**
+     * Counts the number of crossings for a given array of positions.
+     *
+     * @param posis sorted array of positions
+     * @param start start of the critical area
+     * @param end end of the critical area
+     * @return number of positions in the critical area
+     */
+    private static int countCrossings(final double[] posis, final double start, final double end) {
+        int crossings = 0;
+        for (double pos : posis) {
+            if (pos > end) {
+                break;
+            } else if (pos >= start) {
+                crossings++;
+            }
+        }
+        return crossings;
+    }
+    
+    /**
+     * Copies the given list of positions into an array.
+     */
+    private static double[] toArray(final List<Double> posis) {
+        double[] array = new double[posis.size()];
+        int index = 0;
+        for (Double pos : posis) {
+            array[index++] = pos;
+        }
+        return array;
+    }
+    
+    /**
+     * Returns the smallest of the given positions, or positive infinity if there are none.
+     */
+    private static double min(final double[] posis) {
+        double min = Double.POSITIVE_INFINITY;
+        for (double pos : posis) {
+            min = Math.min(min, pos);
+        }
+        return min;
+    }
+    
+    /**
+     * Returns the largest of the given positions, or negative infinity if there are none.
+     */
+    private static double max(final double[] posis) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (double pos : posis) {
+            max = Math.max(max, pos);
+        }
+        return max;
+    }
+
     ///////////////////////////////////////////////////////////////////////////////
     // Cycle Breaking
 
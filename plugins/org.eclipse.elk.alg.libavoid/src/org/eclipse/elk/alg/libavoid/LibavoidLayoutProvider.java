@@ -59,11 +59,14 @@ public class LibavoidLayoutProvider extends AbstractLayoutProvider {
         // create an Libavoid server process instance or use an existing one
         LibavoidServer lvServer = LibavoidServerPool.INSTANCE.fetch();
         this.parentNodeToServer.putIfAbsent(parentNode, lvServer);
-        // send a layout request to the server process and apply the layout
-        comm.requestLayout(parentNode, progressMonitor, lvServer);
-        this.parentNodeToServer.remove(parentNode);
-        // if everything worked well, release the used process instance
-        LibavoidServerPool.INSTANCE.release(lvServer);
+        try {
+            // send a layout request to the server process and apply the layout
+            comm.requestLayout(parentNode, progressMonitor, lvServer);
+        } finally {
+            this.parentNodeToServer.remove(parentNode);
+            // release the used process instance; the pool discards it if the process did not survive
+            LibavoidServerPool.INSTANCE.release(lvServer);
+        }
 
     }
     
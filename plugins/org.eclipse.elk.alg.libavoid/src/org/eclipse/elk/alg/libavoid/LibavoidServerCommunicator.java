@@ -10,7 +10,6 @@
 package org.eclipse.elk.alg.libavoid;
 
 import java.io.IOException;
-import java.io.OutputStream;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.StringTokenizer;
@@ -121,28 +120,19 @@ public class LibavoidServerCommunicator {
             return;
         }
 
-        // start the libavoid server process, or retrieve the previously used process
-        lvServer.initialize();
-        lvServer.setProcessTimeout(layoutNode.getProperty(LibavoidOptions.PROCESS_TIMEOUT));
-
         try {
-            // retrieve the libavoid server input
-            OutputStream outputStream = lvServer.input();
-            // write the graph to the process
-            writeTextGraph(layoutNode, outputStream);
-            // flush the stream
-            outputStream.flush();
+            // write the graph to the libavoid server process, which is started if necessary; other
+            // requests may be pipelined on the same process, so the response is identified by a ticket
+            long ticket = lvServer.send(writeTextGraph(layoutNode));
 
             // read the layout information
-            Map<String, KVectorChain> layoutInformation =
-                    readLayoutInformation(lvServer, progressMonitor.subTask(1));
+            Map<String, KVectorChain> layoutInformation = readLayoutInformation(lvServer, ticket,
+                    layoutNode.getProperty(LibavoidOptions.PROCESS_TIMEOUT), progressMonitor.subTask(1));
 
             // apply the layout back to the KGraph
             applyLayout(layoutNode, layoutInformation, progressMonitor.subTask(1));
             // calculate junction points
             calculateJunctionPoints(layoutNode);
-            // clean up the Libavoid server process
-            lvServer.cleanup(Cleanup.NORMAL);
 
         } catch (IOException exception) {
             lvServer.cleanup(Cleanup.ERROR);
@@ -232,14 +222,18 @@ public class LibavoidServerCommunicator {
      * 
      * @param libavoidServer
      *            the Libavoid server process interface
+     * @param ticket
+     *            the ticket of the request whose response is read
+     * @param timeout
+     *            time to wait for the process to give some output
      * @param progressMonitor
      *            the progress monitor
      * @return a map of layout information
      */
     private Map<String, KVectorChain> readLayoutInformation(final LibavoidServer libavoidServer,
-            final IElkProgressMonitor progressMonitor) {
+            final long ticket, final int timeout, final IElkProgressMonitor progressMonitor) {
         progressMonitor.begin("Read output from Libavoid", 1);
-        Map<String, String> outputData = libavoidServer.readOutputData();
+        Map<String, String> outputData = libavoidServer.receive(ticket, timeout);
         if (outputData == null) {
             libavoidServer.cleanup(Cleanup.ERROR);
             throw new LibavoidServerException("No output from the Libavoid process."
@@ -264,9 +258,9 @@ public class LibavoidServerCommunicator {
     }
 
     /**
-     * Transforms the passed graph to a textual format and writes it to the specified output stream.
+     * Transforms the passed graph to the textual format understood by the libavoid server.
      */
-    private void writeTextGraph(final ElkNode root, final OutputStream stream) {
+    private byte[] writeTextGraph(final ElkNode root) {
 
         // first send the options
         transformOptions(root);
@@ -285,12 +279,7 @@ public class LibavoidServerCommunicator {
             System.out.println(sb);
         }
 
-        try {
-            // write it to the stream
-            stream.write(sb.toString().getBytes());
-        } catch (IOException e) {
-            throw new WrappedException("Could not write to the outputstream of the libavoid server.", e);
-        }
+        return sb.toString().getBytes();
     }
 
     private void transformOptions(final ElkNode node) {
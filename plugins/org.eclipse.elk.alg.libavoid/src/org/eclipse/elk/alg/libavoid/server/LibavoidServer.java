@@ -87,14 +87,17 @@ public class LibavoidServer {
 
     /**
      * Constructor only has package visibility. Use {@link LibavoidServerPool} to create instances.
+     * 
+     * @param pool the pool that owns this server and collects its metrics
      */
-    LibavoidServer() {
+    LibavoidServer(final LibavoidServerPool pool) {
+        this.pool = pool;
     }
 
     /** The ogdf server executable. */
     private String executable;
     /** The ogdf server process. */
-    private Process process;
+    private volatile Process process;
     /** The watcher thread used to cancel a blocked read operation. */
     private Watchdog watchdog;
     /** The input stream given by the Libavoid process. */
@@ -103,6 +106,26 @@ public class LibavoidServer {
     private File tempFile;
     /** Timeout waiting for the Libavoid process */
     private int processTimeout = PROCESS_DEF_TIMEOUT;
+    /** The reader for the output of the Libavoid process, kept as long as the process lives. */
+    private BufferedReader libavoidReader;
+
+    /** The pool that owns this server. */
+    private final LibavoidServerPool pool;
+    /** Number of requests currently assigned to this server; guarded by the pool. */
+    int inFlight;
+    /** Time in milliseconds at which the last request assigned to this server was released; guarded by the pool. */
+    long lastReleased;
+
+    /** Lock that keeps requests sent concurrently from interleaving on the process input. */
+    private final Object sendLock = new Object();
+    /** Synchronization object for taking turns in reading responses; guards the ticket counters below. */
+    private final Object readTurn = new Object();
+    /** The ticket given to the next request sent to the process. */
+    private long nextTicket;
+    /** The ticket of the request whose response is the next one on the process output. */
+    private long servedTicket;
+    /** Requests with lower tickets were sent to a process that has been stopped and will never be answered. */
+    private long failedBefore;
 
     /** the relative path for the linux64 executable. */
     public static final String EXECUTABLE_PATH_LINUX64 = "/libavoid-server/libavoid-server-linux";
@@ -203,10 +226,15 @@ public class LibavoidServer {
 
         if (process == null) {
             try {
+                if (executable == null) {
+                    executable = pool.getExecutable();
+                }
                 if (executable == null) {
                     executable = resolveExecutable().getPath();
                 }
                 process = Runtime.getRuntime().exec(new String[] { executable });
+                libavoidReader = new BufferedReader(new InputStreamReader(process.getInputStream()));
+                pool.processStarted();
             } catch (IOException exception) {
                 throw new LibavoidServerException("Failed to start libavoid server process.", exception);
             } finally {
@@ -225,6 +253,117 @@ public class LibavoidServer {
         processTimeout = timeout;
     }
 
+    /**
+     * Whether the Libavoid process has been started and is still running.
+     * 
+     * @return {@code true} if the process is alive
+     */
+    public boolean isAlive() {
+        Process myProcess = process;
+        return myProcess != null && myProcess.isAlive();
+    }
+
+    /**
+     * Whether the Libavoid process has been started but terminated without being stopped through
+     * {@link #cleanup(Cleanup)}, for instance because it crashed while waiting for requests.
+     * 
+     * @return {@code true} if the process has died
+     */
+    boolean isDead() {
+        Process myProcess = process;
+        return myProcess != null && !myProcess.isAlive();
+    }
+
+    /**
+     * Send a request to the Libavoid process. Several requests may be sent before their responses are
+     * read; the process answers them one after the other in the order they were sent. The response
+     * must be read with {@link #receive(long, int)}, even if the caller is no longer interested in it.
+     * 
+     * @param request the textual request, including the final chunk keyword
+     * @return a ticket that identifies the request's response
+     * @throws IOException if the request could not be written to the process
+     */
+    public long send(final byte[] request) throws IOException {
+        synchronized (sendLock) {
+            OutputStream stream;
+            long ticket;
+            // a concurrent cleanup must not stop the process between starting it and taking a ticket;
+            // if it stops the process afterwards, writing fails with an IOException
+            synchronized (this) {
+                initialize();
+                stream = input();
+                synchronized (readTurn) {
+                    ticket = nextTicket++;
+                }
+            }
+            stream.write(request);
+            stream.flush();
+            return ticket;
+        }
+    }
+
+    /**
+     * Wait until the response to a request sent through {@link #send(byte[])} is next on the process
+     * output and read it. The timeout only starts once the process works on the request, so time
+     * spent waiting for earlier requests does not count. If the output was not complete, the caller
+     * must stop the process with {@link #cleanup(Cleanup)}; later requests fail then. If Libavoid
+     * reports an error for the request, the process keeps answering the other requests.
+     * 
+     * @param ticket the ticket returned when the request was sent
+     * @param timeout time to wait for the process to give some output
+     * @return key-value map of output data, or {@code null} if the process output was not complete
+     * @throws LibavoidServerException if Libavoid reported an error for the request
+     */
+    public Map<String, String> receive(final long ticket, final int timeout) {
+        synchronized (readTurn) {
+            while (ticket != servedTicket && ticket >= failedBefore) {
+                try {
+                    readTurn.wait();
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                    throw new LibavoidServerException("Interrupted while waiting for the Libavoid process.",
+                            exception);
+                }
+            }
+            if (ticket < failedBefore) {
+                throw new LibavoidServerException("The Libavoid process was stopped before it answered.");
+            }
+        }
+
+        boolean answered = false;
+        try {
+            setProcessTimeout(timeout);
+            long start = System.nanoTime();
+            Map<String, String> data;
+            try {
+                data = readOutputData();
+                answered = data != null;
+            } catch (LibavoidServerException exception) {
+                // Libavoid reported an error, but the response was read completely
+                answered = true;
+                throw exception;
+            } finally {
+                if (answered) {
+                    // reset the watchdog before the next response is read
+                    cleanup(Cleanup.NORMAL);
+                }
+            }
+            if (answered) {
+                pool.requestRouted(System.nanoTime() - start);
+            }
+            return data;
+        } finally {
+            synchronized (readTurn) {
+                // keep the turn after incomplete output until the process is stopped; the counter has
+                // already moved on if that has happened
+                if (answered && servedTicket == ticket) {
+                    servedTicket++;
+                    readTurn.notifyAll();
+                }
+            }
+        }
+    }
+
     /**
      * Return the stream that is used to give input to Libavoid.
      * 
@@ -242,7 +381,7 @@ public class LibavoidServer {
      * 
      * @return an input stream for reading from the tool
      */
-    private InputStream output() {
+    private BufferedReader output() {
         if (process != null) {
             synchronized (nextJob) {
                 // create an input stream and make it visible to the watcher thread
@@ -250,7 +389,8 @@ public class LibavoidServer {
                 // wake the watcher, which will then sleep until a timeout occurs
                 nextJob.notify();
             }
-            return libavoidStream;
+            // the reader must outlive single responses, since it may already have buffered the next one
+            return libavoidReader;
         }
         throw new IllegalStateException("Libavoid server has not been initialized.");
     }
@@ -266,10 +406,11 @@ public class LibavoidServer {
      * Read output data from the Libavoid server process.
      * 
      * @return key-value map of output data, or {@code null} if the process output was not complete
+     * @throws LibavoidServerException if the output is an error message
      */
     public Map<String, String> readOutputData() {
         Map<String, String> data = new HashMap<String, String>();
-        BufferedReader reader = new BufferedReader(new InputStreamReader(output()));
+        BufferedReader reader = output();
         ParseState state = ParseState.TYPE;
         boolean parseMore = true;
         StringBuilder error = null;
@@ -316,7 +457,7 @@ public class LibavoidServer {
 
             case ERROR:
                 if (line.equals("DONE")) {
-                    cleanup(Cleanup.STOP);
+                    // the error concerns only this request, the process goes on with the next one
                     throw new LibavoidServerException(error.toString());
                 } else {
                     if (error.length() > 0) {
@@ -344,6 +485,9 @@ public class LibavoidServer {
      */
     public synchronized void cleanup(final Cleanup c) {
         StringBuilder error = null;
+        if (process != null && c == Cleanup.ERROR) {
+            pool.processFailed();
+        }
         if (process != null) {
             InputStream errorStream = process.getErrorStream();
             try {
@@ -385,6 +529,14 @@ public class LibavoidServer {
                 }
                 process.destroy();
                 process = null;
+                libavoidReader = null;
+
+                synchronized (readTurn) {
+                    // requests that were sent to the stopped process will never be answered
+                    failedBefore = nextTicket;
+                    servedTicket = nextTicket;
+                    readTurn.notifyAll();
+                }
 
                 if (tempFile != null) {
                     tempFile.delete();
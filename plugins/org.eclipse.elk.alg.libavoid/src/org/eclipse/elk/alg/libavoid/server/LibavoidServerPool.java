@@ -1,6 +1,6 @@
 /*******************************************************************************
- * Copyright (c) 2013, 2022 Kiel University and others.
- * 
+ * Copyright (c) 2013, 2024 Kiel University and others.
+ *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License 2.0 which is available at
  * http://www.eclipse.org/legal/epl-2.0.
@@ -9,7 +9,12 @@
  *******************************************************************************/
 package org.eclipse.elk.alg.libavoid.server;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.elk.alg.libavoid.server.LibavoidServer.Cleanup;
 
@@ -17,59 +22,566 @@ import org.eclipse.elk.alg.libavoid.server.LibavoidServer.Cleanup;
 /**
  * A pool for Libavoid server process instances.
  *
+ * <p>The pool starts new processes on demand until {@link #setMaxSize(int) the maximal size} is reached.
+ * After that, requests are {@link #setPipelineDepth(int) pipelined} on the least busy process, and once
+ * all processes have as many requests as allowed, further requests wait for one to be released. If a
+ * {@link #setMinSize(int) minimal size} or an {@link #setIdleTimeout(long) idle timeout} is configured,
+ * a maintenance thread keeps the pool at its minimal size, stops processes that have been idle for too
+ * long and removes processes that have died. Processes are also checked for liveness when they are
+ * fetched from the pool.</p>
+ *
  * @author msp
  */
 public final class LibavoidServerPool {
-    
+
     /** the singleton instance of the server pool. */
     public static final LibavoidServerPool INSTANCE = new LibavoidServerPool();
-    
+
+    /** default interval in milliseconds between two maintenance runs. */
+    public static final long DEF_MAINTENANCE_INTERVAL = 5000;
+
     /**
      * Hide constructor to avoid instantiation from outside.
      */
     private LibavoidServerPool() {
     }
-    
-    /** the list of currently available servers. */
-    private LinkedList<LibavoidServer> servers = new LinkedList<LibavoidServer>();
-    
+
+    /** the list of all servers of the pool, whether they are currently used or not. */
+    private final List<LibavoidServer> servers = new ArrayList<LibavoidServer>();
+
+    /** the number of servers that are kept even if they are idle. */
+    private int minSize = 0;
+    /** the maximal number of servers. */
+    private int maxSize = Integer.MAX_VALUE;
+    /** the maximal number of requests that are sent to one server before their responses are read. */
+    private int pipelineDepth = 1;
+    /** time in milliseconds after which idle servers are stopped, or {@code 0} to keep them. */
+    private long idleTimeout = 0;
+    /** time in milliseconds between two maintenance runs. */
+    private long maintenanceInterval = DEF_MAINTENANCE_INTERVAL;
+    /** path of the server executable, or {@code null} to use the one shipped with the plug-in. */
+    private volatile String executable;
+    /** the executor running the maintenance, or {@code null} if no maintenance is necessary. */
+    private ScheduledExecutorService maintenance;
+
+    /** number of requests that fetched a server. */
+    private final AtomicLong requests = new AtomicLong();
+    /** sum of the times in nanoseconds requests waited for a server. */
+    private final AtomicLong queueWaitTime = new AtomicLong();
+    /** maximal time in nanoseconds a request waited for a server. */
+    private final AtomicLong maxQueueWaitTime = new AtomicLong();
+    /** number of requests that were answered by a server. */
+    private final AtomicLong routedRequests = new AtomicLong();
+    /** sum of the times in nanoseconds servers took to answer a request. */
+    private final AtomicLong routingTime = new AtomicLong();
+    /** maximal time in nanoseconds a server took to answer a request. */
+    private final AtomicLong maxRoutingTime = new AtomicLong();
+    /** number of server processes that were started. */
+    private final AtomicLong processesStarted = new AtomicLong();
+    /** number of server processes that were stopped because they were idle for too long. */
+    private final AtomicLong processesEvicted = new AtomicLong();
+    /** number of server processes that failed or were stopped after an error. */
+    private final AtomicLong processesFailed = new AtomicLong();
+
+    ///////////////////////////////////////////////////////////////////////////////
+    // Configuration
+
+    /**
+     * Set the number of servers that are kept even if they are idle. Missing servers are started by
+     * {@link #prewarm()} and by the maintenance thread.
+     *
+     * @param size the minimal number of servers
+     */
+    public void setMinSize(final int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("The minimal pool size must not be negative.");
+        }
+        synchronized (servers) {
+            minSize = size;
+            updateMaintenance();
+        }
+    }
+
+    /**
+     * Set the maximal number of servers. Servers that are already running are not stopped.
+     *
+     * @param size the maximal number of servers
+     */
+    public void setMaxSize(final int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("The maximal pool size must be positive.");
+        }
+        synchronized (servers) {
+            maxSize = size;
+            servers.notifyAll();
+        }
+    }
+
+    /**
+     * Set the maximal number of requests a server process works on at the same time once the pool has
+     * reached its maximal size. The process answers them one after the other, but subsequent graphs are
+     * already transferred while it routes the current one.
+     *
+     * @param depth the maximal number of requests per server; {@code 1} disables pipelining
+     */
+    public void setPipelineDepth(final int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("The pipeline depth must be positive.");
+        }
+        synchronized (servers) {
+            pipelineDepth = depth;
+            servers.notifyAll();
+        }
+    }
+
+    /**
+     * Set the time after which servers that have not been used are stopped, unless this would shrink
+     * the pool below its minimal size.
+     *
+     * @param timeout the idle timeout in milliseconds, or {@code 0} to keep idle servers
+     */
+    public void setIdleTimeout(final long timeout) {
+        if (timeout < 0) {
+            throw new IllegalArgumentException("The idle timeout must not be negative.");
+        }
+        synchronized (servers) {
+            idleTimeout = timeout;
+            updateMaintenance();
+        }
+    }
+
     /**
-     * Fetch an Libavoid server process from the pool, creating one if necessary.
-     * 
+     * Set the time between two runs of the maintenance thread, which evicts idle servers, removes dead
+     * ones and starts new ones to keep the minimal pool size.
+     *
+     * @param interval the maintenance interval in milliseconds
+     */
+    public void setMaintenanceInterval(final long interval) {
+        if (interval < 1) {
+            throw new IllegalArgumentException("The maintenance interval must be positive.");
+        }
+        synchronized (servers) {
+            maintenanceInterval = interval;
+            if (maintenance != null) {
+                maintenance.shutdownNow();
+                maintenance = null;
+            }
+            updateMaintenance();
+        }
+    }
+
+    /**
+     * Set the Libavoid server executable that is started for new servers, for instance a custom build of
+     * the libavoid-server. Servers that are already running are not affected.
+     *
+     * @param path path of the executable, or {@code null} to use the one shipped with the plug-in
+     */
+    public void setExecutable(final String path) {
+        executable = path;
+    }
+
+    /**
+     * Return the Libavoid server executable that is started for new servers.
+     *
+     * @return path of the executable, or {@code null} if the one shipped with the plug-in is used
+     */
+    String getExecutable() {
+        return executable;
+    }
+
+    /**
+     * Start or stop the maintenance thread depending on whether there is anything to maintain. Must be
+     * called while holding the lock on the servers list.
+     */
+    private void updateMaintenance() {
+        boolean required = minSize > 0 || idleTimeout > 0;
+        if (required && maintenance == null) {
+            maintenance = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "Libavoid Pool Maintenance");
+                thread.setDaemon(true);
+                return thread;
+            });
+            maintenance.scheduleWithFixedDelay(this::maintain, maintenanceInterval, maintenanceInterval,
+                    TimeUnit.MILLISECONDS);
+        } else if (!required && maintenance != null) {
+            maintenance.shutdownNow();
+            maintenance = null;
+        }
+    }
+
+    ///////////////////////////////////////////////////////////////////////////////
+    // Server Management
+
+    /**
+     * Fetch an Libavoid server process from the pool, creating one if necessary. If the pool has reached
+     * its maximal size and all servers are busy, this waits until a server is released.
+     *
      * @return an Libavoid server process
      */
     public LibavoidServer fetch() {
-        synchronized (servers) {
-            if (servers.isEmpty()) {
-                return new LibavoidServer();
+        long start = System.nanoTime();
+        List<LibavoidServer> dead = new ArrayList<LibavoidServer>();
+        LibavoidServer server;
+        try {
+            synchronized (servers) {
+                while (true) {
+                    removeDead(dead);
+                    server = selectServer();
+                    if (server != null) {
+                        break;
+                    }
+                    try {
+                        servers.wait();
+                    } catch (InterruptedException exception) {
+                        Thread.currentThread().interrupt();
+                        throw new LibavoidServerException("Interrupted while waiting for a Libavoid server.",
+                                exception);
+                    }
+                }
+                server.inFlight++;
             }
-            return servers.removeFirst();
+        } finally {
+            stop(dead);
         }
+
+        long wait = System.nanoTime() - start;
+        requests.incrementAndGet();
+        queueWaitTime.addAndGet(wait);
+        maxQueueWaitTime.accumulateAndGet(wait, Math::max);
+        return server;
     }
-    
+
     /**
-     * Release a previously created server process into the pool. Only instances that
-     * are still usable may be released. Process instances that lead to errors must be closed
-     * without releasing them.
-     * 
+     * Select a server for a new request: the idle server that was used last, a new server if the pool
+     * may still grow, or the least busy server that accepts another request. Must be called while
+     * holding the lock on the servers list.
+     *
+     * @return a server, or {@code null} if the request has to wait
+     */
+    private LibavoidServer selectServer() {
+        LibavoidServer idle = null;
+        LibavoidServer leastBusy = null;
+        for (LibavoidServer server : servers) {
+            if (server.inFlight == 0) {
+                if (idle == null || server.lastReleased > idle.lastReleased) {
+                    idle = server;
+                }
+            } else if (server.isAlive() && (leastBusy == null || server.inFlight < leastBusy.inFlight)) {
+                leastBusy = server;
+            }
+        }
+
+        if (idle != null) {
+            return idle;
+        } else if (servers.size() < maxSize) {
+            LibavoidServer server = new LibavoidServer(this);
+            servers.add(server);
+            return server;
+        } else if (leastBusy != null && leastBusy.inFlight < pipelineDepth) {
+            return leastBusy;
+        }
+        return null;
+    }
+
+    /**
+     * Release a previously fetched server process into the pool. Servers whose process did not survive
+     * the request are removed from the pool.
+     *
      * @param server an Libavoid server process
      */
     public void release(final LibavoidServer server) {
+        boolean remove = false;
         synchronized (servers) {
-            servers.add(server);
+            server.inFlight--;
+            server.lastReleased = System.currentTimeMillis();
+            // servers that are no longer part of the pool have been disposed
+            if (server.inFlight == 0 && (!servers.contains(server) || !server.isAlive())) {
+                servers.remove(server);
+                remove = true;
+            }
+            servers.notifyAll();
+        }
+        if (remove) {
+            server.cleanup(Cleanup.STOP);
+        }
+    }
+
+    /**
+     * Start server processes until the pool has reached its minimal size.
+     *
+     * @throws LibavoidServerException if a server process could not be started
+     */
+    public void prewarm() {
+        while (true) {
+            LibavoidServer server;
+            synchronized (servers) {
+                if (servers.size() >= Math.min(minSize, maxSize)) {
+                    return;
+                }
+                // reserve the server so that it is not handed out before its process runs
+                server = new LibavoidServer(this);
+                server.inFlight = 1;
+                servers.add(server);
+            }
+            try {
+                server.initialize();
+            } finally {
+                release(server);
+            }
+        }
+    }
+
+    /**
+     * Remove dead servers, stop servers that have been idle for too long, and start missing ones.
+     */
+    private void maintain() {
+        List<LibavoidServer> stopped = new ArrayList<LibavoidServer>();
+        try {
+            synchronized (servers) {
+                removeDead(stopped);
+                if (idleTimeout > 0) {
+                    long now = System.currentTimeMillis();
+                    int surplus = servers.size() - minSize;
+                    for (int i = servers.size() - 1; i >= 0 && surplus > 0; i--) {
+                        LibavoidServer server = servers.get(i);
+                        if (server.inFlight == 0 && now - server.lastReleased >= idleTimeout) {
+                            servers.remove(i);
+                            stopped.add(server);
+                            processesEvicted.incrementAndGet();
+                            surplus--;
+                        }
+                    }
+                }
+            }
+        } finally {
+            stop(stopped);
+        }
+
+        try {
+            prewarm();
+        } catch (LibavoidServerException exception) {
+            // the next request will report the problem
+        }
+    }
+
+    /**
+     * Remove idle servers whose process has terminated unexpectedly. Must be called while holding the
+     * lock on the servers list.
+     *
+     * @param dead list to which removed servers are added; these must be stopped afterwards
+     */
+    private void removeDead(final List<LibavoidServer> dead) {
+        for (int i = servers.size() - 1; i >= 0; i--) {
+            LibavoidServer server = servers.get(i);
+            if (server.inFlight == 0 && server.isDead()) {
+                servers.remove(i);
+                dead.add(server);
+                processesFailed.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Stop the given servers.
+     *
+     * @param stopped servers that have been removed from the pool
+     */
+    private void stop(final List<LibavoidServer> stopped) {
+        for (LibavoidServer server : stopped) {
+            try {
+                server.cleanup(Cleanup.STOP);
+            } catch (LibavoidServerException exception) {
+                // ignore errors of servers that are not used anymore
+            }
         }
     }
-    
+
     /**
-     * Dispose all created server instances.
+     * Dispose all created server instances. Servers that are currently used are stopped as soon as they
+     * are released.
      */
     public void dispose() {
+        List<LibavoidServer> idle = new ArrayList<LibavoidServer>();
         synchronized (servers) {
+            if (maintenance != null) {
+                maintenance.shutdownNow();
+                maintenance = null;
+            }
             for (LibavoidServer server : servers) {
-                server.cleanup(Cleanup.STOP);
+                if (server.inFlight == 0) {
+                    idle.add(server);
+                }
             }
             servers.clear();
         }
+        stop(idle);
+    }
+
+    ///////////////////////////////////////////////////////////////////////////////
+    // Metrics
+
+    /**
+     * Called by servers whenever they have started a process.
+     */
+    void processStarted() {
+        processesStarted.incrementAndGet();
+    }
+
+    /**
+     * Called by servers whenever their process failed or had to be stopped after an error.
+     */
+    void processFailed() {
+        processesFailed.incrementAndGet();
+    }
+
+    /**
+     * Called by servers whenever they have answered a request.
+     *
+     * @param time the time in nanoseconds the server took to answer the request
+     */
+    void requestRouted(final long time) {
+        routedRequests.incrementAndGet();
+        routingTime.addAndGet(time);
+        maxRoutingTime.accumulateAndGet(time, Math::max);
+    }
+
+    /**
+     * Return a snapshot of the pool's metrics.
+     *
+     * @return the current metrics
+     */
+    public Statistics getStatistics() {
+        int size;
+        synchronized (servers) {
+            size = servers.size();
+        }
+        return new Statistics(size, requests.get(), queueWaitTime.get(), maxQueueWaitTime.get(),
+                routedRequests.get(), routingTime.get(), maxRoutingTime.get(), processesStarted.get(),
+                processesEvicted.get(), processesFailed.get());
+    }
+
+    /**
+     * Reset all metrics of the pool.
+     */
+    public void resetStatistics() {
+        requests.set(0);
+        queueWaitTime.set(0);
+        maxQueueWaitTime.set(0);
+        routedRequests.set(0);
+        routingTime.set(0);
+        maxRoutingTime.set(0);
+        processesStarted.set(0);
+        processesEvicted.set(0);
+        processesFailed.set(0);
+    }
+
+    /**
+     * A snapshot of the metrics of a server pool. Times are given in milliseconds.
+     */
+    public static final class Statistics {
+
+        private static final double NANOS_PER_MILLI = 1e6;
+
+        private final int poolSize;
+        private final long requests;
+        private final long queueWaitTime;
+        private final long maxQueueWaitTime;
+        private final long routedRequests;
+        private final long routingTime;
+        private final long maxRoutingTime;
+        private final long processesStarted;
+        private final long processesEvicted;
+        private final long processesFailed;
+
+        // CHECKSTYLEOFF ParameterNumber
+        private Statistics(final int poolSize, final long requests, final long queueWaitTime,
+                final long maxQueueWaitTime, final long routedRequests, final long routingTime,
+                final long maxRoutingTime, final long processesStarted, final long processesEvicted,
+                final long processesFailed) {
+            // CHECKSTYLEON ParameterNumber
+            this.poolSize = poolSize;
+            this.requests = requests;
+            this.queueWaitTime = queueWaitTime;
+            this.maxQueueWaitTime = maxQueueWaitTime;
+            this.routedRequests = routedRequests;
+            this.routingTime = routingTime;
+            this.maxRoutingTime = maxRoutingTime;
+            this.processesStarted = processesStarted;
+            this.processesEvicted = processesEvicted;
+            this.processesFailed = processesFailed;
+        }
+
+        /**
+         * @return the number of servers in the pool
+         */
+        public int getPoolSize() {
+            return poolSize;
+        }
+
+        /**
+         * @return the number of requests that fetched a server
+         */
+        public long getRequests() {
+            return requests;
+        }
+
+        /**
+         * @return the average time requests waited for a server
+         */
+        public double getAverageQueueWaitTime() {
+            return requests == 0 ? 0 : queueWaitTime / NANOS_PER_MILLI / requests;
+        }
+
+        /**
+         * @return the maximal time a request waited for a server
+         */
+        public double getMaxQueueWaitTime() {
+            return maxQueueWaitTime / NANOS_PER_MILLI;
+        }
+
+        /**
+         * @return the number of requests that were answered by a server
+         */
+        public long getRoutedRequests() {
+            return routedRequests;
+        }
+
+        /**
+         * @return the average time a server took to answer a request, not counting earlier requests
+         *         pipelined on the same server
+         */
+        public double getAverageRoutingTime() {
+            return routedRequests == 0 ? 0 : routingTime / NANOS_PER_MILLI / routedRequests;
+        }
+
+        /**
+         * @return the maximal time a server took to answer a request
+         */
+        public double getMaxRoutingTime() {
+            return maxRoutingTime / NANOS_PER_MILLI;
+        }
+
+        /**
+         * @return the number of server processes that were started
+         */
+        public long getProcessesStarted() {
+            return processesStarted;
+        }
+
+        /**
+         * @return the number of server processes that were stopped because they were idle for too long
+         */
+        public long getProcessesEvicted() {
+            return processesEvicted;
+        }
+
+        /**
+         * @return the number of server processes that failed or were stopped after an error
+         */
+        public long getProcessesFailed() {
+            return processesFailed;
+        }
+
     }
 
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017 Kiel University and others.
+ * Copyright (c) 2017, 2024 Kiel University and others.
  * 
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License 2.0 which is available at
@@ -9,12 +9,25 @@
  *******************************************************************************/
 package org.eclipse.elk.alg.radial.intermediate.compaction;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.function.Predicate;
 
+import org.eclipse.elk.core.math.KVector;
 import org.eclipse.elk.graph.ElkNode;
 
 /**
  * The class provides basic logic for extending or compacting radii, like overlap calculation.
+ * 
+ * <p>
+ * Nodes of one radius are moved in steps of the {@link #getCompactionStep() compaction step} along the ray from the
+ * root through their centers. Instead of moving them one step at a time and checking for overlaps after each step,
+ * the number of steps is computed directly: while the nodes move, the distance between two nodes changes linearly,
+ * so they overlap for an interval of moved distances that is {@link #overlapInterval(ElkNode, boolean, ElkNode,
+ * boolean, boolean) computed} from their current positions. The first step that enters or leaves these intervals
+ * follows from their bounds.
+ * </p>
  */
 public class AbstractRadiusExtensionCompaction {
     /** The step size with which the contraction takes place. Default is one. */
@@ -171,6 +184,261 @@ public class AbstractRadiusExtensionCompaction {
         return overlapping;
     }
 
+    /**
+     * Extends a list of nodes from the same radius as little as possible such that neighboring nodes do not
+     * {@link #overlapLayer(List) overlap}. The result is the same as extending them one step at a time until they do
+     * not overlap anymore.
+     * 
+     * @param layerNodes
+     *            List of nodes of one radius that shall be moved.
+     */
+    public void extendLayerUntilNotOverlapping(final List<ElkNode> layerNodes) {
+        moveLayer(layerNodes, stepsToLeave(layerOverlapIntervals(layerNodes, false)), false);
+
+        // rounding errors may leave the nodes slightly overlapping, which the stepwise extension resolves
+        while (overlapLayer(layerNodes)) {
+            contractLayer(layerNodes, false);
+        }
+    }
+
+    /**
+     * Contracts a list of nodes from the same radius as far as possible without them overlapping. Nodes that are
+     * already overlapping are not moved. The result is the same as contracting them one step at a time until they
+     * overlap and undoing the last step.
+     * 
+     * @param layerNodes
+     *            List of nodes of one radius that shall be moved.
+     * @param overlapIntervals
+     *            The intervals of contracted distances for which the nodes overlap, as computed by
+     *            {@link #overlapInterval(ElkNode, boolean, ElkNode, boolean, boolean)}.
+     * @param isOverlapping
+     *            Determines whether the nodes overlap at their current positions.
+     */
+    public void contractLayerUntilOverlapping(final List<ElkNode> layerNodes, final List<double[]> overlapIntervals,
+            final Predicate<List<ElkNode>> isOverlapping) {
+        if (isOverlapping.test(layerNodes)) {
+            return;
+        }
+
+        // the distances are only linear as long as no node passes the root
+        int steps = stepsToEnter(overlapIntervals);
+        if (steps != Integer.MAX_VALUE && (double) steps * compactionStep < minDistanceToRoot(layerNodes)) {
+            moveLayer(layerNodes, steps - 1, true);
+        }
+
+        // rounding errors may render the computed number of steps slightly off, which is corrected stepwise
+        if (isOverlapping.test(layerNodes)) {
+            while (isOverlapping.test(layerNodes)) {
+                contractLayer(layerNodes, false);
+            }
+        } else {
+            do {
+                contractLayer(layerNodes, true);
+            } while (!isOverlapping.test(layerNodes));
+            // undo last step
+            contractLayer(layerNodes, false);
+        }
+    }
+
+    /**
+     * Moves a list of nodes from the same radius by the given number of steps along their incoming edge. This yields
+     * the same positions as calling {@link #contractLayer(List, boolean)} that many times, up to rounding errors.
+     * 
+     * @param layerNodes
+     *            List of nodes of one radius that shall be moved.
+     * @param steps
+     *            The number of steps to move the nodes by.
+     * @param isContracting
+     *            Determines if the layer shall be contracted or extended.
+     */
+    public void moveLayer(final List<ElkNode> layerNodes, final int steps, final boolean isContracting) {
+        if (steps <= 0) {
+            return;
+        }
+        double distance = (double) steps * compactionStep;
+        for (ElkNode node : layerNodes) {
+            KVector direction = rayDirection(node);
+            double sign = isContracting ? -distance : distance;
+            node.setX(node.getX() + direction.x * sign);
+            node.setY(node.getY() + direction.y * sign);
+        }
+    }
+
+    /**
+     * Calculates the overlaps of neighboring nodes of one radius like {@link #overlapLayer(List)}, but for all
+     * distances the nodes may be moved by.
+     * 
+     * @param nodes
+     *            List of nodes from one radius, all of which are moved.
+     * @param isContracting
+     *            Determines if the layer is contracted or extended.
+     * @return The intervals of moved distances for which neighboring nodes overlap.
+     */
+    public List<double[]> layerOverlapIntervals(final List<ElkNode> nodes, final boolean isContracting) {
+        List<double[]> intervals = new ArrayList<>();
+        if (nodes.size() < 2) {
+            return intervals;
+        }
+        for (int i = 0; i < nodes.size(); i++) {
+            ElkNode next = i < nodes.size() - 1 ? nodes.get(i + 1) : nodes.get(0);
+            addInterval(intervals, overlapInterval(nodes.get(i), true, next, true, isContracting));
+        }
+        return intervals;
+    }
+
+    /**
+     * Calculates for which distances two nodes {@link #overlap(ElkNode, ElkNode) overlap} if the moving ones of them
+     * are moved along their incoming edge by that distance. Since the offset between the nodes changes linearly with
+     * the distance, the nodes overlap for an open interval of distances.
+     * 
+     * @param node1
+     *            The first node.
+     * @param isMoving1
+     *            Whether the first node is moved.
+     * @param node2
+     *            A second node.
+     * @param isMoving2
+     *            Whether the second node is moved.
+     * @param isContracting
+     *            Determines if the moving nodes are contracted or extended.
+     * @return The lower and upper bound of the interval, which may be infinite, or {@code null} if the nodes never
+     *         overlap.
+     */
+    public double[] overlapInterval(final ElkNode node1, final boolean isMoving1, final ElkNode node2,
+            final boolean isMoving2, final boolean isContracting) {
+
+        double sign = isContracting ? -1 : 1;
+        KVector direction1 = isMoving1 ? rayDirection(node1).scale(sign) : new KVector();
+        KVector direction2 = isMoving2 ? rayDirection(node2).scale(sign) : new KVector();
+
+        double[] xInterval = linearInterval(node2.getX() - node1.getX(), direction2.x - direction1.x,
+                -(node2.getWidth() + spacing), node1.getWidth() + spacing);
+        double[] yInterval = linearInterval(node2.getY() - node1.getY(), direction2.y - direction1.y,
+                -(node2.getHeight() + spacing), node1.getHeight() + spacing);
+        if (xInterval == null || yInterval == null) {
+            return null;
+        }
+
+        double lower = Math.max(xInterval[0], yInterval[0]);
+        double upper = Math.min(xInterval[1], yInterval[1]);
+        return lower < upper ? new double[] { lower, upper } : null;
+    }
+
+    /**
+     * Adds an interval computed by {@link #overlapInterval(ElkNode, boolean, ElkNode, boolean, boolean)} to a list of
+     * intervals unless it is empty.
+     * 
+     * @param intervals
+     *            The list of intervals.
+     * @param interval
+     *            The interval to add, or {@code null}.
+     */
+    protected static void addInterval(final List<double[]> intervals, final double[] interval) {
+        if (interval != null) {
+            intervals.add(interval);
+        }
+    }
+
+    /**
+     * Calculates for which values of {@code t} the offset {@code offset + t * change} lies strictly between the given
+     * bounds. Like in {@link #overlap(ElkNode, ElkNode)}, a constant offset of zero does not count as an overlap.
+     */
+    private static double[] linearInterval(final double offset, final double change, final double lowerBound,
+            final double upperBound) {
+
+        if (change == 0) {
+            boolean inside = lowerBound < offset && offset < upperBound && offset != 0;
+            return inside ? new double[] { Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY } : null;
+        } else if (change > 0) {
+            return new double[] { (lowerBound - offset) / change, (upperBound - offset) / change };
+        } else {
+            return new double[] { (upperBound - offset) / change, (lowerBound - offset) / change };
+        }
+    }
+
+    /**
+     * Calculates the smallest number of steps whose distance does not lie in any of the given intervals. Intervals
+     * without an upper bound are ignored since no number of steps leaves them.
+     * 
+     * @param intervals
+     *            Open intervals of distances.
+     * @return The number of steps.
+     */
+    public int stepsToLeave(final List<double[]> intervals) {
+        if (compactionStep <= 0) {
+            return 0;
+        }
+        intervals.sort(Comparator.comparingDouble(interval -> interval[0]));
+
+        // sweep over the intervals by their lower bounds, keeping track of the largest upper bound seen so far
+        int steps = 0;
+        double distance = 0;
+        double upper = Double.NEGATIVE_INFINITY;
+        int next = 0;
+        while (true) {
+            while (next < intervals.size() && intervals.get(next)[0] < distance) {
+                if (intervals.get(next)[1] != Double.POSITIVE_INFINITY) {
+                    upper = Math.max(upper, intervals.get(next)[1]);
+                }
+                next++;
+            }
+            if (upper <= distance) {
+                return steps;
+            }
+            steps = (int) Math.ceil(upper / compactionStep);
+            distance = (double) steps * compactionStep;
+        }
+    }
+
+    /**
+     * Calculates the smallest positive number of steps whose distance lies in one of the given intervals.
+     * 
+     * @param intervals
+     *            Open intervals of distances.
+     * @return The number of steps, or {@link Integer#MAX_VALUE} if no such number exists.
+     */
+    public int stepsToEnter(final List<double[]> intervals) {
+        if (compactionStep <= 0) {
+            return Integer.MAX_VALUE;
+        }
+        double steps = Integer.MAX_VALUE;
+        for (double[] interval : intervals) {
+            double intervalSteps = Math.max(1, Math.floor(interval[0] / compactionStep) + 1);
+            if (intervalSteps * compactionStep < interval[1]) {
+                steps = Math.min(steps, intervalSteps);
+            }
+        }
+        return (int) steps;
+    }
+
+    /**
+     * The unit vector pointing from the center of the root to the center of the given node, which is the direction
+     * the node is extended in.
+     * 
+     * @param node
+     *            A node.
+     * @return The direction.
+     */
+    public KVector rayDirection(final ElkNode node) {
+        double x = node.getX() + node.getWidth() / 2 - (root.getX() + root.getWidth() / 2);
+        double y = node.getY() + node.getHeight() / 2 - (root.getY() + root.getHeight() / 2);
+        double length = Math.sqrt(x * x + y * y);
+        return new KVector(x / length, y / length);
+    }
+
+    /**
+     * The smallest distance between the center of the root and the center of one of the given nodes.
+     */
+    private double minDistanceToRoot(final List<ElkNode> nodes) {
+        double distance = Double.POSITIVE_INFINITY;
+        for (ElkNode node : nodes) {
+            double x = node.getX() + node.getWidth() / 2 - (root.getX() + root.getWidth() / 2);
+            double y = node.getY() + node.getHeight() / 2 - (root.getY() + root.getHeight() / 2);
+            distance = Math.min(distance, Math.sqrt(x * x + y * y));
+        }
+        return distance;
+    }
+
     /**
      * The step size which was chosen for the compaction/extension.
      * 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017 Kiel University and others.
+ * Copyright (c) 2017, 2024 Kiel University and others.
  * 
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License 2.0 which is available at
@@ -91,19 +91,9 @@ public class AnnulusWedgeCompaction extends AbstractRadiusExtensionCompaction im
      */
     private void contractWedge(final ElkNode wedgeParent, final List<ElkNode> predecessors,
             final ElkNode radialPredecessor, final ElkNode radialSuccessor, final List<ElkNode> currentRadiusNodes) {
-        boolean isOverlapping = overlapping(predecessors, radialPredecessor, radialSuccessor, currentRadiusNodes);
-        boolean wasContracted = false;
-
-        while (!isOverlapping) {
-            contractLayer(currentRadiusNodes, true);
-            wasContracted = true;
-            isOverlapping = overlapping(predecessors, radialPredecessor, radialSuccessor, currentRadiusNodes);
-        }
-
-        // undo last step
-        if (wasContracted) {
-            contractLayer(currentRadiusNodes, false);
-        }
+        contractLayerUntilOverlapping(currentRadiusNodes,
+                overlapIntervals(predecessors, radialPredecessor, radialSuccessor, currentRadiusNodes),
+                nodes -> overlapping(predecessors, radialPredecessor, radialSuccessor, nodes));
         // continue with the nodes from the next radius
         List<ElkNode> nextLevelNodes = RadialUtil.getNextLevelNodes(currentRadiusNodes);
         if (!nextLevelNodes.isEmpty()) {
@@ -158,6 +148,50 @@ public class AnnulusWedgeCompaction extends AbstractRadiusExtensionCompaction im
         return false;
     }
 
+    /**
+     * Calculate the intervals of contracted distances for which the overlaps considered by
+     * {@link #overlapping(List, ElkNode, ElkNode, List)} occur.
+     * 
+     * @param predecessors
+     *            The tree predecessors.
+     * @param leftParent
+     *            The radial predecessor wedge node.
+     * @param rightParent
+     *            The radial successor wedge node.
+     * @param layerNodes
+     *            All nodes of the current wedge from one radius, which are contracted.
+     * @return The intervals of distances.
+     */
+    private List<double[]> overlapIntervals(final List<ElkNode> predecessors, final ElkNode leftParent,
+            final ElkNode rightParent, final List<ElkNode> layerNodes) {
+        if (sorter != null) {
+            sorter.sort(layerNodes);
+        }
+
+        List<double[]> intervals = layerOverlapIntervals(layerNodes, true);
+        contourOverlapIntervals(leftParent, layerNodes.get(0), false, layerNodes, intervals);
+        contourOverlapIntervals(rightParent, layerNodes.get(layerNodes.size() - 1), true, layerNodes, intervals);
+        for (ElkNode sortedNode : layerNodes) {
+            for (ElkNode predecessor : predecessors) {
+                addInterval(intervals, overlapInterval(sortedNode, true, predecessor, false, true));
+            }
+        }
+        return intervals;
+    }
+
+    /**
+     * Calculate the intervals of contracted distances for which a node overlaps with a neighboring wedge contour. The
+     * contour may contain nodes that are contracted along with the node if the wedge is its own neighbor.
+     */
+    private void contourOverlapIntervals(final ElkNode neighbourWedgeParent, final ElkNode node, final boolean left,
+            final List<ElkNode> layerNodes, final List<double[]> intervals) {
+        Collection<ElkNode> contour =
+                left ? leftContour.get(neighbourWedgeParent) : rightContour.get(neighbourWedgeParent);
+        for (ElkNode contourNode : contour) {
+            addInterval(intervals, overlapInterval(node, true, contourNode, layerNodes.contains(contourNode), true));
+        }
+    }
+
     /**
      * Check if a node overlaps with a neighboring wedge contour.
      * 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017 Kiel University and others.
+ * Copyright (c) 2017, 2024 Kiel University and others.
  * 
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License 2.0 which is available at
@@ -15,6 +15,7 @@ import org.eclipse.elk.alg.radial.InternalProperties;
 import org.eclipse.elk.alg.radial.RadialUtil;
 import org.eclipse.elk.alg.radial.options.RadialOptions;
 import org.eclipse.elk.alg.radial.sorting.IRadialSorter;
+import org.eclipse.elk.core.math.KVector;
 import org.eclipse.elk.core.options.CoreOptions;
 import org.eclipse.elk.graph.ElkNode;
 
@@ -57,17 +58,12 @@ public class RadialCompaction extends AbstractRadiusExtensionCompaction implemen
      */
     public void contract(final List<ElkNode> nodes) {
         if (!nodes.isEmpty()) {
-            boolean isOverlapping = overlapping(nodes);
-            boolean wasContracted = false;
-            while (!isOverlapping) {
-                contractLayer(nodes, true);
-                wasContracted = true;
-                isOverlapping = overlapping(nodes);
-            }
-            // undo last step
-            if (wasContracted) {
-                contractLayer(nodes, false);
+            List<double[]> overlapIntervals = layerOverlapIntervals(nodes, true);
+            for (ElkNode node : nodes) {
+                addInterval(overlapIntervals, overlapInterval(node, true, RadialUtil.getTreeParent(node), false, true));
+                addInterval(overlapIntervals, radiusInterval(node));
             }
+            contractLayerUntilOverlapping(nodes, overlapIntervals, this::overlapping);
             List<ElkNode> nextLevelNodes = RadialUtil.getNextLevelNodes(nodes);
             if (sorter != null) {
                 sorter.sort(nextLevelNodes);
@@ -98,6 +94,31 @@ public class RadialCompaction extends AbstractRadiusExtensionCompaction implemen
         return radius;
     }
 
+    /**
+     * Calculate for which contracted distances the {@link #calculateRadius(ElkNode) radius} of a node is too close to
+     * the last radius. Since the node moves along a straight line, this is the case between the two intersections of
+     * that line with the circle around the root that the radius must not enter.
+     * 
+     * @param node
+     *            A node of the radius which is contracted.
+     * @return The interval of distances, or {@code null} if the radius is never too close.
+     */
+    private double[] radiusInterval(final ElkNode node) {
+        ElkNode root = getRoot();
+        double vectorX = node.getX() - root.getX();
+        double vectorY = node.getY() - root.getY();
+        KVector direction = rayDirection(node);
+
+        double minRadius = lastRadius + getSpacing();
+        double projection = vectorX * direction.x + vectorY * direction.y;
+        double discriminant = projection * projection - (vectorX * vectorX + vectorY * vectorY) + minRadius * minRadius;
+        if (minRadius < 0 || discriminant < 0) {
+            return null;
+        }
+        double halfLength = Math.sqrt(discriminant);
+        return new double[] { projection - halfLength, projection + halfLength };
+    }
+
     /**
      * Calculate if nodes of a radius are either overlapping their next neighbor or its predecessor on the next layer.
      * 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017 Kiel University and others.
+ * Copyright (c) 2017, 2024 Kiel University and others.
  * 
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License 2.0 which is available at
@@ -10,14 +10,13 @@
 package org.eclipse.elk.alg.radial.intermediate.overlaps;
 
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Set;
 
 import org.eclipse.elk.alg.radial.InternalProperties;
 import org.eclipse.elk.alg.radial.RadialUtil;
 import org.eclipse.elk.alg.radial.intermediate.compaction.AbstractRadiusExtensionCompaction;
-import org.eclipse.elk.alg.radial.options.RadialOptions;
-import org.eclipse.elk.alg.radial.sorting.IRadialSorter;
 import org.eclipse.elk.core.alg.ILayoutProcessor;
 import org.eclipse.elk.core.math.KVector;
 import org.eclipse.elk.core.options.CoreOptions;
@@ -25,23 +24,22 @@ import org.eclipse.elk.core.util.IElkProgressMonitor;
 import org.eclipse.elk.graph.ElkNode;
 
 /**
- * Remove overlaps after the initial layout by extending layers with overlaps.
+ * Remove overlaps after the initial layout by extending layers with overlaps. The nodes of each layer are ordered by
+ * their angle around the root such that overlaps are checked between nodes that are next to each other. Since the
+ * nodes are only moved along the rays from the root, this order does not change while extending a layer.
  */
 public class RadiusExtensionOverlapRemoval extends AbstractRadiusExtensionCompaction
         implements ILayoutProcessor<ElkNode>, IOverlapRemoval {
 
-    private IRadialSorter sorter;
-
     @Override
     public void removeOverlaps(final ElkNode graph, IElkProgressMonitor progressMonitor) {
         ElkNode root = graph.getProperty(InternalProperties.ROOT_NODE);
         setRoot(root);
-        sorter = graph.getProperty(RadialOptions.SORTER).create();
         Double spacing = graph.getProperty(CoreOptions.SPACING_NODE_NODE);
         setSpacing(spacing);
 
         List<ElkNode> successors = RadialUtil.getSuccessors(root);
-        extend(graph, successors, progressMonitor);
+        extend(graph, sortByAngle(successors), progressMonitor);
     }
 
     /**
@@ -57,9 +55,7 @@ public class RadiusExtensionOverlapRemoval extends AbstractRadiusExtensionCompac
                 oldPositions.add(new KVector(node.getX(), node.getY()));
             }
             progressMonitor.logGraph(graph, "Before removing overlaps");
-            while (overlapLayer(nodes)) {
-                contractLayer(nodes, false);
-            }
+            extendLayerUntilNotOverlapping(nodes);
             progressMonitor.logGraph(graph, "After removing overlaps");
 
             double movedX = 0;
@@ -71,7 +67,8 @@ public class RadiusExtensionOverlapRemoval extends AbstractRadiusExtensionCompac
                 movedY = firstNode.getY() - oldPositions.get(0).y;
             }
             double movedDistance = Math.sqrt(movedX * movedX + movedY * movedY);
-            Set<ElkNode> nextLevelNodes = RadialUtil.getNextLevelNodeSet(nodes);
+            List<ElkNode> nextLevelNodes =
+                    sortByAngle(new ArrayList<>(new LinkedHashSet<>(RadialUtil.getNextLevelNodes(nodes))));
             // Calculate the moved distance which is the amount all children and grandchildren have to be moved.
             int index = 1;
             if (!nextLevelNodes.isEmpty()) {
@@ -80,15 +77,27 @@ public class RadiusExtensionOverlapRemoval extends AbstractRadiusExtensionCompac
                 }
                 progressMonitor.logGraph(graph, "Child movement " + index);
                 index++;
-            }            
-            
-            if (sorter != null) {
-                sorter.sort(new ArrayList<>(nextLevelNodes));
             }
-            extend(graph, new ArrayList<>(nextLevelNodes), progressMonitor);
+
+            extend(graph, nextLevelNodes, progressMonitor);
         }
     }
 
+    /**
+     * Sorts the nodes of one layer by the angle of their centers around the center of the root.
+     * 
+     * @param nodes A list of the same radius.
+     * @return The sorted list.
+     */
+    private List<ElkNode> sortByAngle(final List<ElkNode> nodes) {
+        ElkNode root = getRoot();
+        double rootX = root.getX() + root.getWidth() / 2;
+        double rootY = root.getY() + root.getHeight() / 2;
+        nodes.sort(Comparator.comparingDouble(node -> Math.atan2(node.getY() + node.getHeight() / 2 - rootY,
+                node.getX() + node.getWidth() / 2 - rootX)));
+        return nodes;
+    }
+
     @Override
     public void process(final ElkNode graph, final IElkProgressMonitor progressMonitor) {
         progressMonitor.begin("Remove overlaps", 1);
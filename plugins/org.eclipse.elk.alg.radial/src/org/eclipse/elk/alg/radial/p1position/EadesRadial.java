@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017 Kiel University and others.
+ * Copyright (c) 2017, 2024 Kiel University and others.
  * 
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License 2.0 which is available at
@@ -9,7 +9,12 @@
  *******************************************************************************/
 package org.eclipse.elk.alg.radial.p1position;
 
+import java.util.ArrayList;
 import java.util.List;
+// elkjs-exclude-start
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+// elkjs-exclude-end
 
 import org.eclipse.elk.alg.radial.InternalProperties;
 import org.eclipse.elk.alg.radial.RadialLayoutPhases;
@@ -18,16 +23,30 @@ import org.eclipse.elk.alg.radial.intermediate.optimization.IEvaluation;
 import org.eclipse.elk.alg.radial.options.RadialOptions;
 import org.eclipse.elk.alg.radial.p1position.wedge.IAnnulusWedgeCriteria;
 import org.eclipse.elk.alg.radial.sorting.IRadialSorter;
+import org.eclipse.elk.alg.radial.sorting.PolarCoordinateSorter;
 import org.eclipse.elk.core.alg.ILayoutPhase;
 import org.eclipse.elk.core.alg.LayoutProcessorConfiguration;
 import org.eclipse.elk.core.util.IElkProgressMonitor;
 import org.eclipse.elk.graph.ElkNode;
+// elkjs-exclude-start
+import org.eclipse.emf.ecore.util.EcoreUtil;
+// elkjs-exclude-end
 
 /**
  * The initial radial layout is based on the algorithm of Peter Eades published in "Drawing free trees.", published by
  * International Institute for Advanced Study of Social Information Science, Fujitsu Limited in 1991. The radial
  * layouter takes a tree and places the nodes in radial order around the root. The nodes of the same tree level are
  * placed on the same radius. *
+ * 
+ * <p>
+ * If an {@link RadialOptions#OPTIMIZATION_CRITERIA optimization criteria} is set, the layout is translated by the
+ * degree that is evaluated best. The degrees are searched coarse to fine: first every
+ * {@link RadialOptions#OPTIMIZATION_SEARCH_STEP search step}th degree is evaluated, then the degrees around those
+ * translations that are within the {@link RadialOptions#OPTIMIZATION_SEARCH_TOLERANCE search tolerance} of the best
+ * one. Only the exhaustive search with a search step of 1 is guaranteed to find the best translation. Unless the
+ * nodes are sorted by polar coordinates, the placement of the nodes does not depend on the translation and is thus
+ * computed only once. The translations can then also be evaluated concurrently on copies of the graph.
+ * </p>
  */
 public class EadesRadial implements ILayoutPhase<RadialLayoutPhases, ElkNode> {
 
@@ -38,6 +57,8 @@ public class EadesRadial implements ILayoutPhase<RadialLayoutPhases, ElkNode> {
     private IAnnulusWedgeCriteria annulusWedgeCriteria;
     private IEvaluation optimizer;
     private ElkNode root;
+    /** The placement of the nodes without any translation, or {@code null} if it is not being recorded. */
+    private List<Placement> placements;
 
     @Override
     public void process(final ElkNode graph, final IElkProgressMonitor progressMonitor) {
@@ -53,30 +74,154 @@ public class EadesRadial implements ILayoutPhase<RadialLayoutPhases, ElkNode> {
     }
 
     /**
-     * Search for the best layout translation by looking at each degree.
+     * Search for the best layout translation by looking at the degrees.
      * 
-     * @param root
-     *            The root node of the graph
+     * @param graph
+     *            The graph to be laid out
      */
     private void translate(final ElkNode graph) {
         double optimalOffset = 0;
         double optimalValue = Double.MAX_VALUE;
 
         if (optimizer != null) {
+            int step = graph.getProperty(RadialOptions.OPTIMIZATION_SEARCH_STEP);
+            double tolerance = graph.getProperty(RadialOptions.OPTIMIZATION_SEARCH_TOLERANCE);
+            int parallelism = graph.getProperty(RadialOptions.PARALLELISM);
+
+            // The polar coordinate sorter orders the nodes by their current positions, so the placement depends on
+            // the previously evaluated translation and has to be recomputed for each degree
+            if (!(sorter instanceof PolarCoordinateSorter)) {
+                placements = new ArrayList<>();
+                positionNodes(root, 0, 0, 2 * Math.PI, 0);
+            }
+
+            double[] values = new double[CIRCLE_DEGREES];
+            boolean[] evaluated = new boolean[CIRCLE_DEGREES];
+            List<Integer> degrees = new ArrayList<>();
+            for (int i = 0; i < CIRCLE_DEGREES; i += step) {
+                degrees.add(i);
+            }
+            evaluate(graph, degrees, values, evaluated, parallelism);
+
+            if (step > 1) {
+                // refine around each coarse translation that is close enough to the best one; the optimum may still
+                // lie next to a coarse translation outside the tolerance, so the result is not guaranteed to be optimal
+                double bestValue = Double.MAX_VALUE;
+                for (int i : degrees) {
+                    bestValue = Math.min(bestValue, values[i]);
+                }
+                double threshold = bestValue + tolerance * Math.max(Math.abs(bestValue), 1);
+                boolean[] selected = new boolean[CIRCLE_DEGREES];
+                for (int i : degrees) {
+                    if (values[i] <= threshold) {
+                        for (int j = i - step + 1; j < i + step; j++) {
+                            selected[(j + CIRCLE_DEGREES) % CIRCLE_DEGREES] = true;
+                        }
+                    }
+                }
+                List<Integer> refinedDegrees = new ArrayList<>();
+                for (int i = 0; i < CIRCLE_DEGREES; i++) {
+                    if (selected[i] && !evaluated[i]) {
+                        refinedDegrees.add(i);
+                    }
+                }
+                evaluate(graph, refinedDegrees, values, evaluated, parallelism);
+            }
+
             for (int i = 0; i < CIRCLE_DEGREES; i++) {
-                double offset = i * DEGREE_TO_RAD;
-                positionNodes(root, 0, 0, 2 * Math.PI, offset);
-                double translatedValue = optimizer.evaluate(root);
                 // Take the first occurence of the minimum
-                if (translatedValue < optimalValue) {
-                    optimalOffset = offset;
-                    optimalValue = translatedValue;
+                if (evaluated[i] && values[i] < optimalValue) {
+                    optimalOffset = i * DEGREE_TO_RAD;
+                    optimalValue = values[i];
                 }
             }
+            placements = null;
         }
         positionNodes(root, 0, 0, 2 * Math.PI, optimalOffset);
     }
 
+    /**
+     * Evaluates the translations by the given degrees.
+     * 
+     * @param graph
+     *            The graph to be laid out
+     * @param degrees
+     *            The degrees to evaluate in ascending order
+     * @param values
+     *            The array to store the value of each degree in
+     * @param evaluated
+     *            The array to mark each evaluated degree in
+     * @param parallelism
+     *            The maximum number of threads to use
+     */
+    private void evaluate(final ElkNode graph, final List<Integer> degrees, final double[] values,
+            final boolean[] evaluated, final int parallelism) {
+
+        for (int i : degrees) {
+            evaluated[i] = true;
+        }
+
+        // elkjs-exclude-start
+        int threads = Math.min(parallelism, degrees.size());
+        if (placements != null && threads > 1) {
+            AtomicInteger nextDegree = new AtomicInteger();
+            List<ForkJoinTask<?>> tasks = new ArrayList<>(threads);
+            for (int t = 0; t < threads; t++) {
+                tasks.add(ForkJoinTask.adapt(() -> {
+                    // each thread translates and evaluates its own copy of the graph
+                    EcoreUtil.Copier copier = new EcoreUtil.Copier();
+                    copier.copy(graph);
+                    copier.copyReferences();
+                    List<Placement> copiedPlacements = new ArrayList<>(placements.size());
+                    for (Placement placement : placements) {
+                        copiedPlacements.add(new Placement((ElkNode) copier.get(placement.node), placement.radius,
+                                placement.alpha));
+                    }
+                    ElkNode copiedRoot = (ElkNode) copier.get(root);
+                    IEvaluation copiedOptimizer = graph.getProperty(RadialOptions.OPTIMIZATION_CRITERIA).create();
+
+                    int index = nextDegree.getAndIncrement();
+                    while (index < degrees.size()) {
+                        int degree = degrees.get(index);
+                        translatePlacements(copiedPlacements, degree * DEGREE_TO_RAD);
+                        values[degree] = copiedOptimizer.evaluate(copiedRoot);
+                        index = nextDegree.getAndIncrement();
+                    }
+                }));
+            }
+            ForkJoinTask.invokeAll(tasks);
+            return;
+        }
+        // elkjs-exclude-end
+
+        for (int i : degrees) {
+            double offset = i * DEGREE_TO_RAD;
+            if (placements != null) {
+                translatePlacements(placements, offset);
+            } else {
+                positionNodes(root, 0, 0, 2 * Math.PI, offset);
+            }
+            values[i] = optimizer.evaluate(root);
+        }
+    }
+
+    /**
+     * Moves the nodes to the recorded placement translated by the given offset. This yields the same positions as
+     * {@link #positionNodes(ElkNode, double, double, double, double)} with that offset.
+     * 
+     * @param nodePlacements
+     *            The recorded placements
+     * @param offset
+     *            The translation in radians
+     */
+    private static void translatePlacements(final List<Placement> nodePlacements, final double offset) {
+        for (Placement placement : nodePlacements) {
+            double alphaPoint = placement.alpha + offset;
+            RadialUtil.centerNodesOnRadi(placement.node, placement.radius * Math.cos(alphaPoint),
+                    placement.radius * Math.sin(alphaPoint));
+        }
+    }
+
     /**
      * Place a node in the center of a wedge and calculate the wedge for the next child.
      * 
@@ -91,6 +236,9 @@ public class EadesRadial implements ILayoutPhase<RadialLayoutPhases, ElkNode> {
         double radOffest = optimalOffset;
 
         double alphaPoint = (minAlpha + maxAlpha) / 2 + radOffest;
+        if (placements != null) {
+            placements.add(new Placement(node, currentRadius, (minAlpha + maxAlpha) / 2));
+        }
 
         // x=r*sinθ, y=r*cosθ
         double xPos = currentRadius * Math.cos(alphaPoint);
@@ -129,4 +277,19 @@ public class EadesRadial implements ILayoutPhase<RadialLayoutPhases, ElkNode> {
         return null;
     }
 
-}
\ No newline at end of file
+    /**
+     * The radius and the untranslated angle a node is placed at.
+     */
+    private static final class Placement {
+        private final ElkNode node;
+        private final double radius;
+        private final double alpha;
+
+        Placement(final ElkNode node, final double radius, final double alpha) {
+            this.node = node;
+            this.radius = radius;
+            this.alpha = alpha;
+        }
+    }
+
+}
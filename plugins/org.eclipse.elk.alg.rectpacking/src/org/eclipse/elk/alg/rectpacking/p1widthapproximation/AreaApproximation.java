@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2018, 2020 Kiel University and others.
+ * Copyright (c) 2018, 2024 Kiel University and others.
  * 
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License 2.0 which is available at
@@ -11,6 +11,9 @@ package org.eclipse.elk.alg.rectpacking.p1widthapproximation;
 
 import java.util.ArrayList;
 import java.util.List;
+// elkjs-exclude-start
+import java.util.concurrent.ForkJoinTask;
+// elkjs-exclude-end
 
 import org.eclipse.elk.alg.rectpacking.options.OptimizationGoal;
 import org.eclipse.elk.alg.rectpacking.util.DrawingData;
@@ -22,8 +25,26 @@ import com.google.common.collect.Lists;
 
 /**
  * Class that handles the first iteration of the algorithm, producing an approximated bounding box for the packing.
+ * 
+ * <p>
+ * The candidate drawings are reused for every rectangle to place. The borders of the placed rectangles are kept in
+ * arrays since searching them for the neighbors of the rectangle to place is the only part of a placement whose effort
+ * grows with the number of rectangles. With a parallelism greater than one and enough placed rectangles, that search is
+ * split between several threads. The result does not depend on the number of threads.
+ * </p>
  */
 public class AreaApproximation {
+    //////////////////////////////////////////////////////////////////
+    // Constants.
+    /** The placement options a candidate drawing is calculated for, in the order the candidates are filtered in. */
+    private static final DrawingDataDescriptor[] CANDIDATE_OPTIONS = {
+            DrawingDataDescriptor.CANDIDATE_POSITION_LAST_PLACED_RIGHT,
+            DrawingDataDescriptor.CANDIDATE_POSITION_LAST_PLACED_BELOW,
+            DrawingDataDescriptor.CANDIDATE_POSITION_WHOLE_DRAWING_RIGHT,
+            DrawingDataDescriptor.CANDIDATE_POSITION_WHOLE_DRAWING_BELOW };
+    /** The minimum number of placed rectangles each thread searches for neighbors of the rectangle to place. */
+    private static final int MIN_RECTANGLES_PER_THREAD = 4096;
+
     //////////////////////////////////////////////////////////////////
     // Fields.
     /** Desired aspect ratio. */
@@ -32,6 +53,20 @@ public class AreaApproximation {
     private OptimizationGoal goal;
     /** Shift when placing behind or below the last placed rectangle. */
     private boolean lpShift;
+    /** The maximum number of threads used to search the neighbors of the rectangle to place. */
+    private int parallelism;
+    /** The filters in the order they are applied according to the optimization goal. */
+    private List<BestCandidateFilter> filters;
+    /** Right borders of the placed rectangles in the order they were placed. */
+    private double[] rightBorders;
+    /** Bottom borders of the placed rectangles in the order they were placed. */
+    private double[] bottomBorders;
+    /** The number of placed rectangles. */
+    private int placedCount;
+    /** The index of the closest upper neighbor of the rectangle to be placed right of the last placed one or -1. */
+    private int closestUpperNeighbor;
+    /** The index of the closest left neighbor of the rectangle to be placed below the last placed one or -1. */
+    private int closestLeftNeighbor;
 
     //////////////////////////////////////////////////////////////////
     // Constructors.
@@ -43,9 +78,37 @@ public class AreaApproximation {
      * @param lpShift Whether a shift should happen after placing near the last placed node.
      */
     public AreaApproximation(final double aspectRatio, final OptimizationGoal goal, final boolean lpShift) {
+        this(aspectRatio, goal, lpShift, 1);
+    }
+
+    /**
+     * Constructs an object that the first iteration can be executed on.
+     * 
+     * @param aspectRatio The desired aspect ratio.
+     * @param goal The optimization goal.
+     * @param lpShift Whether a shift should happen after placing near the last placed node.
+     * @param parallelism The maximum number of threads used to search the neighbors of the rectangle to place.
+     */
+    public AreaApproximation(final double aspectRatio, final OptimizationGoal goal, final boolean lpShift,
+            final int parallelism) {
         this.aspectRatio = aspectRatio;
         this.goal = goal;
         this.lpShift = lpShift;
+        this.parallelism = parallelism;
+
+        switch (goal) {
+        // Sets the order of the filters according to the given goal.
+        case MAX_SCALE_DRIVEN:
+            filters = Lists.newArrayList(new ScaleMeasureFilter(), new AreaFilter(), new AspectRatioFilter());
+            break;
+        case ASPECT_RATIO_DRIVEN:
+            filters = Lists.newArrayList(new AspectRatioFilter(), new AreaFilter(), new ScaleMeasureFilter());
+            break;
+        case AREA_DRIVEN:
+            filters = Lists.newArrayList(new AreaFilter(), new ScaleMeasureFilter(), new AspectRatioFilter());
+            break;
+        default:
+        }
     }
 
 
@@ -61,41 +124,59 @@ public class AreaApproximation {
      */
     public DrawingData approxBoundingBox(final List<ElkNode> rectangles, final double nodeNodeSpacing,
             final ElkPadding padding) {
+        rightBorders = new double[rectangles.size()];
+        bottomBorders = new double[rectangles.size()];
+        placedCount = 0;
+
         // Place first box.
         ElkNode firstRect = rectangles.get(0);
         firstRect.setX(0);
         firstRect.setY(0);
-        List<ElkNode> placedRects = new ArrayList<>();
-        placedRects.add(firstRect);
+        addPlacedRect(firstRect);
         ElkNode lastPlaced = firstRect;
         DrawingData currentValues = new DrawingData(this.aspectRatio, firstRect.getWidth(), firstRect.getHeight(),
                 DrawingDataDescriptor.WHOLE_DRAWING);
 
+        // The candidates are overwritten for each rectangle to place.
+        DrawingData[] options = new DrawingData[CANDIDATE_OPTIONS.length];
+        for (int i = 0; i < options.length; i++) {
+            options[i] = new DrawingData(this.aspectRatio, 0, 0, CANDIDATE_OPTIONS[i]);
+        }
+        List<DrawingData> candidates = new ArrayList<>(options.length);
+
         // Place the other boxes.
         for (int rectangleIdx = 1; rectangleIdx < rectangles.size(); rectangleIdx++) {
             ElkNode toPlace = rectangles.get(rectangleIdx);
 
-            // Determine drawing metrics for different candidate positions/placement options
-            DrawingData opt1 = calcValuesForOpt(DrawingDataDescriptor.CANDIDATE_POSITION_LAST_PLACED_RIGHT, toPlace,
-                    lastPlaced, currentValues, placedRects, nodeNodeSpacing);
-
-            DrawingData opt2 = calcValuesForOpt(DrawingDataDescriptor.CANDIDATE_POSITION_LAST_PLACED_BELOW, toPlace,
-                    lastPlaced, currentValues, placedRects, nodeNodeSpacing);
-
-            DrawingData opt3 = calcValuesForOpt(DrawingDataDescriptor.CANDIDATE_POSITION_WHOLE_DRAWING_RIGHT, toPlace,
-                    lastPlaced, currentValues, placedRects, nodeNodeSpacing);
+            // Determine the coordinates of the rectangle when placed right of or below the last placed rectangle.
+            double lprX = lastPlaced.getX() + lastPlaced.getWidth() + nodeNodeSpacing;
+            double lpbY = lastPlaced.getY() + lastPlaced.getHeight() + nodeNodeSpacing;
+            double lprY;
+            double lpbX;
+            if (lpShift) {
+                findClosestNeighbors(lprX, lpbY, lastPlaced, nodeNodeSpacing);
+                lprY = closestUpperNeighbor < 0 ? 0 : bottomBorders[closestUpperNeighbor] + nodeNodeSpacing;
+                lpbX = closestLeftNeighbor < 0 ? 0 : rightBorders[closestLeftNeighbor] + nodeNodeSpacing;
+            } else {
+                lprY = lastPlaced.getY();
+                lpbX = lastPlaced.getX();
+            }
 
-            DrawingData opt4 = calcValuesForOpt(DrawingDataDescriptor.CANDIDATE_POSITION_WHOLE_DRAWING_BELOW, toPlace,
-                    lastPlaced, currentValues, placedRects, nodeNodeSpacing);
+            // Determine drawing metrics for different candidate positions/placement options
+            candidates.clear();
+            for (DrawingData option : options) {
+                calcValuesForOpt(option, toPlace, currentValues, lprX, lprY, lpbX, lpbY, nodeNodeSpacing);
+                candidates.add(option);
+            }
 
-            DrawingData bestOpt = findBestCandidate(opt1, opt2, opt3, opt4, toPlace, lastPlaced, padding);
+            DrawingData bestOpt = findBestCandidate(candidates, toPlace, lastPlaced, padding);
 
             toPlace.setX(bestOpt.getNextXcoordinate());
             toPlace.setY(bestOpt.getNextYcoordinate());
-            bestOpt.setPlacementOption(DrawingDataDescriptor.WHOLE_DRAWING);
-            currentValues = bestOpt;
+            currentValues.setValues(bestOpt.getDrawingWidth(), bestOpt.getDrawingHeight(),
+                    DrawingDataDescriptor.WHOLE_DRAWING, bestOpt.getNextXcoordinate(), bestOpt.getNextYcoordinate());
             lastPlaced = toPlace;
-            placedRects.add(toPlace);
+            addPlacedRect(toPlace);
         }
 
         return currentValues;
@@ -104,50 +185,97 @@ public class AreaApproximation {
     //////////////////////////////////////////////////////////////////
     // Helper methods.
 
+    /**
+     * Records the borders of a rectangle that was placed.
+     * 
+     * @param placedRect The rectangle that was placed.
+     */
+    private void addPlacedRect(final ElkNode placedRect) {
+        rightBorders[placedCount] = placedRect.getX() + placedRect.getWidth();
+        bottomBorders[placedCount] = placedRect.getY() + placedRect.getHeight();
+        placedCount++;
+    }
+
+    /**
+     * Searches the placed rectangles for the closest upper neighbor of the rectangle to be placed right of the last
+     * placed rectangle and the closest left neighbor of the rectangle to be placed below it.
+     * 
+     * @param lprX The x-coordinate of the rectangle to be placed right of lastPlaced.
+     * @param lpbY The y-coordinate of the rectangle to be placed below lastPlaced.
+     * @param lastPlaced The rectangle that was placed last.
+     * @param nodeNodeSpacing The spacing between two nodes.
+     */
+    private void findClosestNeighbors(final double lprX, final double lpbY, final ElkNode lastPlaced,
+            final double nodeNodeSpacing) {
+        double lastPlacedX = lastPlaced.getX();
+        double lastPlacedY = lastPlaced.getY();
+
+        // elkjs-exclude-start
+        int threads = Math.min(parallelism, placedCount / MIN_RECTANGLES_PER_THREAD);
+        if (threads > 1) {
+            // each thread searches a range of the placed rectangles
+            int[] upperNeighbors = new int[threads];
+            int[] leftNeighbors = new int[threads];
+            List<ForkJoinTask<?>> tasks = new ArrayList<>(threads);
+            for (int t = 0; t < threads; t++) {
+                int range = t;
+                int from = (int) ((long) placedCount * t / threads);
+                int to = (int) ((long) placedCount * (t + 1) / threads);
+                tasks.add(ForkJoinTask.adapt(() -> {
+                    upperNeighbors[range] = Calculations.closestUpperNeighbor(lprX, rightBorders, bottomBorders,
+                            from, to, lastPlacedY, nodeNodeSpacing);
+                    leftNeighbors[range] = Calculations.closestLeftNeighbor(lpbY, rightBorders, bottomBorders,
+                            from, to, lastPlacedX, nodeNodeSpacing);
+                }));
+            }
+            ForkJoinTask.invokeAll(tasks);
+
+            // combine the ranges in order, which yields the same neighbors as searching all rectangles at once
+            closestUpperNeighbor = -1;
+            closestLeftNeighbor = -1;
+            for (int t = 0; t < threads; t++) {
+                closestUpperNeighbor = Calculations.closerNeighbor(closestUpperNeighbor, upperNeighbors[t],
+                        bottomBorders, lastPlacedY);
+                closestLeftNeighbor = Calculations.closerNeighbor(closestLeftNeighbor, leftNeighbors[t],
+                        rightBorders, lastPlacedX);
+            }
+            return;
+        }
+        // elkjs-exclude-end
+
+        closestUpperNeighbor = Calculations.closestUpperNeighbor(lprX, rightBorders, bottomBorders, 0, placedCount,
+                lastPlacedY, nodeNodeSpacing);
+        closestLeftNeighbor = Calculations.closestLeftNeighbor(lpbY, rightBorders, bottomBorders, 0, placedCount,
+                lastPlacedX, nodeNodeSpacing);
+    }
+
     /**
      * Determines according to the selected optimization goal, which option out of the given ones is the best.
      * 
-     * @param opt1 The option lastPlaced right.
-     * @param opt2 The option lastPlaced bottom.
-     * @param opt3 The option complete drawing right.
-     * @param opt4 The option complete drawing below.
+     * @param candidates The options lastPlaced right, lastPlaced bottom, complete drawing right, and complete drawing
+     *            below.
      * @param toPlace The rectangle to be placed on drawing area.
      * @param lastPlaced The rectangle that was placed last on the drawing area.
      * @return Returns the best option out of the given ones or null, if there is no best option found.
      */
-    private DrawingData findBestCandidate(final DrawingData opt1, final DrawingData opt2, final DrawingData opt3,
-            final DrawingData opt4, final ElkNode toPlace, final ElkNode lastPlaced, final ElkPadding padding) {
-        List<DrawingData> candidates = Lists.newArrayList(opt1, opt2, opt3, opt4);
-        List<BestCandidateFilter> filters = null;
-
-        switch (goal) {
-        // Sets the order of the filters according to the given goal.
-        case MAX_SCALE_DRIVEN:
-            filters = Lists.newArrayList(new ScaleMeasureFilter(), new AreaFilter(), new AspectRatioFilter());
-            break;
-        case ASPECT_RATIO_DRIVEN:
-            filters = Lists.newArrayList(new AspectRatioFilter(), new AreaFilter(), new ScaleMeasureFilter());
-            break;
-        case AREA_DRIVEN:
-            filters = Lists.newArrayList(new AreaFilter(), new ScaleMeasureFilter(), new AspectRatioFilter());
-            break;
-        default:
-        }
+    private DrawingData findBestCandidate(final List<DrawingData> candidates, final ElkNode toPlace,
+            final ElkNode lastPlaced, final ElkPadding padding) {
+        List<DrawingData> remainingCandidates = candidates;
 
         // Filter the candidates according to the order of the filters using the strategy pattern.
         for (BestCandidateFilter filter : filters) {
-            if (candidates.size() > 1) {
-                candidates = filter.filterList(candidates, aspectRatio, padding);
+            if (remainingCandidates.size() > 1) {
+                remainingCandidates = filter.filterList(remainingCandidates, aspectRatio, padding);
             }
         }
 
         // Only one candidate remains.
-        if (candidates.size() == 1) {
-            return candidates.get(candidates.size() - 1);
+        if (remainingCandidates.size() == 1) {
+            return remainingCandidates.get(remainingCandidates.size() - 1);
         }
         // Multiple options have the same value for every benchmark. These special cases are caught in the following.
-        if (candidates.size() == 2) {
-            return checkSpecialCases(candidates.get(0), candidates.get(1), lastPlaced, toPlace);
+        if (remainingCandidates.size() == 2) {
+            return checkSpecialCases(remainingCandidates.get(0), remainingCandidates.get(1), lastPlaced, toPlace);
         }
         return null;
     }
@@ -233,17 +361,17 @@ public class AreaApproximation {
     /**
      * Calculates drawing data for the given parameters including x and y coordinate for the rectangle toPlace.
      * 
-     * @param option The placement option the values are calculated for.
+     * @param candidate The drawing to store the values in. Its placement option determines where toPlace is placed.
      * @param toPlace The rectangle to be placed.
-     * @param lastPlaced The rectangle that was placed last.
      * @param drawing The current drawing containing width and height, besides others.
-     * @param placedRects The already placed rectangles.
+     * @param lprX The x-coordinate of the rectangle to be placed right of the last placed rectangle.
+     * @param lprY The y-coordinate of the rectangle to be placed right of the last placed rectangle.
+     * @param lpbX The x-coordinate of the rectangle to be placed below the last placed rectangle.
+     * @param lpbY The y-coordinate of the rectangle to be placed below the last placed rectangle.
      * @param nodeNodeSpacing The spacing between two nodes.
-     * @return An {@link DrawingData} object containing the values after the rectangle would be placed.
      */
-    private DrawingData calcValuesForOpt(final DrawingDataDescriptor option, final ElkNode toPlace,
-            final ElkNode lastPlaced, final DrawingData drawing, final List<ElkNode> placedRects,
-            final double nodeNodeSpacing) {
+    private void calcValuesForOpt(final DrawingData candidate, final ElkNode toPlace, final DrawingData drawing,
+            final double lprX, final double lprY, final double lpbX, final double lpbY, final double nodeNodeSpacing) {
 
         double x = 0;
         double y = 0;
@@ -253,26 +381,18 @@ public class AreaApproximation {
         double widthToPlace = toPlace.getWidth();
 
         double width, height;
-        switch (option) {
+        switch (candidate.getPlacementOption()) {
         case CANDIDATE_POSITION_LAST_PLACED_RIGHT:
-            x = lastPlaced.getX() + lastPlaced.getWidth() + nodeNodeSpacing;
-            if (lpShift) {
-                y = Calculations.calculateYforLPR(x, placedRects, lastPlaced, nodeNodeSpacing);
-            } else {
-                y = lastPlaced.getY();
-            }
+            x = lprX;
+            y = lprY;
 
             width = Calculations.getWidthLPRorLPB(drawingWidth, x, widthToPlace);
             height = Calculations.getHeightLPRorLPB(drawingHeight, y, heightToPlace);
             break;
             
         case CANDIDATE_POSITION_LAST_PLACED_BELOW:
-            y = lastPlaced.getY() + lastPlaced.getHeight() + nodeNodeSpacing;
-            if (lpShift) {
-                x = Calculations.calculateXforLPB(y, placedRects, lastPlaced, nodeNodeSpacing);
-            } else {
-                x = lastPlaced.getX();
-            }
+            x = lpbX;
+            y = lpbY;
 
             width = Calculations.getWidthLPRorLPB(drawingWidth, x, widthToPlace);
             height = Calculations.getHeightLPRorLPB(drawingHeight, y, heightToPlace);
@@ -297,8 +417,6 @@ public class AreaApproximation {
             throw new IllegalArgumentException("IllegalPlacementOption.");
         }
 
-        // LPR and LPB have more values to be set in newDrawing.
-        DrawingData newDrawing = new DrawingData(aspectRatio, width, height, option, x, y);
-        return newDrawing;
+        candidate.setValues(width, height, candidate.getPlacementOption(), x, y);
     }
 }
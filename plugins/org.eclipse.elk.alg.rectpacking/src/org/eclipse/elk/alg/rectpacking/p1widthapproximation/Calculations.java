@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2018, 2020 Kiel University and others.
+ * Copyright (c) 2018, 2024 Kiel University and others.
  * 
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License 2.0 which is available at
@@ -9,8 +9,6 @@
  *******************************************************************************/
 package org.eclipse.elk.alg.rectpacking.p1widthapproximation;
 
-import java.util.List;
-
 import org.eclipse.elk.alg.rectpacking.util.DrawingData;
 import org.eclipse.elk.alg.rectpacking.util.DrawingDataDescriptor;
 import org.eclipse.elk.graph.ElkNode;
@@ -52,73 +50,77 @@ public final class Calculations {
     }
 
     /**
-     * Calculates the y-coordinate after the shift of the rectangle to be placed right of lastPlaced.
+     * Finds the closest upper neighbor of a rectangle to be placed right of lastPlaced among the placed rectangles
+     * with an index in the given range. The y-coordinate of the rectangle to be placed after the shift is the bottom
+     * border of that neighbor plus the node node spacing.
      * 
      * @param x The x-coordinate of the rectangle to be placed.
-     * @param placedRects A list of already placed rectangles.
-     * @param lastPlaced The rectangle that was placed most recently.
-     * @return The y-coordinate after the shift of the rectangle to be placed right of lastPlaced
+     * @param rightBorders The right borders of the placed rectangles.
+     * @param bottomBorders The bottom borders of the placed rectangles.
+     * @param from The index of the first placed rectangle to consider.
+     * @param to The index after the last placed rectangle to consider.
+     * @param lastPlacedY The y-coordinate of the rectangle that was placed most recently.
+     * @param nodeNodeSpacing The spacing between two nodes.
+     * @return The index of the closest upper neighbor or -1, if none of the rectangles is a neighbor.
      */
-    protected static double calculateYforLPR(final double x, final List<ElkNode> placedRects,
-            final ElkNode lastPlaced, final double nodeNodeSpacing) {
-        ElkNode closestUpperNeighbor = null;
-        double closestNeighborBottomBorder = 0;
+    protected static int closestUpperNeighbor(final double x, final double[] rightBorders,
+            final double[] bottomBorders, final int from, final int to, final double lastPlacedY,
+            final double nodeNodeSpacing) {
+        int closestUpperNeighbor = -1;
         // find neighbors that lay between the upper and lower border of the rectangle to be placed.
-        for (ElkNode placedRect : placedRects) {
-            double placedRectBottomBorder = placedRect.getY() + placedRect.getHeight();
-            if (verticalOrderConstraint(placedRect, x, nodeNodeSpacing)) {
-                // is closest neighbor?
-                if (closestUpperNeighbor == null) {
-                    closestUpperNeighbor = placedRect;
-                } else if (lastPlaced.getY() - placedRectBottomBorder < lastPlaced.getY() - closestNeighborBottomBorder) {
-                    closestUpperNeighbor = placedRect;
-                }
-                closestNeighborBottomBorder = closestUpperNeighbor.getY() + closestUpperNeighbor.getHeight();
+        for (int i = from; i < to; i++) {
+            if (verticalOrderConstraint(rightBorders[i], x, nodeNodeSpacing)) {
+                closestUpperNeighbor = closerNeighbor(closestUpperNeighbor, i, bottomBorders, lastPlacedY);
             }
         }
-
-        // no neighbor yet
-        if (closestUpperNeighbor == null) {
-            return 0;
-        } else {
-            // else, choose closest neighbors bottom border
-            return closestNeighborBottomBorder + nodeNodeSpacing;
-        }
+        return closestUpperNeighbor;
     }
 
     /**
-     * Calculates the x-coordinate after shift of the rectangle to be placed below the last placed rectangle.
+     * Finds the closest left neighbor of a rectangle to be placed below lastPlaced among the placed rectangles with an
+     * index in the given range. The x-coordinate of the rectangle to be placed after the shift is the right border of
+     * that neighbor plus the node node spacing.
      * 
-     * @param placedRects A list of already placed rectangles.
      * @param y The y-coordinate of the rectangle to be placed.
-     * @param lastPlaced The most recently placed rectangle.
-     * @return The x-coordinate after shift of the rectangle to be placed below lastPlaced.
+     * @param rightBorders The right borders of the placed rectangles.
+     * @param bottomBorders The bottom borders of the placed rectangles.
+     * @param from The index of the first placed rectangle to consider.
+     * @param to The index after the last placed rectangle to consider.
+     * @param lastPlacedX The x-coordinate of the rectangle that was placed most recently.
+     * @param nodeNodeSpacing The spacing between two nodes.
+     * @return The index of the closest left neighbor or -1, if none of the rectangles is a neighbor.
      */
-    protected static double calculateXforLPB(final double y, final List<ElkNode> placedRects,
-            final ElkNode lastPlaced, final double nodeNodeSpacing) {
-        ElkNode closestLeftNeighbour = null;
-        double closestNeighborRightBorder = 0;
+    protected static int closestLeftNeighbor(final double y, final double[] rightBorders,
+            final double[] bottomBorders, final int from, final int to, final double lastPlacedX,
+            final double nodeNodeSpacing) {
+        int closestLeftNeighbor = -1;
         // Find neighbors that lay in between the height of the rectangle to be placed.
-        for (ElkNode placedRect : placedRects) {
-            double placedRectRightBorder = placedRect.getX() + placedRect.getWidth();
-            if (horizontalOrderConstraint(placedRect, y, nodeNodeSpacing)) {
-                // Is closest neighbor?
-                if (closestLeftNeighbour == null) {
-                    closestLeftNeighbour = placedRect;
-                } else if (lastPlaced.getX() - placedRectRightBorder < lastPlaced.getX() - closestNeighborRightBorder) {
-                    closestLeftNeighbour = placedRect;
-                }
-                closestNeighborRightBorder = closestLeftNeighbour.getX() + closestLeftNeighbour.getWidth();
+        for (int i = from; i < to; i++) {
+            if (horizontalOrderConstraint(bottomBorders[i], y, nodeNodeSpacing)) {
+                closestLeftNeighbor = closerNeighbor(closestLeftNeighbor, i, rightBorders, lastPlacedX);
             }
         }
+        return closestLeftNeighbor;
+    }
 
-        // No neighbor yet.
-        if (closestLeftNeighbour == null) {
-            return 0;
-        } else {
-            // Else, choose closest neighbors right border
-            return closestNeighborRightBorder + nodeNodeSpacing;
+    /**
+     * Determines which of two neighbors is closer to the last placed rectangle. A neighbor found in a range of placed
+     * rectangles is only closer than a neighbor found in a preceding range if its distance is strictly smaller, so
+     * ranges can be searched separately and their results combined in order.
+     * 
+     * @param closestNeighbor The index of the closest neighbor so far or -1, if there is none yet.
+     * @param neighbor The index of another neighbor or -1, if there is none.
+     * @param borders The borders of the placed rectangles facing the rectangle to be placed.
+     * @param lastPlacedCoordinate The coordinate of the last placed rectangle the distance is measured from.
+     * @return The index of the closer neighbor.
+     */
+    protected static int closerNeighbor(final int closestNeighbor, final int neighbor, final double[] borders,
+            final double lastPlacedCoordinate) {
+        if (closestNeighbor < 0 || neighbor >= 0
+                && lastPlacedCoordinate - borders[neighbor] < lastPlacedCoordinate - borders[closestNeighbor]) {
+            return neighbor;
         }
+        return closestNeighbor;
     }
 
     /**
@@ -167,23 +169,25 @@ public final class Calculations {
      * Checks whether the placedRect produces an vertical order constraint regarding the order. If toPlace is placed
      * left of placedRect, toPlace can at most be placed at the bottom border of placedRect.
      * 
-     * @param placedRect The already placed rectangle.
+     * @param placedRectRightBorder The right border of the already placed rectangle.
      * @param x The x-coordinate of the rectangle to be placed.
      * @return True, if the placedRect produces a constraint. False otherwise.
      */
-    private static boolean verticalOrderConstraint(final ElkNode placedRect, final double x, final double nodeNodeSpacing) {
-        return x < placedRect.getX() + placedRect.getWidth() + nodeNodeSpacing;
+    private static boolean verticalOrderConstraint(final double placedRectRightBorder, final double x,
+            final double nodeNodeSpacing) {
+        return x < placedRectRightBorder + nodeNodeSpacing;
     }
 
     /**
      * Checks whether the placedRect produces an horizontal order constraint regarding the order. If toPlace is placed
      * above of placedRect, toPlace can at most be placed at the right border of placedRect.
      * 
-     * @param placedRect The already placed rectangle.
+     * @param placedRectBottomBorder The bottom border of the already placed rectangle.
      * @param yCoordRectToPlace The y-coordinate of the rectangle to be placed.
      * @return True, if the placedRect produces a constraint. False otherwise.
      */
-    private static boolean horizontalOrderConstraint(final ElkNode placedRect, final double yCoordRectToPlace, final double nodeNodeSpacing) {
-        return yCoordRectToPlace < placedRect.getY() + placedRect.getHeight() + nodeNodeSpacing;
+    private static boolean horizontalOrderConstraint(final double placedRectBottomBorder,
+            final double yCoordRectToPlace, final double nodeNodeSpacing) {
+        return yCoordRectToPlace < placedRectBottomBorder + nodeNodeSpacing;
     }
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2022 Kiel University and others.
+ * Copyright (c) 2022, 2024 Kiel University and others.
  * 
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License 2.0 which is available at
@@ -50,6 +50,8 @@ public class GreedyWidthApproximator implements ILayoutPhase<RectPackingLayoutPh
         OptimizationGoal goal = graph.getProperty(RectPackingOptions.WIDTH_APPROXIMATION_OPTIMIZATION_GOAL);
         // Option for better width approximation.
         boolean lastPlaceShift = graph.getProperty(RectPackingOptions.WIDTH_APPROXIMATION_LAST_PLACE_SHIFT);
+        // The maximum number of threads used to search the placed rectangles.
+        int parallelism = graph.getProperty(RectPackingOptions.WIDTH_APPROXIMATION_PARALLELISM);
         //  The spacing between two nodes.
         double nodeNodeSpacing = graph.getProperty(RectPackingOptions.SPACING_NODE_NODE);
         
@@ -58,7 +60,7 @@ public class GreedyWidthApproximator implements ILayoutPhase<RectPackingLayoutPh
         DrawingData drawing;
         
         // Initial width approximation.
-        AreaApproximation firstIt = new AreaApproximation(aspectRatio, goal, lastPlaceShift);
+        AreaApproximation firstIt = new AreaApproximation(aspectRatio, goal, lastPlaceShift, parallelism);
         drawing = firstIt.approxBoundingBox(rectangles, nodeNodeSpacing, padding);
               
         graph.setProperty(InternalProperties.TARGET_WIDTH, drawing.getDrawingWidth());
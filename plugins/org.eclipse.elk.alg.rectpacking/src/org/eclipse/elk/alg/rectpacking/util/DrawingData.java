@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2018, 2020 Kiel University and others.
+ * Copyright (c) 2018, 2024 Kiel University and others.
  * 
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License 2.0 which is available at
@@ -87,6 +87,34 @@ public class DrawingData {
         calcAreaAspectRatioScaleMeasure();
     }
 
+    /**
+     * Overwrites all values of the drawing as if this object was newly created with the same desired aspect ratio.
+     * This allows to reuse the object for one drawing after another.
+     *
+     * @param newDrawingWidth
+     *            drawing width.
+     * @param newDrawingHeight
+     *            drawing height.
+     * @param newPlacementOption
+     *            placement option.
+     * @param nextXcoord
+     *            x-coordinate for rectangle to place.
+     * @param nextYcoord
+     *            y-coordinate for rectangle to place.
+     */
+    public void setValues(final double newDrawingWidth, final double newDrawingHeight,
+            final DrawingDataDescriptor newPlacementOption, final double nextXcoord, final double nextYcoord) {
+        this.drawingWidth = newDrawingWidth;
+        this.drawingHeight = newDrawingHeight;
+        this.placementOption = newPlacementOption;
+        this.nextXcoordinate = nextXcoord;
+        this.nextYcoordinate = nextYcoord;
+        this.area = 0;
+        this.aspectRatio = 0;
+        this.scaleMeasure = 0;
+        calcAreaAspectRatioScaleMeasure();
+    }
+
     //////////////////////////////////////////////////////////////////
     // Helper methods.
 
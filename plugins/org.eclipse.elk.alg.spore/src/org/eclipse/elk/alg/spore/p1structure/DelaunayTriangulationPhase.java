@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017 Kiel University and others.
+ * Copyright (c) 2017, 2024 Kiel University and others.
  * 
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License 2.0 which is available at
@@ -11,7 +11,7 @@ package org.eclipse.elk.alg.spore.p1structure;
 
 import java.util.List;
 
-import org.eclipse.elk.alg.common.BowyerWatsonTriangulation;
+import org.eclipse.elk.alg.common.DelaunayTriangulation;
 import org.eclipse.elk.alg.common.spore.InternalProperties;
 import org.eclipse.elk.alg.spore.SPOrEPhases;
 import org.eclipse.elk.alg.spore.graph.Graph;
@@ -46,9 +46,9 @@ public class DelaunayTriangulationPhase implements ILayoutPhase<SPOrEPhases, Gra
         }
         
         if (graph.tEdges == null) {
-            graph.tEdges = BowyerWatsonTriangulation.triangulate(vertices, debugOutput);
+            graph.tEdges = DelaunayTriangulation.triangulate(vertices, debugOutput);
         } else {
-            graph.tEdges.addAll(BowyerWatsonTriangulation.triangulate(vertices, debugOutput));
+            graph.tEdges.addAll(DelaunayTriangulation.triangulate(vertices, debugOutput));
         }
 
         progressMonitor.done();
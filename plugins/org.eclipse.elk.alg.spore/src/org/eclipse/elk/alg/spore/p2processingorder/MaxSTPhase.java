@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017 Kiel University and others.
+ * Copyright (c) 2017, 2024 Kiel University and others.
  * 
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License 2.0 which is available at
@@ -10,7 +10,7 @@
 package org.eclipse.elk.alg.spore.p2processingorder;
 
 import org.eclipse.elk.alg.common.ICostFunction;
-import org.eclipse.elk.alg.common.NaiveMinST;
+import org.eclipse.elk.alg.common.PrimMinST;
 import org.eclipse.elk.alg.common.Tree;
 import org.eclipse.elk.alg.common.spore.InternalProperties;
 import org.eclipse.elk.alg.spore.graph.Graph;
@@ -41,10 +41,10 @@ public class MaxSTPhase extends MinSTPhase {
         
         Tree<KVector> tree;
         if (graph.getProperty(InternalProperties.DEBUG_SVG)) {
-            tree = NaiveMinST.createSpanningTree(graph.tEdges, root, invertedCF, 
+            tree = PrimMinST.createSpanningTree(graph.tEdges, root, invertedCF, 
                     ElkUtil.debugFolderPath("spore") + "20minst");
         } else {
-            tree = NaiveMinST.createSpanningTree(graph.tEdges, root, invertedCF);
+            tree = PrimMinST.createSpanningTree(graph.tEdges, root, invertedCF);
         }
         
         // convert result to a Tree that can be used in the execution phase
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017 Kiel University and others.
+ * Copyright (c) 2017, 2024 Kiel University and others.
  * 
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License 2.0 which is available at
@@ -11,7 +11,7 @@ package org.eclipse.elk.alg.spore.p2processingorder;
 
 import java.util.Map;
 
-import org.eclipse.elk.alg.common.NaiveMinST;
+import org.eclipse.elk.alg.common.PrimMinST;
 import org.eclipse.elk.alg.common.Tree;
 import org.eclipse.elk.alg.common.spore.InternalProperties;
 import org.eclipse.elk.alg.common.spore.Node;
@@ -51,10 +51,10 @@ public class MinSTPhase implements ILayoutPhase<SPOrEPhases, Graph> {
         
         Tree<KVector> tTree;
         if (graph.getProperty(InternalProperties.DEBUG_SVG)) {
-            tTree = NaiveMinST.createSpanningTree(graph.tEdges, root, graph.costFunction, 
+            tTree = PrimMinST.createSpanningTree(graph.tEdges, root, graph.costFunction, 
                     ElkUtil.debugFolderPath("spore") + "20minst");
         } else {
-            tTree = NaiveMinST.createSpanningTree(graph.tEdges, root, graph.costFunction);
+            tTree = PrimMinST.createSpanningTree(graph.tEdges, root, graph.costFunction);
         }
         
         // convert result to a Tree that can be used in the execution phase
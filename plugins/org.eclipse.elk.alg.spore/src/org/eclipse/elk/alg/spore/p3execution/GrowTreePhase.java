@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017 Kiel University and others.
+ * Copyright (c) 2017, 2024 Kiel University and others.
  * 
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License 2.0 which is available at
@@ -76,7 +76,10 @@ public class GrowTreePhase implements ILayoutPhase<SPOrEPhases, Graph> {
                     c.node.originalVertex.clone().sub(r.node.originalVertex)
                     .scale(t)));
             
-            debugOut(r);
+            // drawing the whole tree for each child is quadratic, so only do it if it will actually be written
+            if (svg.debug) {
+                debugOut(r);
+            }
             
             growAt(c);
         }
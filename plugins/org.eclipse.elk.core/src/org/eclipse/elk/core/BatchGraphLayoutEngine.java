@@ -0,0 +1,190 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Kiel University and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.elk.core;
+
+// elkjs-exclude-start
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import org.eclipse.elk.core.data.LayoutAlgorithmData;
+import org.eclipse.elk.core.util.BasicProgressMonitor;
+import org.eclipse.elk.core.util.IElkProgressMonitor;
+import org.eclipse.elk.graph.ElkNode;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Lays out many independent graphs on a {@link ForkJoinPool}, which is meant for applications that have to lay out
+ * lots of small graphs, such as a layout server. Each graph is laid out by a {@link RecursiveGraphLayoutEngine} that
+ * uses the same pool to lay out independent subtrees of the graph's hierarchy, so idle workers steal work from large
+ * graphs once all other graphs are done. The number of graphs laid out at the same time is bounded by the pool's
+ * parallelism.
+ *
+ * <p>
+ * Layout algorithms are resolved for each graph separately since graphs may configure different algorithms. The
+ * layout providers, however, are shared between all graphs: each layout run fetches a provider from the
+ * {@link LayoutAlgorithmData#getInstancePool() instance pool} of the respective algorithm and releases it again
+ * afterwards, so a batch only creates as many providers of an algorithm as are used at the same time.
+ * </p>
+ *
+ * <p>
+ * Each graph reports to its own {@link BasicProgressMonitor} that measures the graph's execution time. Graphs are laid
+ * out independently of each other: if the layout of a graph fails, the failure is recorded in its {@link Result} and
+ * the remaining graphs are laid out nonetheless.
+ * </p>
+ */
+public class BatchGraphLayoutEngine {
+
+    /** the pool to lay out the graphs on. */
+    private final ForkJoinPool pool;
+    /** the engine used to lay out each graph. */
+    private final RecursiveGraphLayoutEngine engine;
+
+    /**
+     * Creates a batch layout engine that lays out graphs on the given pool. The pool is not shut down by this engine.
+     *
+     * @param pool the pool to execute the layout runs on. Its parallelism bounds the number of concurrent layout runs.
+     */
+    public BatchGraphLayoutEngine(final ForkJoinPool pool) {
+        if (pool == null) {
+            throw new NullPointerException("pool");
+        }
+        this.pool = pool;
+        this.engine = new RecursiveGraphLayoutEngine(pool);
+    }
+
+    /**
+     * Lays out the given graphs.
+     *
+     * @param graphs top-level nodes of the graphs to be laid out. No graph may be contained in another one.
+     * @return one result per graph, in the order of the given graphs.
+     */
+    public List<Result> layout(final Collection<ElkNode> graphs) {
+        return layout(graphs, null);
+    }
+
+    /**
+     * Lays out the given graphs and reports the progress to the given monitor, one unit of work per graph. Since
+     * progress monitors are not thread-safe, the work is reported once all graphs have been laid out. If the monitor
+     * is canceled, graphs whose layout has not started yet are skipped.
+     *
+     * @param graphs top-level nodes of the graphs to be laid out. No graph may be contained in another one.
+     * @param progressMonitor monitor to which the progress of the whole batch is reported, or {@code null}.
+     * @return one result per graph, in the order of the given graphs.
+     */
+    public List<Result> layout(final Collection<ElkNode> graphs, final IElkProgressMonitor progressMonitor) {
+        if (progressMonitor != null) {
+            progressMonitor.begin("Batch Graph Layout", graphs.size());
+        }
+
+        List<ForkJoinTask<Result>> tasks = Lists.newArrayListWithCapacity(graphs.size());
+        for (ElkNode graph : graphs) {
+            tasks.add(ForkJoinTask.adapt(() -> layout(graph, progressMonitor)));
+        }
+
+        if (ForkJoinTask.getPool() == pool) {
+            // We already are a task of the pool and can thus fork directly
+            ForkJoinTask.invokeAll(tasks);
+        } else {
+            pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+        }
+
+        List<Result> results = Lists.newArrayListWithCapacity(tasks.size());
+        for (ForkJoinTask<Result> task : tasks) {
+            results.add(task.join());
+        }
+
+        if (progressMonitor != null) {
+            progressMonitor.done();
+        }
+        return Collections.unmodifiableList(results);
+    }
+
+    /**
+     * Lays out a single graph of a batch.
+     */
+    private Result layout(final ElkNode graph, final IElkProgressMonitor batchMonitor) {
+        BasicProgressMonitor monitor = new BasicProgressMonitor().withExecutionTimeMeasurement(true);
+        if (batchMonitor != null && batchMonitor.isCanceled()) {
+            return new Result(graph, monitor, false, null);
+        }
+
+        try {
+            engine.layout(graph, monitor);
+            return new Result(graph, monitor, true, null);
+        } catch (RuntimeException e) {
+            return new Result(graph, monitor, false, e);
+        }
+    }
+
+
+    /**
+     * The outcome of laying out one graph of a batch.
+     */
+    public static final class Result {
+
+        private final ElkNode graph;
+        private final BasicProgressMonitor progressMonitor;
+        private final boolean laidOut;
+        private final RuntimeException failure;
+
+        private Result(final ElkNode graph, final BasicProgressMonitor progressMonitor, final boolean laidOut,
+                final RuntimeException failure) {
+
+            this.graph = graph;
+            this.progressMonitor = progressMonitor;
+            this.laidOut = laidOut;
+            this.failure = failure;
+        }
+
+        /**
+         * Returns the graph this result belongs to.
+         */
+        public ElkNode getGraph() {
+            return graph;
+        }
+
+        /**
+         * Returns the monitor the graph's layout run reported to.
+         */
+        public BasicProgressMonitor getProgressMonitor() {
+            return progressMonitor;
+        }
+
+        /**
+         * Returns the time the layout of the graph took, in seconds. The time is zero if the graph was skipped or its
+         * layout failed.
+         */
+        public double getExecutionTime() {
+            return progressMonitor.getExecutionTime();
+        }
+
+        /**
+         * Whether the graph was laid out successfully. This is not the case if its layout failed or if it was
+         * skipped because the batch was canceled.
+         */
+        public boolean isLaidOut() {
+            return laidOut;
+        }
+
+        /**
+         * Returns the exception the layout of the graph failed with, or {@code null} if it did not fail.
+         */
+        public RuntimeException getFailure() {
+            return failure;
+        }
+
+    }
+
+}
+// elkjs-exclude-end
@@ -13,6 +13,10 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Queue;
 import java.util.Set;
+// elkjs-exclude-start
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+// elkjs-exclude-end
 
 import org.eclipse.elk.core.data.DeprecatedLayoutOptionReplacer;
 import org.eclipse.elk.core.data.LayoutAlgorithmData;
@@ -63,6 +67,15 @@ import com.google.common.collect.Lists;
  * </p>
  * 
  * <p>
+ * Compound nodes whose content is laid out separately from their parent's content are independent of each other
+ * until their parent is laid out. If the engine is created with a {@link ForkJoinPool}, such sibling subtrees are
+ * laid out in parallel on that pool, joining before the parent's own layout is computed. Each layout run fetches its
+ * own provider instance from the {@link LayoutAlgorithmData#getInstancePool() instance pool} of the respective
+ * algorithm, so the result is the same as that of the sequential layout. Layout runs performed as part of a unit test
+ * are always executed sequentially.
+ * </p>
+ * 
+ * <p>
  * MIGRATE Extend the graph layout engine to offset edge coordinates properly
  * </p> 
  * 
@@ -71,6 +84,29 @@ import com.google.common.collect.Lists;
  */
 public class RecursiveGraphLayoutEngine implements IGraphLayoutEngine {
     
+    // elkjs-exclude-start
+    /** pool used to lay out independent subtrees in parallel, or {@code null} to lay them out sequentially. */
+    private ForkJoinPool parallelPool;
+    // elkjs-exclude-end
+    
+    /**
+     * Creates a layout engine that lays out all hierarchy levels sequentially.
+     */
+    public RecursiveGraphLayoutEngine() {
+    }
+    
+    // elkjs-exclude-start
+    /**
+     * Creates a layout engine that lays out independent subtrees of the hierarchy in parallel.
+     * 
+     * @param parallelPool the pool to execute the layout of independent subtrees on, or {@code null} to lay out
+     *                     all hierarchy levels sequentially.
+     */
+    public RecursiveGraphLayoutEngine(final ForkJoinPool parallelPool) {
+        this.parallelPool = parallelPool;
+    }
+    // elkjs-exclude-end
+    
     /**
      * Performs recursive layout on the given layout graph.
      * 
@@ -182,6 +218,7 @@ public class RecursiveGraphLayoutEngine implements IGraphLayoutEngine {
                 // Look for nodes that stop the hierarchy handling, evaluating the inheritance on the way
                 final Queue<ElkNode> nodeQueue = Lists.newLinkedList();
                 nodeQueue.addAll(layoutNode.getChildren());
+                final List<ElkNode> separateNodes = Lists.newArrayList();
                 
                 while (!nodeQueue.isEmpty()) {
                     ElkNode node = nodeQueue.poll();
@@ -196,19 +233,23 @@ public class RecursiveGraphLayoutEngine implements IGraphLayoutEngine {
                     if (stopHierarchy 
                           || (node.hasProperty(CoreOptions.ALGORITHM) 
                                   && !algorithmData.equals(node.getProperty(CoreOptions.RESOLVED_ALGORITHM)))) {
-                        List<ElkEdge> childLayoutSelfLoops = layoutRecursively(node, testController, progressMonitor);
-                        childrenInsideSelfLoops.addAll(childLayoutSelfLoops);
-                        // Explicitly disable hierarchical layout for the child node. Simplifies the
-                        // handling of switching algorithms in the layouter.
-                        node.setProperty(CoreOptions.HIERARCHY_HANDLING, HierarchyHandling.SEPARATE_CHILDREN);
-
-                        // Apply the LayoutOptions.SCALE_FACTOR if present
-                        ElkUtil.applyConfiguredNodeScaling(node);
+                        separateNodes.add(node);
                     } else {
                         // Child should be included in current layout, possibly adding its own children
                         nodeQueue.addAll(node.getChildren());
                     }
                 }
+                
+                childrenInsideSelfLoops.addAll(
+                        layoutSubtreesRecursively(separateNodes, testController, progressMonitor));
+                for (ElkNode node : separateNodes) {
+                    // Explicitly disable hierarchical layout for the child node. Simplifies the
+                    // handling of switching algorithms in the layouter.
+                    node.setProperty(CoreOptions.HIERARCHY_HANDLING, HierarchyHandling.SEPARATE_CHILDREN);
+
+                    // Apply the LayoutOptions.SCALE_FACTOR if present
+                    ElkUtil.applyConfiguredNodeScaling(node);
+                }
 
             } else {
                 nodeCount = layoutNode.getChildren().size();
@@ -400,10 +441,9 @@ public class RecursiveGraphLayoutEngine implements IGraphLayoutEngine {
                 }
                 
                 // Layout each compound node contained in this node separately
+                childrenInsideSelfLoops.addAll(
+                        layoutSubtreesRecursively(layoutNode.getChildren(), testController, progressMonitor));
                 for (ElkNode child : layoutNode.getChildren()) {
-                    List<ElkEdge> childLayoutSelfLoops = layoutRecursively(child, testController, progressMonitor); 
-                    childrenInsideSelfLoops.addAll(childLayoutSelfLoops);
-                    
                     // Apply the LayoutOptions.SCALE_FACTOR if present
                     ElkUtil.applyConfiguredNodeScaling(child);
                 }
@@ -437,6 +477,74 @@ public class RecursiveGraphLayoutEngine implements IGraphLayoutEngine {
         }
     }
 
+    /**
+     * Lays out the given nodes recursively. The nodes must be roots of independent subtrees of the hierarchy, that
+     * is, none of them may be contained in another one's subtree and their layout must not depend on each other. If
+     * a parallel pool is configured and this is not a unit test run, subtrees that actually require layout are laid
+     * out in parallel. Each of them reports to its own sub-monitor of the given progress monitor, which is created
+     * upfront on the calling thread.
+     * 
+     * @param nodes the nodes with children to be laid out
+     * @param testController an optional test controller if this layout run is part of a unit test
+     * @param progressMonitor monitor used to keep track of progress
+     * @return list of self loops routed inside the nodes, in the order of the given nodes.
+     */
+    protected List<ElkEdge> layoutSubtreesRecursively(final List<ElkNode> nodes, final TestController testController,
+            final IElkProgressMonitor progressMonitor) {
+        
+        List<ElkEdge> insideSelfLoops = Lists.newArrayList();
+        
+        // elkjs-exclude-start
+        if (parallelPool != null && testController == null) {
+            // Only subtrees that actually require layout are worth being forked
+            List<ElkNode> forkedNodes = Lists.newArrayList();
+            for (ElkNode node : nodes) {
+                if (!node.getChildren().isEmpty() || !gatherInsideSelfLoops(node).isEmpty()) {
+                    forkedNodes.add(node);
+                }
+            }
+            
+            if (forkedNodes.size() > 1) {
+                // Sub-monitors are created here since progress monitors are not thread-safe; their work is not
+                // propagated to the parent monitor automatically, but reported once all subtrees are done
+                List<ForkJoinTask<List<ElkEdge>>> tasks = Lists.newArrayListWithCapacity(forkedNodes.size());
+                int totalWork = 0;
+                for (ElkNode node : forkedNodes) {
+                    final int work = countNodesRecursively(node, false);
+                    final IElkProgressMonitor subtreeMonitor = progressMonitor.subTask(0);
+                    subtreeMonitor.begin("Recursive Graph Layout", work);
+                    totalWork += work;
+                    
+                    tasks.add(ForkJoinTask.adapt(() -> {
+                        List<ElkEdge> subtreeSelfLoops = layoutRecursively(node, null, subtreeMonitor);
+                        subtreeMonitor.done();
+                        return subtreeSelfLoops;
+                    }));
+                }
+                
+                if (ForkJoinTask.getPool() == parallelPool) {
+                    // We already are a task of the pool and can thus fork directly
+                    ForkJoinTask.invokeAll(tasks);
+                } else {
+                    parallelPool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+                }
+                progressMonitor.worked(totalWork);
+                
+                // Collect the results in the original order; nodes that were not forked do not require layout
+                for (ForkJoinTask<List<ElkEdge>> task : tasks) {
+                    insideSelfLoops.addAll(task.join());
+                }
+                return insideSelfLoops;
+            }
+        }
+        // elkjs-exclude-end
+        
+        for (ElkNode node : nodes) {
+            insideSelfLoops.addAll(layoutRecursively(node, testController, progressMonitor));
+        }
+        return insideSelfLoops;
+    }
+
     /**
      * Execute the given layout algorithm on a parent node.
      */
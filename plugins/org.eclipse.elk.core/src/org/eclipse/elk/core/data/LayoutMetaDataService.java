@@ -26,6 +26,7 @@ import org.eclipse.elk.core.math.KVectorChain;
 import org.eclipse.elk.core.options.CoreOptions;
 import org.eclipse.elk.core.util.IndividualSpacings;
 import org.eclipse.elk.core.util.Pair;
+import org.eclipse.elk.graph.properties.PropertyOrdinals;
 import org.eclipse.elk.graph.util.ElkReflect;
 
 import com.google.common.collect.Lists;
@@ -438,8 +439,10 @@ public final class LayoutMetaDataService {
             // #1 register fully qualified id
             String id = optionData.getId();
             layoutOptionMap.put(id, optionData);
+            // #2 assign a dense ordinal for fast property lookups
+            PropertyOrdinals.register(id);
 
-            // #2 register legacy options
+            // #3 register legacy options
             if (optionData.getLegacyIds() != null) {
                 for (String legacyId : optionData.getLegacyIds()) {
                     legacyLayoutOptionMap.put(legacyId, optionData);
@@ -40,7 +40,7 @@ public class IndividualSpacings extends MapPropertyHolder implements IDataObject
      * Constructs a new spacings container and copies all properties of {@code other} to the new container.
      */
     public IndividualSpacings(final IndividualSpacings other) {
-        getAllProperties().putAll(other.getAllProperties());
+        copyProperties(other);
     }
     
     /**
@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2017 Kiel University and others.
+ * Copyright (c) 2017, 2024 Kiel University and others.
  * 
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License 2.0 which is available at
@@ -10,7 +10,10 @@
 package org.eclipse.elk.graph.json;
 
 import java.io.IOException;
+import java.io.Reader;
 import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
 
 import org.eclipse.elk.core.util.Maybe;
 import org.eclipse.elk.graph.ElkNode;
@@ -22,6 +25,7 @@ import com.google.gson.JsonIOException;
 import com.google.gson.JsonObject;
 import com.google.gson.TypeAdapter;
 import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * Utility methods to import and export the ELK Graph JSON Format.
@@ -60,6 +64,23 @@ public final class ElkGraphJson {
         ib.jsonGraph = graph;
         return ib;
     }
+
+    /**
+     * Initializes an importer that reads the json from the passed reader. The import is finished using the
+     * {@link ImportBuilder#toElk()} method. The json is not parsed into a json object, but the graph is created while
+     * reading, which requires far less memory for large graphs. Since there is no json object to transfer the layout
+     * to, this does not support {@link ImportBuilder#rememberImporter(Maybe) remembering the importer}. Use
+     * {@link ExportBuilder#toJson(Writer)} to write the layout instead.
+     * 
+     * @param graph
+     *            a reader that provides the graph to import. The reader is not closed.
+     * @return a builder instance that can be further configured.
+     */
+    public static ImportBuilder forGraph(final Reader graph) {
+        ImportBuilder ib = new ImportBuilder();
+        ib.graphReader = graph;
+        return ib;
+    }
     
     /**
      * Builder for importing.
@@ -68,6 +89,7 @@ public final class ElkGraphJson {
         
         private JsonObject jsonGraph;
         private String graph;
+        private Reader graphReader;
         private Maybe<JsonImporter> importerMaybe;
         /** See {@link JsonReader#setLenient(boolean)} for details. */
         private boolean lenient = true;
@@ -76,7 +98,8 @@ public final class ElkGraphJson {
         /**
          * In case a later application of layout information is desired, pass a {@link Maybe} instance to this method.
          * The instance is populated with the used {@link JsonImporter}, which can be used to
-         * {@link JsonImporter#transferLayout(ElkNode) transfer} the layout later on.
+         * {@link JsonImporter#transferLayout(ElkNode) transfer} the layout later on. This is not supported when reading
+         * the graph from a {@link Reader}.
          * 
          * @param maybe
          *            an empty {@link Maybe}.
@@ -106,8 +129,14 @@ public final class ElkGraphJson {
          * Perform the actual import and return the resulting ELK Graph.
          * 
          * @return the root node of the imported ELK Graph.
+         * @throws UnsupportedOperationException
+         *             if the graph is read from a {@link Reader} and the importer is to be remembered.
          */
         public ElkNode toElk() {
+            if (graphReader != null) {
+                return readElk();
+            }
+
             if (jsonGraph == null) {
                 // Due to a GSON workaround the following lines are a bit more complicated that they have to be.
                 // See the javadoc comment of GSON_ELEMENT_ADAPTER for details.
@@ -133,6 +162,21 @@ public final class ElkGraphJson {
 
             return elkGraph;
         }
+
+        private ElkNode readElk() {
+            if (importerMaybe != null) {
+                throw new UnsupportedOperationException(
+                        "The layout cannot be transferred to a graph that is read from a reader.");
+            }
+
+            JsonReader reader = new JsonReader(graphReader);
+            reader.setLenient(this.lenient);
+            try {
+                return new JsonStreamingImporter().transform(reader);
+            } catch (IOException e) {
+                throw new JsonIOException(e);
+            }
+        }
     }
 
     /**
@@ -221,6 +265,79 @@ public final class ElkGraphJson {
                     shortLayoutOptionKeys, omitUnknownLayoutOptions);
             JsonObject jsonGraph = exporter.export(graph);
 
+            // return the json string
+            String json = createGson().toJson(jsonGraph);
+            return json;
+        }
+
+        /**
+         * Perform the export using the specified configuration and write the json to the given writer. The json is
+         * the same as the one returned by {@link #toJson()}, but it is written while the graph is traversed instead of
+         * building a json object first, which requires far less memory for large graphs.
+         * 
+         * @param writer
+         *            the writer to write the json to. The writer is flushed, but not closed.
+         */
+        public void toJson(final Writer writer) {
+            JsonStreamingExporter exporter = new JsonStreamingExporter();
+            exporter.setOptions(omitZeroPosition, omitZeroDimension, omitLayoutInformation,
+                    shortLayoutOptionKeys, omitUnknownLayoutOptions);
+
+            try {
+                JsonWriter jsonWriter = createGson().newJsonWriter(writer);
+                // gson writes json elements leniently, e.g. allowing NaN coordinates, so we do as well
+                jsonWriter.setLenient(true);
+                exporter.export(graph, jsonWriter);
+                jsonWriter.flush();
+            } catch (IOException e) {
+                throw new JsonIOException(e);
+            }
+        }
+
+        /**
+         * Export nothing but the layout of the graph, which is all a client needs to update its own copy of the graph
+         * after layout. The result is considerably smaller and faster to produce than the one of {@link #toJson()}
+         * since it contains no layout options, label texts, or graph structure. Elements are keyed by the ids the
+         * complete export would assign to them:
+         * 
+         * <pre>
+         * {
+         *   "nodes": { "n1": { "x": 0, "y": 0, "width": 20, "height": 10, "labels": [ { "x": 0, ... } ] }, ... },
+         *   "ports": { "p1": { "x": 20, "y": 5, "width": 0, "height": 0 }, ... },
+         *   "edges": { "e1": { "sections": [ ... ], "junctionPoints": [ ... ], "labels": [ ... ] }, ... }
+         * }
+         * </pre>
+         * 
+         * The nodes include the root node. Sections are written as in the complete export, without layout options.
+         * Labels are listed in the order of their owner's labels. Positions and sizes are always written, even if they
+         * are zero. Apart from {@link #prettyPrint(boolean)}, the configuration of this builder is ignored.
+         * 
+         * @return the json string representation of the graph's layout.
+         */
+        public String toLayoutJson() {
+            StringWriter writer = new StringWriter();
+            toLayoutJson(writer);
+            return writer.toString();
+        }
+
+        /**
+         * Perform the export of {@link #toLayoutJson()} and write the json to the given writer.
+         * 
+         * @param writer
+         *            the writer to write the json to. The writer is flushed, but not closed.
+         */
+        public void toLayoutJson(final Writer writer) {
+            try {
+                JsonWriter jsonWriter = createGson().newJsonWriter(writer);
+                jsonWriter.setLenient(true);
+                new JsonStreamingExporter().exportLayout(graph, jsonWriter);
+                jsonWriter.flush();
+            } catch (IOException e) {
+                throw new JsonIOException(e);
+            }
+        }
+
+        private Gson createGson() {
             // configure the gson builder
             GsonBuilder builder = new GsonBuilder();
             // no need to perform html escaping in our case, hence deactivate it:
@@ -228,11 +345,7 @@ public final class ElkGraphJson {
             if (prettyPrint) {
                 builder.setPrettyPrinting();
             }
-            Gson gson = builder.create();
-
-            // return the json string
-            String json = gson.toJson(jsonGraph);
-            return json;
+            return builder.create();
         }
     }
 
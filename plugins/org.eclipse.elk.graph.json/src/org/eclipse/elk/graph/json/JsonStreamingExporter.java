@@ -0,0 +1,617 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Kiel University and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.elk.graph.json;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Random;
+
+import org.eclipse.elk.core.data.LayoutMetaDataService;
+import org.eclipse.elk.core.data.LayoutOptionData;
+import org.eclipse.elk.core.math.KVector;
+import org.eclipse.elk.core.math.KVectorChain;
+import org.eclipse.elk.core.options.CoreOptions;
+import org.eclipse.elk.graph.ElkBendPoint;
+import org.eclipse.elk.graph.ElkConnectableShape;
+import org.eclipse.elk.graph.ElkEdge;
+import org.eclipse.elk.graph.ElkEdgeSection;
+import org.eclipse.elk.graph.ElkLabel;
+import org.eclipse.elk.graph.ElkNode;
+import org.eclipse.elk.graph.ElkPort;
+import org.eclipse.elk.graph.ElkShape;
+import org.eclipse.elk.graph.properties.IProperty;
+import org.eclipse.elk.graph.properties.IPropertyHolder;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.BiMap;
+import com.google.common.collect.HashBiMap;
+import com.google.common.collect.Maps;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Exporter from elk graph to json that writes each element to a {@link JsonWriter} as soon as it has been visited
+ * instead of building a tree of json objects first. The written json is the same as the one produced by serializing
+ * the result of the {@link JsonExporter}, including the ids generated for elements without an identifier.
+ *
+ * <p>
+ * Edges and edge sections may reference shapes and sections that have not been written yet. Hence, the ids of all
+ * nodes, ports, and edge sections are determined before anything is written. They are the only data kept in memory
+ * apart from the graph itself.
+ * </p>
+ *
+ * <p>
+ * Alternatively, {@link #exportLayout(ElkNode, JsonWriter)} writes nothing but the layout of the graph's elements,
+ * keyed by the same ids. See {@link ElkGraphJson.ExportBuilder#toLayoutJson()} for the format.
+ * </p>
+ */
+final class JsonStreamingExporter {
+
+    private final BiMap<ElkNode, String> nodeIdMap = HashBiMap.create();
+    private final BiMap<ElkPort, String> portIdMap = HashBiMap.create();
+    private final BiMap<ElkEdge, String> edgeIdMap = HashBiMap.create();
+    private final BiMap<ElkEdgeSection, String> edgeSectionIdMap = HashBiMap.create();
+
+    /** Short keys of the layout options written so far, since many elements share the same options. */
+    private final Map<String, String> shortOptionKeys = Maps.newHashMap();
+
+    private int nodeIdCounter = 0;
+    private int portIdCounter = 0;
+    private int edgeIdCounter = 0;
+    private int edgeSectionIdCounter = 0;
+
+    private final Random random = new Random();
+
+    // configuration
+    private boolean omitZeroPos = true;
+    private boolean omitZeroDim = true;
+    private boolean omitLayout = false;
+    private boolean shortLayoutOptionKeys = true;
+    private boolean omitUnknownLayoutOptions = true;
+
+    /**
+     * Configures the exporter. See {@link ElkGraphJson.ExportBuilder} for the meaning of the options.
+     */
+    public void setOptions(final boolean omitZeroPosition, final boolean omitZeroDimension,
+            final boolean omitLayoutInformation, final boolean shortKeys, final boolean omitUnknownOptions) {
+
+        this.omitZeroPos = omitZeroPosition;
+        this.omitZeroDim = omitZeroDimension;
+        this.omitLayout = omitLayoutInformation;
+        this.shortLayoutOptionKeys = shortKeys;
+        this.omitUnknownLayoutOptions = omitUnknownOptions;
+    }
+
+    /**
+     * Writes the given graph to the given writer.
+     *
+     * @param root
+     *            the root node of the graph to export.
+     * @param writer
+     *            the writer to write the json to.
+     * @throws IOException
+     *             if writing fails.
+     */
+    public void export(final ElkNode root, final JsonWriter writer) throws IOException {
+        init();
+
+        // ids are assigned in the same order as the json exporter assigns them: first to all nodes and ports, then
+        // to all edges and their sections
+        registerNodes(root);
+        registerEdges(root, !omitLayout);
+
+        writeNode(root, writer);
+    }
+
+    /**
+     * Writes the layout of the given graph to the given writer. The options that control which parts of the graph
+     * are written are ignored since all layout information is required to update another copy of the graph.
+     *
+     * @param root
+     *            the root node of the graph whose layout to export.
+     * @param writer
+     *            the writer to write the json to.
+     * @throws IOException
+     *             if writing fails.
+     */
+    public void exportLayout(final ElkNode root, final JsonWriter writer) throws IOException {
+        init();
+
+        registerNodes(root);
+        registerEdges(root, true);
+
+        writer.beginObject();
+
+        writer.name("nodes").beginObject();
+        writeNodeLayouts(root, writer);
+        writer.endObject();
+
+        writer.name("ports").beginObject();
+        writePortLayouts(root, writer);
+        writer.endObject();
+
+        writer.name("edges").beginObject();
+        writeEdgeLayouts(root, writer);
+        writer.endObject();
+
+        writer.endObject();
+    }
+
+    private void init() {
+        nodeIdMap.clear();
+        portIdMap.clear();
+        edgeIdMap.clear();
+        edgeSectionIdMap.clear();
+        nodeIdCounter = 0;
+        portIdCounter = 0;
+        edgeIdCounter = 0;
+        edgeSectionIdCounter = 0;
+    }
+
+    /* ---------------------------------------------------------------------------
+     *   Ids
+     */
+
+    private void registerNodes(final ElkNode node) {
+        String id = node.getIdentifier();
+        if (id == null) {
+            id = "n" + nodeIdCounter++;
+        }
+        nodeIdMap.put(node, assertUnique(id, nodeIdMap.inverse()));
+
+        for (ElkPort port : node.getPorts()) {
+            id = port.getIdentifier();
+            if (id == null) {
+                id = "p" + portIdCounter++;
+            }
+            portIdMap.put(port, assertUnique(id, portIdMap.inverse()));
+        }
+
+        for (ElkNode child : node.getChildren()) {
+            registerNodes(child);
+        }
+    }
+
+    private void registerEdges(final ElkNode node, final boolean registerSections) {
+        for (ElkEdge edge : node.getContainedEdges()) {
+            String id = edge.getIdentifier();
+            if (id == null) {
+                id = "e" + edgeIdCounter++;
+            }
+            edgeIdMap.put(edge, assertUnique(id, edgeIdMap.inverse()));
+
+            if (registerSections) {
+                for (ElkEdgeSection section : edge.getSections()) {
+                    id = section.getIdentifier();
+                    if (id == null) {
+                        id = "s" + edgeSectionIdCounter++;
+                    }
+                    edgeSectionIdMap.put(section, assertUnique(id, edgeSectionIdMap.inverse()));
+                }
+            }
+        }
+
+        for (ElkNode child : node.getChildren()) {
+            registerEdges(child, registerSections);
+        }
+    }
+
+    private String assertUnique(final String id, final Map<String, ?> map) {
+        String tmp = id;
+        while (map.containsKey(tmp)) {
+            tmp = id + "_g" + String.format("%06d", random.nextInt(1000000));
+        }
+        return tmp;
+    }
+
+    private String idByShape(final ElkConnectableShape shape) {
+        if (shape instanceof ElkPort) {
+            return portIdMap.get(shape);
+        } else {
+            return nodeIdMap.get(shape);
+        }
+    }
+
+    /* ---------------------------------------------------------------------------
+     *   Graph elements
+     */
+
+    private void writeNode(final ElkNode node, final JsonWriter writer) throws IOException {
+        writer.beginObject();
+        writer.name("id").value(nodeIdMap.get(node));
+
+        if (!node.getLabels().isEmpty()) {
+            writer.name("labels");
+            writeLabels(node.getLabels(), writer);
+        }
+
+        if (!node.getPorts().isEmpty()) {
+            writer.name("ports").beginArray();
+            for (ElkPort port : node.getPorts()) {
+                writePort(port, writer);
+            }
+            writer.endArray();
+        }
+
+        if (!node.getChildren().isEmpty()) {
+            writer.name("children").beginArray();
+            for (ElkNode child : node.getChildren()) {
+                writeNode(child, writer);
+            }
+            writer.endArray();
+        }
+
+        writeProperties(node, writer);
+        writeIndividualSpacings(node, writer);
+        writeShapeLayout(node, writer);
+
+        // the json exporter adds the edges after all nodes have been transformed, hence they come last
+        if (!node.getContainedEdges().isEmpty()) {
+            writer.name("edges").beginArray();
+            for (ElkEdge edge : node.getContainedEdges()) {
+                writeEdge(edge, writer);
+            }
+            writer.endArray();
+        }
+
+        writer.endObject();
+    }
+
+    private void writePort(final ElkPort port, final JsonWriter writer) throws IOException {
+        writer.beginObject();
+        writer.name("id").value(portIdMap.get(port));
+
+        if (!port.getLabels().isEmpty()) {
+            writer.name("labels");
+            writeLabels(port.getLabels(), writer);
+        }
+
+        writeProperties(port, writer);
+        writeShapeLayout(port, writer);
+        writer.endObject();
+    }
+
+    private void writeLabels(final List<ElkLabel> labels, final JsonWriter writer) throws IOException {
+        writer.beginArray();
+        for (ElkLabel label : labels) {
+            writer.beginObject();
+            if (label.getText() != null) {
+                writer.name("text").value(label.getText());
+            }
+            if (label.getIdentifier() != null && !label.getIdentifier().isEmpty()) {
+                writer.name("id").value(label.getIdentifier());
+            }
+            writeProperties(label, writer);
+            writeShapeLayout(label, writer);
+            writer.endObject();
+        }
+        writer.endArray();
+    }
+
+    private void writeEdge(final ElkEdge edge, final JsonWriter writer) throws IOException {
+        writer.beginObject();
+        writer.name("id").value(edgeIdMap.get(edge));
+
+        writer.name("sources").beginArray();
+        for (ElkConnectableShape source : edge.getSources()) {
+            writer.value(Objects.requireNonNull(idByShape(source), () -> "Unknown edge source: " + source));
+        }
+        writer.endArray();
+
+        writer.name("targets").beginArray();
+        for (ElkConnectableShape target : edge.getTargets()) {
+            writer.value(Objects.requireNonNull(idByShape(target), () -> "Unknown edge target: " + target));
+        }
+        writer.endArray();
+
+        if (!edge.getLabels().isEmpty()) {
+            writer.name("labels");
+            writeLabels(edge.getLabels(), writer);
+        }
+
+        if (!omitLayout && !edge.getSections().isEmpty()) {
+            writer.name("sections").beginArray();
+            for (ElkEdgeSection section : edge.getSections()) {
+                writeSection(section, writer);
+            }
+            writer.endArray();
+        }
+
+        // make sure not to initialize an empty set of junction points by accident (#559)
+        if (!omitLayout && edge.hasProperty(CoreOptions.JUNCTION_POINTS)) {
+            KVectorChain jps = edge.getProperty(CoreOptions.JUNCTION_POINTS);
+            if (jps != null && !jps.isEmpty()) {
+                writer.name("junctionPoints").beginArray();
+                for (KVector jp : jps) {
+                    writePoint(jp.x, jp.y, writer);
+                }
+                writer.endArray();
+            }
+        }
+
+        writeProperties(edge, writer);
+        writer.endObject();
+    }
+
+    private void writeSection(final ElkEdgeSection section, final JsonWriter writer) throws IOException {
+        writer.beginObject();
+        writeSectionLayout(section, writer);
+        writeProperties(section, writer);
+        writer.endObject();
+    }
+
+    private void writeSectionLayout(final ElkEdgeSection section, final JsonWriter writer) throws IOException {
+        writer.name("id").value(edgeSectionIdMap.get(section));
+
+        writer.name("startPoint");
+        writePoint(section.getStartX(), section.getStartY(), writer);
+        writer.name("endPoint");
+        writePoint(section.getEndX(), section.getEndY(), writer);
+
+        if (!section.getBendPoints().isEmpty()) {
+            writer.name("bendPoints").beginArray();
+            for (ElkBendPoint bendPoint : section.getBendPoints()) {
+                writePoint(bendPoint.getX(), bendPoint.getY(), writer);
+            }
+            writer.endArray();
+        }
+
+        if (section.getIncomingShape() != null) {
+            writeOptionalId("incomingShape", idByShape(section.getIncomingShape()), writer);
+        }
+        if (section.getOutgoingShape() != null) {
+            writeOptionalId("outgoingShape", idByShape(section.getOutgoingShape()), writer);
+        }
+
+        if (!section.getIncomingSections().isEmpty()) {
+            writer.name("incomingSections").beginArray();
+            for (ElkEdgeSection incoming : section.getIncomingSections()) {
+                writer.value(edgeSectionIdMap.get(incoming));
+            }
+            writer.endArray();
+        }
+        if (!section.getOutgoingSections().isEmpty()) {
+            writer.name("outgoingSections").beginArray();
+            for (ElkEdgeSection outgoing : section.getOutgoingSections()) {
+                writer.value(edgeSectionIdMap.get(outgoing));
+            }
+            writer.endArray();
+        }
+    }
+
+    /* ---------------------------------------------------------------------------
+     *   Layout only
+     */
+
+    private void writeNodeLayouts(final ElkNode node, final JsonWriter writer) throws IOException {
+        writer.name(nodeIdMap.get(node));
+        writeShapeLayoutOnly(node, writer);
+
+        for (ElkNode child : node.getChildren()) {
+            writeNodeLayouts(child, writer);
+        }
+    }
+
+    private void writePortLayouts(final ElkNode node, final JsonWriter writer) throws IOException {
+        for (ElkPort port : node.getPorts()) {
+            writer.name(portIdMap.get(port));
+            writeShapeLayoutOnly(port, writer);
+        }
+
+        for (ElkNode child : node.getChildren()) {
+            writePortLayouts(child, writer);
+        }
+    }
+
+    private void writeEdgeLayouts(final ElkNode node, final JsonWriter writer) throws IOException {
+        for (ElkEdge edge : node.getContainedEdges()) {
+            writer.name(edgeIdMap.get(edge)).beginObject();
+
+            if (!edge.getSections().isEmpty()) {
+                writer.name("sections").beginArray();
+                for (ElkEdgeSection section : edge.getSections()) {
+                    writer.beginObject();
+                    writeSectionLayout(section, writer);
+                    writer.endObject();
+                }
+                writer.endArray();
+            }
+
+            if (edge.hasProperty(CoreOptions.JUNCTION_POINTS)) {
+                KVectorChain jps = edge.getProperty(CoreOptions.JUNCTION_POINTS);
+                if (jps != null && !jps.isEmpty()) {
+                    writer.name("junctionPoints").beginArray();
+                    for (KVector jp : jps) {
+                        writePoint(jp.x, jp.y, writer);
+                    }
+                    writer.endArray();
+                }
+            }
+
+            writeLabelLayouts(edge.getLabels(), writer);
+            writer.endObject();
+        }
+
+        for (ElkNode child : node.getChildren()) {
+            writeEdgeLayouts(child, writer);
+        }
+    }
+
+    /**
+     * Writes the position and size of the given node or port along with the layouts of its labels. Zero values are
+     * written as well since leaving them out would leave a previous value in place when applying the layout.
+     */
+    private void writeShapeLayoutOnly(final ElkShape shape, final JsonWriter writer) throws IOException {
+        writer.beginObject();
+        writeBounds(shape, writer);
+        writeLabelLayouts(shape.getLabels(), writer);
+        writer.endObject();
+    }
+
+    /**
+     * Labels usually come without an id. Hence, they are written in the order in which their owner lists them.
+     */
+    private void writeLabelLayouts(final List<ElkLabel> labels, final JsonWriter writer) throws IOException {
+        if (labels.isEmpty()) {
+            return;
+        }
+
+        writer.name("labels").beginArray();
+        for (ElkLabel label : labels) {
+            writer.beginObject();
+            writeBounds(label, writer);
+            writer.endObject();
+        }
+        writer.endArray();
+    }
+
+    private void writeBounds(final ElkShape shape, final JsonWriter writer) throws IOException {
+        writer.name("x").value(shape.getX());
+        writer.name("y").value(shape.getY());
+        writer.name("width").value(shape.getWidth());
+        writer.name("height").value(shape.getHeight());
+    }
+
+    /* ---------------------------------------------------------------------------
+     *   Values
+     */
+
+    private void writePoint(final double x, final double y, final JsonWriter writer) throws IOException {
+        writer.beginObject();
+        writer.name("x").value(x);
+        writer.name("y").value(y);
+        writer.endObject();
+    }
+
+    /**
+     * Writes a reference to a shape, which is left out if the shape is not part of the graph, just like a null value
+     * in a json object.
+     */
+    private void writeOptionalId(final String name, final String id, final JsonWriter writer) throws IOException {
+        if (id != null) {
+            writer.name(name).value(id);
+        }
+    }
+
+    private void writeShapeLayout(final ElkShape shape, final JsonWriter writer) throws IOException {
+        // position
+        if (!omitLayout) {
+            // non-equality with double is fine here
+            if (!omitZeroPos || shape.getX() != 0.0) {
+                writer.name("x").value(shape.getX());
+            }
+            if (!omitZeroPos || shape.getY() != 0.0) {
+                writer.name("y").value(shape.getY());
+            }
+        }
+        // dimension
+        if (!omitZeroDim || shape.getWidth() != 0.0) {
+            writer.name("width").value(shape.getWidth());
+        }
+        if (!omitZeroDim || shape.getHeight() != 0.0) {
+            writer.name("height").value(shape.getHeight());
+        }
+    }
+
+    /* ---------------------------------------------------------------------------
+     *   Layout options
+     */
+
+    private void writeProperties(final IPropertyHolder holder, final JsonWriter writer) throws IOException {
+        Map<IProperty<?>, Object> properties = holder.getAllProperties();
+        if (properties == null || properties.isEmpty()) {
+            return;
+        }
+
+        writer.name("layoutOptions");
+        writeOptions(properties, true, writer);
+    }
+
+    private void writeIndividualSpacings(final IPropertyHolder holder, final JsonWriter writer) throws IOException {
+        if (!holder.hasProperty(CoreOptions.SPACING_INDIVIDUAL)) {
+            return;
+        }
+        Map<IProperty<?>, Object> properties = holder.getProperty(CoreOptions.SPACING_INDIVIDUAL).getAllProperties();
+        if (properties == null || properties.isEmpty()) {
+            return;
+        }
+
+        writer.name("individualSpacings");
+        writeOptions(properties, false, writer);
+    }
+
+    private void writeOptions(final Map<IProperty<?>, Object> properties, final boolean skipIndividualSpacings,
+            final JsonWriter writer) throws IOException {
+
+        // different options may end up with the same short key, in which case the last value wins, but the key stays
+        // where it was first written, just like it does in a json object
+        Map<String, String> options = Maps.newLinkedHashMap();
+        for (Entry<IProperty<?>, Object> p : properties.entrySet()) {
+            IProperty<?> key = p.getKey();
+            if (key == null || skipIndividualSpacings && key.equals(CoreOptions.SPACING_INDIVIDUAL)) {
+                continue;
+            }
+            if (!omitUnknownLayoutOptions || isKnown(key)) {
+                String id = shortLayoutOptionKeys ? shortOptionKey(key.getId()) : key.getId();
+                options.put(id, p.getValue().toString());
+            }
+        }
+
+        writer.beginObject();
+        for (Entry<String, String> option : options.entrySet()) {
+            writer.name(option.getKey()).value(option.getValue());
+        }
+        writer.endObject();
+    }
+
+    private boolean isKnown(final IProperty<?> property) {
+        return LayoutMetaDataService.getInstance().getOptionDataBySuffix(property.getId()) != null;
+    }
+
+    private String shortOptionKey(final String fullId) {
+        return shortOptionKeys.computeIfAbsent(fullId, JsonStreamingExporter::computeShortOptionKey);
+    }
+
+    /**
+     * Returns the shortest suffix of the given option's id that still identifies an option.
+     */
+    private static String computeShortOptionKey(final String fullId) {
+        LayoutMetaDataService metaDataService = LayoutMetaDataService.getInstance();
+        LayoutOptionData option = metaDataService.getOptionDataBySuffix(fullId);
+        if (option == null) {
+            // if the option is unknown, return the full id
+            return fullId;
+        }
+
+        List<String> idSplit = Splitter.on('.').splitToList(option.getId());
+        boolean foundMatch = false;
+        int i = idSplit.size() - 1;
+        if (i >= 1 && Objects.equals(option.getGroup(), idSplit.get(i - 1))) {
+            i--;
+        }
+        while (i >= 0 && !foundMatch) {
+            String suffix = String.join(".", idSplit.subList(i, idSplit.size()));
+            if (metaDataService.getOptionDataBySuffix(suffix) != null) {
+                foundMatch = true;
+            } else {
+                i--;
+            }
+        }
+
+        if (foundMatch) {
+            return String.join(".", idSplit.subList(i, idSplit.size()));
+        } else {
+            return option.getId();
+        }
+    }
+
+}
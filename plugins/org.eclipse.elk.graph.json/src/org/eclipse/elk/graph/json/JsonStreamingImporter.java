@@ -0,0 +1,797 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Kiel University and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.elk.graph.json;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.eclipse.elk.core.data.LayoutMetaDataService;
+import org.eclipse.elk.core.data.LayoutOptionData;
+import org.eclipse.elk.core.options.CoreOptions;
+import org.eclipse.elk.core.util.IndividualSpacings;
+import org.eclipse.elk.graph.ElkConnectableShape;
+import org.eclipse.elk.graph.ElkEdge;
+import org.eclipse.elk.graph.ElkEdgeSection;
+import org.eclipse.elk.graph.ElkGraphElement;
+import org.eclipse.elk.graph.ElkLabel;
+import org.eclipse.elk.graph.ElkNode;
+import org.eclipse.elk.graph.ElkPort;
+import org.eclipse.elk.graph.ElkShape;
+import org.eclipse.elk.graph.properties.IPropertyHolder;
+import org.eclipse.elk.graph.util.ElkGraphUtil;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Multimap;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+/**
+ * Importer from json to elk graph that pulls the json from a {@link JsonReader} and creates the graph elements right
+ * away instead of parsing the whole document into a tree of json objects first. Apart from the graph itself, only the
+ * ids of nodes, ports, and edge sections are kept until the import is finished.
+ *
+ * <p>
+ * The resulting graph is the same as the one created by the {@link JsonImporter}. Since json objects may list their
+ * members in any order, edges may reference nodes and ports that have not been read yet. Edges are therefore connected
+ * once the whole document has been read, in the same order in which the {@link JsonImporter} creates them. Since there
+ * is no json object the layout could be transferred to later on, layout results are written with the
+ * {@link JsonStreamingExporter} instead.
+ * </p>
+ */
+final class JsonStreamingImporter {
+
+    /** Reads json values the importer does not handle itself, mostly to report them in error messages. */
+    private static final TypeAdapter<JsonElement> ELEMENT_ADAPTER = new Gson().getAdapter(JsonElement.class);
+
+    /* Id -> ElkGraph element maps
+     * Id can be string or integer, thus {@link Object} is used. */
+    private final Map<Object, ElkNode> nodeIdMap = Maps.newHashMap();
+    private final Map<Object, ElkPort> portIdMap = Maps.newHashMap();
+    private final Map<Object, ElkEdgeSection> edgeSectionIdMap = Maps.newHashMap();
+
+    /** Edges that still have to be connected, keyed by the node whose json object lists them. */
+    private final ListMultimap<ElkNode, PendingEdge> pendingEdges = ArrayListMultimap.create();
+
+    /**
+     * Reads a graph from the given reader, which must be positioned in front of the graph's root node.
+     *
+     * @param reader
+     *            the reader to pull the json from.
+     * @return the root node of the imported graph.
+     * @throws IOException
+     *             if reading fails or the json is malformed.
+     * @throws JsonImportException
+     *             if the json is not a valid ELK graph.
+     */
+    public ElkNode transform(final JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            throw formatError("Top-level element of the graph must be a json object.");
+        }
+
+        ElkNode root = readNode(reader, null);
+        connectEdges(root);
+
+        nodeIdMap.clear();
+        portIdMap.clear();
+        edgeSectionIdMap.clear();
+
+        return root;
+    }
+
+    /* ---------------------------------------------------------------------------
+     *   Graph elements
+     */
+
+    private ElkNode readNode(final JsonReader reader, final ElkNode parent) throws IOException {
+        ElkNode node = ElkGraphUtil.createNode(parent);
+        boolean hasId = false;
+        Map<String, String> layoutOptions = null;
+        Map<String, String> legacyOptions = null;
+        Map<String, String> individualSpacings = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            switch (name) {
+            case "id":
+                nodeIdMap.put(readId(reader, node::setIdentifier), node);
+                hasId = true;
+                break;
+            case "layoutOptions":
+                layoutOptions = readOptions(reader);
+                break;
+            case "properties":
+                legacyOptions = readOptions(reader);
+                break;
+            case "individualSpacings":
+                individualSpacings = readOptions(reader);
+                break;
+            case "ports":
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    if (!skipNull(reader)) {
+                        readPort(reader, node);
+                    }
+                }
+                reader.endArray();
+                break;
+            case "labels":
+                readLabels(reader, node);
+                break;
+            case "children":
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    if (!skipNull(reader)) {
+                        readNode(reader, node);
+                    }
+                }
+                reader.endArray();
+                break;
+            case "edges":
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    if (!skipNull(reader)) {
+                        pendingEdges.put(node, readEdge(reader));
+                    }
+                }
+                reader.endArray();
+                break;
+            default:
+                if (!readShapeLayout(reader, name, node)) {
+                    reader.skipValue();
+                }
+            }
+        }
+        reader.endObject();
+
+        if (!hasId) {
+            throw noIdError();
+        }
+
+        // layout options are applied once the whole object is known to get the same property order as the json
+        // importer, regardless of the order of the object's members
+        setOptions(node, layoutOptions, legacyOptions);
+        if (individualSpacings != null) {
+            if (!node.hasProperty(CoreOptions.SPACING_INDIVIDUAL)) {
+                node.setProperty(CoreOptions.SPACING_INDIVIDUAL, new IndividualSpacings());
+            }
+            IndividualSpacings spacings = node.getProperty(CoreOptions.SPACING_INDIVIDUAL);
+            individualSpacings.forEach((key, value) -> setOption(spacings, key, value));
+        }
+
+        return node;
+    }
+
+    private void readPort(final JsonReader reader, final ElkNode parent) throws IOException {
+        ElkPort port = ElkGraphUtil.createPort(parent);
+        boolean hasId = false;
+        Map<String, String> layoutOptions = null;
+        Map<String, String> legacyOptions = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            switch (name) {
+            case "id":
+                portIdMap.put(readId(reader, port::setIdentifier), port);
+                hasId = true;
+                break;
+            case "layoutOptions":
+                layoutOptions = readOptions(reader);
+                break;
+            case "properties":
+                legacyOptions = readOptions(reader);
+                break;
+            case "labels":
+                readLabels(reader, port);
+                break;
+            default:
+                if (!readShapeLayout(reader, name, port)) {
+                    reader.skipValue();
+                }
+            }
+        }
+        reader.endObject();
+
+        if (!hasId) {
+            throw noIdError();
+        }
+        setOptions(port, layoutOptions, legacyOptions);
+    }
+
+    private void readLabels(final JsonReader reader, final ElkGraphElement parent) throws IOException {
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (skipNull(reader)) {
+                continue;
+            }
+
+            // labels without a text have a null text, just like the ones created by the json importer
+            ElkLabel label = ElkGraphUtil.createLabel(null, parent);
+            Map<String, String> layoutOptions = null;
+            Map<String, String> legacyOptions = null;
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                switch (name) {
+                case "text":
+                    label.setText(readString(reader));
+                    break;
+                case "id":
+                    label.setIdentifier(readString(reader));
+                    break;
+                case "layoutOptions":
+                    layoutOptions = readOptions(reader);
+                    break;
+                case "properties":
+                    legacyOptions = readOptions(reader);
+                    break;
+                default:
+                    if (!readShapeLayout(reader, name, label)) {
+                        reader.skipValue();
+                    }
+                }
+            }
+            reader.endObject();
+
+            setOptions(label, layoutOptions, legacyOptions);
+        }
+        reader.endArray();
+    }
+
+    /**
+     * Reads an edge without connecting it to anything, since its sources and targets may not have been read yet.
+     */
+    private PendingEdge readEdge(final JsonReader reader) throws IOException {
+        PendingEdge pending = new PendingEdge(ElkGraphUtil.createEdge(null));
+        boolean hasId = false;
+        Map<String, String> layoutOptions = null;
+        Map<String, String> legacyOptions = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+            case "id":
+                readId(reader, pending.edge::setIdentifier);
+                hasId = true;
+                break;
+            case "layoutOptions":
+                layoutOptions = readOptions(reader);
+                break;
+            case "properties":
+                legacyOptions = readOptions(reader);
+                break;
+            case "labels":
+                readLabels(reader, pending.edge);
+                break;
+
+            // edges with several sources and targets
+            case "sources":
+                pending.sources = readIds(reader);
+                break;
+            case "targets":
+                pending.targets = readIds(reader);
+                break;
+            case "sections":
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    if (!skipNull(reader)) {
+                        readSection(reader, pending);
+                    }
+                }
+                reader.endArray();
+                break;
+
+            // primitive edges
+            case "source":
+                pending.source = readId(reader, null);
+                break;
+            case "sourcePort":
+                pending.sourcePort = readId(reader, null);
+                break;
+            case "target":
+                pending.target = readId(reader, null);
+                break;
+            case "targetPort":
+                pending.targetPort = readId(reader, null);
+                break;
+            case "sourcePoint":
+                readStartPoint(reader, pending.primitiveSection());
+                break;
+            case "targetPoint":
+                readEndPoint(reader, pending.primitiveSection());
+                break;
+            case "bendPoints":
+                readBendPoints(reader, pending.primitiveSection());
+                break;
+
+            default:
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (!hasId) {
+            throw noIdError();
+        }
+        setOptions(pending.edge, layoutOptions, legacyOptions);
+
+        return pending;
+    }
+
+    private void readSection(final JsonReader reader, final PendingEdge pending) throws IOException {
+        ElkEdgeSection section = ElkGraphUtil.createEdgeSection(pending.edge);
+        PendingSection references = new PendingSection(section);
+        boolean hasId = false;
+        boolean hasStartPoint = false;
+        boolean hasEndPoint = false;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+            case "id":
+                edgeSectionIdMap.put(readId(reader, section::setIdentifier), section);
+                hasId = true;
+                break;
+            case "startPoint":
+                readStartPoint(reader, section);
+                hasStartPoint = true;
+                break;
+            case "endPoint":
+                readEndPoint(reader, section);
+                hasEndPoint = true;
+                break;
+            case "bendPoints":
+                readBendPoints(reader, section);
+                break;
+            case "incomingShape":
+                references.incomingShape = readString(reader);
+                break;
+            case "outgoingShape":
+                references.outgoingShape = readString(reader);
+                break;
+            case "incomingSections":
+                references.incomingSections = readIds(reader);
+                break;
+            case "outgoingSections":
+                references.outgoingSections = readIds(reader);
+                break;
+            default:
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (!hasId) {
+            throw noIdError();
+        }
+        if (!hasStartPoint) {
+            throw formatError("All edge sections need a start point.");
+        }
+        if (!hasEndPoint) {
+            throw formatError("All edge sections need an end point.");
+        }
+
+        pending.sections.add(references);
+    }
+
+    /* ---------------------------------------------------------------------------
+     *   Edge connection
+     */
+
+    /**
+     * Connects the edges listed by the given node and its descendants, in the same order as the {@link JsonImporter},
+     * such that all nodes end up with the same edges in the same order.
+     */
+    private void connectEdges(final ElkNode node) {
+        for (PendingEdge pending : pendingEdges.removeAll(node)) {
+            ElkEdge edge = pending.edge;
+            edge.setContainingNode(node);
+
+            if (pending.sources != null || pending.targets != null) {
+                connectEdge(pending);
+            } else {
+                connectPrimitiveEdge(pending);
+            }
+
+            ElkGraphUtil.updateContainment(edge);
+        }
+
+        for (ElkNode child : node.getChildren()) {
+            connectEdges(child);
+        }
+    }
+
+    private void connectPrimitiveEdge(final PendingEdge pending) {
+        ElkEdge edge = pending.edge;
+
+        ElkNode srcNode = nodeIdMap.get(pending.source);
+        ElkPort srcPort = pending.sourcePort == null ? null : portIdMap.get(pending.sourcePort);
+        if (srcNode == null) {
+            throw formatError("An edge must have a source node (edge id: '" + edge.getIdentifier() + "').");
+        }
+        if (srcPort != null && srcPort.getParent() != srcNode) {
+            throw formatError("The source port of an edge must be a port of the edge's source node (edge id: '"
+                    + edge.getIdentifier() + "').");
+        }
+        edge.getSources().add(srcPort != null ? srcPort : srcNode);
+
+        ElkNode tgtNode = nodeIdMap.get(pending.target);
+        ElkPort tgtPort = pending.targetPort == null ? null : portIdMap.get(pending.targetPort);
+        if (tgtNode == null) {
+            throw formatError("An edge must have a target node (edge id: '" + edge.getIdentifier() + "').");
+        }
+        if (tgtPort != null && tgtPort.getParent() != tgtNode) {
+            throw formatError("The target port of an edge must be a port of the edge's target node (edge id: '"
+                    + edge.getIdentifier() + "').");
+        }
+        edge.getTargets().add(tgtPort != null ? tgtPort : tgtNode);
+
+        // primitive edges describe their route through their source, target, and bend points only
+        edge.getSections().clear();
+        if (pending.primitiveSection != null) {
+            edge.getSections().add(pending.primitiveSection);
+        }
+    }
+
+    private void connectEdge(final PendingEdge pending) {
+        ElkEdge edge = pending.edge;
+
+        if (pending.sources != null) {
+            for (Object id : pending.sources) {
+                edge.getSources().add(shapeById(id));
+            }
+        }
+        if (pending.targets != null) {
+            for (Object id : pending.targets) {
+                edge.getTargets().add(shapeById(id));
+            }
+        }
+        if (edge.getSources().isEmpty() || edge.getTargets().isEmpty()) {
+            throw formatError("An edge must have at least one source and one target (edge id: '"
+                    + edge.getIdentifier() + "').");
+        }
+
+        // the json importer collects the section references in hash multimaps, so we do as well to get the same order
+        Multimap<ElkEdgeSection, Object> incomingSectionIdentifiers = HashMultimap.create();
+        Multimap<ElkEdgeSection, Object> outgoingSectionIdentifiers = HashMultimap.create();
+        for (PendingSection references : pending.sections) {
+            if (references.incomingShape != null) {
+                references.section.setIncomingShape(shapeById(references.incomingShape));
+            }
+            if (references.outgoingShape != null) {
+                references.section.setOutgoingShape(shapeById(references.outgoingShape));
+            }
+            if (references.incomingSections != null) {
+                incomingSectionIdentifiers.putAll(references.section, references.incomingSections);
+            }
+            if (references.outgoingSections != null) {
+                outgoingSectionIdentifiers.putAll(references.section, references.outgoingSections);
+            }
+        }
+
+        for (ElkEdgeSection section : incomingSectionIdentifiers.keySet()) {
+            for (Object id : incomingSectionIdentifiers.get(section)) {
+                section.getIncomingSections().add(sectionById(id, edge));
+            }
+        }
+        for (ElkEdgeSection section : outgoingSectionIdentifiers.keySet()) {
+            for (Object id : outgoingSectionIdentifiers.get(section)) {
+                section.getOutgoingSections().add(sectionById(id, edge));
+            }
+        }
+
+        // Special case: if the edge has only a single source, a single target, and a single edge section which has
+        // no incoming and outgoing shapes, set the incoming and outgoing shape to the source and target of the edge,
+        // respectively
+        if (edge.isConnected() && !edge.isHyperedge() && edge.getSections().size() == 1) {
+            ElkEdgeSection section = edge.getSections().get(0);
+            if (section.getIncomingShape() == null && section.getOutgoingShape() == null) {
+                section.setIncomingShape(edge.getSources().get(0));
+                section.setOutgoingShape(edge.getTargets().get(0));
+            }
+        }
+    }
+
+    private ElkConnectableShape shapeById(final Object id) {
+        ElkNode node = nodeIdMap.get(id);
+        if (node != null) {
+            return node;
+        }
+        ElkPort port = portIdMap.get(id);
+        if (port != null) {
+            return port;
+        }
+        throw formatError("Referenced shape does not exist: " + id);
+    }
+
+    private ElkEdgeSection sectionById(final Object id, final ElkEdge edge) {
+        ElkEdgeSection section = edgeSectionIdMap.get(id);
+        if (section == null) {
+            throw formatError("Referenced edge section does not exist: " + id
+                    + " (edge id: '" + edge.getIdentifier() + "').");
+        }
+        return section;
+    }
+
+    /* ---------------------------------------------------------------------------
+     *   Values
+     */
+
+    /**
+     * Reads the id of an element and, if a setter is given, sets the element's identifier. Ids are strings or
+     * integers.
+     */
+    private Object readId(final JsonReader reader, final Consumer<String> identifierSetter) throws IOException {
+        JsonToken token = reader.peek();
+        if (token != JsonToken.STRING && token != JsonToken.NUMBER) {
+            throw formatError("Id must be a string or an integer: '" + ELEMENT_ADAPTER.read(reader) + "'.");
+        }
+
+        String id = reader.nextString();
+        if (identifierSetter != null) {
+            identifierSetter.accept(id);
+        }
+        if (token == JsonToken.STRING) {
+            return id;
+        }
+
+        double number = Double.parseDouble(id);
+        if (number % 1 != 0) {
+            throw formatError("Id must be a string or an integer: '" + id + "'.");
+        }
+        return (int) number;
+    }
+
+    private List<Object> readIds(final JsonReader reader) throws IOException {
+        List<Object> ids = Lists.newArrayList();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            ids.add(readId(reader, null));
+        }
+        reader.endArray();
+        return ids;
+    }
+
+    /**
+     * Reads the string value of a primitive. Anything else is left to gson, which fails for objects and arrays.
+     */
+    private String readString(final JsonReader reader) throws IOException {
+        switch (reader.peek()) {
+        case STRING:
+        case NUMBER:
+            return reader.nextString();
+        case BOOLEAN:
+            return Boolean.toString(reader.nextBoolean());
+        default:
+            return ELEMENT_ADAPTER.read(reader).getAsString();
+        }
+    }
+
+    private double readDouble(final JsonReader reader) throws IOException {
+        switch (reader.peek()) {
+        case STRING:
+        case NUMBER:
+            return Double.parseDouble(reader.nextString());
+        default:
+            return ELEMENT_ADAPTER.read(reader).getAsDouble();
+        }
+    }
+
+    private double readValidDouble(final JsonReader reader) throws IOException {
+        double d = readDouble(reader);
+        return Double.isInfinite(d) || Double.isNaN(d) ? 0.0 : d;
+    }
+
+    /**
+     * Consumes a null value, which the importer treats like an absent one.
+     */
+    private boolean skipNull(final JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Reads a member that describes the position or size of a shape.
+     *
+     * @return {@code true} if the member was consumed.
+     */
+    private boolean readShapeLayout(final JsonReader reader, final String name, final ElkShape shape)
+            throws IOException {
+
+        switch (name) {
+        case "x":
+            shape.setX(readValidDouble(reader));
+            return true;
+        case "y":
+            shape.setY(readValidDouble(reader));
+            return true;
+        case "width":
+            shape.setWidth(readValidDouble(reader));
+            return true;
+        case "height":
+            shape.setHeight(readValidDouble(reader));
+            return true;
+        default:
+            return false;
+        }
+    }
+
+    private void readStartPoint(final JsonReader reader, final ElkEdgeSection section) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+            case "x":
+                section.setStartX(readDouble(reader));
+                break;
+            case "y":
+                section.setStartY(readDouble(reader));
+                break;
+            default:
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    private void readEndPoint(final JsonReader reader, final ElkEdgeSection section) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+            case "x":
+                section.setEndX(readDouble(reader));
+                break;
+            case "y":
+                section.setEndY(readDouble(reader));
+                break;
+            default:
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    private void readBendPoints(final JsonReader reader, final ElkEdgeSection section) throws IOException {
+        reader.beginArray();
+        while (reader.hasNext()) {
+            double x = 0;
+            double y = 0;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                case "x":
+                    x = readDouble(reader);
+                    break;
+                case "y":
+                    y = readDouble(reader);
+                    break;
+                default:
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+            ElkGraphUtil.createBendPoint(section, x, y);
+        }
+        reader.endArray();
+    }
+
+    /* ---------------------------------------------------------------------------
+     *   Layout options
+     */
+
+    private Map<String, String> readOptions(final JsonReader reader) throws IOException {
+        Map<String, String> options = Maps.newLinkedHashMap();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String key = reader.nextName();
+            options.put(key, readString(reader));
+        }
+        reader.endObject();
+        return options;
+    }
+
+    /**
+     * Applies the layout options of an element. The legacy {@code properties} member is only used if there is no
+     * {@code layoutOptions} member.
+     */
+    private void setOptions(final IPropertyHolder holder, final Map<String, String> layoutOptions,
+            final Map<String, String> legacyOptions) {
+
+        Map<String, String> options = layoutOptions != null ? layoutOptions : legacyOptions;
+        if (options != null) {
+            options.forEach((key, value) -> setOption(holder, key, value));
+        }
+    }
+
+    private void setOption(final IPropertyHolder holder, final String id, final String value) {
+        LayoutOptionData optionData = LayoutMetaDataService.getInstance().getOptionDataBySuffix(id);
+        if (optionData != null) {
+            Object parsed = optionData.parseValue(value);
+            if (parsed != null) {
+                holder.setProperty(optionData, parsed);
+            }
+        }
+    }
+
+    /* ---------------------------------------------------------------------------
+     *   Convenience
+     */
+
+    private JsonImportException formatError(final String message) {
+        return new JsonImportException(message);
+    }
+
+    private JsonImportException noIdError() {
+        return formatError("Every element must have an id.");
+    }
+
+    /**
+     * An edge whose sources and targets are only known by their ids until the whole graph has been read.
+     */
+    private static final class PendingEdge {
+        private final ElkEdge edge;
+        private final List<PendingSection> sections = Lists.newArrayList();
+
+        // edges with several sources and targets
+        private List<Object> sources;
+        private List<Object> targets;
+
+        // primitive edges
+        private Object source;
+        private Object sourcePort;
+        private Object target;
+        private Object targetPort;
+        private ElkEdgeSection primitiveSection;
+
+        PendingEdge(final ElkEdge edge) {
+            this.edge = edge;
+        }
+
+        /**
+         * Returns the section described by the source, target, and bend points of a primitive edge. It is only added
+         * to the edge once the edge turns out to be primitive.
+         */
+        ElkEdgeSection primitiveSection() {
+            if (primitiveSection == null) {
+                primitiveSection = ElkGraphUtil.createEdgeSection(null);
+            }
+            return primitiveSection;
+        }
+    }
+
+    /**
+     * The shapes and sections an edge section references by their ids.
+     */
+    private static final class PendingSection {
+        private final ElkEdgeSection section;
+        private String incomingShape;
+        private String outgoingShape;
+        private List<Object> incomingSections;
+        private List<Object> outgoingSections;
+
+        PendingSection(final ElkEdgeSection section) {
+            this.section = section;
+        }
+    }
+
+}
@@ -1,6 +1,6 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2017 Kiel University and others.
- * 
+ * Copyright (c) 2009, 2024 Kiel University and others.
+ *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License 2.0 which is available at
  * http://www.eclipse.org/legal/epl-2.0.
@@ -9,15 +9,27 @@
  *******************************************************************************/
 package org.eclipse.elk.graph.properties;
 
+// elkjs-exclude-start
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
+// elkjs-exclude-end
 import java.io.Serializable;
-import java.util.Collections;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
-
-import com.google.common.collect.Maps;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
 
 /**
- * An implementation of {@link IPropertyHolder} based on a {@link HashMap}.
+ * An implementation of {@link IPropertyHolder} that stores property values in compact arrays indexed by the
+ * properties' {@link PropertyOrdinals ordinals}. Holders with few properties are searched linearly, larger ones
+ * through an open addressing table. Nothing is allocated until the first property is set.
  *
  * @author msp
  */
@@ -25,39 +37,60 @@ public class MapPropertyHolder implements IPropertyHolder, Serializable {
 
     /** the serial version UID. */
     private static final long serialVersionUID = 4507851447415709893L;
-    
-    /** map of property identifiers to their values. */
-    private HashMap<IProperty<?>, Object> propertyMap;
-    
+    // elkjs-exclude-start
+    /** the serialized form is a map of properties to their values, as it was before the properties were arrays. */
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("propertyMap", HashMap.class) };
+    // elkjs-exclude-end
+
+    /** initial number of properties space is allocated for. */
+    private static final int INITIAL_CAPACITY = 4;
+    /** up to this number of properties, property lookups scan the ordinals linearly. */
+    private static final int LINEAR_SCAN_CAPACITY = 8;
+
+    /** properties that have a value. */
+    private transient IProperty<?>[] keys;
+    /** values of the properties in {@link #keys}. */
+    private transient Object[] values;
+    /** number of properties that have a value. */
+    private transient int size;
+    /** ordinals of the properties in {@link #keys}. */
+    private transient int[] ordinals;
+    /** open addressing table of indices into {@link #keys} plus one, or {@code null} while scanning linearly. */
+    private transient int[] table;
+
     @Override
     public <T> MapPropertyHolder setProperty(final IProperty<? super T> property, final T value) {
         if (value == null) {
-            getProperties().remove(property);
+            remove(property);
         } else {
-            getProperties().put(property, value);
+            put(property, value);
         }
-        
+
         return this;
     }
-    
+
     @Override
     @SuppressWarnings("unchecked")
     public <T> T getProperty(final IProperty<T> property) {
-        Object value = getProperties().get(property);
-        if (value instanceof IPropertyValueProxy) {
-            value = ((IPropertyValueProxy) value).resolveValue(property);
-            if (value != null) {
-                getProperties().put(property, value);
+        int index = indexOf(property);
+        if (index >= 0) {
+            Object value = values[index];
+            if (value instanceof IPropertyValueProxy) {
+                value = ((IPropertyValueProxy) value).resolveValue(property);
+                if (value != null) {
+                    values[index] = value;
+                    return (T) value;
+                }
+            } else if (value != null) {
                 return (T) value;
             }
-        } else if (value != null) {
-            return (T) value;
         }
 
-        // the reason for the side effect below is that if a default value has been returned 
-        // and the object is altered by the user, the user expects the altered object to be 
+        // the reason for the side effect below is that if a default value has been returned
+        // and the object is altered by the user, the user expects the altered object to be
         // the value of the property in case he asks for the property again
-        
+
         // Retrieve the default value and memorize it for our property
         T defaultValue = property.getDefault();
         if (defaultValue instanceof Cloneable) {
@@ -67,49 +100,362 @@ public class MapPropertyHolder implements IPropertyHolder, Serializable {
         }
         return defaultValue;
     }
-    
+
     @Override
     public boolean hasProperty(final IProperty<?> property) {
-        return propertyMap != null && propertyMap.containsKey(property);
+        return indexOf(property) >= 0;
     }
-    
+
     @Override
     public MapPropertyHolder copyProperties(final IPropertyHolder other) {
-        if (other == null) {
-            return this;
-        }
-
-        final Map<IProperty<?>, Object> otherMap = other.getAllProperties();
-        if (!otherMap.isEmpty()) {
-            if (this.propertyMap == null) {
-                propertyMap = new HashMap<IProperty<?>, Object>(otherMap);
+        if (other instanceof MapPropertyHolder) {
+            MapPropertyHolder holder = (MapPropertyHolder) other;
+            if (size == 0 && holder.size > 0) {
+                // the arrays of the other holder can be taken as they are
+                keys = holder.keys.clone();
+                values = holder.values.clone();
+                ordinals = holder.ordinals.clone();
+                table = holder.table == null ? null : holder.table.clone();
+                size = holder.size;
             } else {
-                this.propertyMap.putAll(otherMap);
+                for (int i = 0; i < holder.size; i++) {
+                    put(holder.keys[i], holder.ordinals[i], holder.values[i]);
+                }
+            }
+        } else if (other != null) {
+            for (Map.Entry<IProperty<?>, Object> entry : other.getAllProperties().entrySet()) {
+                put(entry.getKey(), entry.getValue());
             }
         }
 
         return this;
     }
-    
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The returned map is a live view of the properties of this holder: changes to the map write through to the
+     * holder and vice versa.</p>
+     */
     @Override
     public Map<IProperty<?>, Object> getAllProperties() {
-        if (propertyMap == null) {
-            return Collections.emptyMap();
+        return new PropertyMap();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////
+    // Storage
+
+    /**
+     * Returns the index of the given property in {@link #keys}, or -1 if it has no value.
+     */
+    private int indexOf(final IProperty<?> property) {
+        if (size == 0) {
+            return -1;
+        }
+        return indexOf(PropertyOrdinals.of(property));
+    }
+
+    /**
+     * Returns the index of the property with the given ordinal in {@link #keys}, or -1 if it has no value.
+     */
+    private int indexOf(final int ordinal) {
+        if (size == 0) {
+            return -1;
+        }
+        if (table == null) {
+            for (int i = 0; i < size; i++) {
+                if (ordinals[i] == ordinal) {
+                    return i;
+                }
+            }
         } else {
-            return propertyMap;
+            int mask = table.length - 1;
+            for (int slot = ordinal & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+                int index = table[slot] - 1;
+                if (ordinals[index] == ordinal) {
+                    return index;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Sets the value of the given property. A {@code null} value is only stored when set through the map view.
+     */
+    private void put(final IProperty<?> property, final Object value) {
+        put(property, PropertyOrdinals.of(property), value);
+    }
+
+    /**
+     * Sets the value of the given property, whose ordinal is already known.
+     */
+    private void put(final IProperty<?> property, final int ordinal, final Object value) {
+        int index = indexOf(ordinal);
+        if (index >= 0) {
+            values[index] = value;
+            return;
+        }
+
+        if (keys == null) {
+            keys = new IProperty<?>[INITIAL_CAPACITY];
+            values = new Object[INITIAL_CAPACITY];
+            ordinals = new int[INITIAL_CAPACITY];
+        }
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+            ordinals = Arrays.copyOf(ordinals, size * 2);
+            table = null;
+        }
+
+        keys[size] = property;
+        values[size] = value;
+        ordinals[size] = ordinal;
+        size++;
+
+        if (table != null) {
+            insertIntoTable(size - 1);
+        } else if (keys.length > LINEAR_SCAN_CAPACITY) {
+            rebuildTable();
         }
     }
-    
+
     /**
-     * Returns the property map, creating a new map if there hasn't been one so far.
-     * 
-     * @return the property map.
+     * Removes the value of the given property, if any. The last property takes the place of the removed one.
      */
-    private Map<IProperty<?>, Object> getProperties() {
-        if (propertyMap == null) {
-            propertyMap = Maps.newHashMap();
+    private void remove(final IProperty<?> property) {
+        int index = indexOf(property);
+        if (index < 0) {
+            return;
+        }
+
+        size--;
+        keys[index] = keys[size];
+        values[index] = values[size];
+        ordinals[index] = ordinals[size];
+        keys[size] = null;
+        values[size] = null;
+
+        if (table != null) {
+            rebuildTable();
+        }
+    }
+
+    /**
+     * Creates a table twice the capacity of {@link #keys} and inserts all properties into it.
+     */
+    private void rebuildTable() {
+        table = new int[keys.length * 2];
+        for (int i = 0; i < size; i++) {
+            insertIntoTable(i);
         }
-        return propertyMap;
     }
-    
+
+    /**
+     * Inserts the property with the given index into the table.
+     */
+    private void insertIntoTable(final int index) {
+        int mask = table.length - 1;
+        int slot = ordinals[index] & mask;
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = index + 1;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////
+    // Serialization
+
+    // elkjs-exclude-start
+    /**
+     * Writes the properties as a map, which keeps the serialized form compatible with earlier versions.
+     */
+    private void writeObject(final ObjectOutputStream out) throws IOException {
+        HashMap<IProperty<?>, Object> propertyMap = null;
+        if (size > 0) {
+            propertyMap = new HashMap<>();
+            for (int i = 0; i < size; i++) {
+                propertyMap.put(keys[i], values[i]);
+            }
+        }
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("propertyMap", propertyMap);
+        out.writeFields();
+    }
+
+    /**
+     * Reads the properties written by {@link #writeObject(ObjectOutputStream)}.
+     */
+    @SuppressWarnings("unchecked")
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        Map<IProperty<?>, Object> propertyMap = (Map<IProperty<?>, Object>) fields.get("propertyMap", null);
+        if (propertyMap != null) {
+            for (Map.Entry<IProperty<?>, Object> entry : propertyMap.entrySet()) {
+                put(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+    // elkjs-exclude-end
+
+
+    ///////////////////////////////////////////////////////////////////////////////
+    // Map View
+
+    /**
+     * Modifiable view of the properties of this holder.
+     */
+    private final class PropertyMap extends AbstractMap<IProperty<?>, Object> {
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            return key instanceof IProperty<?> && indexOf((IProperty<?>) key) >= 0;
+        }
+
+        @Override
+        public Object get(final Object key) {
+            if (key instanceof IProperty<?>) {
+                int index = indexOf((IProperty<?>) key);
+                if (index >= 0) {
+                    return values[index];
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public Object put(final IProperty<?> key, final Object value) {
+            Object previous = get(key);
+            MapPropertyHolder.this.put(key, value);
+            return previous;
+        }
+
+        @Override
+        public Object remove(final Object key) {
+            Object previous = get(key);
+            if (key instanceof IProperty<?>) {
+                MapPropertyHolder.this.remove((IProperty<?>) key);
+            }
+            return previous;
+        }
+
+        @Override
+        public void clear() {
+            if (size > 0) {
+                Arrays.fill(keys, 0, size, null);
+                Arrays.fill(values, 0, size, null);
+                size = 0;
+                if (table != null) {
+                    Arrays.fill(table, 0);
+                }
+            }
+        }
+
+        @Override
+        public Set<Map.Entry<IProperty<?>, Object>> entrySet() {
+            return new AbstractSet<Map.Entry<IProperty<?>, Object>>() {
+                @Override
+                public int size() {
+                    return size;
+                }
+
+                @Override
+                public void clear() {
+                    PropertyMap.this.clear();
+                }
+
+                @Override
+                public Iterator<Map.Entry<IProperty<?>, Object>> iterator() {
+                    return new Iterator<Map.Entry<IProperty<?>, Object>>() {
+                        private int next = 0;
+                        private IProperty<?> last = null;
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < size;
+                        }
+
+                        @Override
+                        public Map.Entry<IProperty<?>, Object> next() {
+                            if (next >= size) {
+                                throw new NoSuchElementException();
+                            }
+                            last = keys[next++];
+                            return new PropertyEntry(last);
+                        }
+
+                        @Override
+                        public void remove() {
+                            if (last == null) {
+                                throw new IllegalStateException();
+                            }
+                            // the last property takes the place of the removed one and is returned next
+                            MapPropertyHolder.this.remove(last);
+                            last = null;
+                            next--;
+                        }
+                    };
+                }
+            };
+        }
+    }
+
+    /**
+     * Entry of the map view whose value writes through to the holder.
+     */
+    private final class PropertyEntry implements Map.Entry<IProperty<?>, Object> {
+
+        /** the property of this entry. */
+        private final IProperty<?> key;
+
+        PropertyEntry(final IProperty<?> key) {
+            this.key = key;
+        }
+
+        @Override
+        public IProperty<?> getKey() {
+            return key;
+        }
+
+        @Override
+        public Object getValue() {
+            int index = indexOf(key);
+            return index >= 0 ? values[index] : null;
+        }
+
+        @Override
+        public Object setValue(final Object value) {
+            Object previous = getValue();
+            put(key, value);
+            return previous;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof Map.Entry<?, ?>)) {
+                return false;
+            }
+            Map.Entry<?, ?> other = (Map.Entry<?, ?>) obj;
+            return Objects.equals(key, other.getKey()) && Objects.equals(getValue(), other.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + getValue();
+        }
+    }
+
 }
@@ -30,7 +30,9 @@ public class Property<T> implements IProperty<T>, Comparable<IProperty<?>> {
     private Comparable<? super T> lowerBound = NEGATIVE_INFINITY;
     /** the upper bound of this property. */
     private Comparable<? super T> upperBound = POSITIVE_INFINITY;
-    
+    /** the ordinal of this property's identifier, or -1 if not known yet; see {@link PropertyOrdinals}. */
+    int ordinal = -1;
+
     /**
      * Creates a property with given identifier and {@code null} as default value.
      * 
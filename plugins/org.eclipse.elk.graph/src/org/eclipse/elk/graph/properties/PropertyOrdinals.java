@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Kiel University and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.elk.graph.properties;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Assigns dense ordinals to property identifiers. Properties are identified by their identifier, so all property
+ * instances with the same identifier share the same ordinal. Ordinals are assigned in the order identifiers are first
+ * encountered, either when the layout meta data service registers its layout options or when a property is first
+ * used. {@link Property} instances cache their ordinal, which makes looking them up in a {@link MapPropertyHolder}
+ * cheap. Other properties, such as layout option data, look up their identifier without locking.
+ *
+ * <p>
+ * An ordinal stays assigned as long as the class is loaded since holders may still store values under it. The number
+ * of ordinals is the number of distinct identifiers used, which is the number of layout options plus the properties
+ * declared by the algorithms, unless an application creates property identifiers on the fly.
+ * </p>
+ */
+public final class PropertyOrdinals {
+
+    /** ordinals of all identifiers encountered so far. */
+    private static final Map<String, Integer> ORDINALS = new ConcurrentHashMap<>();
+    /** the ordinal assigned to the next new identifier. */
+    private static final AtomicInteger NEXT_ORDINAL = new AtomicInteger();
+
+    /**
+     * Hidden constructor to prevent instantiation.
+     */
+    private PropertyOrdinals() {
+    }
+
+    /**
+     * Returns the ordinal of the given property, assigning a new one if its identifier has not been encountered yet.
+     *
+     * @param property the property.
+     * @return the property's ordinal.
+     */
+    public static int of(final IProperty<?> property) {
+        if (property instanceof Property<?>) {
+            Property<?> prop = (Property<?>) property;
+            if (prop.ordinal < 0) {
+                prop.ordinal = register(prop.getId());
+            }
+            return prop.ordinal;
+        }
+        return register(property.getId());
+    }
+
+    /**
+     * Returns the ordinal of the given property identifier, assigning a new one if the identifier has not been
+     * encountered yet.
+     *
+     * @param id the property identifier.
+     * @return the identifier's ordinal.
+     */
+    public static int register(final String id) {
+        // known identifiers are looked up without locking; new ones are assigned exactly one ordinal
+        Integer ordinal = ORDINALS.get(id);
+        if (ordinal == null) {
+            ordinal = ORDINALS.computeIfAbsent(id, newId -> NEXT_ORDINAL.getAndIncrement());
+        }
+        return ordinal;
+    }
+
+}
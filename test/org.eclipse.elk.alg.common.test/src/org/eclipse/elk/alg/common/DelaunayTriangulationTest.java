@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Kiel University and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.elk.alg.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.eclipse.elk.core.math.KVector;
+import org.junit.Test;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Sets;
+
+/**
+ * Tests that the {@link DelaunayTriangulation} yields the same edges as the {@link BowyerWatsonTriangulation}.
+ */
+public class DelaunayTriangulationTest {
+
+    /**
+     * Points in general position, whose Delaunay triangulation is unique.
+     */
+    @Test
+    public void testRandomPoints() {
+        for (int seed = 0; seed < 20; seed++) {
+            Random random = new Random(seed);
+            List<KVector> points = Lists.newArrayList();
+            for (int i = 0; i < 300; i++) {
+                points.add(new KVector(random.nextDouble() * 1000, random.nextDouble() * 800));
+            }
+            assertSameEdges(points);
+        }
+    }
+
+    /**
+     * Points on a grid, where many points lie on the same circles and the triangulation depends on the order in which
+     * they are inserted.
+     */
+    @Test
+    public void testGridPoints() {
+        for (int seed = 0; seed < 20; seed++) {
+            Random random = new Random(seed);
+            Set<KVector> points = Sets.newLinkedHashSet();
+            while (points.size() < 200) {
+                points.add(new KVector(random.nextInt(20) * 40, random.nextInt(20) * 30));
+            }
+            assertSameEdges(Lists.newArrayList(points));
+        }
+    }
+
+    /**
+     * Very few points, including ones that lie on a line.
+     */
+    @Test
+    public void testFewPoints() {
+        assertTrue(DelaunayTriangulation.triangulate(Lists.newArrayList()).isEmpty());
+        assertTrue(DelaunayTriangulation.triangulate(Lists.newArrayList(new KVector(1, 2))).isEmpty());
+        assertSameEdges(Lists.newArrayList(new KVector(0, 0), new KVector(10, 5)));
+        assertSameEdges(Lists.newArrayList(new KVector(0, 0), new KVector(10, 0), new KVector(20, 0)));
+        assertSameEdges(Lists.newArrayList(new KVector(0, 0), new KVector(10, 0), new KVector(5, 10)));
+    }
+
+    /**
+     * The triangulation of many points must be connected and must have the number of edges a triangulation has.
+     */
+    @Test
+    public void testManyPoints() {
+        Random random = new Random(0);
+        List<KVector> points = Lists.newArrayList();
+        for (int i = 0; i < 20000; i++) {
+            points.add(new KVector(random.nextDouble() * 10000, random.nextDouble() * 10000));
+        }
+
+        Set<TEdge> edges = DelaunayTriangulation.triangulate(points);
+
+        // by Euler's formula, a triangulation of n points with h points on the convex hull has 3n - 3 - h edges, so
+        // there may be at most 3n - 6 edges
+        assertTrue(edges.size() <= 3 * points.size() - 6);
+        assertTrue(edges.size() >= 3 * points.size() - 3 - points.size() / 10);
+        assertEquals(points.size(), countReachablePoints(edges, points.get(0)));
+    }
+
+    ///////////////////////////////////////////////////////////////////////////////
+    // Utilities
+
+    private void assertSameEdges(final List<KVector> points) {
+        assertEquals(BowyerWatsonTriangulation.triangulate(points), DelaunayTriangulation.triangulate(points));
+    }
+
+    private int countReachablePoints(final Set<TEdge> edges, final KVector start) {
+        Multimap<KVector, KVector> neighbors = HashMultimap.create();
+        for (TEdge edge : edges) {
+            neighbors.put(edge.u, edge.v);
+            neighbors.put(edge.v, edge.u);
+        }
+
+        Set<KVector> reached = Sets.newHashSet(start);
+        Deque<KVector> queue = new ArrayDeque<>(reached);
+        while (!queue.isEmpty()) {
+            for (KVector neighbor : neighbors.get(queue.poll())) {
+                if (reached.add(neighbor)) {
+                    queue.add(neighbor);
+                }
+            }
+        }
+        return reached.size();
+    }
+
+}
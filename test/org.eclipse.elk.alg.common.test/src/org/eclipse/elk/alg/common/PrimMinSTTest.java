@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Kiel University and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.elk.alg.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.eclipse.elk.core.math.KVector;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+/**
+ * Tests that the {@link PrimMinST} yields the same spanning trees as the {@link NaiveMinST}, down to the order of each
+ * node's children.
+ */
+public class PrimMinSTTest {
+
+    /**
+     * The edges of a Delaunay triangulation of random points, which is what SPOrE computes spanning trees of.
+     */
+    @Test
+    public void testRandomPoints() {
+        for (int seed = 0; seed < 10; seed++) {
+            List<KVector> points = randomPoints(new Random(seed), 300);
+            Set<TEdge> edges = DelaunayTriangulation.triangulate(points);
+            assertSameTree(edges, points.get(0), e -> e.u.distance(e.v));
+        }
+    }
+
+    /**
+     * Inverting the costs yields a maximum spanning tree, which SPOrE uses as well.
+     */
+    @Test
+    public void testMaximumSpanningTree() {
+        for (int seed = 0; seed < 10; seed++) {
+            List<KVector> points = randomPoints(new Random(seed), 300);
+            Set<TEdge> edges = DelaunayTriangulation.triangulate(points);
+            assertSameTree(edges, points.get(points.size() - 1), e -> -e.u.distance(e.v));
+        }
+    }
+
+    /**
+     * Many edges of equal cost, whose ties have to be broken the same way.
+     */
+    @Test
+    public void testEqualCosts() {
+        for (int seed = 0; seed < 10; seed++) {
+            Random random = new Random(seed);
+            Set<KVector> points = Sets.newLinkedHashSet();
+            while (points.size() < 150) {
+                points.add(new KVector(random.nextInt(15) * 40, random.nextInt(15) * 40));
+            }
+            Set<TEdge> edges = DelaunayTriangulation.triangulate(Lists.newArrayList(points));
+            assertSameTree(edges, points.iterator().next(), e -> e.u.distance(e.v));
+            assertSameTree(edges, points.iterator().next(), e -> 1);
+        }
+    }
+
+    /**
+     * A root that isn't part of any edge remains on its own.
+     */
+    @Test
+    public void testIsolatedRoot() {
+        KVector root = new KVector(-1, -1);
+        Tree<KVector> tree = PrimMinST.createSpanningTree(
+                Sets.newHashSet(new TEdge(new KVector(0, 0), new KVector(1, 1))), root, e -> 1);
+        assertEquals(root, tree.node);
+        assertTrue(tree.children.isEmpty());
+    }
+
+    ///////////////////////////////////////////////////////////////////////////////
+    // Utilities
+
+    private List<KVector> randomPoints(final Random random, final int count) {
+        List<KVector> points = Lists.newArrayList();
+        for (int i = 0; i < count; i++) {
+            points.add(new KVector(random.nextDouble() * 1000, random.nextDouble() * 800));
+        }
+        return points;
+    }
+
+    private void assertSameTree(final Set<TEdge> edges, final KVector root, final ICostFunction costFunction) {
+        Tree<KVector> expected = NaiveMinST.createSpanningTree(edges, root, costFunction);
+        Tree<KVector> actual = PrimMinST.createSpanningTree(edges, root, costFunction);
+        assertSameTree(expected, actual);
+    }
+
+    private void assertSameTree(final Tree<KVector> expected, final Tree<KVector> actual) {
+        assertEquals(expected.node, actual.node);
+        assertEquals(expected.children.size(), actual.children.size());
+        for (int i = 0; i < expected.children.size(); i++) {
+            assertSameTree(expected.children.get(i), actual.children.get(i));
+        }
+    }
+
+}
@@ -0,0 +1,202 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Kiel University and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.elk.alg.common;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests for the {@link SegmentCrossingCounter}.
+ */
+public class SegmentCrossingCounterTest {
+
+    @Test
+    public void testSpecialCases() {
+        // proper crossing
+        assertCrossings(1, 0, 0, 10, 10, 0, 10, 10, 0);
+        // parallel
+        assertCrossings(0, 0, 0, 10, 0, 0, 1, 10, 1);
+        // an end point on the other segment
+        assertCrossings(1, 0, 0, 10, 0, 5, 0, 5, 10);
+        // shared end point
+        assertCrossings(1, 0, 0, 10, 0, 10, 0, 10, 10);
+        // collinear and overlapping
+        assertCrossings(1, 0, 0, 10, 0, 5, 0, 15, 0);
+        // collinear and disjoint
+        assertCrossings(0, 0, 0, 10, 0, 11, 0, 15, 0);
+        // vertical
+        assertCrossings(1, 5, -5, 5, 5, 0, 0, 10, 0);
+        // lines intersect outside of the segments
+        assertCrossings(0, 0, 0, 1, 1, 3, 0, 2, 1);
+        // degenerated to a point on the other segment
+        assertCrossings(1, 3, 3, 3, 3, 0, 0, 10, 10);
+    }
+
+    /**
+     * Enough segments to use a grid have to yield the same count as testing all pairs.
+     */
+    @Test
+    public void testRandomSegments() {
+        SegmentCrossingCounter counter = new SegmentCrossingCounter();
+        for (int seed = 0; seed < 20; seed++) {
+            Random random = new Random(seed);
+            int segments = 10 + random.nextInt(500);
+            double length = 5 + random.nextInt(200);
+            double[][] coordinates = new double[segments][];
+
+            // reuse the counter for all seeds
+            counter.reset();
+            for (int i = 0; i < segments; i++) {
+                // integer coordinates produce touching and collinear segments
+                double x = random.nextInt(500);
+                double y = random.nextInt(500);
+                coordinates[i] = new double[] { x, y, x + Math.round((random.nextDouble() - 0.5) * length),
+                        y + Math.round((random.nextDouble() - 0.5) * length) };
+                counter.addSegment(coordinates[i][0], coordinates[i][1], coordinates[i][2], coordinates[i][3]);
+            }
+
+            assertEquals(segments, counter.getSegmentCount());
+            assertEquals(countAllPairs(coordinates), counter.countCrossings());
+        }
+    }
+
+    /**
+     * Segments that are all parallel to an axis produce a grid with a single row or column.
+     */
+    @Test
+    public void testFlatSegments() {
+        SegmentCrossingCounter counter = new SegmentCrossingCounter();
+        double[][] coordinates = new double[100][];
+        for (int i = 0; i < coordinates.length; i++) {
+            coordinates[i] = new double[] { i, 0, i + 2.5, 0 };
+            counter.addSegment(i, 0, i + 2.5, 0);
+        }
+        assertEquals(countAllPairs(coordinates), counter.countCrossings());
+    }
+
+    /**
+     * Segments of a radial layout run from the center to the nodes around it. Long segments cross many cells of the
+     * grid, and near the center, many of them share the same cells.
+     */
+    @Test
+    public void testRadialSegments() {
+        SegmentCrossingCounter counter = new SegmentCrossingCounter();
+        for (double centerRadius : new double[] { 0, 10, 100 }) {
+            Random random = new Random(0);
+            double[][] coordinates = new double[400][];
+            counter.reset();
+            for (int i = 0; i < coordinates.length; i++) {
+                double angle = 2 * Math.PI * i / coordinates.length;
+                coordinates[i] = new double[] { 500 * Math.cos(angle), 500 * Math.sin(angle),
+                        (random.nextDouble() - 0.5) * centerRadius, (random.nextDouble() - 0.5) * centerRadius };
+                counter.addSegment(coordinates[i][0], coordinates[i][1], coordinates[i][2], coordinates[i][3]);
+            }
+            // segments sharing the center all touch each other, which the reference misses due to rounding errors
+            int expected = centerRadius == 0 ? coordinates.length * (coordinates.length - 1) / 2
+                    : countAllPairs(coordinates);
+            assertEquals(expected, counter.countCrossings());
+        }
+    }
+
+    /**
+     * Long horizontal and vertical segments cross each other exactly on the borders of the grid cells.
+     */
+    @Test
+    public void testCrossingsOnCellBorders() {
+        SegmentCrossingCounter counter = new SegmentCrossingCounter();
+        double[][] coordinates = new double[2 * 50][];
+        for (int i = 0; i < 50; i++) {
+            // the grid has 10 by 10 cells of size 20
+            coordinates[2 * i] = new double[] { 0, 4 * i, 200, 4 * i };
+            coordinates[2 * i + 1] = new double[] { 4 * i, 200, 4 * i, 0 };
+            counter.addSegment(0, 4 * i, 200, 4 * i);
+            counter.addSegment(4 * i, 200, 4 * i, 0);
+        }
+        assertEquals(50 * 50, countAllPairs(coordinates));
+        assertEquals(50 * 50, counter.countCrossings());
+
+        // diagonals in both directions through the corners of the cells
+        counter.reset();
+        for (int i = 0; i < 50; i++) {
+            coordinates[2 * i] = new double[] { 0, 4 * i, 200 - 4 * i, 200 };
+            coordinates[2 * i + 1] = new double[] { 4 * i + 4, 0, 0, 4 * i + 4 };
+            counter.addSegment(0, 4 * i, 200 - 4 * i, 200);
+            counter.addSegment(0, 4 * i + 4, 4 * i + 4, 0);
+        }
+        assertEquals(countAllPairs(coordinates), counter.countCrossings());
+    }
+
+    private void assertCrossings(final int expected, final double... coordinates) {
+        SegmentCrossingCounter counter = new SegmentCrossingCounter();
+        counter.addSegment(coordinates[0], coordinates[1], coordinates[2], coordinates[3]);
+        counter.addSegment(coordinates[4], coordinates[5], coordinates[6], coordinates[7]);
+        assertEquals(expected, counter.countCrossings());
+
+        // the order of the segments and their end points does not matter
+        counter.reset();
+        counter.addSegment(coordinates[6], coordinates[7], coordinates[4], coordinates[5]);
+        counter.addSegment(coordinates[0], coordinates[1], coordinates[2], coordinates[3]);
+        assertEquals(expected, counter.countCrossings());
+    }
+
+    /**
+     * Counts the crossings by testing all pairs of segments for an intersection of the lines through them.
+     */
+    private int countAllPairs(final double[][] segments) {
+        int crossings = 0;
+        for (int i = 0; i < segments.length; i++) {
+            for (int j = i + 1; j < segments.length; j++) {
+                if (intersect(segments[i], segments[j])) {
+                    crossings++;
+                }
+            }
+        }
+        return crossings;
+    }
+
+    /**
+     * Tests whether two segments intersect by solving {@code a1 + s (a2 - a1) = b1 + t (b2 - b1)} for s and t.
+     */
+    private boolean intersect(final double[] a, final double[] b) {
+        double dax = a[2] - a[0];
+        double day = a[3] - a[1];
+        double dbx = b[2] - b[0];
+        double dby = b[3] - b[1];
+        double denominator = dax * dby - day * dbx;
+        double ox = b[0] - a[0];
+        double oy = b[1] - a[1];
+
+        if (denominator == 0) {
+            // parallel or degenerated to points: the segments have to lie on a common line and overlap on it
+            double[] origin = dax != 0 || day != 0 ? a : b;
+            double[] other = origin == a ? b : a;
+            double[] axis = { origin[2] - origin[0], origin[3] - origin[1] };
+            if (axis[0] == 0 && axis[1] == 0) {
+                return a[0] == b[0] && a[1] == b[1];
+            }
+            if (axis[0] * (other[1] - origin[1]) - axis[1] * (other[0] - origin[0]) != 0) {
+                return false;
+            }
+            double a1 = a[0] * axis[0] + a[1] * axis[1];
+            double a2 = a[2] * axis[0] + a[3] * axis[1];
+            double b1 = b[0] * axis[0] + b[1] * axis[1];
+            double b2 = b[2] * axis[0] + b[3] * axis[1];
+            return Math.max(Math.min(a1, a2), Math.min(b1, b2)) <= Math.min(Math.max(a1, a2), Math.max(b1, b2));
+        }
+
+        double s = (ox * dby - oy * dbx) / denominator;
+        double t = (ox * day - oy * dax) / denominator;
+        return s >= 0 && s <= 1 && t >= 0 && t <= 1;
+    }
+
+}
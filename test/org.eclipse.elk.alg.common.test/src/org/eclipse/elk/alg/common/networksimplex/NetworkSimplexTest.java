@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015, 2020 Kiel University and others.
+ * Copyright (c) 2015, 2024 Kiel University and others.
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License 2.0 which is available at
  * http://www.eclipse.org/legal/epl-2.0.
@@ -45,11 +45,73 @@ public class NetworkSimplexTest {
         }
     }
     
+    /**
+     * Reusing an instance for several graphs of different sizes must yield the same layerings as using a fresh
+     * instance for each graph.
+     */
+    @Test
+    public void testReuse() {
+        NetworkSimplex reused = null;
+        for (int i = 0; i < 6; ++i) {
+            int n = i % 2 == 0 ? 1000 : 200;
+            long seed = random.nextLong();
+
+            NGraph fresh = generateRandomGraph(new Random(seed), n, 2 * n);
+            NetworkSimplex.forGraph(fresh).execute(new BasicProgressMonitor());
+
+            NGraph graph = generateRandomGraph(new Random(seed), n, 2 * n);
+            reused = reused == null ? NetworkSimplex.forGraph(graph) : reused.reuseFor(graph);
+            reused.execute(new BasicProgressMonitor());
+
+            for (int j = 0; j < n; ++j) {
+                Assert.assertEquals(fresh.nodes.get(j).id, graph.nodes.get(j).id);
+                Assert.assertEquals(fresh.nodes.get(j).layer, graph.nodes.get(j).layer);
+            }
+        }
+    }
+    
+    /**
+     * Long paths used to overflow the call stack since the graph was traversed recursively.
+     */
+    @Test
+    public void testLongPath() {
+        NGraph graph = new NGraph();
+        final int n = 100000;
+        for (int i = 0; i < n; ++i) {
+            NNode.of().id(i).create(graph);
+        }
+        for (int i = 0; i < n - 1; ++i) {
+            NEdge.of()
+                .delta(1)
+                .weight(1)
+                .source(graph.nodes.get(i))
+                .target(graph.nodes.get(i + 1))
+                .create();
+        }
+        // a few shortcuts keep the network simplex from removing the path as a subtree
+        for (int i = 0; i < n - 1000; i += 1000) {
+            NEdge.of()
+                .delta(1)
+                .weight(1)
+                .source(graph.nodes.get(i))
+                .target(graph.nodes.get(i + 1000))
+                .create();
+        }
+        
+        Assert.assertNull(graph.makeConnected());
+        NetworkSimplex.forGraph(graph).execute(new BasicProgressMonitor());
+        
+        for (NNode node : graph.nodes) {
+            Assert.assertEquals(node.id, node.layer);
+        }
+    }
+    
     private NGraph generateRandomGraph() {
+        return generateRandomGraph(random, 4000, 8000);
+    }
+    
+    private NGraph generateRandomGraph(final Random rand, final int n, final int e) {
         NGraph graph = new NGraph();
-
-        final int n = 4000;
-        final int e = 8000;
         
         // create nodes
         for (int i = 0; i < n; ++i) {
@@ -59,16 +121,16 @@ public class NetworkSimplexTest {
         // create edges
         for (int i = 0; i < e; ++i) {
             
-            int src = random.nextInt(n);
-            int tgt = random.nextInt(n);
+            int src = rand.nextInt(n);
+            int tgt = rand.nextInt(n);
             // no self loops
             while (src == tgt) {
-                tgt = random.nextInt(n);
+                tgt = rand.nextInt(n);
             }
             
             NEdge.of()
-                .delta(random.nextInt(50))
-                .weight(random.nextDouble() * 50)
+                .delta(rand.nextInt(50))
+                .weight(rand.nextDouble() * 50)
                 .source(graph.nodes.get(src))
                 .target(graph.nodes.get(tgt))
                 .create();
@@ -77,8 +139,8 @@ public class NetworkSimplexTest {
         // assert connectedness
         for (int i = 0; i < n - 1; ++i) {
             NEdge.of()
-                .delta(random.nextInt(50))
-                .weight(random.nextDouble() * 50)
+                .delta(rand.nextInt(50))
+                .weight(rand.nextDouble() * 50)
                 .source(graph.nodes.get(i))
                 .target(graph.nodes.get(i+1))
                 .create();
@@ -0,0 +1,169 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Kiel University and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.elk.alg.force.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.elk.alg.force.ForceLayoutProvider;
+import org.eclipse.elk.alg.force.options.ForceModelStrategy;
+import org.eclipse.elk.alg.force.options.ForceOptions;
+import org.eclipse.elk.alg.force.options.RepulsionApproximation;
+import org.eclipse.elk.alg.test.PlainJavaInitialization;
+import org.eclipse.elk.core.util.BasicProgressMonitor;
+import org.eclipse.elk.graph.ElkEdge;
+import org.eclipse.elk.graph.ElkNode;
+import org.eclipse.elk.graph.util.ElkGraphUtil;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Compares layouts computed with repulsive forces approximated through a Barnes-Hut tree to layouts computed with
+ * exact repulsive forces.
+ */
+public class BarnesHutTest {
+
+    // CHECKSTYLEOFF MagicNumber
+
+    private static final int NODES = 100;
+    /** enough nodes that an adjacency matrix does not fit into the memory of the test. */
+    private static final int LARGE_NODES = 30000;
+    private static final double NODE_SIZE = 30;
+
+    @BeforeClass
+    public static void init() {
+        PlainJavaInitialization.initializePlainJavaLayout();
+    }
+
+    /**
+     * The approximated Eades model must produce layouts of a quality similar to the exact one.
+     */
+    @Test
+    public void testEades() {
+        compareToExact(ForceModelStrategy.EADES);
+    }
+
+    /**
+     * The approximated Fruchterman-Reingold model must produce layouts of a quality similar to the exact one.
+     */
+    @Test
+    public void testFruchtermanReingold() {
+        compareToExact(ForceModelStrategy.FRUCHTERMAN_REINGOLD);
+    }
+
+    /**
+     * Approximating repulsive forces must work for graphs too large for anything that takes quadratic memory in the
+     * number of nodes.
+     */
+    @Test
+    public void testLargeGraph() {
+        for (ForceModelStrategy model : ForceModelStrategy.values()) {
+            ElkNode graph = createGraph(model, RepulsionApproximation.BARNES_HUT, LARGE_NODES);
+            graph.setProperty(ForceOptions.ITERATIONS, 2);
+            new ForceLayoutProvider().layout(graph, new BasicProgressMonitor());
+            for (ElkNode node : graph.getChildren()) {
+                assertTrue(Double.isFinite(node.getX()) && Double.isFinite(node.getY()));
+            }
+        }
+    }
+
+    /**
+     * Compares the ratio of average edge length to average node distance, which captures how well the layout keeps
+     * connected nodes together while spreading out the graph, and checks that nodes do not overlap.
+     */
+    private void compareToExact(final ForceModelStrategy model) {
+        ElkNode exact = createGraph(model, RepulsionApproximation.NONE, NODES);
+        ElkNode approximated = createGraph(model, RepulsionApproximation.BARNES_HUT, NODES);
+
+        new ForceLayoutProvider().layout(exact, new BasicProgressMonitor());
+        new ForceLayoutProvider().layout(approximated, new BasicProgressMonitor());
+
+        double exactRatio = edgeLengthRatio(exact);
+        double approximatedRatio = edgeLengthRatio(approximated);
+        assertEquals(exactRatio, approximatedRatio, exactRatio * 0.25);
+        assertFalse(hasOverlaps(approximated));
+    }
+
+    ///////////////////////////////////////////////////////////////////////////////
+    // Utilities
+
+    private ElkNode createGraph(final ForceModelStrategy model, final RepulsionApproximation approximation,
+            final int nodeCount) {
+        Random random = new Random(3);
+
+        ElkNode graph = ElkGraphUtil.createGraph();
+        graph.setProperty(ForceOptions.MODEL, model);
+        graph.setProperty(ForceOptions.REPULSION_APPROXIMATION, approximation);
+        graph.setProperty(ForceOptions.SEPARATE_CONNECTED_COMPONENTS, false);
+
+        // A random tree with some additional edges
+        List<ElkNode> nodes = new ArrayList<>();
+        for (int i = 0; i < nodeCount; i++) {
+            ElkNode node = ElkGraphUtil.createNode(graph);
+            node.setDimensions(NODE_SIZE, NODE_SIZE);
+            if (i > 0) {
+                ElkGraphUtil.createSimpleEdge(nodes.get(random.nextInt(i)), node);
+            }
+            nodes.add(node);
+        }
+        for (int i = 0; i < nodeCount / 2; i++) {
+            ElkGraphUtil.createSimpleEdge(nodes.get(random.nextInt(nodeCount)), nodes.get(random.nextInt(nodeCount)));
+        }
+
+        return graph;
+    }
+
+    private double edgeLengthRatio(final ElkNode graph) {
+        double edgeLengths = 0;
+        int edges = 0;
+        for (ElkEdge edge : graph.getContainedEdges()) {
+            ElkNode source = ElkGraphUtil.connectableShapeToNode(edge.getSources().get(0));
+            ElkNode target = ElkGraphUtil.connectableShapeToNode(edge.getTargets().get(0));
+            if (source != target) {
+                edgeLengths += distance(source, target);
+                edges++;
+            }
+        }
+
+        double nodeDistances = 0;
+        int pairs = 0;
+        List<ElkNode> nodes = graph.getChildren();
+        for (int i = 0; i < nodes.size(); i++) {
+            for (int j = i + 1; j < nodes.size(); j++) {
+                nodeDistances += distance(nodes.get(i), nodes.get(j));
+                pairs++;
+            }
+        }
+
+        return (edgeLengths / edges) / (nodeDistances / pairs);
+    }
+
+    private boolean hasOverlaps(final ElkNode graph) {
+        List<ElkNode> nodes = graph.getChildren();
+        for (int i = 0; i < nodes.size(); i++) {
+            for (int j = i + 1; j < nodes.size(); j++) {
+                if (distance(nodes.get(i), nodes.get(j)) < NODE_SIZE) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private double distance(final ElkNode node1, final ElkNode node2) {
+        return Math.hypot(node1.getX() - node2.getX(), node1.getY() - node2.getY());
+    }
+
+}
@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Kiel University and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.elk.alg.force.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.eclipse.elk.alg.force.options.StressOptions;
+import org.eclipse.elk.alg.force.stress.StressLayoutProvider;
+import org.eclipse.elk.alg.force.stress.StressModel;
+import org.eclipse.elk.alg.test.PlainJavaInitialization;
+import org.eclipse.elk.core.util.BasicProgressMonitor;
+import org.eclipse.elk.graph.ElkNode;
+import org.eclipse.elk.graph.util.ElkGraphUtil;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Tests the sparse stress model and the parallel computation of shortest paths for the full one.
+ */
+public class SparseStressTest {
+
+    // CHECKSTYLEOFF MagicNumber
+
+    private static final int GRID_SIZE = 10;
+    private static final double EDGE_LENGTH = 100;
+
+    @BeforeClass
+    public static void init() {
+        PlainJavaInitialization.initializePlainJavaLayout();
+    }
+
+    /**
+     * The sparse model must produce layouts with about as much stress as the full model.
+     */
+    @Test
+    public void testSparseStressComparableToFull() {
+        ElkNode full = createGrid(StressModel.FULL, 1);
+        ElkNode sparse = createGrid(StressModel.SPARSE, 1);
+        sparse.setProperty(StressOptions.PIVOTS, 10);
+
+        new StressLayoutProvider().layout(full, new BasicProgressMonitor());
+        new StressLayoutProvider().layout(sparse, new BasicProgressMonitor());
+
+        double fullStress = gridStress(full);
+        double sparseStress = gridStress(sparse);
+        assertTrue("Sparse stress " + sparseStress + " exceeds full stress " + fullStress,
+                sparseStress < fullStress * 1.25);
+    }
+
+    /**
+     * Computing the shortest paths in parallel must not change the layout.
+     */
+    @Test
+    public void testParallelShortestPaths() {
+        ElkNode sequential = createGrid(StressModel.FULL, 1);
+        ElkNode parallel = createGrid(StressModel.FULL, 4);
+
+        new StressLayoutProvider().layout(sequential, new BasicProgressMonitor());
+        new StressLayoutProvider().layout(parallel, new BasicProgressMonitor());
+
+        for (int i = 0; i < sequential.getChildren().size(); i++) {
+            assertEquals(sequential.getChildren().get(i).getX(), parallel.getChildren().get(i).getX(), 0);
+            assertEquals(sequential.getChildren().get(i).getY(), parallel.getChildren().get(i).getY(), 0);
+        }
+    }
+
+    ///////////////////////////////////////////////////////////////////////////////
+    // Utilities
+
+    private ElkNode createGrid(final StressModel model, final int parallelism) {
+        ElkNode graph = ElkGraphUtil.createGraph();
+        graph.setProperty(StressOptions.STRESS_MODEL, model);
+        graph.setProperty(StressOptions.PARALLELISM, parallelism);
+        graph.setProperty(StressOptions.DESIRED_EDGE_LENGTH, EDGE_LENGTH);
+
+        ElkNode[][] nodes = new ElkNode[GRID_SIZE][GRID_SIZE];
+        for (int x = 0; x < GRID_SIZE; x++) {
+            for (int y = 0; y < GRID_SIZE; y++) {
+                nodes[x][y] = ElkGraphUtil.createNode(graph);
+                nodes[x][y].setDimensions(10, 10);
+                if (x > 0) {
+                    ElkGraphUtil.createSimpleEdge(nodes[x - 1][y], nodes[x][y]);
+                }
+                if (y > 0) {
+                    ElkGraphUtil.createSimpleEdge(nodes[x][y - 1], nodes[x][y]);
+                }
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Computes the full, normalized stress of a grid layout, the shortest path between two grid nodes being their
+     * Manhattan distance in the grid.
+     */
+    private double gridStress(final ElkNode graph) {
+        List<ElkNode> nodes = graph.getChildren();
+        double stress = 0;
+        for (int i = 0; i < nodes.size(); i++) {
+            for (int j = i + 1; j < nodes.size(); j++) {
+                double shortestPath = EDGE_LENGTH * (Math.abs(i / GRID_SIZE - j / GRID_SIZE)
+                        + Math.abs(i % GRID_SIZE - j % GRID_SIZE));
+                double distance = Math.hypot(nodes.get(i).getX() - nodes.get(j).getX(),
+                        nodes.get(i).getY() - nodes.get(j).getY());
+                stress += (distance - shortestPath) * (distance - shortestPath) / (shortestPath * shortestPath);
+            }
+        }
+        return stress;
+    }
+
+}
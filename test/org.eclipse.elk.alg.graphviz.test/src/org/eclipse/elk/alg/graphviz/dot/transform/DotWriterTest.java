@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Kiel University and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.elk.alg.graphviz.dot.transform;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.eclipse.elk.alg.graphviz.dot.GraphvizDotStandaloneSetup;
+import org.eclipse.elk.alg.graphviz.dot.dot.DotFactory;
+import org.eclipse.elk.alg.graphviz.dot.dot.Graph;
+import org.eclipse.elk.alg.graphviz.dot.dot.GraphType;
+import org.eclipse.elk.alg.graphviz.dot.dot.GraphvizModel;
+import org.eclipse.elk.alg.graphviz.dot.dot.Node;
+import org.eclipse.elk.alg.graphviz.dot.dot.NodeStatement;
+import org.eclipse.elk.alg.graphviz.layouter.LayoutDotExporter;
+import org.eclipse.elk.core.options.CoreOptions;
+import org.eclipse.elk.core.options.HierarchyHandling;
+import org.eclipse.elk.core.options.PortSide;
+import org.eclipse.elk.graph.ElkNode;
+import org.eclipse.elk.graph.ElkPort;
+import org.eclipse.elk.graph.util.ElkGraphUtil;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.xtext.resource.SaveOptions;
+import org.eclipse.xtext.resource.XtextResource;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Tests the {@link DotWriter} against the Xtext serializer that was used before to send graphs to
+ * Graphviz: the written text must be parsed into the same model as the text of the serializer.
+ */
+public class DotWriterTest {
+
+    /** a graph that uses every construct of the Dot grammar. */
+    private static final String ALL_CONSTRUCTS = "strict digraph G {\n"
+            + "    graph [rankdir=LR, splines=true]\n"
+            + "    node [shape=box]\n"
+            + "    edge [arrowhead=none]\n"
+            + "    label=\"A \\\"quoted\\\" label\"\n"
+            + "    a [label=\"Node A\", width=1.5, height=-0.5, fixedsize]\n"
+            + "    b:p1:n -> c:p2 [weight=2]\n"
+            + "    a -> b -> c\n"
+            + "    a -> { d e }\n"
+            + "    d -> subgraph s1 { f; g }\n"
+            + "    subgraph cluster_1 { color=blue h i; h -> i }\n"
+            + "    { rank=same; j; k }\n"
+            + "}\n"
+            + "graph { x -- y -- 42 }\n";
+
+    private static DotResourceSetProvider resourceSetProvider;
+
+    @BeforeClass
+    public static void setUp() {
+        resourceSetProvider = new GraphvizDotStandaloneSetup().createInjectorAndDoEMFRegistration()
+                .getInstance(DotResourceSetProvider.class);
+    }
+
+    @Test
+    public void testAllConstructs() throws IOException {
+        assertRoundTrip(parse(ALL_CONSTRUCTS));
+    }
+
+    /**
+     * The models sent to Graphviz by the layout provider are created by the {@link LayoutDotExporter}.
+     */
+    @Test
+    public void testExportedGraph() throws IOException {
+        ElkNode graph = ElkGraphUtil.createGraph();
+        graph.setProperty(CoreOptions.HIERARCHY_HANDLING, HierarchyHandling.INCLUDE_CHILDREN);
+        ElkNode n1 = createNode(graph, "first node");
+        ElkNode n2 = createNode(graph, "second \"node\"");
+        ElkNode compound = createNode(graph, "compound");
+        ElkNode n3 = createNode(compound, "inner");
+        ElkPort port = ElkGraphUtil.createPort(n1);
+        port.setDimensions(5, 5);
+        port.setProperty(CoreOptions.PORT_SIDE, PortSide.EAST);
+        ElkGraphUtil.createLabel("edge label", ElkGraphUtil.createSimpleEdge(port, n2));
+        ElkGraphUtil.createSimpleEdge(n2, n3);
+        ElkGraphUtil.createSimpleEdge(n3, n1);
+
+        for (Command command : new Command[] { Command.DOT, Command.NEATO }) {
+            IDotTransformationData<ElkNode, GraphvizModel> transData = new DotTransformationData<>();
+            transData.setSourceGraph(graph);
+            transData.setProperty(DotExporter.COMMAND, command);
+            new LayoutDotExporter().transform(transData);
+            assertRoundTrip(transData.getTargetGraphs().get(0));
+        }
+    }
+
+    /**
+     * Lines are wrapped between tokens, like the Xtext serializer does.
+     */
+    @Test
+    public void testLongLines() throws IOException {
+        GraphvizModel model = DotFactory.eINSTANCE.createGraphvizModel();
+        Graph graph = DotFactory.eINSTANCE.createGraph();
+        graph.setType(GraphType.DIGRAPH);
+        model.getGraphs().add(graph);
+        NodeStatement statement = DotFactory.eINSTANCE.createNodeStatement();
+        Node node = DotFactory.eINSTANCE.createNode();
+        node.setName("n");
+        statement.setNode(node);
+        for (int i = 0; i < 100; i++) {
+            statement.getAttributes().add(DotExporter.createAttribute("attribute" + i, "\"value " + i + "\""));
+        }
+        graph.getStatements().add(statement);
+
+        String text = write(model);
+        for (String line : text.split("\n")) {
+            assertTrue(line, line.length() <= DotWriter.MAX_LINE_LENGTH);
+        }
+        assertRoundTrip(model);
+    }
+
+    private ElkNode createNode(final ElkNode parent, final String label) {
+        ElkNode node = ElkGraphUtil.createNode(parent);
+        node.setDimensions(30, 20);
+        ElkGraphUtil.createLabel(label, node);
+        return node;
+    }
+
+    /**
+     * Asserts that the text written for the given model is parsed into the same model, and into the same
+     * model as the text of the Xtext serializer.
+     */
+    private void assertRoundTrip(final GraphvizModel model) throws IOException {
+        String written = write(model);
+        GraphvizModel parsed = parse(written);
+        assertTrue(written, EcoreUtil.equals(model, parsed));
+        assertTrue(written, EcoreUtil.equals(parse(serialize(model)), parsed));
+        assertEquals('\n', written.charAt(written.length() - 1));
+    }
+
+    private String write(final GraphvizModel model) throws IOException {
+        StringBuilder text = new StringBuilder();
+        new DotWriter(text).write(model);
+        return text.toString();
+    }
+
+    /**
+     * Serializes the model in the way the layout provider did before the {@link DotWriter} was used.
+     */
+    private String serialize(final GraphvizModel model) throws IOException {
+        XtextResource resource = (XtextResource) resourceSetProvider.createResourceSet().createResource(
+                URI.createURI("output.graphviz_dot"));
+        resource.getContents().add(EcoreUtil.copy(model));
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        resource.save(stream, SaveOptions.newBuilder().noValidation().getOptions().toOptionsMap());
+        return stream.toString(StandardCharsets.UTF_8);
+    }
+
+    private GraphvizModel parse(final String text) throws IOException {
+        XtextResource resource = (XtextResource) resourceSetProvider.createResourceSet().createResource(
+                URI.createURI("input.graphviz_dot"));
+        resource.load(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)), null);
+        assertTrue(text + resource.getErrors(), resource.getErrors().isEmpty());
+        return (GraphvizModel) resource.getParseResult().getRootASTElement();
+    }
+
+}
@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Kiel University and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.elk.alg.graphviz.layouter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.eclipse.elk.alg.graphviz.dot.transform.Command;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the pool of Graphviz tools that is used when processes are reused between layout runs.
+ */
+public class GraphvizToolPoolTest {
+
+    private final GraphvizToolPool pool = GraphvizToolPool.INSTANCE;
+
+    @Before
+    public void setUp() {
+        pool.dispose();
+    }
+
+    @After
+    public void tearDown() {
+        pool.dispose();
+        pool.setMaxSize(Runtime.getRuntime().availableProcessors());
+    }
+
+    @Test
+    public void testReleasedToolIsReused() {
+        GraphvizTool tool = pool.fetch(Command.DOT);
+        assertEquals(Command.DOT, tool.getCommand());
+        pool.release(tool);
+        assertSame(tool, pool.fetch(Command.DOT));
+        pool.release(tool);
+    }
+
+    /**
+     * Each command has its own tools, and the maximal pool size applies to each command separately.
+     */
+    @Test
+    public void testCommandsArePooledSeparately() {
+        pool.setMaxSize(1);
+        GraphvizTool dot = pool.fetch(Command.DOT);
+        GraphvizTool neato = pool.fetch(Command.NEATO);
+        assertNotSame(dot, neato);
+        assertEquals(Command.NEATO, neato.getCommand());
+        pool.release(neato);
+        pool.release(dot);
+    }
+
+    /**
+     * If all tools for a command are in use, fetching another one waits until a tool is released.
+     */
+    @Test
+    public void testFetchWaitsForRelease() throws InterruptedException {
+        pool.setMaxSize(1);
+        GraphvizTool tool = pool.fetch(Command.DOT);
+        GraphvizTool[] fetched = new GraphvizTool[1];
+        Thread waiting = new Thread(() -> fetched[0] = pool.fetch(Command.DOT));
+        waiting.start();
+        waiting.join(200);
+        assertTrue(waiting.isAlive());
+
+        pool.release(tool);
+        waiting.join();
+        assertSame(tool, fetched[0]);
+        pool.release(tool);
+    }
+
+    /**
+     * Disposing the pool also stops the processes of tools that are in use, and such tools are not
+     * taken back into the pool once they are released.
+     */
+    @Test
+    public void testDisposeStopsToolsInUse() {
+        Assume.assumeNotNull(GraphvizTool.getDotExecutable(false));
+        GraphvizTool tool = pool.fetch(Command.DOT);
+        tool.initialize();
+        tool.input();
+
+        pool.dispose();
+        try {
+            tool.input();
+            fail("The process of a tool in use must be stopped when the pool is disposed.");
+        } catch (IllegalStateException exception) {
+            // expected
+        }
+
+        pool.release(tool);
+        GraphvizTool next = pool.fetch(Command.DOT);
+        assertNotSame(tool, next);
+        pool.release(next);
+    }
+
+    /**
+     * Disposing the pool wakes threads that wait for a tool, since the tool counts are reset.
+     */
+    @Test
+    public void testDisposeWakesWaitingFetch() throws InterruptedException {
+        pool.setMaxSize(1);
+        GraphvizTool tool = pool.fetch(Command.DOT);
+        GraphvizTool[] fetched = new GraphvizTool[1];
+        Thread waiting = new Thread(() -> fetched[0] = pool.fetch(Command.DOT));
+        waiting.start();
+        waiting.join(200);
+        assertTrue(waiting.isAlive());
+
+        pool.dispose();
+        waiting.join();
+        assertFalse(waiting.isAlive());
+        assertNotSame(tool, fetched[0]);
+        pool.release(fetched[0]);
+        pool.release(tool);
+    }
+
+}
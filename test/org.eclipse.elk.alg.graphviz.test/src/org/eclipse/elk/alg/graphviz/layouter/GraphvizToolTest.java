@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Kiel University and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.elk.alg.graphviz.layouter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.eclipse.elk.alg.graphviz.dot.transform.Command;
+import org.eclipse.elk.alg.graphviz.layouter.GraphvizTool.Cleanup;
+import org.eclipse.elk.core.util.BasicProgressMonitor;
+import org.eclipse.elk.graph.ElkNode;
+import org.eclipse.elk.graph.util.ElkGraphUtil;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Tests the timeouts of Graphviz processes and the reuse of processes by the layout provider. These
+ * tests are skipped if Graphviz is not installed.
+ */
+public class GraphvizToolTest {
+
+    /** a timeout for processes that are expected to answer. */
+    private static final int TIMEOUT = 10000;
+
+    private GraphvizTool tool;
+
+    @BeforeClass
+    public static void checkGraphviz() {
+        Assume.assumeNotNull(GraphvizTool.getDotExecutable(false));
+    }
+
+    @Before
+    public void setUp() {
+        tool = new GraphvizTool(Command.DOT);
+    }
+
+    @After
+    public void tearDown() {
+        tool.cleanup(Cleanup.STOP);
+        GraphvizToolPool.INSTANCE.dispose();
+    }
+
+    /**
+     * If the process gives no output within the timeout, the watchdog kills it so that reading stops.
+     */
+    @Test
+    public void testWatchdogKillsProcess() {
+        tool.initialize();
+        long start = System.currentTimeMillis();
+        // no graph is written, so the process never answers
+        InputStream output = tool.output(GraphvizTool.PROCESS_MIN_TIMEOUT);
+        try {
+            while (output.read() >= 0) {
+                // the process does not write anything before it is killed
+            }
+        } catch (IOException exception) {
+            // the stream may also be closed while reading
+        }
+        assertTrue(System.currentTimeMillis() - start < TIMEOUT);
+        try {
+            tool.cleanup(Cleanup.ERROR);
+        } catch (GraphvizException exception) {
+            // the exit value of the killed process is reported as an error
+        }
+    }
+
+    /**
+     * The timeout of a request that has been answered does not affect later requests on the same process,
+     * even if they take longer than that timeout.
+     */
+    @Test
+    public void testTimeoutEndsWithRequest() throws Exception {
+        tool.initialize();
+        assertTrue(layout("digraph { a -> b }", GraphvizTool.PROCESS_MIN_TIMEOUT).contains("a -> b"));
+        tool.cleanup(Cleanup.NORMAL);
+
+        // the next request starts after the first timeout would have elapsed
+        Thread.sleep(2 * GraphvizTool.PROCESS_MIN_TIMEOUT);
+        tool.initialize();
+        InputStream output = tool.output(TIMEOUT);
+        Thread.sleep(2 * GraphvizTool.PROCESS_MIN_TIMEOUT);
+        write("digraph { c -> d }");
+        assertTrue(read(output).contains("c -> d"));
+        tool.cleanup(Cleanup.NORMAL);
+    }
+
+    /**
+     * Layout runs that reuse a process from the pool yield the same result as runs with their own
+     * processes.
+     */
+    @Test
+    public void testLayoutWithReusedProcess() {
+        GraphvizLayoutProvider provider = new GraphvizLayoutProvider();
+        provider.initialize(Command.DOT.name());
+        try {
+            ElkNode reference = createGraph();
+            reference.setProperty(GraphvizMetaDataProvider.REUSE_PROCESS, false);
+            provider.layout(reference, new BasicProgressMonitor());
+
+            for (int i = 0; i < 2; i++) {
+                ElkNode graph = createGraph();
+                graph.setProperty(GraphvizMetaDataProvider.REUSE_PROCESS, true);
+                graph.setProperty(GraphvizMetaDataProvider.PROCESS_TIMEOUT, TIMEOUT);
+                provider.layout(graph, new BasicProgressMonitor());
+                for (int j = 0; j < graph.getChildren().size(); j++) {
+                    ElkNode expected = reference.getChildren().get(j);
+                    ElkNode actual = graph.getChildren().get(j);
+                    assertEquals(expected.getX(), actual.getX(), 0);
+                    assertEquals(expected.getY(), actual.getY(), 0);
+                }
+            }
+        } finally {
+            provider.dispose();
+        }
+    }
+
+    private ElkNode createGraph() {
+        ElkNode graph = ElkGraphUtil.createGraph();
+        ElkNode[] nodes = new ElkNode[5];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = ElkGraphUtil.createNode(graph);
+            nodes[i].setDimensions(20 + 10 * i, 20);
+        }
+        for (int i = 1; i < nodes.length; i++) {
+            ElkGraphUtil.createSimpleEdge(nodes[i / 2], nodes[i]);
+        }
+        return graph;
+    }
+
+    private String layout(final String graph, final int timeout) throws IOException {
+        write(graph);
+        return read(tool.output(timeout));
+    }
+
+    private void write(final String graph) throws IOException {
+        OutputStream input = tool.input();
+        input.write((graph + "\n").getBytes(StandardCharsets.UTF_8));
+        input.flush();
+    }
+
+    private String read(final InputStream output) throws IOException {
+        StringBuilder text = new StringBuilder();
+        int c;
+        while ((c = output.read()) >= 0) {
+            text.append((char) c);
+        }
+        return text.toString();
+    }
+
+}
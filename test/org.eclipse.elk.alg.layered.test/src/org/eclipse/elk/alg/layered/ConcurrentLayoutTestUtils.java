@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Kiel University and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.elk.alg.layered;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.elk.alg.layered.options.LayeredOptions;
+import org.eclipse.elk.core.options.CoreOptions;
+import org.eclipse.elk.core.util.BasicProgressMonitor;
+import org.eclipse.elk.graph.ElkBendPoint;
+import org.eclipse.elk.graph.ElkEdge;
+import org.eclipse.elk.graph.ElkEdgeSection;
+import org.eclipse.elk.graph.ElkNode;
+import org.eclipse.elk.graph.ElkPort;
+import org.eclipse.elk.graph.util.ElkGraphUtil;
+
+/**
+ * Utility methods for tests checking that the concurrent parts of ELK Layered compute the same layouts as their
+ * sequential counterparts. The tests create random graphs from a fixed seed, so that each call with the same seed
+ * yields the same graph, lay them out with different degrees of parallelism, and compare the results.
+ */
+public final class ConcurrentLayoutTestUtils {
+
+    /** minimal width and height of the created nodes. */
+    private static final int MIN_NODE_SIZE = 20;
+    /** the created nodes are up to this much wider and higher than the minimal size. */
+    private static final int NODE_SIZE_RANGE = 30;
+
+    private ConcurrentLayoutTestUtils() { }
+
+    /**
+     * Creates an empty graph to be laid out by ELK Layered with the given number of threads.
+     */
+    public static ElkNode createGraph(final int parallelism) {
+        ElkNode graph = ElkGraphUtil.createGraph();
+        graph.setProperty(CoreOptions.ALGORITHM, LayeredOptions.ALGORITHM_ID);
+        graph.setProperty(LayeredOptions.PARALLELISM, parallelism);
+        return graph;
+    }
+
+    /**
+     * Adds the given number of nodes of random sizes to the graph.
+     */
+    public static List<ElkNode> createNodes(final ElkNode graph, final int count, final Random random) {
+        List<ElkNode> nodes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ElkNode node = ElkGraphUtil.createNode(graph);
+            node.setDimensions(MIN_NODE_SIZE + random.nextInt(NODE_SIZE_RANGE),
+                    MIN_NODE_SIZE + random.nextInt(NODE_SIZE_RANGE));
+            nodes.add(node);
+        }
+        return nodes;
+    }
+
+    /**
+     * Lays out the given graphs, each with a new layout provider.
+     */
+    public static void layout(final ElkNode... graphs) {
+        for (ElkNode graph : graphs) {
+            new LayeredLayoutProvider().layout(graph, new BasicProgressMonitor());
+        }
+    }
+
+    /**
+     * Asserts that two graphs created alike have exactly the same layout: the same size, node and port positions,
+     * and edge routes.
+     */
+    public static void assertLayoutEquals(final ElkNode expected, final ElkNode actual) {
+        assertEquals(expected.getWidth(), actual.getWidth(), 0);
+        assertEquals(expected.getHeight(), actual.getHeight(), 0);
+
+        for (int i = 0; i < expected.getChildren().size(); i++) {
+            ElkNode expectedNode = expected.getChildren().get(i);
+            ElkNode actualNode = actual.getChildren().get(i);
+            assertEquals(expectedNode.getX(), actualNode.getX(), 0);
+            assertEquals(expectedNode.getY(), actualNode.getY(), 0);
+
+            for (int j = 0; j < expectedNode.getPorts().size(); j++) {
+                ElkPort expectedPort = expectedNode.getPorts().get(j);
+                ElkPort actualPort = actualNode.getPorts().get(j);
+                assertEquals(expectedPort.getX(), actualPort.getX(), 0);
+                assertEquals(expectedPort.getY(), actualPort.getY(), 0);
+            }
+        }
+
+        for (int i = 0; i < expected.getContainedEdges().size(); i++) {
+            assertRouteEquals(expected.getContainedEdges().get(i), actual.getContainedEdges().get(i));
+        }
+    }
+
+    private static void assertRouteEquals(final ElkEdge expected, final ElkEdge actual) {
+        ElkEdgeSection expectedSection = expected.getSections().get(0);
+        ElkEdgeSection actualSection = actual.getSections().get(0);
+        assertEquals(expectedSection.getStartX(), actualSection.getStartX(), 0);
+        assertEquals(expectedSection.getStartY(), actualSection.getStartY(), 0);
+        assertEquals(expectedSection.getEndX(), actualSection.getEndX(), 0);
+        assertEquals(expectedSection.getEndY(), actualSection.getEndY(), 0);
+
+        assertEquals(expectedSection.getBendPoints().size(), actualSection.getBendPoints().size());
+        for (int i = 0; i < expectedSection.getBendPoints().size(); i++) {
+            ElkBendPoint expectedBendPoint = expectedSection.getBendPoints().get(i);
+            ElkBendPoint actualBendPoint = actualSection.getBendPoints().get(i);
+            assertEquals(expectedBendPoint.getX(), actualBendPoint.getX(), 0);
+            assertEquals(expectedBendPoint.getY(), actualBendPoint.getY(), 0);
+        }
+    }
+
+}
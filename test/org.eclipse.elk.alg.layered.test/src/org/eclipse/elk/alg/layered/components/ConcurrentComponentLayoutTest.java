@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Kiel University and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.elk.alg.layered.components;
+
+import static org.eclipse.elk.alg.layered.ConcurrentLayoutTestUtils.assertLayoutEquals;
+import static org.eclipse.elk.alg.layered.ConcurrentLayoutTestUtils.layout;
+
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.elk.alg.layered.ConcurrentLayoutTestUtils;
+import org.eclipse.elk.alg.layered.LayeredLayoutProvider;
+import org.eclipse.elk.alg.layered.options.LayeredOptions;
+import org.eclipse.elk.alg.test.PlainJavaInitialization;
+import org.eclipse.elk.core.util.BasicProgressMonitor;
+import org.eclipse.elk.graph.ElkNode;
+import org.eclipse.elk.graph.util.ElkGraphUtil;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Tests that laying out connected components concurrently yields the same results regardless of the number of
+ * threads involved.
+ */
+public class ConcurrentComponentLayoutTest {
+
+    private static final int COMPONENTS = 20;
+    private static final int MAX_COMPONENT_SIZE = 12;
+
+    @BeforeClass
+    public static void init() {
+        PlainJavaInitialization.initializePlainJavaLayout();
+    }
+
+    /**
+     * Different numbers of threads must produce the same layout.
+     */
+    @Test
+    public void testIndependentOfThreadCount() {
+        ElkNode twoThreads = createGraph(2);
+        ElkNode fourThreads = createGraph(4);
+
+        layout(twoThreads, fourThreads);
+
+        assertLayoutEquals(twoThreads, fourThreads);
+    }
+
+    /**
+     * Reusing a layout provider, and thus its cached processors, must not change the layout.
+     */
+    @Test
+    public void testRepeatedLayout() {
+        ElkNode first = createGraph(4);
+        ElkNode second = createGraph(4);
+
+        LayeredLayoutProvider layoutProvider = new LayeredLayoutProvider();
+        layoutProvider.layout(first, new BasicProgressMonitor());
+        layoutProvider.layout(second, new BasicProgressMonitor());
+
+        assertLayoutEquals(first, second);
+    }
+
+    /**
+     * A graph with a single component is laid out just as it would be without concurrency. A single crossing
+     * minimization run keeps the layer sweep from running its restarts concurrently.
+     */
+    @Test
+    public void testSingleComponent() {
+        ElkNode sequential = createGraph(1);
+        ElkNode concurrent = createGraph(4);
+        for (ElkNode graph : new ElkNode[] { sequential, concurrent }) {
+            graph.setProperty(LayeredOptions.SEPARATE_CONNECTED_COMPONENTS, false);
+            graph.setProperty(LayeredOptions.THOROUGHNESS, 1);
+        }
+
+        layout(sequential, concurrent);
+
+        assertLayoutEquals(sequential, concurrent);
+    }
+
+    ///////////////////////////////////////////////////////////////////////////////
+    // Utilities
+
+    private ElkNode createGraph(final int parallelism) {
+        Random random = new Random(42);
+        ElkNode graph = ConcurrentLayoutTestUtils.createGraph(parallelism);
+
+        for (int c = 0; c < COMPONENTS; c++) {
+            List<ElkNode> nodes = ConcurrentLayoutTestUtils.createNodes(graph, 1 + random.nextInt(MAX_COMPONENT_SIZE),
+                    random);
+
+            // Connect each node to an earlier one to keep the component connected, and add some more edges
+            for (int i = 1; i < nodes.size(); i++) {
+                ElkGraphUtil.createSimpleEdge(nodes.get(random.nextInt(i)), nodes.get(i));
+                if (random.nextBoolean()) {
+                    ElkGraphUtil.createSimpleEdge(nodes.get(i), nodes.get(random.nextInt(i)));
+                }
+            }
+        }
+
+        return graph;
+    }
+
+}
@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Kiel University and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.elk.alg.layered.intermediate.greedyswitch;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.eclipse.elk.alg.layered.graph.LNode;
+import org.eclipse.elk.alg.layered.graph.Layer;
+import org.eclipse.elk.alg.layered.intermediate.greedyswitch.SwitchDecider.CrossingCountSide;
+import org.eclipse.elk.alg.layered.p3order.LayerSweepCrossingMinimizer.CrossMinType;
+import org.eclipse.elk.alg.test.PlainJavaInitialization;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Checks that the sparsely stored crossing matrix yields the same entries as counting the crossings directly, also
+ * when it is reused for several free layers.
+ */
+public class CrossingMatrixFillerTest extends TestGraphCreator {
+
+    private static final int LAYER_SIZE = 25;
+
+    @BeforeClass
+    public static void initPlainJavaLayout() {
+        PlainJavaInitialization.initializePlainJavaLayout();
+    }
+
+    @Test
+    public void testOneSided() {
+        assertSameEntries(CrossMinType.ONE_SIDED_GREEDY_SWITCH, CrossingCountSide.WEST);
+        assertSameEntries(CrossMinType.ONE_SIDED_GREEDY_SWITCH, CrossingCountSide.EAST);
+    }
+
+    @Test
+    public void testTwoSided() {
+        assertSameEntries(CrossMinType.TWO_SIDED_GREEDY_SWITCH, CrossingCountSide.WEST);
+    }
+
+    private void assertSameEntries(final CrossMinType type, final CrossingCountSide side) {
+        Random random = new Random(side.ordinal());
+        LNode[][] order = createRandomGraph(random);
+
+        CrossingMatrixFiller filler = new CrossingMatrixFiller(type);
+        for (int freeLayer : new int[] { 1, 2, 0, 1 }) {
+            filler.init(order, freeLayer, side);
+            BetweenLayerEdgeTwoNodeCrossingsCounter counter =
+                    new BetweenLayerEdgeTwoNodeCrossingsCounter(order, freeLayer);
+
+            // query the pairs in random order and each pair several times in both orders
+            LNode[] layer = order[freeLayer];
+            for (int i = 0; i < 3 * LAYER_SIZE * LAYER_SIZE; i++) {
+                LNode upper = layer[random.nextInt(layer.length)];
+                LNode lower = layer[random.nextInt(layer.length)];
+                if (upper == lower) {
+                    continue;
+                }
+
+                if (type == CrossMinType.TWO_SIDED_GREEDY_SWITCH) {
+                    counter.countBothSideCrossings(upper, lower);
+                } else if (side == CrossingCountSide.WEST) {
+                    counter.countWesternEdgeCrossings(upper, lower);
+                } else {
+                    counter.countEasternEdgeCrossings(upper, lower);
+                }
+                assertEquals(counter.getUpperLowerCrossings(), filler.getCrossingMatrixEntry(upper, lower));
+                assertEquals(counter.getLowerUpperCrossings(), filler.getCrossingMatrixEntry(lower, upper));
+            }
+        }
+    }
+
+    private LNode[][] createRandomGraph(final Random random) {
+        Layer[] layers = makeLayers(3);
+        LNode[][] nodes = new LNode[layers.length][];
+        for (int i = 0; i < layers.length; i++) {
+            nodes[i] = addNodesToLayer(LAYER_SIZE, layers[i]);
+        }
+        for (int i = 0; i < layers.length - 1; i++) {
+            for (int j = 0; j < 2 * LAYER_SIZE; j++) {
+                eastWestEdgeFromTo(nodes[i][random.nextInt(LAYER_SIZE)], nodes[i + 1][random.nextInt(LAYER_SIZE)]);
+            }
+        }
+        setUpIds();
+        return getCurrentOrder(graph);
+    }
+
+}
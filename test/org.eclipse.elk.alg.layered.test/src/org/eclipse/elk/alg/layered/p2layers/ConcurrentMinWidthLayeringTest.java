@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Kiel University and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.elk.alg.layered.p2layers;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.elk.alg.layered.ConcurrentLayoutTestUtils;
+import org.eclipse.elk.alg.layered.ElkLayered.TestExecutionState;
+import org.eclipse.elk.alg.layered.LayeredLayoutProvider;
+import org.eclipse.elk.alg.layered.graph.LNode;
+import org.eclipse.elk.alg.layered.graph.Layer;
+import org.eclipse.elk.alg.layered.options.InternalProperties;
+import org.eclipse.elk.alg.layered.options.LayeredOptions;
+import org.eclipse.elk.alg.layered.options.LayeringStrategy;
+import org.eclipse.elk.alg.test.PlainJavaInitialization;
+import org.eclipse.elk.graph.ElkNode;
+import org.eclipse.elk.graph.util.ElkGraphUtil;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Tests that computing the candidate layerings of the {@link MinWidthLayerer} concurrently yields the same layering
+ * as computing them one after another.
+ */
+public class ConcurrentMinWidthLayeringTest {
+
+    private static final int NODES = 80;
+    private static final int EDGES = 140;
+
+    @BeforeClass
+    public static void init() {
+        PlainJavaInitialization.initializePlainJavaLayout();
+    }
+
+    /**
+     * All eight candidate layerings are computed if both parameters are left at their special values.
+     */
+    @Test
+    public void testAllCandidates() {
+        assertSameLayering(-1, -1);
+    }
+
+    /**
+     * Fixing one parameter leaves fewer candidates than threads.
+     */
+    @Test
+    public void testFewerCandidatesThanThreads() {
+        assertSameLayering(2, -1);
+    }
+
+    ///////////////////////////////////////////////////////////////////////////////
+    // Utilities
+
+    private void assertSameLayering(final int upperBoundOnWidth, final int compensator) {
+        // Stop right after layering, since later phases may run differently with several threads
+        int[] sequential = layering(createGraph(upperBoundOnWidth, compensator, 1));
+        int[] concurrent = layering(createGraph(upperBoundOnWidth, compensator, 4));
+
+        assertArrayEquals(sequential, concurrent);
+    }
+
+    /**
+     * Runs the layout algorithm up to and including the layering and returns the index of each input node's layer.
+     */
+    private int[] layering(final ElkNode graph) {
+        LayeredLayoutProvider layoutProvider = new LayeredLayoutProvider();
+        TestExecutionState state = layoutProvider.startLayoutTest(graph);
+        layoutProvider.getLayoutAlgorithm().runLayoutTestUntil(MinWidthLayerer.class, state);
+
+        int[] layerIndices = new int[NODES];
+        List<Layer> layers = state.getGraphs().get(0).getLayers();
+        for (int i = 0; i < layers.size(); i++) {
+            for (LNode node : layers.get(i).getNodes()) {
+                layerIndices[graph.getChildren().indexOf(node.getProperty(InternalProperties.ORIGIN))] = i;
+            }
+        }
+        return layerIndices;
+    }
+
+    private ElkNode createGraph(final int upperBoundOnWidth, final int compensator, final int parallelism) {
+        Random random = new Random(3);
+        ElkNode graph = ConcurrentLayoutTestUtils.createGraph(parallelism);
+        graph.setProperty(LayeredOptions.SEPARATE_CONNECTED_COMPONENTS, false);
+        graph.setProperty(LayeredOptions.LAYERING_STRATEGY, LayeringStrategy.MIN_WIDTH);
+        graph.setProperty(LayeredOptions.LAYERING_MIN_WIDTH_UPPER_BOUND_ON_WIDTH, upperBoundOnWidth);
+        graph.setProperty(LayeredOptions.LAYERING_MIN_WIDTH_UPPER_LAYER_ESTIMATION_SCALING_FACTOR, compensator);
+
+        List<ElkNode> nodes = ConcurrentLayoutTestUtils.createNodes(graph, NODES, random);
+        for (int i = 0; i < EDGES; i++) {
+            int source = random.nextInt(NODES - 1);
+            int target = source + 1 + random.nextInt(NODES - source - 1);
+            ElkGraphUtil.createSimpleEdge(nodes.get(source), nodes.get(target));
+        }
+
+        return graph;
+    }
+
+}
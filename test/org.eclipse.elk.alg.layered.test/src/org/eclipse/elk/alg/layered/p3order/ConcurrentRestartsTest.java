@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Kiel University and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.elk.alg.layered.p3order;
+
+import static org.eclipse.elk.alg.layered.ConcurrentLayoutTestUtils.assertLayoutEquals;
+import static org.eclipse.elk.alg.layered.ConcurrentLayoutTestUtils.layout;
+
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.elk.alg.layered.ConcurrentLayoutTestUtils;
+import org.eclipse.elk.alg.layered.LayeredLayoutProvider;
+import org.eclipse.elk.alg.layered.options.LayeredOptions;
+import org.eclipse.elk.alg.test.PlainJavaInitialization;
+import org.eclipse.elk.core.options.PortConstraints;
+import org.eclipse.elk.core.options.PortSide;
+import org.eclipse.elk.core.util.BasicProgressMonitor;
+import org.eclipse.elk.graph.ElkConnectableShape;
+import org.eclipse.elk.graph.ElkNode;
+import org.eclipse.elk.graph.ElkPort;
+import org.eclipse.elk.graph.util.ElkGraphUtil;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Tests that running the randomized restarts of the layer sweep crossing minimizer concurrently yields the same
+ * results regardless of the number of threads involved.
+ */
+public class ConcurrentRestartsTest {
+
+    private static final int NODES = 40;
+    private static final int EDGES = 70;
+
+    @BeforeClass
+    public static void init() {
+        PlainJavaInitialization.initializePlainJavaLayout();
+    }
+
+    /**
+     * Different numbers of threads must produce the same layout.
+     */
+    @Test
+    public void testIndependentOfThreadCount() {
+        ElkNode twoThreads = createGraph(2);
+        ElkNode fourThreads = createGraph(4);
+
+        layout(twoThreads, fourThreads);
+
+        assertLayoutEquals(twoThreads, fourThreads);
+    }
+
+    /**
+     * Reusing a layout provider, and thus its crossing minimizer, must not change the layout.
+     */
+    @Test
+    public void testRepeatedLayout() {
+        ElkNode first = createGraph(3);
+        ElkNode second = createGraph(3);
+
+        LayeredLayoutProvider layoutProvider = new LayeredLayoutProvider();
+        layoutProvider.layout(first, new BasicProgressMonitor());
+        layoutProvider.layout(second, new BasicProgressMonitor());
+
+        assertLayoutEquals(first, second);
+    }
+
+    ///////////////////////////////////////////////////////////////////////////////
+    // Utilities
+
+    private ElkNode createGraph(final int parallelism) {
+        Random random = new Random(7);
+        ElkNode graph = ConcurrentLayoutTestUtils.createGraph(parallelism);
+        graph.setProperty(LayeredOptions.SEPARATE_CONNECTED_COMPONENTS, false);
+        graph.setProperty(LayeredOptions.THOROUGHNESS, 10);
+
+        // Some nodes have fixed port sides, including north and south ports that require dummy nodes
+        List<ElkNode> nodes = ConcurrentLayoutTestUtils.createNodes(graph, NODES, random);
+        for (int i = 0; i < NODES; i += 5) {
+            ElkNode node = nodes.get(i);
+            node.setProperty(LayeredOptions.PORT_CONSTRAINTS, PortConstraints.FIXED_SIDE);
+            for (PortSide side : PortSide.SIDES_NORTH_EAST_SOUTH_WEST) {
+                ElkPort port = ElkGraphUtil.createPort(node);
+                port.setDimensions(5, 5);
+                port.setProperty(LayeredOptions.PORT_SIDE, side);
+            }
+        }
+
+        for (int i = 0; i < EDGES; i++) {
+            ElkNode source = nodes.get(random.nextInt(NODES));
+            ElkNode target = nodes.get(random.nextInt(NODES));
+            if (source != target) {
+                ElkGraphUtil.createSimpleEdge(connectionPoint(source, random), connectionPoint(target, random));
+            }
+        }
+
+        return graph;
+    }
+
+    private ElkConnectableShape connectionPoint(final ElkNode node, final Random random) {
+        if (node.getPorts().isEmpty()) {
+            return node;
+        }
+        return node.getPorts().get(random.nextInt(node.getPorts().size()));
+    }
+
+}
@@ -57,4 +57,25 @@ public class BinaryIndexedTreeTest {
         assertThat(ft.size(), is(2));
         assertThat(ft.rank(2), is(1));
     }
+
+    @Test
+    public void reset() throws Exception {
+        BinaryIndexedTree ft = new BinaryIndexedTree(3);
+        ft.add(0);
+        ft.add(2);
+
+        ft.reset(8);
+        assertThat(ft.size(), is(0));
+        assertThat(ft.rank(8), is(0));
+
+        ft.add(7);
+        ft.add(1);
+        assertThat(ft.size(), is(2));
+        assertThat(ft.rank(7), is(1));
+
+        ft.reset(2);
+        assertThat(ft.size(), is(0));
+        ft.add(1);
+        assertThat(ft.rank(2), is(1));
+    }
 }
@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Kiel University and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.elk.alg.layered.p4nodes;
+
+import static org.eclipse.elk.alg.layered.ConcurrentLayoutTestUtils.assertLayoutEquals;
+import static org.eclipse.elk.alg.layered.ConcurrentLayoutTestUtils.layout;
+
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.elk.alg.layered.ConcurrentLayoutTestUtils;
+import org.eclipse.elk.alg.layered.options.FixedAlignment;
+import org.eclipse.elk.alg.layered.options.LayeredOptions;
+import org.eclipse.elk.alg.layered.options.NodePlacementStrategy;
+import org.eclipse.elk.alg.test.PlainJavaInitialization;
+import org.eclipse.elk.graph.ElkNode;
+import org.eclipse.elk.graph.util.ElkGraphUtil;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Tests that computing the four alignments of the Brandes &amp; Koepf node placer concurrently does not change the
+ * chosen layout.
+ */
+public class ConcurrentBKNodePlacementTest {
+
+    private static final int NODES = 120;
+    private static final int EDGES = 240;
+    private static final int THREADS = 4;
+
+    @BeforeClass
+    public static void init() {
+        PlainJavaInitialization.initializePlainJavaLayout();
+    }
+
+    /**
+     * Picking the smallest of the four layouts must not depend on them being computed concurrently.
+     */
+    @Test
+    public void testSmallestLayout() {
+        assertSameLayout(FixedAlignment.NONE, true);
+    }
+
+    /**
+     * The balanced layout combines all four layouts and must not depend on them being computed concurrently.
+     */
+    @Test
+    public void testBalancedLayout() {
+        assertSameLayout(FixedAlignment.BALANCED, false);
+    }
+
+    ///////////////////////////////////////////////////////////////////////////////
+    // Utilities
+
+    private void assertSameLayout(final FixedAlignment alignment, final boolean favorStraightEdges) {
+        // Both graphs use several threads to run the same crossing minimization, but only one of them is large
+        // enough for concurrent node placement
+        ElkNode sequential = createGraph(alignment, favorStraightEdges, Integer.MAX_VALUE);
+        ElkNode concurrent = createGraph(alignment, favorStraightEdges, 0);
+
+        layout(sequential, concurrent);
+        assertLayoutEquals(sequential, concurrent);
+    }
+
+    private ElkNode createGraph(final FixedAlignment alignment, final boolean favorStraightEdges,
+            final int parallelThreshold) {
+
+        Random random = new Random(11);
+        ElkNode graph = ConcurrentLayoutTestUtils.createGraph(THREADS);
+        graph.setProperty(LayeredOptions.SEPARATE_CONNECTED_COMPONENTS, false);
+        graph.setProperty(LayeredOptions.NODE_PLACEMENT_STRATEGY, NodePlacementStrategy.BRANDES_KOEPF);
+        graph.setProperty(LayeredOptions.NODE_PLACEMENT_BK_FIXED_ALIGNMENT, alignment);
+        graph.setProperty(LayeredOptions.NODE_PLACEMENT_FAVOR_STRAIGHT_EDGES, favorStraightEdges);
+        graph.setProperty(LayeredOptions.NODE_PLACEMENT_BK_PARALLEL_THRESHOLD, parallelThreshold);
+
+        List<ElkNode> nodes = ConcurrentLayoutTestUtils.createNodes(graph, NODES, random);
+
+        // Edges mostly connect nearby nodes, but some of them span many layers and thus introduce long edge dummies
+        for (int i = 0; i < EDGES; i++) {
+            int source = random.nextInt(NODES);
+            int target = random.nextInt(10) == 0 ? random.nextInt(NODES) : source + 1 + random.nextInt(5);
+            if (target < NODES && source != target) {
+                ElkGraphUtil.createSimpleEdge(nodes.get(source), nodes.get(target));
+            }
+        }
+
+        return graph;
+    }
+
+}
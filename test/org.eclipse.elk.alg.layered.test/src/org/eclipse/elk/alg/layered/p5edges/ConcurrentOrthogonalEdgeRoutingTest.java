@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Kiel University and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.elk.alg.layered.p5edges;
+
+import static org.eclipse.elk.alg.layered.ConcurrentLayoutTestUtils.assertLayoutEquals;
+import static org.eclipse.elk.alg.layered.ConcurrentLayoutTestUtils.layout;
+
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.elk.alg.layered.ConcurrentLayoutTestUtils;
+import org.eclipse.elk.alg.layered.options.LayeredOptions;
+import org.eclipse.elk.alg.test.PlainJavaInitialization;
+import org.eclipse.elk.core.options.EdgeRouting;
+import org.eclipse.elk.graph.ElkNode;
+import org.eclipse.elk.graph.util.ElkGraphUtil;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Tests that preparing the routing of the gaps between layers concurrently in the {@link OrthogonalEdgeRouter} yields
+ * the same bend points as routing one gap after another.
+ */
+public class ConcurrentOrthogonalEdgeRoutingTest {
+
+    private static final int NODES = 150;
+    private static final int EDGES = 300;
+    private static final int THREADS = 4;
+
+    @BeforeClass
+    public static void init() {
+        PlainJavaInitialization.initializePlainJavaLayout();
+    }
+
+    /**
+     * Edges that mostly connect nodes of adjacent layers.
+     */
+    @Test
+    public void testShortEdges() {
+        assertSameLayout(1);
+    }
+
+    /**
+     * Edges that span several layers yield many long edge dummies and thus many edges per gap.
+     */
+    @Test
+    public void testLongEdges() {
+        assertSameLayout(8);
+    }
+
+    ///////////////////////////////////////////////////////////////////////////////
+    // Utilities
+
+    private void assertSameLayout(final int maxEdgeSpan) {
+        // Both graphs use several threads for the other phases, but only one of them is routed concurrently
+        ElkNode sequential = createGraph(maxEdgeSpan, Integer.MAX_VALUE);
+        ElkNode concurrent = createGraph(maxEdgeSpan, 0);
+
+        layout(sequential, concurrent);
+        assertLayoutEquals(sequential, concurrent);
+    }
+
+    private ElkNode createGraph(final int maxEdgeSpan, final int parallelThreshold) {
+        Random random = new Random(5);
+        ElkNode graph = ConcurrentLayoutTestUtils.createGraph(THREADS);
+        graph.setProperty(LayeredOptions.EDGE_ROUTING, EdgeRouting.ORTHOGONAL);
+        graph.setProperty(LayeredOptions.SEPARATE_CONNECTED_COMPONENTS, false);
+        graph.setProperty(LayeredOptions.EDGE_ROUTING_ORTHOGONAL_PARALLEL_THRESHOLD, parallelThreshold);
+
+        List<ElkNode> nodes = ConcurrentLayoutTestUtils.createNodes(graph, NODES, random);
+
+        // Edges only point forward and thus yield many layers
+        for (int i = 0; i < EDGES; i++) {
+            int source = random.nextInt(NODES - 1);
+            int target = Math.min(NODES - 1, source + 1 + random.nextInt(maxEdgeSpan));
+            ElkGraphUtil.createSimpleEdge(nodes.get(source), nodes.get(target));
+        }
+
+        return graph;
+    }
+
+}
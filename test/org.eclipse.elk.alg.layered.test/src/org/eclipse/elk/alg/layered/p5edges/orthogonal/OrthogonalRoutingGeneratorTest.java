@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Kiel University and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.elk.alg.layered.p5edges.orthogonal;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.eclipse.elk.alg.layered.p5edges.orthogonal.direction.BaseRoutingDirectionStrategy;
+import org.eclipse.elk.alg.layered.p5edges.orthogonal.direction.RoutingDirection;
+import org.junit.Test;
+
+/**
+ * Tests that the sweep-based creation of hyperedge segment dependencies in {@link OrthogonalRoutingGenerator} yields
+ * the same dependency graph as comparing each pair of segments.
+ */
+public class OrthogonalRoutingGeneratorTest {
+
+    private static final double EDGE_SPACING = 10;
+
+    /**
+     * Segments spread over a large range, such that most pairs of segments are far apart.
+     */
+    @Test
+    public void testSparseSegments() {
+        for (int seed = 0; seed < 10; seed++) {
+            assertSameDependencies(new Random(seed), 300, 20000);
+        }
+    }
+
+    /**
+     * Segments crammed into a small range, such that many pairs of segments conflict or even conflict critically.
+     */
+    @Test
+    public void testDenseSegments() {
+        for (int seed = 0; seed < 10; seed++) {
+            assertSameDependencies(new Random(seed), 100, 500);
+        }
+    }
+
+    /**
+     * A single pair of connection coordinates makes the critical conflict threshold huge.
+     */
+    @Test
+    public void testHugeCriticalConflictThreshold() {
+        for (int seed = 0; seed < 10; seed++) {
+            assertSameDependencies(new Random(seed), 2, 20000);
+        }
+    }
+
+    ///////////////////////////////////////////////////////////////////////////////
+    // Utilities
+
+    private void assertSameDependencies(final Random random, final int segmentCount, final double range) {
+        List<HyperEdgeSegment> pairwiseSegments = new ArrayList<>();
+        List<HyperEdgeSegment> sweepSegments = new ArrayList<>();
+        for (int i = 0; i < segmentCount; i++) {
+            long seed = random.nextLong();
+            pairwiseSegments.add(createSegment(new Random(seed), range));
+            sweepSegments.add(createSegment(new Random(seed), range));
+        }
+
+        OrthogonalRoutingGenerator generator =
+                new OrthogonalRoutingGenerator(RoutingDirection.WEST_TO_EAST, EDGE_SPACING, null);
+
+        // The sweep also computes the critical conflict threshold the pair-wise comparison relies on
+        int sweepCriticalCount = generator.createDependencies(sweepSegments);
+        int pairwiseCriticalCount = 0;
+        for (int firstIdx = 0; firstIdx < segmentCount - 1; firstIdx++) {
+            for (int secondIdx = firstIdx + 1; secondIdx < segmentCount; secondIdx++) {
+                pairwiseCriticalCount += generator.createDependencyIfNecessary(
+                        pairwiseSegments.get(firstIdx), pairwiseSegments.get(secondIdx));
+            }
+        }
+
+        assertEquals(pairwiseCriticalCount, sweepCriticalCount);
+        for (int i = 0; i < segmentCount; i++) {
+            assertSameDependencies(pairwiseSegments, pairwiseSegments.get(i).getOutgoingSegmentDependencies(),
+                    sweepSegments, sweepSegments.get(i).getOutgoingSegmentDependencies());
+            assertSameDependencies(pairwiseSegments, pairwiseSegments.get(i).getIncomingSegmentDependencies(),
+                    sweepSegments, sweepSegments.get(i).getIncomingSegmentDependencies());
+        }
+    }
+
+    private void assertSameDependencies(final List<HyperEdgeSegment> expectedSegments,
+            final List<HyperEdgeSegmentDependency> expected, final List<HyperEdgeSegment> actualSegments,
+            final List<HyperEdgeSegmentDependency> actual) {
+
+        // Dependencies must not only be the same, they must also have been created in the same order
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expectedSegments.indexOf(expected.get(i).getSource()),
+                    actualSegments.indexOf(actual.get(i).getSource()));
+            assertEquals(expectedSegments.indexOf(expected.get(i).getTarget()),
+                    actualSegments.indexOf(actual.get(i).getTarget()));
+            assertEquals(expected.get(i).getType(), actual.get(i).getType());
+            assertEquals(expected.get(i).getWeight(), actual.get(i).getWeight());
+        }
+    }
+
+    private HyperEdgeSegment createSegment(final Random random, final double range) {
+        HyperEdgeSegment segment = new HyperEdgeSegment(
+                BaseRoutingDirectionStrategy.forRoutingDirection(RoutingDirection.WEST_TO_EAST));
+
+        // Most segments connect a single source to a single target, but some represent hyperedges
+        double start = random.nextDouble() * range;
+        double length = random.nextInt(5) == 0 ? random.nextDouble() * range / 4 : random.nextDouble() * 100;
+        TreeSet<Double> incoming = new TreeSet<>();
+        TreeSet<Double> outgoing = new TreeSet<>();
+        incoming.add(Math.floor(start));
+        outgoing.add(Math.floor(start + length));
+        while (random.nextInt(3) == 0) {
+            (random.nextBoolean() ? incoming : outgoing).add(Math.floor(start + random.nextDouble() * length));
+        }
+
+        segment.getIncomingConnectionCoordinates().addAll(incoming);
+        segment.getOutgoingConnectionCoordinates().addAll(outgoing);
+        segment.recomputeExtent();
+        return segment;
+    }
+
+}
@@ -0,0 +1,268 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Kiel University and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.elk.alg.libavoid.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+
+import org.eclipse.elk.alg.libavoid.server.LibavoidServer.Cleanup;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Tests the Libavoid server pool and the ticket protocol for pipelined requests. Instead of the real
+ * libavoid-server, the pool starts a shell script that understands the following request lines:
+ * {@code SLEEP <seconds>} delays the response, {@code ECHO <value>} answers with a layout whose only
+ * entry has the given value, and {@code FAIL <message>} answers with an error.
+ */
+public class LibavoidServerPoolTest {
+
+    /** the script that stands in for the libavoid-server. */
+    private static final String FAKE_SERVER = "#!/bin/sh\n"
+            + "while IFS= read -r line; do\n"
+            + "  case \"$line\" in\n"
+            + "    SLEEP\\ *) sleep \"${line#SLEEP }\" ;;\n"
+            + "    ECHO\\ *) printf 'LAYOUT\\nE1=%s\\nDONE\\n' \"${line#ECHO }\" ;;\n"
+            + "    FAIL\\ *) printf 'ERROR\\n%s\\nDONE\\n' \"${line#FAIL }\" ;;\n"
+            + "  esac\n"
+            + "done\n";
+
+    /** timeout for responses that are expected to arrive. */
+    private static final int TIMEOUT = 5000;
+
+    private static File executable;
+
+    private final LibavoidServerPool pool = LibavoidServerPool.INSTANCE;
+
+    @BeforeClass
+    public static void createFakeServer() throws IOException {
+        Assume.assumeFalse("The fake server is a shell script",
+                System.getProperty("os.name").toLowerCase().contains("win"));
+        executable = File.createTempFile("fake-libavoid-server", ".sh");
+        Files.write(executable.toPath(), FAKE_SERVER.getBytes(StandardCharsets.UTF_8));
+        assertTrue(executable.setExecutable(true));
+    }
+
+    @AfterClass
+    public static void deleteFakeServer() {
+        if (executable != null) {
+            executable.delete();
+        }
+    }
+
+    @Before
+    public void setUp() {
+        pool.dispose();
+        pool.resetStatistics();
+        pool.setExecutable(executable.getPath());
+    }
+
+    @After
+    public void tearDown() {
+        pool.dispose();
+        pool.setExecutable(null);
+        pool.setMinSize(0);
+        pool.setMaxSize(Integer.MAX_VALUE);
+        pool.setPipelineDepth(1);
+        pool.setIdleTimeout(0);
+        pool.setMaintenanceInterval(LibavoidServerPool.DEF_MAINTENANCE_INTERVAL);
+        pool.resetStatistics();
+    }
+
+    /**
+     * Requests pipelined on one process are answered in the order they were sent, and each caller gets
+     * its own response even if the callers wait for their responses in a different order. The timeout
+     * of a request only starts when the process works on it.
+     */
+    @Test
+    public void testPipelinedResponsesInOrder() throws Exception {
+        final int requests = 4;
+        pool.setMaxSize(1);
+        pool.setPipelineDepth(requests);
+
+        LibavoidServer[] servers = new LibavoidServer[requests];
+        long[] tickets = new long[requests];
+        for (int i = 0; i < requests; i++) {
+            servers[i] = pool.fetch();
+            assertSame(servers[0], servers[i]);
+            // all requests together take longer than the timeout, each single one does not
+            tickets[i] = servers[i].send(request("SLEEP 0.3", "ECHO r" + i));
+        }
+
+        String[] responses = new String[requests];
+        Thread[] readers = new Thread[requests];
+        for (int i = requests - 1; i >= 0; i--) {
+            final int index = i;
+            readers[i] = new Thread(() -> {
+                Map<String, String> data = servers[index].receive(tickets[index], 1000);
+                responses[index] = data == null ? null : data.get("E1");
+            });
+            readers[i].start();
+        }
+        for (int i = 0; i < requests; i++) {
+            readers[i].join();
+            pool.release(servers[i]);
+        }
+
+        for (int i = 0; i < requests; i++) {
+            assertEquals("r" + i, responses[i]);
+        }
+        LibavoidServerPool.Statistics statistics = pool.getStatistics();
+        assertEquals(1, statistics.getPoolSize());
+        assertEquals(1, statistics.getProcessesStarted());
+        assertEquals(requests, statistics.getRoutedRequests());
+    }
+
+    /**
+     * A request that times out stops its process, so the requests pipelined behind it fail instead of
+     * waiting forever, and the pool replaces the process.
+     */
+    @Test
+    public void testTimeoutOfOneTicket() throws Exception {
+        pool.setMaxSize(1);
+        pool.setPipelineDepth(2);
+
+        LibavoidServer server = pool.fetch();
+        long slow = server.send(request("SLEEP 10", "ECHO slow"));
+        assertSame(server, pool.fetch());
+        long next = server.send(request("ECHO next"));
+
+        assertNull(server.receive(slow, 200));
+        try {
+            // like the layout provider, stop the process after incomplete output
+            server.cleanup(Cleanup.ERROR);
+        } catch (LibavoidServerException exception) {
+            // the process was killed by the watchdog, which is reported as an error
+        }
+        try {
+            server.receive(next, TIMEOUT);
+            fail("The pipelined request must fail once its process has been stopped.");
+        } catch (LibavoidServerException exception) {
+            // expected
+        }
+        pool.release(server);
+        pool.release(server);
+        assertEquals(0, pool.getStatistics().getPoolSize());
+        assertEquals(1, pool.getStatistics().getProcessesFailed());
+
+        LibavoidServer replacement = pool.fetch();
+        try {
+            long ticket = replacement.send(request("ECHO again"));
+            assertEquals("again", replacement.receive(ticket, TIMEOUT).get("E1"));
+        } finally {
+            pool.release(replacement);
+        }
+        assertEquals(2, pool.getStatistics().getProcessesStarted());
+    }
+
+    /**
+     * An error reported for one request fails only that request; the requests pipelined before and
+     * after it are answered by the same process.
+     */
+    @Test
+    public void testErrorWhileOtherTicketsInFlight() throws Exception {
+        pool.setMaxSize(1);
+        pool.setPipelineDepth(3);
+
+        LibavoidServer server = pool.fetch();
+        long first = server.send(request("ECHO first"));
+        assertSame(server, pool.fetch());
+        long failing = server.send(request("SLEEP 0.1", "FAIL no route found"));
+        assertSame(server, pool.fetch());
+        long last = server.send(request("ECHO last"));
+
+        try {
+            // wait for the last response in parallel to reading the failing one
+            String[] lastResponse = new String[1];
+            Thread lastReader = new Thread(() -> lastResponse[0] = server.receive(last, TIMEOUT).get("E1"));
+            lastReader.start();
+            assertEquals("first", server.receive(first, TIMEOUT).get("E1"));
+            try {
+                server.receive(failing, TIMEOUT);
+                fail("The error reported by Libavoid must be thrown.");
+            } catch (LibavoidServerException exception) {
+                assertEquals("no route found", exception.getMessage());
+            }
+            lastReader.join();
+            assertEquals("last", lastResponse[0]);
+            assertTrue(server.isAlive());
+        } finally {
+            pool.release(server);
+            pool.release(server);
+            pool.release(server);
+        }
+
+        LibavoidServerPool.Statistics statistics = pool.getStatistics();
+        assertEquals(1, statistics.getPoolSize());
+        assertEquals(1, statistics.getProcessesStarted());
+        assertEquals(0, statistics.getProcessesFailed());
+        assertEquals(2, statistics.getRoutedRequests());
+    }
+
+    /**
+     * Idle servers are stopped by the maintenance thread, but not below the minimal pool size.
+     */
+    @Test
+    public void testIdleEviction() throws Exception {
+        pool.setMaxSize(2);
+        LibavoidServer first = pool.fetch();
+        LibavoidServer second = pool.fetch();
+        assertNotEquals(first, second);
+        for (LibavoidServer server : new LibavoidServer[] { first, second }) {
+            assertEquals("warm", server.receive(server.send(request("ECHO warm")), TIMEOUT).get("E1"));
+            pool.release(server);
+        }
+        assertEquals(2, pool.getStatistics().getPoolSize());
+
+        pool.setMinSize(1);
+        pool.setMaintenanceInterval(50);
+        pool.setIdleTimeout(200);
+        long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (pool.getStatistics().getProcessesEvicted() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        // give the maintenance thread the chance to evict too many servers
+        Thread.sleep(500);
+
+        LibavoidServerPool.Statistics statistics = pool.getStatistics();
+        assertEquals(1, statistics.getProcessesEvicted());
+        assertEquals(1, statistics.getPoolSize());
+        assertEquals(2, statistics.getProcessesStarted());
+        assertFalse(first.isAlive() && second.isAlive());
+        assertTrue(first.isAlive() || second.isAlive());
+    }
+
+    /**
+     * Build a request from the given lines, followed by the final chunk keyword.
+     */
+    private static byte[] request(final String... lines) {
+        StringBuilder request = new StringBuilder();
+        for (String line : lines) {
+            request.append(line).append('\n');
+        }
+        return request.append("[CHUNK]\n").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,402 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Kiel University and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.elk.alg.radial.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.eclipse.elk.alg.radial.RadialLayoutProvider;
+import org.eclipse.elk.alg.radial.RadialUtil;
+import org.eclipse.elk.alg.radial.intermediate.compaction.AbstractRadiusExtensionCompaction;
+import org.eclipse.elk.alg.radial.intermediate.compaction.AnnulusWedgeCompaction;
+import org.eclipse.elk.alg.radial.intermediate.compaction.IRadialCompactor;
+import org.eclipse.elk.alg.radial.intermediate.compaction.RadialCompaction;
+import org.eclipse.elk.alg.radial.options.CompactionStrategy;
+import org.eclipse.elk.alg.radial.options.RadialOptions;
+import org.eclipse.elk.alg.test.PlainJavaInitialization;
+import org.eclipse.elk.core.options.CoreOptions;
+import org.eclipse.elk.core.util.BasicProgressMonitor;
+import org.eclipse.elk.graph.ElkNode;
+import org.eclipse.elk.graph.util.ElkGraphUtil;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Tests for the overlap removal and the radial compaction.
+ */
+public class OverlapRemovalTest {
+
+    /** the tolerance for rounding errors in positions. */
+    private static final double TOLERANCE = 1e-6;
+    /** the radius of the trees that are compacted. */
+    private static final double COMPACTION_RADIUS = 100;
+
+    @BeforeClass
+    public static void init() {
+        PlainJavaInitialization.initializePlainJavaLayout();
+    }
+
+    /**
+     * Nodes of a radius that are next to each other must not overlap after the overlap removal.
+     */
+    @Test
+    public void testNoOverlapsOnRadius() {
+        for (int seed = 0; seed < 5; seed++) {
+            ElkNode graph = createTree(seed);
+            layout(graph);
+            assertNoOverlaps(graph);
+        }
+    }
+
+    /**
+     * Nodes of a radius that are next to each other must not overlap after the radial compaction.
+     */
+    @Test
+    public void testNoOverlapsAfterCompaction() {
+        for (int seed = 0; seed < 5; seed++) {
+            ElkNode graph = createTree(seed);
+            graph.setProperty(RadialOptions.COMPACTOR, CompactionStrategy.RADIAL_COMPACTION);
+            layout(graph);
+            assertNoOverlaps(graph);
+        }
+    }
+
+    /**
+     * The layout must not depend on anything but the graph.
+     */
+    @Test
+    public void testDeterministic() {
+        ElkNode expected = createTree(0);
+        layout(expected);
+        ElkNode actual = createTree(0);
+        layout(actual);
+
+        for (int i = 0; i < expected.getChildren().size(); i++) {
+            assertEquals(expected.getChildren().get(i).getX(), actual.getChildren().get(i).getX(), 0);
+            assertEquals(expected.getChildren().get(i).getY(), actual.getChildren().get(i).getY(), 0);
+        }
+    }
+
+    /**
+     * Extending and contracting the layers by the directly computed distances must yield the same positions as moving
+     * them one compaction step at a time, as the overlap removal and the compactors did before.
+     */
+    @Test
+    public void testDirectEqualsStepwiseMovement() {
+        for (int seed = 0; seed < 5; seed++) {
+            for (int compactionStep : new int[] { 1, 3 }) {
+                ElkNode directGraph = createTree(seed);
+                ElkNode stepwiseGraph = createTree(seed);
+                AbstractRadiusExtensionCompaction direct = createCompaction(directGraph, compactionStep);
+                AbstractRadiusExtensionCompaction stepwise = createCompaction(stepwiseGraph, compactionStep);
+                List<List<ElkNode>> directLayers = placeLayers(directGraph);
+                List<List<ElkNode>> stepwiseLayers = placeLayers(stepwiseGraph);
+
+                for (int i = 0; i < directLayers.size(); i++) {
+                    List<ElkNode> directLayer = directLayers.get(i);
+                    List<ElkNode> stepwiseLayer = stepwiseLayers.get(i);
+
+                    direct.extendLayerUntilNotOverlapping(directLayer);
+                    while (stepwise.overlapLayer(stepwiseLayer)) {
+                        stepwise.contractLayer(stepwiseLayer, false);
+                    }
+                    assertSamePositions(directLayer, stepwiseLayer);
+
+                    // move the layers outwards such that there is some space to contract them again
+                    for (int j = 0; j < 20; j++) {
+                        direct.contractLayer(directLayer, false);
+                        stepwise.contractLayer(stepwiseLayer, false);
+                    }
+                    direct.contractLayerUntilOverlapping(directLayer, direct.layerOverlapIntervals(directLayer, true),
+                            direct::overlapLayer);
+                    contractStepwise(stepwise, stepwiseLayer, stepwise::overlapLayer);
+                    assertSamePositions(directLayer, stepwiseLayer);
+                }
+            }
+        }
+    }
+
+    /**
+     * The radial compaction must contract each radius by the same number of steps as contracting it one compaction
+     * step at a time, which covers the overlaps with the tree parents and the distance to the last radius.
+     */
+    @Test
+    public void testRadialCompactionEqualsStepwise() {
+        assertCompactionEqualsStepwise(CheckedRadialCompaction::new, StepwiseRadialCompaction::new);
+    }
+
+    /**
+     * The annulus wedge compaction must contract each radius of a wedge by the same number of steps as contracting it
+     * one compaction step at a time, which covers the overlaps with the predecessors and the contours of the
+     * neighboring wedges. A wedge that is its own neighbor contracts parts of the neighboring contour along with its
+     * radius.
+     */
+    @Test
+    public void testAnnulusWedgeCompactionEqualsStepwise() {
+        assertCompactionEqualsStepwise(CheckedAnnulusWedgeCompaction::new, StepwiseAnnulusWedgeCompaction::new);
+    }
+
+    /**
+     * Compacts trees laid out without compaction once with the given compactor and once with its stepwise
+     * counterpart, and compares the positions of all nodes. Since the compactors correct the computed number of steps
+     * stepwise, the given compactor must also check that number itself.
+     */
+    private void assertCompactionEqualsStepwise(final Supplier<IRadialCompactor> direct,
+            final Supplier<IRadialCompactor> stepwise) {
+        for (boolean singleRootSuccessor : new boolean[] { false, true }) {
+            for (int compactionStep : new int[] { 1, 3 }) {
+                boolean moved = false;
+                for (int seed = 0; seed < 5; seed++) {
+                    ElkNode directGraph = createTree(seed, singleRootSuccessor);
+                    ElkNode stepwiseGraph = createTree(seed, singleRootSuccessor);
+                    // radii far enough apart that the levels do not overlap before they are contracted
+                    directGraph.setProperty(RadialOptions.RADIUS, COMPACTION_RADIUS);
+                    stepwiseGraph.setProperty(RadialOptions.RADIUS, COMPACTION_RADIUS);
+                    layout(directGraph);
+                    layout(stepwiseGraph);
+                    double[] before = positions(directGraph.getChildren());
+                    directGraph.setProperty(RadialOptions.COMPACTION_STEP_SIZE, compactionStep);
+                    stepwiseGraph.setProperty(RadialOptions.COMPACTION_STEP_SIZE, compactionStep);
+
+                    direct.get().compact(directGraph);
+                    stepwise.get().compact(stepwiseGraph);
+                    assertSamePositions(stepwiseGraph.getChildren(), directGraph.getChildren());
+                    moved |= !Arrays.equals(before, positions(directGraph.getChildren()));
+                }
+                // the comparison is only meaningful if the compaction moves nodes
+                assertTrue(moved);
+            }
+        }
+    }
+
+    /**
+     * Contracts a list of nodes from the same radius one step at a time until they overlap and undoes the last step,
+     * as the compactors did before they computed the distance directly.
+     */
+    private static void contractStepwise(final AbstractRadiusExtensionCompaction compaction,
+            final List<ElkNode> layerNodes, final Predicate<List<ElkNode>> isOverlapping) {
+        boolean wasContracted = false;
+        while (!isOverlapping.test(layerNodes)) {
+            compaction.contractLayer(layerNodes, true);
+            wasContracted = true;
+        }
+        if (wasContracted) {
+            compaction.contractLayer(layerNodes, false);
+        }
+    }
+
+    /**
+     * Asserts that the number of steps computed from the given overlap intervals is the number of steps after which
+     * contracting the nodes one step at a time makes them overlap, up to rounding errors at the bounds of the
+     * intervals. The nodes are not moved.
+     */
+    private static void assertStepsEqualStepwise(final AbstractRadiusExtensionCompaction compaction,
+            final List<ElkNode> layerNodes, final List<double[]> overlapIntervals,
+            final Predicate<List<ElkNode>> isOverlapping) {
+        if (isOverlapping.test(layerNodes)) {
+            return;
+        }
+        double[] positions = positions(layerNodes);
+        double distanceToRoot = Double.POSITIVE_INFINITY;
+        ElkNode root = compaction.getRoot();
+        for (ElkNode node : layerNodes) {
+            distanceToRoot = Math.min(distanceToRoot, Math.hypot(
+                    node.getX() + node.getWidth() / 2 - root.getX() - root.getWidth() / 2,
+                    node.getY() + node.getHeight() / 2 - root.getY() - root.getHeight() / 2));
+        }
+
+        int steps = 0;
+        do {
+            compaction.contractLayer(layerNodes, true);
+            steps++;
+        } while (!isOverlapping.test(layerNodes));
+        for (int i = 0; i < layerNodes.size(); i++) {
+            layerNodes.get(i).setLocation(positions[2 * i], positions[2 * i + 1]);
+        }
+
+        // once a node passes the root, the intervals no longer apply and the compactors contract stepwise
+        if ((double) steps * compaction.getCompactionStep() < distanceToRoot) {
+            List<double[]> widened = new ArrayList<>();
+            List<double[]> narrowed = new ArrayList<>();
+            for (double[] interval : overlapIntervals) {
+                widened.add(new double[] { interval[0] - TOLERANCE, interval[1] + TOLERANCE });
+                narrowed.add(new double[] { interval[0] + TOLERANCE, interval[1] - TOLERANCE });
+            }
+            assertTrue(compaction.stepsToEnter(widened) <= steps && steps <= compaction.stepsToEnter(narrowed));
+        }
+    }
+
+    /**
+     * A {@link RadialCompaction} that checks the number of steps it contracts each radius by
+     * {@link #assertStepsEqualStepwise against the stepwise contraction}.
+     */
+    private static final class CheckedRadialCompaction extends RadialCompaction {
+        @Override
+        public void contractLayerUntilOverlapping(final List<ElkNode> layerNodes,
+                final List<double[]> overlapIntervals, final Predicate<List<ElkNode>> isOverlapping) {
+            assertStepsEqualStepwise(this, layerNodes, overlapIntervals, isOverlapping);
+            super.contractLayerUntilOverlapping(layerNodes, overlapIntervals, isOverlapping);
+        }
+    }
+
+    /**
+     * An {@link AnnulusWedgeCompaction} that checks the number of steps it contracts each radius of a wedge by
+     * {@link #assertStepsEqualStepwise against the stepwise contraction}.
+     */
+    private static final class CheckedAnnulusWedgeCompaction extends AnnulusWedgeCompaction {
+        @Override
+        public void contractLayerUntilOverlapping(final List<ElkNode> layerNodes,
+                final List<double[]> overlapIntervals, final Predicate<List<ElkNode>> isOverlapping) {
+            assertStepsEqualStepwise(this, layerNodes, overlapIntervals, isOverlapping);
+            super.contractLayerUntilOverlapping(layerNodes, overlapIntervals, isOverlapping);
+        }
+    }
+
+    /**
+     * A {@link RadialCompaction} that contracts each radius {@link #contractStepwise stepwise}.
+     */
+    private static final class StepwiseRadialCompaction extends RadialCompaction {
+        @Override
+        public void contractLayerUntilOverlapping(final List<ElkNode> layerNodes,
+                final List<double[]> overlapIntervals, final Predicate<List<ElkNode>> isOverlapping) {
+            contractStepwise(this, layerNodes, isOverlapping);
+        }
+    }
+
+    /**
+     * An {@link AnnulusWedgeCompaction} that contracts each radius of a wedge {@link #contractStepwise stepwise}.
+     */
+    private static final class StepwiseAnnulusWedgeCompaction extends AnnulusWedgeCompaction {
+        @Override
+        public void contractLayerUntilOverlapping(final List<ElkNode> layerNodes,
+                final List<double[]> overlapIntervals, final Predicate<List<ElkNode>> isOverlapping) {
+            contractStepwise(this, layerNodes, isOverlapping);
+        }
+    }
+
+    private ElkNode createTree(final int seed) {
+        return createTree(seed, false);
+    }
+
+    /**
+     * Creates a deep, wide tree whose nodes are large compared to the radius, such that the initial layout has
+     * overlaps on every radius. If requested, the root has a single successor, whose wedge is its own neighbor.
+     */
+    private ElkNode createTree(final int seed, final boolean singleRootSuccessor) {
+        Random random = new Random(seed);
+        ElkNode graph = ElkGraphUtil.createGraph();
+        graph.setProperty(CoreOptions.ALGORITHM, RadialOptions.ALGORITHM_ID);
+        graph.setProperty(RadialOptions.RADIUS, 30.0);
+
+        // nodes that share a side with the root never overlap it, and would be contracted past it
+        ElkNode root = ElkGraphUtil.createNode(graph);
+        root.setDimensions(30.5, 30.5);
+        List<ElkNode> level = new ArrayList<>();
+        level.add(root);
+        for (int depth = 0; depth < 4; depth++) {
+            List<ElkNode> nextLevel = new ArrayList<>();
+            for (ElkNode parent : level) {
+                int children = depth < 2 && singleRootSuccessor ? 1 : 1 + random.nextInt(4);
+                for (int i = 0; i < children; i++) {
+                    ElkNode child = ElkGraphUtil.createNode(graph);
+                    child.setDimensions(10 + random.nextInt(30), 10 + random.nextInt(30));
+                    ElkGraphUtil.createSimpleEdge(parent, child);
+                    nextLevel.add(child);
+                }
+            }
+            level = nextLevel;
+        }
+        return graph;
+    }
+
+    private AbstractRadiusExtensionCompaction createCompaction(final ElkNode graph, final int compactionStep) {
+        AbstractRadiusExtensionCompaction compaction = new AbstractRadiusExtensionCompaction();
+        compaction.setRoot(graph.getChildren().get(0));
+        compaction.setSpacing(10);
+        compaction.setCompactionStep(compactionStep);
+        return compaction;
+    }
+
+    /**
+     * Places the nodes of each level of the tree evenly on a circle around the root, like the initial layout does for
+     * a tree whose subtrees have the same number of leaves, and returns the levels.
+     */
+    private List<List<ElkNode>> placeLayers(final ElkNode graph) {
+        ElkNode root = graph.getChildren().get(0);
+        root.setLocation(-root.getWidth() / 2, -root.getHeight() / 2);
+
+        List<List<ElkNode>> layers = new ArrayList<>();
+        List<ElkNode> layer = RadialUtil.getSuccessors(root);
+        double radius = graph.getProperty(RadialOptions.RADIUS);
+        while (!layer.isEmpty()) {
+            radius += graph.getProperty(RadialOptions.RADIUS);
+            for (int i = 0; i < layer.size(); i++) {
+                double angle = 2 * Math.PI * (i + 0.5) / layer.size();
+                ElkNode node = layer.get(i);
+                node.setLocation(radius * Math.cos(angle) - node.getWidth() / 2,
+                        radius * Math.sin(angle) - node.getHeight() / 2);
+            }
+            layers.add(layer);
+            layer = RadialUtil.getNextLevelNodes(layer);
+        }
+        return layers;
+    }
+
+    private void assertSamePositions(final List<ElkNode> expected, final List<ElkNode> actual) {
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getX(), actual.get(i).getX(), TOLERANCE);
+            assertEquals(expected.get(i).getY(), actual.get(i).getY(), TOLERANCE);
+        }
+    }
+
+    private static double[] positions(final List<ElkNode> nodes) {
+        double[] positions = new double[2 * nodes.size()];
+        for (int i = 0; i < nodes.size(); i++) {
+            positions[2 * i] = nodes.get(i).getX();
+            positions[2 * i + 1] = nodes.get(i).getY();
+        }
+        return positions;
+    }
+
+    private void layout(final ElkNode graph) {
+        new RadialLayoutProvider().layout(graph, new BasicProgressMonitor());
+    }
+
+    private void assertNoOverlaps(final ElkNode graph) {
+        ElkNode root = graph.getChildren().get(0);
+        double rootX = root.getX() + root.getWidth() / 2;
+        double rootY = root.getY() + root.getHeight() / 2;
+
+        List<ElkNode> level = RadialUtil.getSuccessors(root);
+        while (!level.isEmpty()) {
+            level.sort(Comparator.comparingDouble(node -> Math.atan2(node.getY() + node.getHeight() / 2 - rootY,
+                    node.getX() + node.getWidth() / 2 - rootX)));
+            for (int i = 0; i < level.size() && level.size() > 1; i++) {
+                ElkNode node1 = level.get(i);
+                ElkNode node2 = level.get((i + 1) % level.size());
+                assertFalse(node1.getX() < node2.getX() + node2.getWidth()
+                        && node2.getX() < node1.getX() + node1.getWidth()
+                        && node1.getY() < node2.getY() + node2.getHeight()
+                        && node2.getY() < node1.getY() + node1.getHeight());
+            }
+            level = RadialUtil.getNextLevelNodes(level);
+        }
+    }
+
+}
@@ -0,0 +1,171 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Kiel University and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.elk.alg.radial.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.eclipse.elk.alg.radial.RadialLayoutProvider;
+import org.eclipse.elk.alg.radial.options.RadialOptions;
+import org.eclipse.elk.alg.radial.options.RadialTranslationStrategy;
+import org.eclipse.elk.alg.radial.options.SortingStrategy;
+import org.eclipse.elk.alg.test.PlainJavaInitialization;
+import org.eclipse.elk.core.math.KVector;
+import org.eclipse.elk.core.options.CoreOptions;
+import org.eclipse.elk.core.util.BasicProgressMonitor;
+import org.eclipse.elk.graph.ElkNode;
+import org.eclipse.elk.graph.util.ElkGraphUtil;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Tests for the search of the optimal translation.
+ */
+public class TranslationSearchTest {
+
+    private static final RadialTranslationStrategy[] CRITERIA = {
+            RadialTranslationStrategy.EDGE_LENGTH,
+            RadialTranslationStrategy.EDGE_LENGTH_BY_POSITION,
+            RadialTranslationStrategy.CROSSING_MINIMIZATION_BY_POSITION };
+    private static final double EPSILON = 1e-6;
+
+    @BeforeClass
+    public static void init() {
+        PlainJavaInitialization.initializePlainJavaLayout();
+    }
+
+    /**
+     * Evaluating the translations concurrently must yield the same layout as evaluating them one after another.
+     */
+    @Test
+    public void testParallelEqualsSequential() {
+        for (RadialTranslationStrategy criteria : CRITERIA) {
+            for (SortingStrategy sorter : SortingStrategy.values()) {
+                ElkNode expected = createTree(criteria, sorter);
+                layout(expected);
+
+                ElkNode actual = createTree(criteria, sorter);
+                actual.setProperty(RadialOptions.PARALLELISM, 4);
+                layout(actual);
+
+                assertSameLayout(expected, actual);
+            }
+        }
+    }
+
+    /**
+     * Refining around every coarse translation must yield the same layout as evaluating every degree.
+     */
+    @Test
+    public void testFullyRefinedSearchEqualsExhaustiveSearch() {
+        for (RadialTranslationStrategy criteria : CRITERIA) {
+            ElkNode expected = createTree(criteria, SortingStrategy.ID);
+            layout(expected);
+
+            ElkNode actual = createTree(criteria, SortingStrategy.ID);
+            actual.setProperty(RadialOptions.OPTIMIZATION_SEARCH_STEP, 7);
+            actual.setProperty(RadialOptions.OPTIMIZATION_SEARCH_TOLERANCE, Double.MAX_VALUE);
+            layout(actual);
+
+            assertSameLayout(expected, actual);
+        }
+    }
+
+    /**
+     * The search tolerance only decides around which coarse translations the search is refined; it does not bound how
+     * much worse the result may be than that of evaluating every degree. A larger tolerance refines around more
+     * translations and thus never yields a worse result.
+     */
+    @Test
+    public void testRealisticTolerances() {
+        double[] tolerances = { 0.0, 0.01, 0.05, 0.2, Double.MAX_VALUE };
+        for (RadialTranslationStrategy criteria : CRITERIA) {
+            double[] values = searchWithTolerances(criteria, 1, tolerances);
+            double optimalValue = values[tolerances.length];
+            for (int i = 0; i < tolerances.length; i++) {
+                assertTrue(values[i] >= optimalValue - EPSILON);
+                if (i > 0) {
+                    assertTrue(values[i] <= values[i - 1] + EPSILON);
+                }
+            }
+            assertEquals(optimalValue, values[tolerances.length - 1], EPSILON);
+
+            if (criteria == RadialTranslationStrategy.EDGE_LENGTH) {
+                // on this tree, the degrees around the best coarse translation miss the optimum by a little, and a
+                // tolerance of one percent is enough to also refine around the coarse translation next to the optimum
+                assertTrue(values[0] > optimalValue + EPSILON);
+                assertEquals(optimalValue, values[1], EPSILON);
+            }
+        }
+    }
+
+    /**
+     * Lays out the tree created from the given seed with a coarse search step and each of the given tolerances, and
+     * returns the value of the resulting layouts. The last value is that of evaluating every degree.
+     */
+    private double[] searchWithTolerances(final RadialTranslationStrategy criteria, final int seed,
+            final double[] tolerances) {
+
+        double[] values = new double[tolerances.length + 1];
+        for (int i = 0; i <= tolerances.length; i++) {
+            ElkNode graph = createTree(criteria, SortingStrategy.ID, seed);
+            if (i < tolerances.length) {
+                graph.setProperty(RadialOptions.OPTIMIZATION_SEARCH_STEP, 30);
+                graph.setProperty(RadialOptions.OPTIMIZATION_SEARCH_TOLERANCE, tolerances[i]);
+            }
+            layout(graph);
+            values[i] = criteria.create().evaluate(graph.getChildren().get(0));
+        }
+        return values;
+    }
+
+    private ElkNode createTree(final RadialTranslationStrategy criteria, final SortingStrategy sorter) {
+        return createTree(criteria, sorter, 0);
+    }
+
+    private ElkNode createTree(final RadialTranslationStrategy criteria, final SortingStrategy sorter,
+            final int seed) {
+
+        Random random = new Random(seed);
+        ElkNode parent = ElkGraphUtil.createGraph();
+        parent.setProperty(CoreOptions.ALGORITHM, RadialOptions.ALGORITHM_ID);
+        parent.setProperty(RadialOptions.OPTIMIZATION_CRITERIA, criteria);
+        parent.setProperty(RadialOptions.SORTER, sorter);
+        // keep the nodes small compared to the radius such that the overlap removal does not move them
+        parent.setProperty(RadialOptions.RADIUS, 400.0);
+
+        ElkNode root = ElkGraphUtil.createNode(parent);
+        root.setDimensions(10, 10);
+        for (int i = 1; i < 60; i++) {
+            ElkNode node = ElkGraphUtil.createNode(parent);
+            node.setDimensions(2 + random.nextInt(8), 2 + random.nextInt(8));
+            node.setProperty(RadialOptions.ORDER_ID, random.nextInt(100));
+            node.setProperty(CoreOptions.POSITION, new KVector(random.nextInt(20), random.nextInt(20)));
+            ElkGraphUtil.createSimpleEdge(parent.getChildren().get(random.nextInt(Math.min(i, 20))), node);
+        }
+        return parent;
+    }
+
+    private void layout(final ElkNode graph) {
+        new RadialLayoutProvider().layout(graph, new BasicProgressMonitor());
+    }
+
+    private void assertSameLayout(final ElkNode expected, final ElkNode actual) {
+        for (int i = 0; i < expected.getChildren().size(); i++) {
+            ElkNode expectedNode = expected.getChildren().get(i);
+            ElkNode actualNode = actual.getChildren().get(i);
+            assertEquals(expectedNode.getX(), actualNode.getX(), 0);
+            assertEquals(expectedNode.getY(), actualNode.getY(), 0);
+        }
+    }
+
+}
@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Kiel University and others.
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.elk.alg.rectpacking;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.eclipse.elk.alg.rectpacking.options.InternalProperties;
+import org.eclipse.elk.alg.rectpacking.options.OptimizationGoal;
+import org.eclipse.elk.alg.rectpacking.options.RectPackingOptions;
+import org.eclipse.elk.alg.rectpacking.p1widthapproximation.GreedyWidthApproximator;
+import org.eclipse.elk.alg.test.PlainJavaInitialization;
+import org.eclipse.elk.core.util.BasicProgressMonitor;
+import org.eclipse.elk.graph.ElkNode;
+import org.eclipse.elk.graph.util.ElkGraphUtil;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Tests for the greedy width approximation.
+ */
+public class WidthApproximationTest {
+
+    @BeforeClass
+    public static void init() {
+        PlainJavaInitialization.initializePlainJavaLayout();
+    }
+
+    /**
+     * Searching the placed rectangles with several threads must yield the same placement as searching them with one.
+     */
+    @Test
+    public void testParallelEqualsSequential() {
+        for (OptimizationGoal goal : OptimizationGoal.values()) {
+            // enough rectangles for the search to be split between threads
+            ElkNode expected = createGraph(goal, 10000);
+            new GreedyWidthApproximator().process(expected, new BasicProgressMonitor());
+
+            ElkNode actual = createGraph(goal, 10000);
+            actual.setProperty(RectPackingOptions.WIDTH_APPROXIMATION_PARALLELISM, 4);
+            new GreedyWidthApproximator().process(actual, new BasicProgressMonitor());
+
+            assertEquals(expected.getProperty(InternalProperties.TARGET_WIDTH),
+                    actual.getProperty(InternalProperties.TARGET_WIDTH));
+            for (int i = 0; i < expected.getChildren().size(); i++) {
+                assertEquals(expected.getChildren().get(i).getX(), actual.getChildren().get(i).getX(), 0);
+                assertEquals(expected.getChildren().get(i).getY(), actual.getChildren().get(i).getY(), 0);
+            }
+        }
+    }
+
+    /**
+     * Rectangles of equal size tie on several candidate positions, which must not depend on the reuse of candidates.
+     */
+    @Test
+    public void testEqualRectangles() {
+        ElkNode graph = ElkGraphUtil.createGraph();
+        graph.setProperty(RectPackingOptions.ASPECT_RATIO, 1.0);
+        graph.setProperty(RectPackingOptions.SPACING_NODE_NODE, 10.0);
+        for (int i = 0; i < 4; i++) {
+            ElkGraphUtil.createNode(graph).setDimensions(30, 30);
+        }
+        new GreedyWidthApproximator().process(graph, new BasicProgressMonitor());
+
+        // the rectangles form a square of two by two rectangles
+        assertEquals(70.0, graph.getProperty(InternalProperties.TARGET_WIDTH), 0);
+        for (ElkNode rect : graph.getChildren()) {
+            assertEquals(0, rect.getX() % 40, 0);
+            assertEquals(0, rect.getY() % 40, 0);
+        }
+    }
+
+    private ElkNode createGraph(final OptimizationGoal goal, final int rectangles) {
+        Random random = new Random(goal.ordinal());
+        ElkNode graph = ElkGraphUtil.createGraph();
+        graph.setProperty(RectPackingOptions.WIDTH_APPROXIMATION_OPTIMIZATION_GOAL, goal);
+        for (int i = 0; i < rectangles; i++) {
+            ElkGraphUtil.createNode(graph).setDimensions(5 + random.nextInt(80), 5 + random.nextInt(60));
+        }
+        return graph;
+    }
+
+}
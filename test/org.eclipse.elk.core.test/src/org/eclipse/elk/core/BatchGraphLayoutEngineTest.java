@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Kiel University and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.elk.core;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.eclipse.elk.alg.test.PlainJavaInitialization;
+import org.eclipse.elk.core.options.CoreOptions;
+import org.eclipse.elk.core.util.BasicProgressMonitor;
+import org.eclipse.elk.graph.ElkEdgeSection;
+import org.eclipse.elk.graph.ElkNode;
+import org.eclipse.elk.graph.util.ElkGraphUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Tests for {@link BatchGraphLayoutEngine}.
+ */
+public class BatchGraphLayoutEngineTest {
+
+    private ForkJoinPool pool;
+
+    @BeforeClass
+    public static void initPlainJavaLayout() {
+        PlainJavaInitialization.initializePlainJavaLayout();
+    }
+
+    @Before
+    public void createPool() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @After
+    public void shutdownPool() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void testSameLayoutAsSequential() {
+        List<ElkNode> graphs = createGraphs(30);
+        List<BatchGraphLayoutEngine.Result> results = new BatchGraphLayoutEngine(pool).layout(graphs);
+
+        assertEquals(graphs.size(), results.size());
+        List<ElkNode> expectedGraphs = createGraphs(30);
+        for (int i = 0; i < graphs.size(); i++) {
+            BatchGraphLayoutEngine.Result result = results.get(i);
+            assertSame(graphs.get(i), result.getGraph());
+            assertTrue(result.isLaidOut());
+            assertNull(result.getFailure());
+            assertTrue(result.getExecutionTime() > 0);
+
+            new RecursiveGraphLayoutEngine().layout(expectedGraphs.get(i), new BasicProgressMonitor());
+            assertLayoutEquals(expectedGraphs.get(i), graphs.get(i));
+        }
+    }
+
+    @Test
+    public void testFailingGraph() {
+        List<ElkNode> graphs = createGraphs(5);
+        graphs.get(2).setProperty(CoreOptions.ALGORITHM, "foo.Bar");
+
+        BasicProgressMonitor monitor = new BasicProgressMonitor();
+        List<BatchGraphLayoutEngine.Result> results = new BatchGraphLayoutEngine(pool).layout(graphs, monitor);
+
+        assertFalse(monitor.isRunning());
+        for (int i = 0; i < graphs.size(); i++) {
+            assertEquals(i != 2, results.get(i).isLaidOut());
+            assertTrue(graphs.get(i).getWidth() > 0 == (i != 2));
+        }
+        assertTrue(results.get(2).getFailure() instanceof UnsupportedConfigurationException);
+    }
+
+    @Test
+    public void testCanceled() {
+        List<ElkNode> graphs = createGraphs(5);
+        BasicProgressMonitor monitor = new BasicProgressMonitor() {
+            @Override
+            public boolean isCanceled() {
+                return true;
+            }
+        };
+
+        for (BatchGraphLayoutEngine.Result result : new BatchGraphLayoutEngine(pool).layout(graphs, monitor)) {
+            assertFalse(result.isLaidOut());
+            assertNull(result.getFailure());
+            assertEquals(0, result.getGraph().getWidth(), 0);
+        }
+    }
+
+    private void assertLayoutEquals(final ElkNode expected, final ElkNode actual) {
+        assertEquals(expected.getX(), actual.getX(), 0);
+        assertEquals(expected.getY(), actual.getY(), 0);
+        assertEquals(expected.getWidth(), actual.getWidth(), 0);
+        assertEquals(expected.getHeight(), actual.getHeight(), 0);
+
+        for (int i = 0; i < expected.getContainedEdges().size(); i++) {
+            List<ElkEdgeSection> expectedSections = expected.getContainedEdges().get(i).getSections();
+            List<ElkEdgeSection> actualSections = actual.getContainedEdges().get(i).getSections();
+            assertEquals(expectedSections.size(), actualSections.size());
+            for (int j = 0; j < expectedSections.size(); j++) {
+                assertEquals(expectedSections.get(j).getStartX(), actualSections.get(j).getStartX(), 0);
+                assertEquals(expectedSections.get(j).getStartY(), actualSections.get(j).getStartY(), 0);
+                assertEquals(expectedSections.get(j).getEndX(), actualSections.get(j).getEndX(), 0);
+                assertEquals(expectedSections.get(j).getEndY(), actualSections.get(j).getEndY(), 0);
+            }
+        }
+
+        assertEquals(expected.getChildren().size(), actual.getChildren().size());
+        for (int i = 0; i < expected.getChildren().size(); i++) {
+            assertLayoutEquals(expected.getChildren().get(i), actual.getChildren().get(i));
+        }
+    }
+
+    /**
+     * Creates small random graphs using different algorithms, some of them with a compound node.
+     */
+    private List<ElkNode> createGraphs(final int count) {
+        Random random = new Random(count);
+        String[] algorithms = { "org.eclipse.elk.layered", "org.eclipse.elk.box", "org.eclipse.elk.mrtree" };
+
+        List<ElkNode> graphs = Lists.newArrayList();
+        for (int i = 0; i < count; i++) {
+            ElkNode root = ElkGraphUtil.createGraph();
+            root.setProperty(CoreOptions.ALGORITHM, algorithms[i % algorithms.length]);
+            populate(root, 3 + random.nextInt(10), random);
+            if (i % 4 == 0) {
+                populate(root.getChildren().get(0), 2 + random.nextInt(5), random);
+            }
+            graphs.add(root);
+        }
+        return graphs;
+    }
+
+    private void populate(final ElkNode parent, final int nodeCount, final Random random) {
+        for (int i = 0; i < nodeCount; i++) {
+            ElkNode node = ElkGraphUtil.createNode(parent);
+            node.setDimensions(10 + random.nextInt(20), 10 + random.nextInt(20));
+            if (i > 0) {
+                ElkGraphUtil.createSimpleEdge(parent.getChildren().get(random.nextInt(i)), node);
+            }
+        }
+    }
+
+}
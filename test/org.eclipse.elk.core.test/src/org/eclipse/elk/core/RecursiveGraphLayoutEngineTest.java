@@ -11,11 +11,14 @@ package org.eclipse.elk.core;
 
 import static org.junit.Assert.*;
 
+import java.util.concurrent.ForkJoinPool;
+
 import org.eclipse.elk.alg.test.PlainJavaInitialization;
 import org.eclipse.elk.core.data.LayoutAlgorithmData;
 import org.eclipse.elk.core.data.LayoutMetaDataService;
 import org.eclipse.elk.core.options.CoreOptions;
 import org.eclipse.elk.core.util.BasicProgressMonitor;
+import org.eclipse.elk.graph.ElkEdgeSection;
 import org.eclipse.elk.graph.ElkNode;
 import org.eclipse.elk.graph.util.ElkGraphUtil;
 import org.junit.BeforeClass;
@@ -71,6 +74,76 @@ public class RecursiveGraphLayoutEngineTest {
         assertEquals("org.eclipse.elk.layered", graph.root.getProperty(CoreOptions.RESOLVED_ALGORITHM).getId());
     }
     
+    @Test
+    public void testParallelSubtreeLayout() {
+        ElkNode sequentialGraph = createHierarchicalGraph();
+        new RecursiveGraphLayoutEngine().layout(sequentialGraph, new BasicProgressMonitor());
+        
+        ElkNode parallelGraph = createHierarchicalGraph();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            new RecursiveGraphLayoutEngine(pool).layout(parallelGraph, new BasicProgressMonitor());
+        } finally {
+            pool.shutdown();
+        }
+        
+        // The parallel layout must yield exactly the same coordinates as the sequential one
+        assertLayoutEquals(sequentialGraph, parallelGraph);
+    }
+    
+    private void assertLayoutEquals(final ElkNode expected, final ElkNode actual) {
+        assertEquals(expected.getX(), actual.getX(), 0);
+        assertEquals(expected.getY(), actual.getY(), 0);
+        assertEquals(expected.getWidth(), actual.getWidth(), 0);
+        assertEquals(expected.getHeight(), actual.getHeight(), 0);
+        
+        for (int i = 0; i < expected.getContainedEdges().size(); i++) {
+            ElkEdgeSection expectedSection = expected.getContainedEdges().get(i).getSections().get(0);
+            ElkEdgeSection actualSection = actual.getContainedEdges().get(i).getSections().get(0);
+            assertEquals(expectedSection.getStartX(), actualSection.getStartX(), 0);
+            assertEquals(expectedSection.getStartY(), actualSection.getStartY(), 0);
+            assertEquals(expectedSection.getEndX(), actualSection.getEndX(), 0);
+            assertEquals(expectedSection.getEndY(), actualSection.getEndY(), 0);
+            assertEquals(expectedSection.getBendPoints().size(), actualSection.getBendPoints().size());
+        }
+        
+        assertEquals(expected.getChildren().size(), actual.getChildren().size());
+        for (int i = 0; i < expected.getChildren().size(); i++) {
+            assertLayoutEquals(expected.getChildren().get(i), actual.getChildren().get(i));
+        }
+    }
+    
+    /**
+     * Creates a graph with several compound nodes, some of which contain further compound nodes, so that there are
+     * independent subtrees on multiple hierarchy levels.
+     */
+    private ElkNode createHierarchicalGraph() {
+        ElkNode root = ElkGraphUtil.createGraph();
+        for (int i = 0; i < 6; i++) {
+            ElkNode compound = ElkGraphUtil.createNode(root);
+            populate(compound, i + 3);
+            if (i % 2 == 0) {
+                populate(ElkGraphUtil.createNode(compound), i + 2);
+            }
+        }
+        return root;
+    }
+    
+    private void populate(final ElkNode parent, final int nodeCount) {
+        ElkNode previous = null;
+        for (int i = 0; i < nodeCount; i++) {
+            ElkNode node = ElkGraphUtil.createNode(parent);
+            node.setDimensions(20 + 5 * (i % 3), 20);
+            if (previous != null) {
+                ElkGraphUtil.createSimpleEdge(previous, node);
+                if (i % 2 == 0) {
+                    ElkGraphUtil.createSimpleEdge(parent.getChildren().get(0), node);
+                }
+            }
+            previous = node;
+        }
+    }
+    
     private class Graph {
         ElkNode root;
         private ElkNode n1;
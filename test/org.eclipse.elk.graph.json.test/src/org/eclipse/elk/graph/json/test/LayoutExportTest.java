@@ -0,0 +1,152 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Kiel University and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.elk.graph.json.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringWriter;
+
+import org.eclipse.elk.alg.test.PlainJavaInitialization;
+import org.eclipse.elk.core.math.KVector;
+import org.eclipse.elk.core.math.KVectorChain;
+import org.eclipse.elk.core.options.CoreOptions;
+import org.eclipse.elk.graph.ElkEdge;
+import org.eclipse.elk.graph.ElkEdgeSection;
+import org.eclipse.elk.graph.ElkLabel;
+import org.eclipse.elk.graph.ElkNode;
+import org.eclipse.elk.graph.ElkPort;
+import org.eclipse.elk.graph.json.ElkGraphJson;
+import org.eclipse.elk.graph.util.ElkGraphUtil;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * Tests the export of nothing but the layout of a graph.
+ */
+public class LayoutExportTest {
+
+    @BeforeClass
+    public static void init() {
+        PlainJavaInitialization.initializePlainJavaLayout();
+    }
+
+    @Test
+    public void testShapes() {
+        ElkNode graph = ElkGraphJson.forGraph("{ id: root, layoutOptions: { 'elk.direction': DOWN }, children: ["
+                + "  { id: a, width: 30, height: 20, labels: [ { text: 'first' }, { text: 'second' } ],"
+                + "    ports: [ { id: ap, x: 30, y: 5 } ] },"
+                + "  { id: b, x: 50, children: [ { id: c, x: 1, y: 2, width: 3, height: 4 } ] }"
+                + "] }").toElk();
+        graph.getChildren().get(0).getLabels().get(1).setLocation(5, 6);
+
+        JsonObject layout = toLayout(ElkGraphJson.forGraph(graph));
+        assertEquals(3, layout.size());
+
+        JsonObject nodes = layout.getAsJsonObject("nodes");
+        assertEquals(4, nodes.size());
+        assertBounds(nodes.getAsJsonObject("root"), 0, 0, 0, 0);
+        assertBounds(nodes.getAsJsonObject("a"), 0, 0, 30, 20);
+        assertBounds(nodes.getAsJsonObject("b"), 50, 0, 0, 0);
+        assertBounds(nodes.getAsJsonObject("c"), 1, 2, 3, 4);
+
+        JsonArray labels = nodes.getAsJsonObject("a").getAsJsonArray("labels");
+        assertEquals(2, labels.size());
+        assertBounds(labels.get(0).getAsJsonObject(), 0, 0, 0, 0);
+        assertBounds(labels.get(1).getAsJsonObject(), 5, 6, 0, 0);
+
+        JsonObject ports = layout.getAsJsonObject("ports");
+        assertEquals(1, ports.size());
+        assertBounds(ports.getAsJsonObject("ap"), 30, 5, 0, 0);
+    }
+
+    @Test
+    public void testEdges() {
+        ElkNode graph = ElkGraphUtil.createGraph();
+        ElkNode node1 = ElkGraphUtil.createNode(graph);
+        ElkNode node2 = ElkGraphUtil.createNode(graph);
+        ElkPort port = ElkGraphUtil.createPort(node2);
+        ElkEdge edge = ElkGraphUtil.createSimpleEdge(node1, port);
+        edge.setProperty(CoreOptions.JUNCTION_POINTS, new KVectorChain(new KVector(7, 8)));
+        edge.setProperty(CoreOptions.EDGE_THICKNESS, 2.0);
+        ElkEdgeSection section = ElkGraphUtil.createEdgeSection(edge);
+        section.setStartLocation(1, 2);
+        section.setEndLocation(3, 4);
+        ElkGraphUtil.createBendPoint(section, 5, 6);
+        section.setIncomingShape(node1);
+        section.setOutgoingShape(port);
+        ElkLabel label = ElkGraphUtil.createLabel("label", edge);
+        label.setDimensions(10, 5);
+        ElkGraphUtil.createSimpleEdge(node2, node1);
+
+        JsonObject layout = toLayout(ElkGraphJson.forGraph(graph));
+
+        // unnamed elements get the same ids as in the complete export
+        JsonObject nodes = layout.getAsJsonObject("nodes");
+        assertEquals(3, nodes.size());
+        assertTrue(nodes.has("n0") && nodes.has("n1") && nodes.has("n2"));
+        assertTrue(layout.getAsJsonObject("ports").has("p0"));
+
+        JsonObject edges = layout.getAsJsonObject("edges");
+        assertEquals(2, edges.size());
+        assertEquals(0, edges.getAsJsonObject("e1").size());
+
+        JsonObject edgeLayout = edges.getAsJsonObject("e0");
+        assertFalse(edgeLayout.has("layoutOptions"));
+        assertEquals(JsonParser.parseString("[ { id: s0, startPoint: { x: 1.0, y: 2.0 }, endPoint: { x: 3.0, y: 4.0 },"
+                + " bendPoints: [ { x: 5.0, y: 6.0 } ], incomingShape: n1, outgoingShape: p0 } ]"),
+                edgeLayout.get("sections"));
+        assertEquals(JsonParser.parseString("[ { x: 7.0, y: 8.0 } ]"), edgeLayout.get("junctionPoints"));
+        assertBounds(edgeLayout.getAsJsonArray("labels").get(0).getAsJsonObject(), 0, 0, 10, 5);
+
+        JsonObject complete = JsonParser.parseString(ElkGraphJson.forGraph(graph).toJson()).getAsJsonObject();
+        assertEquals(complete.getAsJsonArray("edges").get(0).getAsJsonObject().get("sections"),
+                edgeLayout.get("sections"));
+    }
+
+    @Test
+    public void testIgnoresConfiguration() {
+        ElkNode graph = ElkGraphUtil.createGraph();
+        ElkNode node = ElkGraphUtil.createNode(graph);
+        ElkEdge edge = ElkGraphUtil.createSimpleEdge(node, node);
+        ElkGraphUtil.createEdgeSection(edge);
+
+        String expected = ElkGraphJson.forGraph(graph).toLayoutJson();
+        assertEquals(expected, ElkGraphJson.forGraph(graph)
+                .omitLayout(true)
+                .omitZeroDimension(true)
+                .omitZeroPositions(true)
+                .toLayoutJson());
+        assertEquals(JsonParser.parseString(expected), toLayout(ElkGraphJson.forGraph(graph).prettyPrint(true)));
+    }
+
+    private JsonObject toLayout(final ElkGraphJson.ExportBuilder exportBuilder) {
+        StringWriter writer = new StringWriter();
+        exportBuilder.toLayoutJson(writer);
+        assertEquals(exportBuilder.toLayoutJson(), writer.toString());
+        return JsonParser.parseString(writer.toString()).getAsJsonObject();
+    }
+
+    private void assertBounds(final JsonObject bounds, final double x, final double y, final double width,
+            final double height) {
+
+        assertEquals(4, bounds.size() - (bounds.has("labels") ? 1 : 0));
+        assertEquals(x, bounds.get("x").getAsDouble(), 0);
+        assertEquals(y, bounds.get("y").getAsDouble(), 0);
+        assertEquals(width, bounds.get("width").getAsDouble(), 0);
+        assertEquals(height, bounds.get("height").getAsDouble(), 0);
+    }
+
+}
@@ -0,0 +1,279 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Kiel University and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.elk.graph.json.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.elk.alg.test.PlainJavaInitialization;
+import org.eclipse.elk.core.math.KVector;
+import org.eclipse.elk.core.math.KVectorChain;
+import org.eclipse.elk.core.options.CoreOptions;
+import org.eclipse.elk.core.options.Direction;
+import org.eclipse.elk.core.util.IndividualSpacings;
+import org.eclipse.elk.core.util.Maybe;
+import org.eclipse.elk.graph.ElkConnectableShape;
+import org.eclipse.elk.graph.ElkEdge;
+import org.eclipse.elk.graph.ElkEdgeSection;
+import org.eclipse.elk.graph.ElkNode;
+import org.eclipse.elk.graph.json.ElkGraphJson;
+import org.eclipse.elk.graph.json.JsonImportException;
+import org.eclipse.elk.graph.json.JsonImporter;
+import org.eclipse.elk.graph.properties.Property;
+import org.eclipse.elk.graph.util.ElkGraphUtil;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Tests that reading graphs from a reader and writing them to a writer yields the same results as going through json
+ * objects.
+ */
+public class StreamingTest {
+
+    @BeforeClass
+    public static void init() {
+        PlainJavaInitialization.initializePlainJavaLayout();
+    }
+
+    ///////////////////////////////////////////////////////////////////////////////
+    // Import
+
+    /**
+     * Edges that are listed before the nodes they connect, and edges that connect nodes of different hierarchy
+     * levels, which end up being contained in a different node than the one listing them.
+     */
+    @Test
+    public void testForwardReferences() {
+        assertSameImport("{ id: root, edges: ["
+                + "  { id: e1, sources: [ a1 ], targets: [ b ] },"
+                + "  { id: e2, source: b, target: a2 }"
+                + "], children: ["
+                + "  { id: a, edges: [ { id: e3, sources: [ a1 ], targets: [ a2 ] },"
+                + "    { id: e4, source: a2, target: b } ],"
+                + "    children: [ { id: a1 }, { id: a2 } ] },"
+                + "  { id: b, edges: [ { id: e5, sources: [ a1 ], targets: [ a2 ] } ] }"
+                + "] }");
+    }
+
+    /**
+     * Ports, labels, layout options, and members in unusual orders.
+     */
+    @Test
+    public void testElements() {
+        assertSameImport("{ x: 3, layoutOptions: { 'elk.direction': DOWN }, id: 1,"
+                + "  children: ["
+                + "    { individualSpacings: { 'spacing.nodeNode': 4 }, id: 2, width: 30, height: 20,"
+                + "      layoutOptions: { 'spacing.nodeNode': 10,"
+                + "        'org.eclipse.elk.padding': '[top=1,left=2,bottom=3,right=4]',"
+                + "        unknown: true, 'nodeLabels.placement': 'INSIDE V_TOP H_LEFT' },"
+                + "      ports: [ { id: 'p1', x: 30, y: 5, labels: [ { text: 'port' } ] }, { id: p2, width: 1e1 } ],"
+                + "      labels: [ { id: l1, text: 'node', width: 15, height: 10 },"
+                + "        { layoutOptions: {}, x: 'NaN' } ] },"
+                + "    { id: 3, properties: { direction: UP }, layoutOptions: { direction: LEFT } },"
+                + "    { id: 4, properties: { direction: UP } }"
+                + "  ],"
+                + "  edges: ["
+                + "    { id: 5, labels: [ { text: 'edge', layoutOptions: { 'edgeLabels.inline': true } } ],"
+                + "      sources: [ p1 ], targets: [ 3 ] },"
+                + "    { id: 6, source: 2, sourcePort: p2, target: 4, layoutOptions: { 'edge.thickness': 2.0 } }"
+                + "  ] }");
+    }
+
+    /**
+     * Edge routes in both the primitive and the section based format. Sections are connected to at most one section in
+     * each direction since the order of several such connections is not defined.
+     */
+    @Test
+    public void testEdgeRoutes() {
+        assertSameImport("{ id: root, children: [ { id: a, ports: [ { id: ap } ] }, { id: b }, { id: c } ], edges: ["
+                + "  { id: e1, source: a, sourcePort: ap, target: b,"
+                + "    sourcePoint: { x: 1, y: 2 }, targetPoint: { x: 3, y: 4 }, bendPoints: [ { x: 5, y: 6 } ] },"
+                + "  { id: e2, source: a, target: c, bendPoints: [ { x: 7, y: 8 }, { x: 9, y: 10 } ] },"
+                + "  { id: e3, sources: [ a ], targets: [ b ],"
+                + "    sections: [ { id: sec1, startPoint: { x: 1, y: 2 }, endPoint: { x: 3, y: 4 } } ] },"
+                + "  { id: e4, sources: [ a, ap ], targets: [ b, c ], sections: ["
+                + "    { id: sec4, startPoint: { x: 0, y: 0 }, endPoint: { x: 1, y: 1 }, incomingShape: a },"
+                + "    { id: sec2, incomingSections: [ sec4 ], outgoingShape: b, endPoint: { x: 5, y: 5 },"
+                + "      startPoint: { x: 1, y: 1 }, bendPoints: [ { y: 3, x: 2 } ] },"
+                + "    { id: sec3, startPoint: { x: 1, y: 1 }, endPoint: { x: 6, y: 6 }, incomingShape: ap,"
+                + "      outgoingSections: [ sec5 ] },"
+                + "    { id: sec5, startPoint: { x: 0, y: 0 }, endPoint: { x: 1, y: 1 }, outgoingSections: [ sec6 ] },"
+                + "    { id: sec6, startPoint: { x: 0, y: 0 }, endPoint: { x: 1, y: 1 }, outgoingShape: c,"
+                + "      incomingSections: [ sec5 ] }"
+                + "  ] }"
+                + "] }");
+    }
+
+    /**
+     * Larger random graphs with hierarchy.
+     */
+    @Test
+    public void testRandomGraphs() {
+        for (int seed = 0; seed < 5; seed++) {
+            assertSameImport(ElkGraphJson.forGraph(createRandomGraph(new Random(seed))).toJson());
+        }
+    }
+
+    @Test(expected = JsonImportException.class)
+    public void testNoId() {
+        importStreaming("{ children: [ { id: a }, { } ] }");
+    }
+
+    @Test(expected = JsonImportException.class)
+    public void testWrongIdType() {
+        importStreaming("{ id: 1.5 }");
+    }
+
+    @Test(expected = JsonImportException.class)
+    public void testNoObject() {
+        importStreaming("[ { id: root } ]");
+    }
+
+    @Test(expected = JsonImportException.class)
+    public void testMissingShape() {
+        importStreaming("{ id: root, children: [ { id: a } ], edges: [ { id: e, sources: [ a ], targets: [ b ] } ] }");
+    }
+
+    @Test(expected = JsonImportException.class)
+    public void testMissingStartPoint() {
+        importStreaming("{ id: root, children: [ { id: a } ], edges: [ { id: e, sources: [ a ], targets: [ a ],"
+                + " sections: [ { id: s, endPoint: { x: 1, y: 1 } } ] } ] }");
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testRememberImporter() {
+        Maybe<JsonImporter> importer = Maybe.create();
+        ElkGraphJson.forGraph(new StringReader("{ id: root }")).rememberImporter(importer).toElk();
+    }
+
+    ///////////////////////////////////////////////////////////////////////////////
+    // Export
+
+    @Test
+    public void testExport() {
+        for (int seed = 0; seed < 5; seed++) {
+            ElkNode graph = createRandomGraph(new Random(seed));
+            assertSameExport(ElkGraphJson.forGraph(graph));
+            assertSameExport(ElkGraphJson.forGraph(graph).prettyPrint(true));
+            assertSameExport(ElkGraphJson.forGraph(graph).omitLayout(true).omitZeroPositions(false));
+            assertSameExport(ElkGraphJson.forGraph(graph).omitZeroDimension(false).shortLayoutOptionKeys(false)
+                    .omitUnknownLayoutOptions(false));
+        }
+    }
+
+    @Test
+    public void testExportUnnamedElements() {
+        ElkNode graph = ElkGraphUtil.createGraph();
+        ElkNode node1 = ElkGraphUtil.createNode(graph);
+        ElkNode node2 = ElkGraphUtil.createNode(graph);
+        node2.setIdentifier("foo");
+        ElkGraphUtil.createSimpleEdge(ElkGraphUtil.createPort(node1), node2);
+        ElkGraphUtil.createLabel(null, node1);
+
+        assertSameExport(ElkGraphJson.forGraph(graph));
+    }
+
+    ///////////////////////////////////////////////////////////////////////////////
+    // Utilities
+
+    private ElkNode importStreaming(final String json) {
+        return ElkGraphJson.forGraph(new StringReader(json)).toElk();
+    }
+
+    /**
+     * Imports the given json both ways and compares the complete export of the resulting graphs.
+     */
+    private void assertSameImport(final String json) {
+        ElkNode expected = ElkGraphJson.forGraph(json).toElk();
+        ElkNode actual = importStreaming(json);
+
+        assertEquals(exportEverything(expected), exportEverything(actual));
+    }
+
+    /**
+     * Exports through a writer since, unlike the json object export, it also supports sections that are connected to
+     * sections which are exported after them.
+     */
+    private String exportEverything(final ElkNode graph) {
+        StringWriter writer = new StringWriter();
+        ElkGraphJson.forGraph(graph)
+                .omitZeroPositions(false)
+                .omitZeroDimension(false)
+                .shortLayoutOptionKeys(false)
+                .omitUnknownLayoutOptions(false)
+                .prettyPrint(true)
+                .toJson(writer);
+        return writer.toString();
+    }
+
+    private void assertSameExport(final ElkGraphJson.ExportBuilder exportBuilder) {
+        StringWriter writer = new StringWriter();
+        exportBuilder.toJson(writer);
+        assertEquals(exportBuilder.toJson(), writer.toString());
+    }
+
+    private ElkNode createRandomGraph(final Random random) {
+        ElkNode graph = ElkGraphUtil.createGraph();
+        graph.setProperty(CoreOptions.DIRECTION, Direction.RIGHT);
+
+        List<ElkNode> nodes = new ArrayList<>();
+        List<ElkConnectableShape> shapes = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            ElkNode parent = nodes.isEmpty() || random.nextInt(3) > 0 ? graph : nodes.get(random.nextInt(nodes.size()));
+            ElkNode node = ElkGraphUtil.createNode(parent);
+            node.setDimensions(random.nextInt(50), random.nextInt(50));
+            node.setLocation(random.nextDouble() * 100, random.nextInt(3) * 10);
+            if (random.nextBoolean()) {
+                node.setIdentifier("node" + i);
+            }
+            if (random.nextInt(4) == 0) {
+                ElkGraphUtil.createLabel("label " + i, node).setDimensions(20, 10);
+            }
+            if (random.nextInt(4) == 0) {
+                IndividualSpacings spacings = new IndividualSpacings();
+                spacings.setProperty(CoreOptions.SPACING_NODE_NODE, 5.0);
+                node.setProperty(CoreOptions.SPACING_INDIVIDUAL, spacings);
+                node.setProperty(new Property<Integer>("foo.bar.dummy"), i);
+            }
+            nodes.add(node);
+            shapes.add(node);
+
+            for (int j = random.nextInt(3); j > 0; j--) {
+                shapes.add(ElkGraphUtil.createPort(node));
+            }
+        }
+
+        for (int i = 0; i < 80; i++) {
+            ElkConnectableShape source = shapes.get(random.nextInt(shapes.size()));
+            ElkConnectableShape target = shapes.get(random.nextInt(shapes.size()));
+            ElkEdge edge = ElkGraphUtil.createSimpleEdge(source, target);
+            if (random.nextBoolean()) {
+                ElkEdgeSection section = ElkGraphUtil.createEdgeSection(edge);
+                section.setStartLocation(random.nextInt(100), random.nextInt(100));
+                section.setEndLocation(random.nextInt(100), random.nextInt(100));
+                ElkGraphUtil.createBendPoint(section, random.nextDouble(), random.nextDouble());
+                section.setIncomingShape(source);
+                section.setOutgoingShape(target);
+            }
+            if (random.nextInt(4) == 0) {
+                edge.setProperty(CoreOptions.JUNCTION_POINTS, new KVectorChain(new KVector(1, 2)));
+                ElkGraphUtil.createLabel("edge " + i, edge);
+            }
+        }
+
+        return graph;
+    }
+
+}
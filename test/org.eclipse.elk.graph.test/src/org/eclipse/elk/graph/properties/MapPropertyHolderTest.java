@@ -0,0 +1,251 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Kiel University and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.elk.graph.properties;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Tests for the {@link MapPropertyHolder} class.
+ */
+public class MapPropertyHolderTest {
+
+    private static final int MANY = 50;
+
+    @Test
+    public void testDefaultValue() {
+        MapPropertyHolder holder = new MapPropertyHolder();
+        IProperty<Integer> property = new Property<>("test.default", 3);
+
+        assertEquals(3, (int) holder.getProperty(property));
+        assertFalse(holder.hasProperty(property));
+        assertTrue(holder.getAllProperties().isEmpty());
+    }
+
+    @Test
+    public void testSetAndRemove() {
+        MapPropertyHolder holder = new MapPropertyHolder();
+        IProperty<String> property = new Property<>("test.setAndRemove");
+
+        holder.setProperty(property, "value");
+        assertTrue(holder.hasProperty(property));
+        assertEquals("value", holder.getProperty(property));
+
+        holder.setProperty(property, null);
+        assertFalse(holder.hasProperty(property));
+        assertNull(holder.getProperty(property));
+    }
+
+    @Test
+    public void testPropertiesWithSameId() {
+        MapPropertyHolder holder = new MapPropertyHolder();
+        IProperty<Integer> property = new Property<>("test.sameId", 1);
+        IProperty<Integer> other = new Property<>(property, 2);
+
+        holder.setProperty(property, 5);
+        assertEquals(5, (int) holder.getProperty(other));
+    }
+
+    @Test
+    public void testManyProperties() {
+        MapPropertyHolder holder = new MapPropertyHolder();
+        Map<IProperty<?>, Object> expected = new HashMap<>();
+        for (int i = 0; i < MANY; i++) {
+            IProperty<Integer> property = new Property<>("test.many." + i);
+            holder.setProperty(property, i);
+            expected.put(property, i);
+        }
+
+        // Remove every third property, which moves others around
+        for (int i = 0; i < MANY; i += 3) {
+            IProperty<Integer> property = new Property<>("test.many." + i);
+            holder.setProperty(property, null);
+            expected.remove(property);
+        }
+
+        for (int i = 0; i < MANY; i++) {
+            IProperty<Integer> property = new Property<>("test.many." + i);
+            assertEquals(expected.get(property), holder.getProperty(property));
+        }
+        assertEquals(expected, holder.getAllProperties());
+    }
+
+    @Test
+    public void testCopyProperties() {
+        MapPropertyHolder source = new MapPropertyHolder();
+        MapPropertyHolder target = new MapPropertyHolder();
+        IProperty<String> shared = new Property<>("test.copy.shared");
+        IProperty<String> sourceOnly = new Property<>("test.copy.source");
+        IProperty<String> targetOnly = new Property<>("test.copy.target");
+
+        source.setProperty(shared, "source");
+        source.setProperty(sourceOnly, "source");
+        target.setProperty(shared, "target");
+        target.setProperty(targetOnly, "target");
+        target.copyProperties(source);
+
+        assertEquals("source", target.getProperty(shared));
+        assertEquals("source", target.getProperty(sourceOnly));
+        assertEquals("target", target.getProperty(targetOnly));
+        assertEquals(3, target.getAllProperties().size());
+    }
+
+    @Test
+    public void testCopyIntoEmptyHolder() {
+        MapPropertyHolder source = new MapPropertyHolder();
+        for (int i = 0; i < MANY; i++) {
+            source.setProperty(new Property<Integer>("test.copyEmpty." + i), i);
+        }
+        MapPropertyHolder target = new MapPropertyHolder().copyProperties(source);
+        assertEquals(source.getAllProperties(), target.getAllProperties());
+
+        // the holders must not share their storage
+        IProperty<Integer> first = new Property<>("test.copyEmpty.0");
+        IProperty<Integer> added = new Property<>("test.copyEmpty.added");
+        target.setProperty(first, -1);
+        target.setProperty(added, -1);
+        source.setProperty(new Property<Integer>("test.copyEmpty.1"), null);
+        assertEquals(0, (int) source.getProperty(first));
+        assertFalse(source.hasProperty(added));
+        assertEquals(1, (int) target.getProperty(new Property<Integer>("test.copyEmpty.1")));
+        assertEquals(MANY + 1, target.getAllProperties().size());
+    }
+
+    @Test
+    public void testAllPropertiesWriteThrough() {
+        MapPropertyHolder holder = new MapPropertyHolder();
+        IProperty<String> first = new Property<>("test.writeThrough.first");
+        IProperty<String> second = new Property<>("test.writeThrough.second");
+
+        // the view of an empty holder writes through as well
+        Map<IProperty<?>, Object> properties = holder.getAllProperties();
+        properties.put(first, "first");
+        assertEquals("first", holder.getProperty(first));
+
+        holder.setProperty(second, "second");
+        assertEquals("second", properties.get(second));
+        assertEquals(2, properties.size());
+
+        properties.remove(first);
+        assertFalse(holder.hasProperty(first));
+
+        for (Map.Entry<IProperty<?>, Object> entry : properties.entrySet()) {
+            entry.setValue("changed");
+        }
+        assertEquals("changed", holder.getProperty(second));
+
+        properties.clear();
+        assertFalse(holder.hasProperty(second));
+        assertTrue(holder.getAllProperties().isEmpty());
+    }
+
+    @Test
+    public void testIteratorRemove() {
+        MapPropertyHolder holder = new MapPropertyHolder();
+        for (int i = 0; i < MANY; i++) {
+            holder.setProperty(new Property<Integer>("test.iteratorRemove." + i), i);
+        }
+
+        // remove the even values while iterating, which moves the last property into the removed one's place
+        Iterator<Object> iterator = holder.getAllProperties().values().iterator();
+        while (iterator.hasNext()) {
+            if ((Integer) iterator.next() % 2 == 0) {
+                iterator.remove();
+            }
+        }
+
+        assertEquals(MANY / 2, holder.getAllProperties().size());
+        for (int i = 0; i < MANY; i++) {
+            IProperty<Integer> property = new Property<>("test.iteratorRemove." + i);
+            assertEquals(i % 2 != 0, holder.hasProperty(property));
+        }
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        MapPropertyHolder holder = new MapPropertyHolder();
+        for (int i = 0; i < MANY; i++) {
+            holder.setProperty(new SerializableProperty("test.serialization." + i), i);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(holder);
+        }
+        MapPropertyHolder copy;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = (MapPropertyHolder) in.readObject();
+        }
+        assertEquals(holder.getAllProperties(), copy.getAllProperties());
+
+        // the serialized form is the one of the holders that stored their properties in a hash map
+        ObjectStreamClass streamClass = ObjectStreamClass.lookup(MapPropertyHolder.class);
+        assertEquals(4507851447415709893L, streamClass.getSerialVersionUID());
+        assertEquals(1, streamClass.getFields().length);
+        assertEquals("propertyMap", streamClass.getFields()[0].getName());
+        assertEquals(HashMap.class, streamClass.getFields()[0].getType());
+    }
+
+    /**
+     * A property that can be serialized, unlike {@link Property}.
+     */
+    private static final class SerializableProperty implements IProperty<Integer>, Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String id;
+
+        SerializableProperty(final String id) {
+            this.id = id;
+        }
+
+        @Override
+        public Integer getDefault() {
+            return null;
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public Comparable<? super Integer> getLowerBound() {
+            return null;
+        }
+
+        @Override
+        public Comparable<? super Integer> getUpperBound() {
+            return null;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return obj instanceof IProperty<?> && id.equals(((IProperty<?>) obj).getId());
+        }
+
+        @Override
+        public int hashCode() {
+            return id.hashCode();
+        }
+    }
+
+}
@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Kiel University and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.elk.graph.properties;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+/**
+ * Tests for the {@link PropertyOrdinals} class.
+ */
+public class PropertyOrdinalsTest {
+
+    private static final int IDS = 500;
+    private static final int THREADS = 8;
+
+    /**
+     * Threads registering the same identifiers concurrently must agree on a distinct ordinal per identifier.
+     */
+    @Test
+    public void testConcurrentRegistration() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<int[]>> results = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int offset = t;
+                results.add(executor.submit(() -> {
+                    // each thread starts at a different identifier to make the threads race for new ones
+                    int[] ordinals = new int[IDS];
+                    for (int i = 0; i < IDS; i++) {
+                        int id = (i + offset * IDS / THREADS) % IDS;
+                        ordinals[id] = PropertyOrdinals.register("test.ordinals.concurrent." + id);
+                    }
+                    return ordinals;
+                }));
+            }
+
+            int[] expected = results.get(0).get();
+            for (Future<int[]> result : results) {
+                assertArrayEquals(expected, result.get());
+            }
+            Set<Integer> distinct = new HashSet<>();
+            for (int ordinal : expected) {
+                distinct.add(ordinal);
+            }
+            assertEquals(IDS, distinct.size());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Property instances with the same identifier share their ordinal with other kinds of properties.
+     */
+    @Test
+    public void testSameIdSameOrdinal() {
+        Property<Integer> property = new Property<>("test.ordinals.same");
+        Property<Integer> copy = new Property<>(property, 1);
+        assertEquals(PropertyOrdinals.register("test.ordinals.same"), PropertyOrdinals.of(property));
+        assertEquals(PropertyOrdinals.of(property), PropertyOrdinals.of(copy));
+    }
+
+}